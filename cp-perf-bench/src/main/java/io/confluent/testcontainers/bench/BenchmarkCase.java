@@ -0,0 +1,49 @@
+package io.confluent.testcontainers.bench;
+
+import java.util.Locale;
+
+/**
+ * One cell of the matrix: a value format and size, sent with an acks level and a batch size
+ */
+public class BenchmarkCase {
+
+    private final ValueFormat format;
+    private final int recordSize;
+    private final String acks;
+    private final int batchSize;
+
+    public BenchmarkCase(ValueFormat format, int recordSize, String acks, int batchSize) {
+        this.format = format;
+        this.recordSize = recordSize;
+        this.acks = acks;
+        this.batchSize = batchSize;
+    }
+
+    public ValueFormat getFormat() {
+        return format;
+    }
+
+    public int getRecordSize() {
+        return recordSize;
+    }
+
+    public String getAcks() {
+        return acks;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * @return a topic per case, the subjects of the Schema Registry formats do not collide
+     */
+    public String topic() {
+        return String.format("bench-%s-%d-acks%s-batch%d", format.name().toLowerCase(Locale.ROOT), recordSize, acks, batchSize);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %dB acks=%s batch.size=%d", format, recordSize, acks, batchSize);
+    }
+}
@@ -0,0 +1,96 @@
+package io.confluent.testcontainers.bench;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Results of a benchmark run with what is needed to compare runs: the images of the cluster, the client version and
+ * the settings common to all the cases
+ */
+@JsonPropertyOrder({"startedAt", "clientVersion", "images", "brokers", "records", "warmupRecords", "lingerMs", "results"})
+public class BenchmarkReport {
+
+    private final String startedAt;
+    private final String clientVersion;
+    private final Map<String, String> images = new LinkedHashMap<>();
+    private final BenchmarkSettings settings;
+    private final List<BenchmarkResult> results = new ArrayList<>();
+
+    public BenchmarkReport(String startedAt, String clientVersion, BenchmarkSettings settings) {
+        this.startedAt = startedAt;
+        this.clientVersion = clientVersion;
+        this.settings = settings;
+    }
+
+    void addImage(String container, String image) {
+        images.put(container, image);
+    }
+
+    void addResult(BenchmarkResult result) {
+        results.add(result);
+    }
+
+    public String getStartedAt() {
+        return startedAt;
+    }
+
+    public String getClientVersion() {
+        return clientVersion;
+    }
+
+    public Map<String, String> getImages() {
+        return Collections.unmodifiableMap(images);
+    }
+
+    public int getBrokers() {
+        return settings.getBrokers();
+    }
+
+    public long getRecords() {
+        return settings.getRecords();
+    }
+
+    public long getWarmupRecords() {
+        return settings.getWarmupRecords();
+    }
+
+    public int getLingerMs() {
+        return settings.getLingerMs();
+    }
+
+    public List<BenchmarkResult> getResults() {
+        return Collections.unmodifiableList(results);
+    }
+
+    public void write(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        new ObjectMapper()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(file.toFile(), this);
+    }
+
+    /**
+     * @return one line per case, in the order of the matrix
+     */
+    public String toTable() {
+        StringBuilder table = new StringBuilder(String.format("%-10s %8s %5s %8s %12s %9s %9s %9s %9s%n",
+                "format", "size(B)", "acks", "batch", "records/s", "MB/s", "p50(ms)", "p99(ms)", "p999(ms)"));
+        for (BenchmarkResult result : results) {
+            table.append(String.format("%-10s %8d %5s %8d %12.0f %9.2f %9.2f %9.2f %9.2f%n",
+                    result.getFormat(), result.getRecordSize(), result.getAcks(), result.getBatchSize(),
+                    result.getRecordsPerSecond(), result.getMegabytesPerSecond(),
+                    result.getP50Ms(), result.getP99Ms(), result.getP999Ms()));
+        }
+        return table.toString();
+    }
+}
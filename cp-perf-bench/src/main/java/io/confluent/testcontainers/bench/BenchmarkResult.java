@@ -0,0 +1,92 @@
+package io.confluent.testcontainers.bench;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Measure of a {@link BenchmarkCase}, the warm-up records are not counted. Latencies are from send to ack, in
+ * milliseconds with a microsecond resolution.
+ */
+@JsonPropertyOrder({"format", "recordSize", "acks", "batchSize", "records", "bytes", "elapsedMs", "recordsPerSecond",
+        "megabytesPerSecond", "p50Ms", "p99Ms", "p999Ms", "maxMs"})
+public class BenchmarkResult {
+
+    private final BenchmarkCase benchmarkCase;
+    private final long records;
+    private final long bytes;
+    private final long elapsedNanos;
+    private final double p50Ms;
+    private final double p99Ms;
+    private final double p999Ms;
+    private final double maxMs;
+
+    BenchmarkResult(BenchmarkCase benchmarkCase, long records, long bytes, long elapsedNanos, Histogram latencyMicros) {
+        this.benchmarkCase = benchmarkCase;
+        this.records = records;
+        this.bytes = bytes;
+        this.elapsedNanos = elapsedNanos;
+        this.p50Ms = latencyMicros.getValueAtPercentile(50) / 1000.0;
+        this.p99Ms = latencyMicros.getValueAtPercentile(99) / 1000.0;
+        this.p999Ms = latencyMicros.getValueAtPercentile(99.9) / 1000.0;
+        this.maxMs = latencyMicros.getMaxValue() / 1000.0;
+    }
+
+    public ValueFormat getFormat() {
+        return benchmarkCase.getFormat();
+    }
+
+    public int getRecordSize() {
+        return benchmarkCase.getRecordSize();
+    }
+
+    public String getAcks() {
+        return benchmarkCase.getAcks();
+    }
+
+    public int getBatchSize() {
+        return benchmarkCase.getBatchSize();
+    }
+
+    public long getRecords() {
+        return records;
+    }
+
+    /**
+     * @return serialized size of the values, as reported by the producer
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getElapsedMs() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    public double getRecordsPerSecond() {
+        return records / seconds();
+    }
+
+    public double getMegabytesPerSecond() {
+        return bytes / (1024.0 * 1024.0) / seconds();
+    }
+
+    public double getP50Ms() {
+        return p50Ms;
+    }
+
+    public double getP99Ms() {
+        return p99Ms;
+    }
+
+    public double getP999Ms() {
+        return p999Ms;
+    }
+
+    public double getMaxMs() {
+        return maxMs;
+    }
+
+    private double seconds() {
+        return Math.max(1, elapsedNanos) / 1_000_000_000.0;
+    }
+}
@@ -0,0 +1,102 @@
+package io.confluent.testcontainers.bench;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The matrix of the producer benchmark and the settings common to all its cases, read from the {@code bench.*}
+ * system properties. Lists are comma separated.
+ * <ul>
+ *     <li>bench.formats: value formats, STRING,JSON_SR,AVRO,PROTOBUF by default</li>
+ *     <li>bench.recordSizes: serialized value sizes in bytes, 100,1024,10240 by default</li>
+ *     <li>bench.acks: 1,all by default</li>
+ *     <li>bench.batchSizes: batch.size in bytes, 16384,131072 by default</li>
+ *     <li>bench.records: measured records per case, 200000 by default</li>
+ *     <li>bench.warmupRecords: records sent before the measure of each case, 20000 by default</li>
+ *     <li>bench.lingerMs: linger.ms of all the cases, 5 by default</li>
+ *     <li>bench.maxInFlight: records sent and not acknowledged yet, 20000 by default</li>
+ *     <li>bench.brokers: brokers of the cluster, 1 by default, use 3 to measure acks=all with replication</li>
+ *     <li>bench.outputDir: directory of the JSON report, target/perf-bench by default</li>
+ * </ul>
+ */
+public class BenchmarkSettings {
+
+    private final List<ValueFormat> formats;
+    private final List<Integer> recordSizes;
+    private final List<String> acks;
+    private final List<Integer> batchSizes;
+    private final long records;
+    private final long warmupRecords;
+    private final int lingerMs;
+    private final int maxInFlight;
+    private final int brokers;
+    private final Path outputDir;
+
+    public BenchmarkSettings(Properties properties) {
+        this.formats = list(properties, "bench.formats", "STRING,JSON_SR,AVRO,PROTOBUF", ValueFormat::valueOf);
+        this.recordSizes = list(properties, "bench.recordSizes", "100,1024,10240", Integer::valueOf);
+        this.acks = list(properties, "bench.acks", "1,all", Function.identity());
+        this.batchSizes = list(properties, "bench.batchSizes", "16384,131072", Integer::valueOf);
+        this.records = Long.parseLong(properties.getProperty("bench.records", "200000"));
+        this.warmupRecords = Long.parseLong(properties.getProperty("bench.warmupRecords", "20000"));
+        this.lingerMs = Integer.parseInt(properties.getProperty("bench.lingerMs", "5"));
+        this.maxInFlight = Integer.parseInt(properties.getProperty("bench.maxInFlight", "20000"));
+        this.brokers = Integer.parseInt(properties.getProperty("bench.brokers", "1"));
+        this.outputDir = Paths.get(properties.getProperty("bench.outputDir", "target/perf-bench"));
+    }
+
+    /**
+     * @return every combination of format, record size, acks and batch size, grouped by format
+     */
+    public List<BenchmarkCase> cases() {
+        List<BenchmarkCase> cases = new ArrayList<>();
+        for (ValueFormat format : formats) {
+            for (int recordSize : recordSizes) {
+                for (String ack : acks) {
+                    for (int batchSize : batchSizes) {
+                        cases.add(new BenchmarkCase(format, recordSize, ack, batchSize));
+                    }
+                }
+            }
+        }
+        return cases;
+    }
+
+    public long getRecords() {
+        return records;
+    }
+
+    public long getWarmupRecords() {
+        return warmupRecords;
+    }
+
+    public int getLingerMs() {
+        return lingerMs;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public int getBrokers() {
+        return brokers;
+    }
+
+    public Path getOutputDir() {
+        return outputDir;
+    }
+
+    private static <T> List<T> list(Properties properties, String name, String defaultValue, Function<String, T> parser) {
+        return Arrays.stream(properties.getProperty(name, defaultValue).split(","))
+                .map(String::trim)
+                .filter(value -> !value.isEmpty())
+                .map(parser)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,65 @@
+package io.confluent.testcontainers.bench;
+
+import io.confluent.testcontainers.KafkaContainersCluster;
+import org.apache.kafka.common.utils.AppInfoParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.GenericContainer;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Producer throughput matrix against a {@link KafkaContainersCluster}: every combination of value format, record
+ * size, acks and batch size of the {@link BenchmarkSettings} is run in turn on its own topic with a new producer.
+ * <p>
+ * The results are logged as a table and written as JSON to {@code bench.outputDir}, along with the images of the
+ * cluster and the client version so runs against different CP versions or client settings can be compared.
+ * <pre>
+ * mvn compile exec:java -Dbench.formats=STRING,AVRO -Dbench.recordSizes=512 -Dbench.brokers=3
+ * </pre>
+ */
+public class ProducerBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProducerBenchmark.class);
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkSettings settings = new BenchmarkSettings(System.getProperties());
+        List<BenchmarkCase> cases = settings.cases();
+        LocalDateTime startedAt = LocalDateTime.now();
+        BenchmarkReport report = new BenchmarkReport(startedAt.toString(), AppInfoParser.getVersion(), settings);
+
+        KafkaContainersCluster cluster = new KafkaContainersCluster.KafkaClusterBuilder()
+                .withBrokers(settings.getBrokers())
+                .build();
+        try {
+            cluster.start();
+            cluster.getKafkaContainers().forEach(kafka -> addImage(report, kafka));
+            addImage(report, cluster.getSchemaRegistryContainer());
+
+            ProducerRun run = new ProducerRun(settings, cluster.getBootstrapServers(),
+                    cluster.getSchemaRegistryContainer().getSchemaRegistryUrl());
+            for (int i = 0; i < cases.size(); i++) {
+                BenchmarkCase benchmarkCase = cases.get(i);
+                logger.info("Case {}/{}: {}", i + 1, cases.size(), benchmarkCase);
+                report.addResult(run.run(benchmarkCase));
+            }
+        } finally {
+            cluster.stop();
+        }
+
+        Path file = settings.getOutputDir()
+                .resolve("producer-" + startedAt.format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+        report.write(file);
+        logger.info("Producer benchmark, {} records per case{}{}Report written to {}",
+                settings.getRecords(), System.lineSeparator(), report.toTable(), file.toAbsolutePath());
+    }
+
+    private static void addImage(BenchmarkReport report, GenericContainer<?> container) {
+        //The first alias is the random one of testcontainers
+        List<String> aliases = container.getNetworkAliases();
+        report.addImage(aliases.get(aliases.size() - 1), container.getDockerImageName());
+    }
+}
@@ -0,0 +1,97 @@
+package io.confluent.testcontainers.bench;
+
+import io.confluent.kafka.serializers.AbstractKafkaSchemaSerDeConfig;
+import io.confluent.testcontainers.PublishPipeline;
+import io.confluent.testcontainers.PublishResult;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Properties;
+
+/**
+ * Runs a {@link BenchmarkCase} with a new producer: the warm-up records first, then the measured ones. Values are
+ * serialized on send from a small pool of distinct records, sends go through a {@link PublishPipeline} bounded by
+ * the records in flight of the settings.
+ */
+class ProducerRun {
+
+    //Distinct values per case, enough to defeat any caching of the serialized values
+    private static final int VALUE_POOL = 1024;
+
+    private final BenchmarkSettings settings;
+    private final String bootstrapServers;
+    private final String schemaRegistryUrl;
+
+    ProducerRun(BenchmarkSettings settings, String bootstrapServers, String schemaRegistryUrl) {
+        this.settings = settings;
+        this.bootstrapServers = bootstrapServers;
+        this.schemaRegistryUrl = schemaRegistryUrl;
+    }
+
+    BenchmarkResult run(BenchmarkCase benchmarkCase) {
+        ValueFormat format = benchmarkCase.getFormat();
+        char[] padding = new char[format.payloadLength(benchmarkCase.getRecordSize())];
+        Arrays.fill(padding, 'x');
+        String payload = new String(padding);
+        Object[] values = new Object[VALUE_POOL];
+        for (int i = 0; i < VALUE_POOL; i++) {
+            values[i] = format.value(i, payload);
+        }
+
+        Properties props = new Properties();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ProducerConfig.ACKS_CONFIG, benchmarkCase.getAcks());
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, benchmarkCase.getBatchSize());
+        props.put(ProducerConfig.LINGER_MS_CONFIG, settings.getLingerMs());
+
+        PublishPipeline pipeline = new PublishPipeline().withMaxInFlight(settings.getMaxInFlight());
+        try (Producer<String, Object> producer = new KafkaProducer<>(props, new StringSerializer(), valueSerializer(format))) {
+            pipeline.publish(cycle(values, settings.getWarmupRecords()), producer, benchmarkCase.topic(), value -> null, metadata -> {
+            });
+            PublishResult result = pipeline.publish(cycle(values, settings.getRecords()), producer, benchmarkCase.topic(), value -> null, metadata -> {
+            });
+            return new BenchmarkResult(benchmarkCase, result.getRecords(), result.getBytes(), result.getElapsed().toNanos(),
+                    result.getAckLatencyMicros());
+        }
+    }
+
+    /**
+     * Serializers given to the producer are not configured by it, the Schema Registry serializers need its url
+     */
+    @SuppressWarnings("unchecked")
+    private Serializer<Object> valueSerializer(ValueFormat format) {
+        //The values of the pool are the ones of the format
+        Serializer<Object> serializer = (Serializer<Object>) format.serializer().get();
+        serializer.configure(Collections.singletonMap(AbstractKafkaSchemaSerDeConfig.SCHEMA_REGISTRY_URL_CONFIG, schemaRegistryUrl), false);
+        return serializer;
+    }
+
+    /**
+     * @return the values over and over, up to the number of records
+     */
+    private static Iterator<Object> cycle(Object[] values, long records) {
+        return new Iterator<>() {
+            private long next;
+
+            @Override
+            public boolean hasNext() {
+                return next < records;
+            }
+
+            @Override
+            public Object next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return values[(int) (next++ % values.length)];
+            }
+        };
+    }
+}
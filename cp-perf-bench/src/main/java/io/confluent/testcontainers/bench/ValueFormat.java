@@ -0,0 +1,131 @@
+package io.confluent.testcontainers.bench;
+
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.DynamicMessage;
+import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchema;
+import io.confluent.kafka.serializers.KafkaAvroSerializer;
+import io.confluent.kafka.serializers.json.KafkaJsonSchemaSerializer;
+import io.confluent.kafka.serializers.protobuf.KafkaProtobufSerializer;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+
+import java.util.function.Supplier;
+
+/**
+ * Value formats of the benchmark. Every format carries the same record, an id and a string payload sized to reach
+ * the record size, so the formats differ only by their serializer and encoding.
+ */
+public enum ValueFormat {
+
+    STRING(0) {
+        @Override
+        Supplier<Serializer<?>> serializer() {
+            return StringSerializer::new;
+        }
+
+        @Override
+        Object value(long id, String payload) {
+            return payload;
+        }
+    },
+
+    //Magic byte, schema id and the JSON object
+    JSON_SR(30) {
+        @Override
+        Supplier<Serializer<?>> serializer() {
+            return KafkaJsonSchemaSerializer::new;
+        }
+
+        @Override
+        Object value(long id, String payload) {
+            return new BenchRecord(id, payload);
+        }
+    },
+
+    //Magic byte, schema id, long and string lengths
+    AVRO(12) {
+        private final Schema schema = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"BenchRecord\"," +
+                "\"namespace\":\"io.confluent.testcontainers.bench\",\"fields\":[" +
+                "{\"name\":\"id\",\"type\":\"long\"},{\"name\":\"payload\",\"type\":\"string\"}]}");
+
+        @Override
+        Supplier<Serializer<?>> serializer() {
+            return KafkaAvroSerializer::new;
+        }
+
+        @Override
+        Object value(long id, String payload) {
+            GenericRecord record = new GenericData.Record(schema);
+            record.put("id", id);
+            record.put("payload", payload);
+            return record;
+        }
+    },
+
+    //Magic byte, schema id, message indexes, field tags and lengths
+    PROTOBUF(14) {
+        private Descriptors.Descriptor descriptor;
+
+        @Override
+        Supplier<Serializer<?>> serializer() {
+            return KafkaProtobufSerializer::new;
+        }
+
+        @Override
+        synchronized Object value(long id, String payload) {
+            if (descriptor == null) {
+                descriptor = new ProtobufSchema("syntax = \"proto3\"; package io.confluent.testcontainers.bench; " +
+                        "message BenchRecord { int64 id = 1; string payload = 2; }").toDescriptor();
+            }
+            return DynamicMessage.newBuilder(descriptor)
+                    .setField(descriptor.findFieldByName("id"), id)
+                    .setField(descriptor.findFieldByName("payload"), payload)
+                    .build();
+        }
+    };
+
+    private final int overhead;
+
+    ValueFormat(int overhead) {
+        this.overhead = overhead;
+    }
+
+    /**
+     * @return a new serializer of the format, to be configured by the caller
+     */
+    abstract Supplier<Serializer<?>> serializer();
+
+    abstract Object value(long id, String payload);
+
+    /**
+     * @param recordSize target size of the serialized value
+     * @return the length of the payload so the serialized value is close to the record size
+     */
+    int payloadLength(int recordSize) {
+        return Math.max(1, recordSize - overhead);
+    }
+
+    /**
+     * The record of the JSON_SR format, its JSON schema is derived from the class
+     */
+    public static class BenchRecord {
+        private final long id;
+        private final String payload;
+
+        public BenchRecord(long id, String payload) {
+            this.id = id;
+            this.payload = payload;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getPayload() {
+            return payload;
+        }
+    }
+}
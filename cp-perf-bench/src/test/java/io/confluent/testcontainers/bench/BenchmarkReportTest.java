@@ -0,0 +1,69 @@
+package io.confluent.testcontainers.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Benchmark matrix and report, without docker")
+public class BenchmarkReportTest {
+
+    @Test
+    public void matrixIsTheProductOfTheSettings() {
+        Properties properties = new Properties();
+        properties.setProperty("bench.formats", "STRING, AVRO");
+        properties.setProperty("bench.recordSizes", "100,1000,10000");
+        properties.setProperty("bench.acks", "1,all");
+        List<BenchmarkCase> cases = new BenchmarkSettings(properties).cases();
+
+        assertThat(cases, hasSize(2 * 3 * 2 * 2));
+        assertEquals(ValueFormat.STRING, cases.get(0).getFormat());
+        assertEquals(ValueFormat.AVRO, cases.get(cases.size() - 1).getFormat());
+        //One topic per case
+        assertThat(cases.stream().map(BenchmarkCase::topic).distinct().count(), is((long) cases.size()));
+        assertEquals("bench-string-100-acks1-batch16384", cases.get(0).topic());
+
+        assertThat(new BenchmarkSettings(new Properties()).cases(), hasSize(4 * 3 * 2 * 2));
+    }
+
+    @Test
+    public void reportIsWrittenAsJsonAndTable(@TempDir Path dir) throws Exception {
+        BenchmarkSettings settings = new BenchmarkSettings(new Properties());
+        BenchmarkReport report = new BenchmarkReport("2021-07-01T10:00", "2.8.0", settings);
+        report.addImage("kafka", "confluentinc/cp-kafka:6.2.0-1-ubi8");
+        Histogram latency = new Histogram(3);
+        for (int i = 1; i <= 1000; i++) {
+            latency.recordValue(i * 10);
+        }
+        report.addResult(new BenchmarkResult(new BenchmarkCase(ValueFormat.STRING, 1024, "all", 16384),
+                200_000, 200_000L * 1024, 2_000_000_000L, latency));
+
+        String table = report.toTable();
+        assertThat(table, containsString("records/s"));
+        assertThat(table, containsString("100000"));
+        assertThat(table.lines().collect(Collectors.toList()), hasSize(2));
+
+        Path file = dir.resolve("bench").resolve("report.json");
+        report.write(file);
+        JsonNode json = new ObjectMapper().readTree(file.toFile());
+        assertEquals("2.8.0", json.get("clientVersion").asText());
+        assertEquals("confluentinc/cp-kafka:6.2.0-1-ubi8", json.get("images").get("kafka").asText());
+        JsonNode result = json.get("results").get(0);
+        assertEquals("STRING", result.get("format").asText());
+        assertEquals(100_000, result.get("recordsPerSecond").asDouble(), 0.1);
+        assertEquals(97.66, result.get("megabytesPerSecond").asDouble(), 0.01);
+        assertEquals(5, result.get("p50Ms").asDouble(), 0.01);
+        assertEquals(9.99, result.get("p999Ms").asDouble(), 0.02);
+    }
+}
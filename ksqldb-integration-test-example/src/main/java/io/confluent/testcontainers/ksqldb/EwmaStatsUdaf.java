@@ -0,0 +1,232 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.testcontainers.ksqldb;
+
+import io.confluent.ksql.function.udaf.Udaf;
+import io.confluent.ksql.function.udaf.UdafDescription;
+import io.confluent.ksql.function.udaf.UdafFactory;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * UDAF computing an exponentially time-decayed mean and variance of a stream of doubles: the weight of a value
+ * halves every half-life of event time, so the stats follow the recent values whatever the age of the stream.
+ *
+ * <p>Example query usage, the UDAF takes a single column so the value and its event time come in a struct:
+ *
+ * <pre>{@code
+ * CREATE STREAM api_responses (username VARCHAR, response_code INT, response_time DOUBLE) \
+ * WITH (kafka_topic='api_logs', value_format='JSON');
+ *
+ * SELECT username, EWMA_STATS(STRUCT(VALUE := response_time, TS := ROWTIME), 300) \
+ * FROM api_responses \
+ * GROUP BY username ;
+ * }</pre>
+ *
+ * <p>The aggregate is the decayed weight, mean and sum of squared differences from the mean as of the latest event
+ * time. Late values are decayed to that time instead of moving it back, and {@code merge} decays both aggregates to
+ * the latest of their times before the weighted Chan et al. combination, so the partitions of a stream merge into
+ * the stats of the whole stream.
+ */
+@UdafDescription(
+        name = "ewma_stats",
+        description = "Computes the exponentially time-decayed mean and variance of a stream of doubles",
+        version = "1.0-SNAPSHOT",
+        author = "Dennis Federico"
+)
+public final class EwmaStatsUdaf {
+
+    static final String PARAM_SCHEMA_DESCRIPTOR = "STRUCT<VALUE DOUBLE, TS BIGINT>";
+    static final String AGGREGATE_SCHEMA_DESCRIPTOR = "STRUCT<WEIGHT DOUBLE, MEAN DOUBLE, M2 DOUBLE, TS BIGINT>";
+
+    static final Schema PARAM_SCHEMA = SchemaBuilder.struct().optional()
+            .field("VALUE", Schema.OPTIONAL_FLOAT64_SCHEMA)
+            .field("TS", Schema.OPTIONAL_INT64_SCHEMA)
+            .build();
+
+    static final Schema AGGREGATE_SCHEMA = SchemaBuilder.struct().optional()
+            .field("WEIGHT", Schema.OPTIONAL_FLOAT64_SCHEMA)
+            .field("MEAN", Schema.OPTIONAL_FLOAT64_SCHEMA)
+            .field("M2", Schema.OPTIONAL_FLOAT64_SCHEMA)
+            .field("TS", Schema.OPTIONAL_INT64_SCHEMA)
+            .build();
+
+    // Fields are resolved once, ksqlDB builds its own schema from the descriptor with the fields in the same order.
+    // The parameter is read by name instead, its struct is built in the query with the fields in any order.
+    static final Field WEIGHT = AGGREGATE_SCHEMA.field("WEIGHT");
+    static final Field MEAN = AGGREGATE_SCHEMA.field("MEAN");
+    static final Field M2 = AGGREGATE_SCHEMA.field("M2");
+    // event time of the latest value, the weight, mean and m2 are decayed to it
+    static final Field TS = AGGREGATE_SCHEMA.field("TS");
+
+    private EwmaStatsUdaf() {
+    }
+
+    @UdafFactory(description = "compute the decayed mean and variance of doubles with their event time in "
+            + "milliseconds, the weight of a value halves every half-life seconds",
+            paramSchema = PARAM_SCHEMA_DESCRIPTOR, aggregateSchema = AGGREGATE_SCHEMA_DESCRIPTOR)
+    public static Udaf<Struct, Struct, Map<String, Double>> createUdaf(final int halfLifeSeconds) {
+        if (halfLifeSeconds <= 0) {
+            throw new IllegalArgumentException("half-life must be positive, was " + halfLifeSeconds);
+        }
+        // decay per millisecond of event time
+        final double lambda = Math.log(2) / (halfLifeSeconds * 1000.0);
+
+        return new Udaf<>() {
+
+            /**
+             * Specify an initial value for our aggregation
+             *
+             * @return the initial state of the aggregate.
+             */
+            @Override
+            public Struct initialize() {
+                return new Struct(AGGREGATE_SCHEMA)
+                        .put(WEIGHT, 0.0)
+                        .put(MEAN, 0.0)
+                        .put(M2, 0.0)
+                        .put(TS, 0L);
+            }
+
+            /**
+             * Decay the aggregate to the time of the new value, or the new value to the time of the aggregate when
+             * it is late, then add it with its weight.
+             *
+             * @param newValue       the new value and its event time to add to the {@code aggregateValue}.
+             * @param aggregateValue the current aggregate.
+             * @return the new aggregate value.
+             */
+            @Override
+            public Struct aggregate(
+                    final Struct newValue,
+                    final Struct aggregateValue
+            ) {
+                if (newValue == null) {
+                    return aggregateValue;
+                }
+                final Double value = newValue.getFloat64("VALUE");
+                final Long valueTs = newValue.getInt64("TS");
+                if (value == null || valueTs == null) {
+                    return aggregateValue;
+                }
+                final double weight = weight(aggregateValue);
+                if (weight == 0) {
+                    return aggregateValue
+                            .put(WEIGHT, 1.0)
+                            .put(MEAN, value)
+                            .put(M2, 0.0)
+                            .put(TS, valueTs);
+                }
+
+                final long ts = ts(aggregateValue);
+                final long latestTs = Math.max(ts, valueTs);
+                final double decay = decay(latestTs - ts);
+                final double valueWeight = decay(latestTs - valueTs);
+
+                final double newWeight = weight * decay + valueWeight;
+                final double delta = value - mean(aggregateValue);
+                final double newMean = mean(aggregateValue) + delta * valueWeight / newWeight;
+
+                // update the aggregate in place
+                return aggregateValue
+                        .put(WEIGHT, newWeight)
+                        .put(MEAN, newMean)
+                        .put(M2, m2(aggregateValue) * decay + valueWeight * delta * (value - newMean))
+                        .put(TS, latestTs);
+            }
+
+            /**
+             * Called to merge two aggregates together, as of the latest time of both.
+             *
+             * @param aggOne the first aggregate
+             * @param aggTwo the second aggregate
+             * @return the merged result
+             */
+            @Override
+            public Struct merge(
+                    final Struct aggOne,
+                    final Struct aggTwo
+            ) {
+                if (weight(aggOne) == 0) {
+                    return WelfordStats.copy(AGGREGATE_SCHEMA, aggTwo);
+                }
+                if (weight(aggTwo) == 0) {
+                    return WelfordStats.copy(AGGREGATE_SCHEMA, aggOne);
+                }
+                final long latestTs = Math.max(ts(aggOne), ts(aggTwo));
+                final double decayOne = decay(latestTs - ts(aggOne));
+                final double decayTwo = decay(latestTs - ts(aggTwo));
+                final double weightOne = weight(aggOne) * decayOne;
+                final double weightTwo = weight(aggTwo) * decayTwo;
+
+                final double weight = weightOne + weightTwo;
+                final double delta = mean(aggTwo) - mean(aggOne);
+                final double m2 = m2(aggOne) * decayOne + m2(aggTwo) * decayTwo
+                        + delta * delta * weightOne * weightTwo / weight;
+                return new Struct(AGGREGATE_SCHEMA)
+                        .put(WEIGHT, weight)
+                        .put(MEAN, mean(aggOne) + delta * weightTwo / weight)
+                        .put(M2, m2)
+                        .put(TS, latestTs);
+            }
+
+            /**
+             * Called to map the intermediate aggregate value to the final output.
+             *
+             * @param agg the aggregate
+             * @return the result of aggregation
+             */
+            @Override
+            public Map<String, Double> map(final Struct agg) {
+                final double weight = weight(agg);
+                // weighted population variance
+                final double variance = weight == 0 ? 0.0 : m2(agg) / weight;
+
+                final Map<String, Double> stats = new HashMap<>();
+                stats.put("mean", mean(agg));
+                stats.put("variance", variance);
+                stats.put("stddev", Math.sqrt(variance));
+                stats.put("weight", weight);
+                return stats;
+            }
+
+            private double decay(final long elapsedMillis) {
+                return Math.exp(-lambda * elapsedMillis);
+            }
+        };
+    }
+
+    private static double weight(final Struct aggregate) {
+        return (Double) aggregate.get(WEIGHT);
+    }
+
+    private static double mean(final Struct aggregate) {
+        return (Double) aggregate.get(MEAN);
+    }
+
+    private static double m2(final Struct aggregate) {
+        return (Double) aggregate.get(M2);
+    }
+
+    private static long ts(final Struct aggregate) {
+        return (Long) aggregate.get(TS);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.testcontainers.ksqldb;
+
+import io.confluent.ksql.function.udaf.Udaf;
+import io.confluent.ksql.function.udaf.UdafDescription;
+import io.confluent.ksql.function.udaf.UdafFactory;
+
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * UDAF estimating the p50, p95 and p99 of a stream of doubles, for response time SLOs where a mean hides the tail.
+ *
+ * <p>Example query usage:
+ *
+ * <pre>{@code
+ * CREATE STREAM api_responses (username VARCHAR, response_code INT, response_time DOUBLE) \
+ * WITH (kafka_topic='api_logs', value_format='JSON');
+ *
+ * SELECT username, PERCENTILES(response_time), PERCENTILES(response_time, 200) \
+ * FROM api_responses \
+ * GROUP BY username ;
+ * }</pre>
+ *
+ * <p>The aggregate is a {@link TDigest} of at most about {@code compression} centroids whatever the number of
+ * values, serialized as base64 bytes in a string as this ksqlDB version has no BYTES type. Partial aggregates merge
+ * into a digest with the count, min and max of both and the same accuracy bound.
+ */
+@UdafDescription(
+        name = "percentiles",
+        description = "Estimates the p50, p95 and p99 of a stream of doubles with a t-digest",
+        version = "1.0-SNAPSHOT",
+        author = "Dennis Federico"
+)
+public final class PercentilesUdaf {
+
+    static final int DEFAULT_COMPRESSION = 100;
+
+    private PercentilesUdaf() {
+    }
+
+    @UdafFactory(description = "estimate the p50, p95 and p99 of doubles, with a compression of 100")
+    public static Udaf<Double, String, Map<String, Double>> createUdaf() {
+        return createUdaf(DEFAULT_COMPRESSION);
+    }
+
+    @UdafFactory(description = "estimate the p50, p95 and p99 of doubles, with the given compression: higher is "
+            + "more accurate and a bigger aggregate")
+    public static Udaf<Double, String, Map<String, Double>> createUdaf(final int compression) {
+        // fail on the query creation rather than on the first record
+        new TDigest(compression);
+
+        return new Udaf<>() {
+
+            @Override
+            public String initialize() {
+                return encode(new TDigest(compression));
+            }
+
+            @Override
+            public String aggregate(
+                    final Double newValue,
+                    final String aggregateValue
+            ) {
+                if (newValue == null || newValue.isNaN()) {
+                    return aggregateValue;
+                }
+                final TDigest digest = decode(aggregateValue);
+                digest.add(newValue);
+                return encode(digest);
+            }
+
+            @Override
+            public String merge(
+                    final String aggOne,
+                    final String aggTwo
+            ) {
+                final TDigest digest = decode(aggOne);
+                digest.merge(decode(aggTwo));
+                return encode(digest);
+            }
+
+            @Override
+            public Map<String, Double> map(final String agg) {
+                final TDigest digest = decode(agg);
+                final boolean empty = digest.getCount() == 0;
+
+                final Map<String, Double> percentiles = new HashMap<>();
+                percentiles.put("p50", empty ? null : digest.quantile(0.50));
+                percentiles.put("p95", empty ? null : digest.quantile(0.95));
+                percentiles.put("p99", empty ? null : digest.quantile(0.99));
+                return percentiles;
+            }
+        };
+    }
+
+    static String encode(final TDigest digest) {
+        return Base64.getEncoder().encodeToString(digest.toBytes());
+    }
+
+    static TDigest decode(final String aggregate) {
+        return TDigest.fromBytes(Base64.getDecoder().decode(aggregate));
+    }
+}
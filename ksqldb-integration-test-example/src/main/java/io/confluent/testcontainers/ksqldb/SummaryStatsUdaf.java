@@ -18,8 +18,11 @@ package io.confluent.testcontainers.ksqldb;
 import io.confluent.ksql.function.udaf.Udaf;
 import io.confluent.ksql.function.udaf.UdafDescription;
 import io.confluent.ksql.function.udaf.UdafFactory;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
 
-import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -36,6 +39,15 @@ import java.util.Map;
  * FROM api_responses \
  * GROUP BY username ;
  * }</pre>
+ *
+ * <p>The intermediate aggregate is a fixed layout struct, it is what goes into the changelog topic of the state
+ * store on every update. Only the accumulators are kept, the derived stats, sum included, are computed in
+ * {@code map}. It is still larger than the former map of mean, sample size and sum: the variance, min and max
+ * accumulators take the JSON changelog record from about 49 to 72 bytes per update.
+ *
+ * <p>Mean and variance use Welford's update, with the sum of squared differences from the mean as accumulator, and
+ * Chan et al. pairwise combination in {@code merge}: no {@code sum / sampleSize} or sum of squares that lose
+ * precision on long-running streams, and merging partial aggregates gives the same stats as a single pass.
  */
 @UdafDescription(
         name = "summary_stats",
@@ -45,13 +57,32 @@ import java.util.Map;
 )
 public final class SummaryStatsUdaf {
 
+    static final String AGGREGATE_SCHEMA_DESCRIPTOR =
+            "STRUCT<SAMPLE_SIZE BIGINT, MEAN DOUBLE, M2 DOUBLE, MIN DOUBLE, MAX DOUBLE>";
+
+    static final Schema AGGREGATE_SCHEMA = SchemaBuilder.struct().optional()
+            .field("SAMPLE_SIZE", Schema.OPTIONAL_INT64_SCHEMA)
+            .field("MEAN", Schema.OPTIONAL_FLOAT64_SCHEMA)
+            .field("M2", Schema.OPTIONAL_FLOAT64_SCHEMA)
+            .field("MIN", Schema.OPTIONAL_FLOAT64_SCHEMA)
+            .field("MAX", Schema.OPTIONAL_FLOAT64_SCHEMA)
+            .build();
+
+    // Fields are resolved once, get/put by field go straight to the position in the struct without name lookups.
+    // ksqlDB builds its own schema from the descriptor, with the fields in the same order.
+    // null until the first value
+    static final Field MIN = AGGREGATE_SCHEMA.field("MIN");
+    static final Field MAX = AGGREGATE_SCHEMA.field("MAX");
+
+    private static final WelfordStats STATS = new WelfordStats(AGGREGATE_SCHEMA);
+
     private SummaryStatsUdaf() {
     }
 
-    @UdafFactory(description = "compute summary stats for doubles")
+    @UdafFactory(description = "compute summary stats for doubles", aggregateSchema = AGGREGATE_SCHEMA_DESCRIPTOR)
     // Can be used with stream aggregations. The input of our aggregation will be doubles,
-    // and the output will be a map
-    public static Udaf<Double, Map<String, Double>, Map<String, Double>> createUdaf() {
+    // the intermediate aggregate a struct and the output will be a map
+    public static Udaf<Double, Struct, Map<String, Double>> createUdaf() {
 
         return new Udaf<>() {
 
@@ -61,12 +92,8 @@ public final class SummaryStatsUdaf {
              * @return the initial state of the aggregate.
              */
             @Override
-            public Map<String, Double> initialize() {
-                final Map<String, Double> stats = new HashMap<>();
-                stats.put("mean", 0.0);
-                stats.put("sample_size", 0.0);
-                stats.put("sum", 0.0);
-                return stats;
+            public Struct initialize() {
+                return STATS.initialize();
             }
 
             /**
@@ -77,21 +104,19 @@ public final class SummaryStatsUdaf {
              * @return the new aggregate value.
              */
             @Override
-            public Map<String, Double> aggregate(
+            public Struct aggregate(
                     final Double newValue,
-                    final Map<String, Double> aggregateValue
+                    final Struct aggregateValue
             ) {
-                final Double sampleSize = 1.0 + aggregateValue
-                        .getOrDefault("sample_size", 0.0);
+                if (newValue == null) {
+                    return aggregateValue;
+                }
+                final boolean first = STATS.sampleSize(aggregateValue) == 0;
 
-                final Double sum = newValue + aggregateValue
-                        .getOrDefault("sum", 0.0);
-
-                // calculate the new aggregate
-                aggregateValue.put("mean", sum / sampleSize);
-                aggregateValue.put("sample_size", sampleSize);
-                aggregateValue.put("sum", sum);
-                return aggregateValue;
+                // update the aggregate in place
+                return STATS.add(newValue, aggregateValue)
+                        .put(MIN, first ? newValue : Math.min(min(aggregateValue), newValue))
+                        .put(MAX, first ? newValue : Math.max(max(aggregateValue), newValue));
             }
 
             /**
@@ -102,21 +127,18 @@ public final class SummaryStatsUdaf {
              * @return the merged result
              */
             @Override
-            public Map<String, Double> merge(
-                    final Map<String, Double> aggOne,
-                    final Map<String, Double> aggTwo
+            public Struct merge(
+                    final Struct aggOne,
+                    final Struct aggTwo
             ) {
-                final Double sampleSize =
-                        aggOne.getOrDefault("sample_size", 0.0) + aggTwo.getOrDefault("sample_size", 0.0);
-                final Double sum =
-                        aggOne.getOrDefault("sum", 0.0) + aggTwo.getOrDefault("sum", 0.0);
-
-                // calculate the new aggregate
-                final Map<String, Double> newAggregate = new HashMap<>();
-                newAggregate.put("mean", sum / sampleSize);
-                newAggregate.put("sample_size", sampleSize);
-                newAggregate.put("sum", sum);
-                return newAggregate;
+                final Struct merged = STATS.merge(aggOne, aggTwo);
+                // the min and max of an empty aggregate are null, they come with the copy of the other one
+                if (STATS.sampleSize(aggOne) == 0 || STATS.sampleSize(aggTwo) == 0) {
+                    return merged;
+                }
+                return merged
+                        .put(MIN, Math.min(min(aggOne), min(aggTwo)))
+                        .put(MAX, Math.max(max(aggOne), max(aggTwo)));
             }
 
             /**
@@ -126,9 +148,20 @@ public final class SummaryStatsUdaf {
              * @return the result of aggregation
              */
             @Override
-            public Map<String, Double> map(final Map<String, Double> agg) {
-                return agg;
+            public Map<String, Double> map(final Struct agg) {
+                final Map<String, Double> stats = STATS.map(agg);
+                stats.put("min", (Double) agg.get(MIN));
+                stats.put("max", (Double) agg.get(MAX));
+                return stats;
             }
         };
     }
+
+    private static double min(final Struct aggregate) {
+        return (Double) aggregate.get(MIN);
+    }
+
+    private static double max(final Struct aggregate) {
+        return (Double) aggregate.get(MAX);
+    }
 }
@@ -0,0 +1,313 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.testcontainers.ksqldb;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Merging t-digest (Dunning and Ertl, "Computing Extremely Accurate Quantiles Using t-Digests") with the arcsine
+ * scale function, bounded to about {@code compression} centroids whatever the number of values.
+ *
+ * <p>New values go to a small buffer that is merged into the sorted centroids when full, both are part of the
+ * serialized form so the state of an aggregation can be restored between updates.
+ */
+final class TDigest {
+
+    private static final byte FORMAT_VERSION = 1;
+
+    private final int compression;
+    private final int bufferCapacity;
+
+    // sorted by mean
+    private double[] means;
+    private long[] weights;
+    private int centroids;
+
+    private final double[] buffer;
+    private int buffered;
+
+    private long count;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+
+    TDigest(int compression) {
+        if (compression < 10 || compression > 10_000) {
+            throw new IllegalArgumentException("compression must be between 10 and 10000, was " + compression);
+        }
+        this.compression = compression;
+        this.bufferCapacity = Math.max(compression / 2, 16);
+        this.means = new double[2 * compression];
+        this.weights = new long[2 * compression];
+        this.buffer = new double[bufferCapacity];
+    }
+
+    int getCompression() {
+        return compression;
+    }
+
+    long getCount() {
+        return count;
+    }
+
+    double getMin() {
+        return min;
+    }
+
+    double getMax() {
+        return max;
+    }
+
+    void add(double value) {
+        if (Double.isNaN(value)) {
+            throw new IllegalArgumentException("Cannot add NaN");
+        }
+        if (count == 0) {
+            min = value;
+            max = value;
+        } else {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        count++;
+        buffer[buffered++] = value;
+        if (buffered == bufferCapacity) {
+            compress(null, null, 0);
+        }
+    }
+
+    /**
+     * Adds the centroids and buffered values of {@code other}, the result keeps the count, min and max of both
+     * digests and the accuracy bound of this one
+     */
+    void merge(TDigest other) {
+        if (other.count == 0) {
+            return;
+        }
+        if (count == 0) {
+            min = other.min;
+            max = other.max;
+        } else {
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+        }
+        count += other.count;
+
+        double[] otherMeans = Arrays.copyOf(other.means, other.centroids + other.buffered);
+        long[] otherWeights = Arrays.copyOf(other.weights, other.centroids + other.buffered);
+        for (int i = 0; i < other.buffered; i++) {
+            otherMeans[other.centroids + i] = other.buffer[i];
+            otherWeights[other.centroids + i] = 1;
+        }
+        compress(otherMeans, otherWeights, otherMeans.length);
+    }
+
+    /**
+     * @return estimated value at quantile {@code q}, between 0 and 1, or NaN when the digest is empty
+     */
+    double quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("quantile must be between 0 and 1, was " + q);
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (buffered > 0) {
+            compress(null, null, 0);
+        }
+        if (centroids == 1) {
+            return means[0];
+        }
+
+        // Each centroid sits at the middle of its weight, values are interpolated between the neighbour centroids,
+        // and with min and max at the ends.
+        final double index = q * count;
+        if (index < weights[0] / 2.0) {
+            return interpolate(min, means[0], index / (weights[0] / 2.0));
+        }
+        double center = weights[0] / 2.0;
+        for (int i = 0; i < centroids - 1; i++) {
+            double nextCenter = center + (weights[i] + weights[i + 1]) / 2.0;
+            if (index < nextCenter) {
+                // Singletons are exact, only interpolate between the halves of the heavier centroids
+                if (weights[i] == 1 && index - center < 0.5) {
+                    return means[i];
+                }
+                if (weights[i + 1] == 1 && nextCenter - index <= 0.5) {
+                    return means[i + 1];
+                }
+                return interpolate(means[i], means[i + 1], (index - center) / (nextCenter - center));
+            }
+            center = nextCenter;
+        }
+        double lastHalf = weights[centroids - 1] / 2.0;
+        return interpolate(means[centroids - 1], max, Math.min(1, (index - center) / lastHalf));
+    }
+
+    byte[] toBytes() {
+        ByteBuffer bytes = ByteBuffer.allocate(1 + 5 + 8 + 16 + 10 + centroids * 18 + 5 + buffered * 8);
+        bytes.put(FORMAT_VERSION);
+        putVarLong(bytes, compression);
+        putVarLong(bytes, count);
+        if (count > 0) {
+            bytes.putDouble(min);
+            bytes.putDouble(max);
+        }
+        putVarLong(bytes, centroids);
+        for (int i = 0; i < centroids; i++) {
+            bytes.putDouble(means[i]);
+            putVarLong(bytes, weights[i]);
+        }
+        putVarLong(bytes, buffered);
+        for (int i = 0; i < buffered; i++) {
+            bytes.putDouble(buffer[i]);
+        }
+        return Arrays.copyOf(bytes.array(), bytes.position());
+    }
+
+    static TDigest fromBytes(byte[] serialized) {
+        ByteBuffer bytes = ByteBuffer.wrap(serialized);
+        byte version = bytes.get();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported t-digest format version " + version);
+        }
+        TDigest digest = new TDigest((int) getVarLong(bytes));
+        digest.count = getVarLong(bytes);
+        if (digest.count > 0) {
+            digest.min = bytes.getDouble();
+            digest.max = bytes.getDouble();
+        }
+        digest.centroids = (int) getVarLong(bytes);
+        digest.ensureCapacity(digest.centroids);
+        for (int i = 0; i < digest.centroids; i++) {
+            digest.means[i] = bytes.getDouble();
+            digest.weights[i] = getVarLong(bytes);
+        }
+        digest.buffered = (int) getVarLong(bytes);
+        for (int i = 0; i < digest.buffered; i++) {
+            digest.buffer[i] = bytes.getDouble();
+        }
+        return digest;
+    }
+
+    /**
+     * Merges the centroids, the buffer and the extra (unsorted) centroids into a new list of centroids, in a single
+     * pass over them sorted by mean. Neighbours are merged as long as the result spans at most one unit of the scale
+     * function, which keeps the centroids small, and accurate, near the tails.
+     */
+    private void compress(double[] extraMeans, long[] extraWeights, int extra) {
+        int pending = buffered + extra;
+        if (pending == 0) {
+            return;
+        }
+        double[] pendingMeans = new double[pending];
+        long[] pendingWeights = new long[pending];
+        Integer[] order = new Integer[pending];
+        for (int i = 0; i < pending; i++) {
+            order[i] = i;
+            if (i < buffered) {
+                pendingMeans[i] = buffer[i];
+                pendingWeights[i] = 1;
+            } else {
+                pendingMeans[i] = extraMeans[i - buffered];
+                pendingWeights[i] = extraWeights[i - buffered];
+            }
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(pendingMeans[a], pendingMeans[b]));
+
+        long total = 0;
+        for (int i = 0; i < centroids; i++) {
+            total += weights[i];
+        }
+        for (long weight : pendingWeights) {
+            total += weight;
+        }
+
+        double[] newMeans = new double[Math.max(means.length, 2 * compression)];
+        long[] newWeights = new long[newMeans.length];
+        int merged = 0;
+        long weightSoFar = 0;
+        double kLeft = scale(0);
+        // Sorted merge of the current centroids and the sorted pending ones
+        int current = 0;
+        int next = 0;
+        while (current < centroids || next < pending) {
+            double mean;
+            long weight;
+            if (next >= pending || (current < centroids && means[current] <= pendingMeans[order[next]])) {
+                mean = means[current];
+                weight = weights[current++];
+            } else {
+                mean = pendingMeans[order[next]];
+                weight = pendingWeights[order[next++]];
+            }
+            if (merged > 0 && scale((double) (weightSoFar + newWeights[merged - 1] + weight) / total) - kLeft <= 1) {
+                long mergedWeight = newWeights[merged - 1] + weight;
+                newMeans[merged - 1] += (mean - newMeans[merged - 1]) * weight / mergedWeight;
+                newWeights[merged - 1] = mergedWeight;
+            } else {
+                if (merged > 0) {
+                    weightSoFar += newWeights[merged - 1];
+                    kLeft = scale((double) weightSoFar / total);
+                }
+                if (merged == newMeans.length) {
+                    newMeans = Arrays.copyOf(newMeans, 2 * merged);
+                    newWeights = Arrays.copyOf(newWeights, 2 * merged);
+                }
+                newMeans[merged] = mean;
+                newWeights[merged++] = weight;
+            }
+        }
+        means = newMeans;
+        weights = newWeights;
+        centroids = merged;
+        buffered = 0;
+    }
+
+    private double scale(double q) {
+        return compression / (2 * Math.PI) * Math.asin(2 * q - 1);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > means.length) {
+            means = new double[capacity];
+            weights = new long[capacity];
+        }
+    }
+
+    private static double interpolate(double from, double to, double fraction) {
+        return from + (to - from) * fraction;
+    }
+
+    private static void putVarLong(ByteBuffer bytes, long value) {
+        while ((value & ~0x7FL) != 0) {
+            bytes.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        bytes.put((byte) value);
+    }
+
+    private static long getVarLong(ByteBuffer bytes) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = bytes.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+}
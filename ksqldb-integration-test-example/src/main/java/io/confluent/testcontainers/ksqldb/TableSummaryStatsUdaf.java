@@ -0,0 +1,152 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.testcontainers.ksqldb;
+
+import io.confluent.ksql.function.udaf.TableUdaf;
+import io.confluent.ksql.function.udaf.UdafDescription;
+import io.confluent.ksql.function.udaf.UdafFactory;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+
+import java.util.Map;
+
+/**
+ * Variant of {@link SummaryStatsUdaf} that can also aggregate a table: when a row of the table is updated or moves
+ * to another group, ksqlDB calls {@code undo} with its old value and {@code aggregate} with the new one, so the
+ * stats are adjusted without recomputing the group.
+ *
+ * <p>Example query usage:
+ *
+ * <pre>{@code
+ * CREATE TABLE api_responses (request_id INT PRIMARY KEY, username VARCHAR, response_time DOUBLE) \
+ * WITH (kafka_topic='api_logs', value_format='JSON');
+ *
+ * SELECT username, TABLE_SUMMARY_STATS(response_time) \
+ * FROM api_responses \
+ * GROUP BY username ;
+ * }</pre>
+ *
+ * <p>Only the stats that can be undone are kept: sample size, sum, mean and variance. Min and max cannot be undone
+ * without the values of the group, use {@code SUMMARY_STATS} on streams for them. The accumulators are the ones of
+ * {@link SummaryStatsUdaf}, see {@link WelfordStats}: {@code undo} reverses Welford's update, and the aggregate is
+ * reset when the group has no values left so rounding errors do not outlive it.
+ */
+@UdafDescription(
+        name = "table_summary_stats",
+        description = "Computes summary stats for a stream or a table of doubles, undoing the updated values",
+        version = "1.0-SNAPSHOT",
+        author = "Dennis Federico"
+)
+public final class TableSummaryStatsUdaf {
+
+    static final String AGGREGATE_SCHEMA_DESCRIPTOR = "STRUCT<SAMPLE_SIZE BIGINT, MEAN DOUBLE, M2 DOUBLE>";
+
+    static final Schema AGGREGATE_SCHEMA = SchemaBuilder.struct().optional()
+            .field("SAMPLE_SIZE", Schema.OPTIONAL_INT64_SCHEMA)
+            .field("MEAN", Schema.OPTIONAL_FLOAT64_SCHEMA)
+            .field("M2", Schema.OPTIONAL_FLOAT64_SCHEMA)
+            .build();
+
+    private static final WelfordStats STATS = new WelfordStats(AGGREGATE_SCHEMA);
+
+    private TableSummaryStatsUdaf() {
+    }
+
+    @UdafFactory(description = "compute summary stats for doubles, on streams and tables",
+            aggregateSchema = AGGREGATE_SCHEMA_DESCRIPTOR)
+    // Returning a TableUdaf is what allows ksqlDB to use it in table aggregations
+    public static TableUdaf<Double, Struct, Map<String, Double>> createUdaf() {
+
+        return new TableUdaf<>() {
+
+            /**
+             * Specify an initial value for our aggregation
+             *
+             * @return the initial state of the aggregate.
+             */
+            @Override
+            public Struct initialize() {
+                return STATS.initialize();
+            }
+
+            /**
+             * Perform the aggregation whenever a new record appears in our stream or table.
+             *
+             * @param newValue       the new value to add to the {@code aggregateValue}.
+             * @param aggregateValue the current aggregate.
+             * @return the new aggregate value.
+             */
+            @Override
+            public Struct aggregate(
+                    final Double newValue,
+                    final Struct aggregateValue
+            ) {
+                if (newValue == null) {
+                    return aggregateValue;
+                }
+                // update the aggregate in place
+                return STATS.add(newValue, aggregateValue);
+            }
+
+            /**
+             * Remove a value previously added, when its row of the table is updated or deleted.
+             *
+             * @param valueToUndo    the old value to remove from the {@code aggregateValue}.
+             * @param aggregateValue the current aggregate.
+             * @return the new aggregate value.
+             */
+            @Override
+            public Struct undo(
+                    final Double valueToUndo,
+                    final Struct aggregateValue
+            ) {
+                // null values were not aggregated
+                if (valueToUndo == null) {
+                    return aggregateValue;
+                }
+                // update the aggregate in place
+                return STATS.remove(valueToUndo, aggregateValue);
+            }
+
+            /**
+             * Called to merge two aggregates together.
+             *
+             * @param aggOne the first aggregate
+             * @param aggTwo the second aggregate
+             * @return the merged result
+             */
+            @Override
+            public Struct merge(
+                    final Struct aggOne,
+                    final Struct aggTwo
+            ) {
+                return STATS.merge(aggOne, aggTwo);
+            }
+
+            /**
+             * Called to map the intermediate aggregate value to the final output.
+             *
+             * @param agg the aggregate
+             * @return the result of aggregation
+             */
+            @Override
+            public Map<String, Double> map(final Struct agg) {
+                return STATS.map(agg);
+            }
+        };
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.testcontainers.ksqldb;
+
+import io.confluent.ksql.function.udaf.Udaf;
+import io.confluent.ksql.function.udaf.UdafDescription;
+import io.confluent.ksql.function.udaf.UdafFactory;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * UDAF finding the most frequent values of a stream with the Space-Saving algorithm (Metwally et al.), without a
+ * GROUP BY on the value and a sort of all the groups.
+ *
+ * <p>Example query usage:
+ *
+ * <pre>{@code
+ * CREATE STREAM movies (title VARCHAR, producer VARCHAR, release_year INT) \
+ * WITH (kafka_topic='movies', value_format='JSON');
+ *
+ * SELECT release_year, TOP_K_FREQUENT(producer, 5) \
+ * FROM movies \
+ * GROUP BY release_year ;
+ * }</pre>
+ *
+ * <p>The aggregate keeps a fixed budget of counters, when they are all taken a new value replaces the least
+ * frequent one and inherits its count as error. Every count is an overestimate by at most its error, itself at
+ * most {@code total / counters}, so any value more frequent than that is in the summary. Partial aggregates merge
+ * into a summary with the same guarantees (Agarwal et al., "Mergeable summaries").
+ */
+@UdafDescription(
+        name = "top_k_frequent",
+        description = "Finds the most frequent values of a stream with the Space-Saving algorithm",
+        version = "1.0-SNAPSHOT",
+        author = "Dennis Federico"
+)
+public final class TopKFrequentUdaf {
+
+    static final int DEFAULT_K = 10;
+    static final int COUNTERS_PER_K = 10;
+
+    static final String AGGREGATE_SCHEMA_DESCRIPTOR =
+            "STRUCT<ITEMS ARRAY<VARCHAR>, COUNTS ARRAY<BIGINT>, ERRORS ARRAY<BIGINT>>";
+    static final String RETURN_SCHEMA_DESCRIPTOR = "ARRAY<STRUCT<ITEM VARCHAR, COUNT BIGINT, ERROR BIGINT>>";
+
+    static final Schema AGGREGATE_SCHEMA = SchemaBuilder.struct().optional()
+            .field("ITEMS", SchemaBuilder.array(Schema.OPTIONAL_STRING_SCHEMA).optional().build())
+            .field("COUNTS", SchemaBuilder.array(Schema.OPTIONAL_INT64_SCHEMA).optional().build())
+            .field("ERRORS", SchemaBuilder.array(Schema.OPTIONAL_INT64_SCHEMA).optional().build())
+            .build();
+
+    static final Schema ENTRY_SCHEMA = SchemaBuilder.struct().optional()
+            .field("ITEM", Schema.OPTIONAL_STRING_SCHEMA)
+            .field("COUNT", Schema.OPTIONAL_INT64_SCHEMA)
+            .field("ERROR", Schema.OPTIONAL_INT64_SCHEMA)
+            .build();
+
+    // Parallel lists, the counter i is (ITEMS[i], COUNTS[i], ERRORS[i])
+    static final Field ITEMS = AGGREGATE_SCHEMA.field("ITEMS");
+    static final Field COUNTS = AGGREGATE_SCHEMA.field("COUNTS");
+    static final Field ERRORS = AGGREGATE_SCHEMA.field("ERRORS");
+
+    private TopKFrequentUdaf() {
+    }
+
+    @UdafFactory(description = "find the 10 most frequent strings, with 100 counters",
+            aggregateSchema = AGGREGATE_SCHEMA_DESCRIPTOR, returnSchema = RETURN_SCHEMA_DESCRIPTOR)
+    public static Udaf<String, Struct, List<Struct>> createUdaf() {
+        return createUdaf(DEFAULT_K);
+    }
+
+    @UdafFactory(description = "find the k most frequent strings, with 10 counters per k",
+            aggregateSchema = AGGREGATE_SCHEMA_DESCRIPTOR, returnSchema = RETURN_SCHEMA_DESCRIPTOR)
+    public static Udaf<String, Struct, List<Struct>> createUdaf(final int k) {
+        return createUdaf(k, k * COUNTERS_PER_K);
+    }
+
+    @UdafFactory(description = "find the k most frequent strings, with the given number of counters: more "
+            + "counters are more accurate and a bigger aggregate",
+            aggregateSchema = AGGREGATE_SCHEMA_DESCRIPTOR, returnSchema = RETURN_SCHEMA_DESCRIPTOR)
+    // The input of our aggregation will be strings, the intermediate aggregate the counters in a struct and the
+    // output the top k counters, most frequent first
+    public static Udaf<String, Struct, List<Struct>> createUdaf(final int k, final int counters) {
+        if (k < 1 || counters < k) {
+            throw new IllegalArgumentException(
+                    String.format("k must be positive and counters at least k, were %d and %d", k, counters));
+        }
+
+        return new Udaf<>() {
+
+            /**
+             * Specify an initial value for our aggregation
+             *
+             * @return the initial state of the aggregate.
+             */
+            @Override
+            public Struct initialize() {
+                return new Struct(AGGREGATE_SCHEMA)
+                        .put(ITEMS, new ArrayList<String>(counters))
+                        .put(COUNTS, new ArrayList<Long>(counters))
+                        .put(ERRORS, new ArrayList<Long>(counters));
+            }
+
+            /**
+             * Count the new value: increment its counter, take a free one or replace the least frequent value.
+             *
+             * @param newValue       the new value to add to the {@code aggregateValue}.
+             * @param aggregateValue the current aggregate.
+             * @return the new aggregate value.
+             */
+            @Override
+            public Struct aggregate(
+                    final String newValue,
+                    final Struct aggregateValue
+            ) {
+                if (newValue == null) {
+                    return aggregateValue;
+                }
+                final List<String> items = items(aggregateValue);
+                final List<Long> counts = counts(aggregateValue);
+                final List<Long> errors = errors(aggregateValue);
+
+                // a single pass finds the value or else the least frequent counter
+                int min = 0;
+                for (int i = 0; i < items.size(); i++) {
+                    if (newValue.equals(items.get(i))) {
+                        counts.set(i, counts.get(i) + 1);
+                        return aggregateValue;
+                    }
+                    if (counts.get(i) < counts.get(min)) {
+                        min = i;
+                    }
+                }
+                if (items.size() < counters) {
+                    items.add(newValue);
+                    counts.add(1L);
+                    errors.add(0L);
+                } else {
+                    final long minCount = counts.get(min);
+                    items.set(min, newValue);
+                    counts.set(min, minCount + 1);
+                    errors.set(min, minCount);
+                }
+                return aggregateValue;
+            }
+
+            /**
+             * Called to merge two aggregates together: a value missing from a full summary may have been counted
+             * up to its minimum count, which is added to the count and error of the value.
+             *
+             * @param aggOne the first aggregate
+             * @param aggTwo the second aggregate
+             * @return the merged result
+             */
+            @Override
+            public Struct merge(
+                    final Struct aggOne,
+                    final Struct aggTwo
+            ) {
+                final long minOne = minCount(aggOne, counters);
+                final long minTwo = minCount(aggTwo, counters);
+
+                // (count, error) of each value, assuming first it is only in its own summary
+                final Map<String, long[]> merged = new HashMap<>();
+                final List<String> itemsOne = items(aggOne);
+                final List<Long> countsOne = counts(aggOne);
+                final List<Long> errorsOne = errors(aggOne);
+                for (int i = 0; i < itemsOne.size(); i++) {
+                    merged.put(itemsOne.get(i), new long[]{countsOne.get(i) + minTwo, errorsOne.get(i) + minTwo});
+                }
+                final List<String> itemsTwo = items(aggTwo);
+                final List<Long> countsTwo = counts(aggTwo);
+                final List<Long> errorsTwo = errors(aggTwo);
+                for (int i = 0; i < itemsTwo.size(); i++) {
+                    final long[] countAndError = merged.get(itemsTwo.get(i));
+                    if (countAndError == null) {
+                        merged.put(itemsTwo.get(i), new long[]{countsTwo.get(i) + minOne, errorsTwo.get(i) + minOne});
+                    } else {
+                        countAndError[0] += countsTwo.get(i) - minTwo;
+                        countAndError[1] += errorsTwo.get(i) - minTwo;
+                    }
+                }
+
+                final Struct result = initialize();
+                merged.entrySet().stream()
+                        .sorted(Map.Entry.<String, long[]>comparingByValue(Comparator.comparingLong(c -> -c[0]))
+                                .thenComparing(Map.Entry.comparingByKey()))
+                        .limit(counters)
+                        .forEach(entry -> {
+                            items(result).add(entry.getKey());
+                            counts(result).add(entry.getValue()[0]);
+                            errors(result).add(entry.getValue()[1]);
+                        });
+                return result;
+            }
+
+            /**
+             * Called to map the intermediate aggregate value to the final output.
+             *
+             * @param agg the aggregate
+             * @return the k most frequent values, most frequent first
+             */
+            @Override
+            public List<Struct> map(final Struct agg) {
+                final List<String> items = items(agg);
+                final List<Long> counts = counts(agg);
+                final List<Long> errors = errors(agg);
+                return IntStream.range(0, items.size()).boxed()
+                        .sorted(Comparator.<Integer>comparingLong(i -> -counts.get(i)).thenComparing(items::get))
+                        .limit(k)
+                        .map(i -> new Struct(ENTRY_SCHEMA)
+                                .put("ITEM", items.get(i))
+                                .put("COUNT", counts.get(i))
+                                .put("ERROR", errors.get(i)))
+                        .collect(Collectors.toList());
+            }
+        };
+    }
+
+    /**
+     * @return the count a value missing from the summary may have, 0 as long as there are free counters
+     */
+    private static long minCount(final Struct summary, final int counters) {
+        final List<Long> counts = counts(summary);
+        if (counts.size() < counters) {
+            return 0;
+        }
+        long min = Long.MAX_VALUE;
+        for (final Long count : counts) {
+            min = Math.min(min, count);
+        }
+        return min;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> items(final Struct aggregate) {
+        return (List<String>) aggregate.get(ITEMS);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Long> counts(final Struct aggregate) {
+        return (List<Long>) aggregate.get(COUNTS);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Long> errors(final Struct aggregate) {
+        return (List<Long>) aggregate.get(ERRORS);
+    }
+}
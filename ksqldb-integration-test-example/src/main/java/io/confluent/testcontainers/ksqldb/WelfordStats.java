@@ -0,0 +1,160 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.testcontainers.ksqldb;
+
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sample size, mean and sum of squared differences from the mean (M2) of the aggregate struct of
+ * {@link SummaryStatsUdaf} and {@link TableSummaryStatsUdaf}, the other fields of the struct are left to the UDAF.
+ *
+ * <p>Values are added with Welford's update and removed by reversing it, aggregates are combined with the pairwise
+ * formula of Chan et al. The sum is not kept, it is the mean times the sample size.
+ */
+final class WelfordStats {
+
+    private final Schema schema;
+    private final Field sampleSize;
+    private final Field mean;
+    private final Field m2;
+
+    /**
+     * @param schema aggregate schema with the SAMPLE_SIZE BIGINT, MEAN DOUBLE and M2 DOUBLE fields
+     */
+    WelfordStats(final Schema schema) {
+        this.schema = schema;
+        // Fields are resolved once, ksqlDB builds its own schema from the descriptor with the fields in the same order
+        this.sampleSize = schema.field("SAMPLE_SIZE");
+        this.mean = schema.field("MEAN");
+        this.m2 = schema.field("M2");
+    }
+
+    /**
+     * @return an aggregate of no value, the other fields are null
+     */
+    Struct initialize() {
+        return reset(new Struct(schema));
+    }
+
+    /**
+     * Adds the value to the aggregate in place
+     */
+    Struct add(final double value, final Struct aggregate) {
+        final long newSampleSize = sampleSize(aggregate) + 1;
+        final double delta = value - mean(aggregate);
+        final double newMean = mean(aggregate) + delta / newSampleSize;
+        return aggregate
+                .put(sampleSize, newSampleSize)
+                .put(mean, newMean)
+                .put(m2, m2(aggregate) + delta * (value - newMean));
+    }
+
+    /**
+     * Removes a value previously added from the aggregate in place, the aggregate is reset when no value is left so
+     * rounding errors do not outlive it
+     */
+    Struct remove(final double value, final Struct aggregate) {
+        if (sampleSize(aggregate) == 0) {
+            return aggregate;
+        }
+        final long oldSampleSize = sampleSize(aggregate) - 1;
+        if (oldSampleSize == 0) {
+            return reset(aggregate);
+        }
+        final double oldMean = mean(aggregate) - (value - mean(aggregate)) / oldSampleSize;
+        // m2 = oldM2 + (value - oldMean) * (value - mean), never negative but for rounding
+        final double oldM2 = m2(aggregate) - (value - oldMean) * (value - mean(aggregate));
+        return aggregate
+                .put(sampleSize, oldSampleSize)
+                .put(mean, oldMean)
+                .put(m2, Math.max(oldM2, 0.0));
+    }
+
+    /**
+     * @return a new aggregate of the values of both, a copy of the other one when one is empty. When both have values
+     * the other fields are null.
+     */
+    Struct merge(final Struct aggOne, final Struct aggTwo) {
+        final long sampleSizeOne = sampleSize(aggOne);
+        final long sampleSizeTwo = sampleSize(aggTwo);
+        if (sampleSizeOne == 0) {
+            return copy(schema, aggTwo);
+        }
+        if (sampleSizeTwo == 0) {
+            return copy(schema, aggOne);
+        }
+        final long newSampleSize = sampleSizeOne + sampleSizeTwo;
+        final double delta = mean(aggTwo) - mean(aggOne);
+        final double weight = (double) sampleSizeTwo / newSampleSize;
+
+        return new Struct(schema)
+                .put(sampleSize, newSampleSize)
+                .put(mean, mean(aggOne) + delta * weight)
+                .put(m2, m2(aggOne) + m2(aggTwo) + delta * delta * sampleSizeOne * weight);
+    }
+
+    /**
+     * @return mean, sample_size, sum, variance and stddev of the aggregate
+     */
+    Map<String, Double> map(final Struct aggregate) {
+        final long size = sampleSize(aggregate);
+        // sample variance, with Bessel's correction
+        final double variance = size < 2 ? 0.0 : m2(aggregate) / (size - 1);
+
+        final Map<String, Double> stats = new HashMap<>();
+        stats.put("mean", mean(aggregate));
+        stats.put("sample_size", (double) size);
+        stats.put("sum", mean(aggregate) * size);
+        stats.put("variance", variance);
+        stats.put("stddev", Math.sqrt(variance));
+        return stats;
+    }
+
+    long sampleSize(final Struct aggregate) {
+        return (Long) aggregate.get(sampleSize);
+    }
+
+    private double mean(final Struct aggregate) {
+        return (Double) aggregate.get(mean);
+    }
+
+    private double m2(final Struct aggregate) {
+        return (Double) aggregate.get(m2);
+    }
+
+    private Struct reset(final Struct aggregate) {
+        return aggregate
+                .put(sampleSize, 0L)
+                .put(mean, 0.0)
+                .put(m2, 0.0);
+    }
+
+    /**
+     * @return a new struct of the schema with the values of the fields of the aggregate
+     */
+    static Struct copy(final Schema schema, final Struct aggregate) {
+        final Struct copy = new Struct(schema);
+        for (final Field field : schema.fields()) {
+            copy.put(field, aggregate.get(field));
+        }
+        return copy;
+    }
+}
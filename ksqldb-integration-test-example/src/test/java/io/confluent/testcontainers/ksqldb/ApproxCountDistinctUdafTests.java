@@ -0,0 +1,158 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.testcontainers.ksqldb;
+
+import io.confluent.ksql.function.udaf.Udaf;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Base64;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ApproxCountDistinctUdafTests {
+
+    @ParameterizedTest
+    @CsvSource({
+            "1000, 12",
+            "10000, 12",
+            "100000, 12",
+            "1000000, 12",
+            "10000000, 12",
+            "100000000, 12",
+            "1000, 16",
+            "100000000, 16",
+            "100000000, 8"
+    })
+    public void estimateIsWithinTheStandardErrorBound(long cardinality, int precision) {
+        // Given:
+        final HyperLogLog sketch = new HyperLogLog(precision);
+
+        // When:
+        for (long i = 0; i < cardinality; i++) {
+            sketch.add(HyperLogLog.hash(i));
+        }
+
+        // Then: 4 standard errors
+        final double standardError = 1.04 / Math.sqrt(1 << precision);
+        assertThat((double) sketch.estimate(), closeTo(cardinality, cardinality * 4 * standardError));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 1_000, 10_000, 100_000})
+    public void estimateOfStringsIsWithinTheStandardErrorBound(int cardinality) {
+        // Given:
+        final Udaf<String, String, Long> udaf = ApproxCountDistinctUdaf.createStringUdaf();
+
+        // When: every value twice
+        String aggregate = udaf.initialize();
+        for (int i = 0; i < 2 * cardinality; i++) {
+            aggregate = udaf.aggregate("user-" + (i % cardinality), aggregate);
+        }
+
+        // Then:
+        final double standardError = 1.04 / Math.sqrt(1 << ApproxCountDistinctUdaf.DEFAULT_PRECISION);
+        assertThat((double) udaf.map(aggregate), closeTo(cardinality, cardinality * 4 * standardError));
+    }
+
+    @Test
+    public void smallCardinalitiesAreAlmostExact() {
+        // Given:
+        final Udaf<Long, String, Long> udaf = ApproxCountDistinctUdaf.createLongUdaf();
+
+        // When:
+        String aggregate = udaf.initialize();
+        for (long i = 0; i < 100; i++) {
+            aggregate = udaf.aggregate(i, aggregate);
+        }
+
+        // Then:
+        assertEquals(0L, udaf.map(udaf.initialize()));
+        assertThat(udaf.map(aggregate), both(greaterThanOrEqualTo(98L)).and(lessThanOrEqualTo(102L)));
+    }
+
+    @Test
+    public void mergeEstimatesTheUnion() {
+        // Given: [0, 120k) and [80k, 200k)
+        final Udaf<Long, String, Long> udaf = ApproxCountDistinctUdaf.createLongUdaf();
+        String aggOne = udaf.initialize();
+        String aggTwo = udaf.initialize();
+        String single = udaf.initialize();
+
+        // When:
+        for (long i = 0; i < 200_000; i++) {
+            if (i < 120_000) {
+                aggOne = udaf.aggregate(i, aggOne);
+            }
+            if (i >= 80_000) {
+                aggTwo = udaf.aggregate(i, aggTwo);
+            }
+            single = udaf.aggregate(i, single);
+        }
+        final String merged = udaf.merge(aggOne, aggTwo);
+
+        // Then: register-wise max, the same registers as a single pass
+        assertEquals(single, merged);
+        assertEquals(merged, udaf.merge(aggTwo, aggOne));
+        assertEquals(merged, udaf.merge(merged, aggOne));
+        assertThat((double) udaf.map(merged), closeTo(200_000, 200_000 * 4 * 1.04 / 64));
+    }
+
+    @Test
+    public void aggregateHasAFixedSize() {
+        // Given:
+        final Udaf<String, String, Long> udaf = ApproxCountDistinctUdaf.createStringUdaf(10);
+
+        // When:
+        String aggregate = udaf.initialize();
+        final int emptySize = aggregate.length();
+        for (int i = 0; i < 50_000; i++) {
+            aggregate = udaf.aggregate("user-" + i, aggregate);
+        }
+
+        // Then:
+        assertEquals(1024, Base64.getDecoder().decode(aggregate).length);
+        assertEquals(emptySize, aggregate.length());
+    }
+
+    @Test
+    public void shouldIgnoreNullValues() {
+        // Given:
+        final Udaf<String, String, Long> udaf = ApproxCountDistinctUdaf.createStringUdaf();
+
+        // When:
+        final String aggregate = udaf.aggregate(null, udaf.initialize());
+
+        // Then:
+        assertEquals(udaf.initialize(), aggregate);
+        assertEquals(0L, udaf.map(aggregate));
+    }
+
+    @Test
+    public void shouldRejectInvalidPrecisions() {
+        assertThrows(IllegalArgumentException.class, () -> ApproxCountDistinctUdaf.createStringUdaf(3));
+        assertThrows(IllegalArgumentException.class, () -> ApproxCountDistinctUdaf.createLongUdaf(17));
+
+        final Udaf<Long, String, Long> udaf = ApproxCountDistinctUdaf.createLongUdaf(12);
+        final String otherPrecision = ApproxCountDistinctUdaf.createLongUdaf(14).initialize();
+        assertThrows(IllegalArgumentException.class, () -> udaf.merge(udaf.initialize(), otherPrecision));
+    }
+}
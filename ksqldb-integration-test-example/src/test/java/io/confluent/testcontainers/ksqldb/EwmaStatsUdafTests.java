@@ -0,0 +1,234 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.testcontainers.ksqldb;
+
+import io.confluent.ksql.function.udaf.Udaf;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class EwmaStatsUdafTests {
+
+    private static final int HALF_LIFE_SECONDS = 60;
+    private static final long HALF_LIFE_MILLIS = HALF_LIFE_SECONDS * 1000L;
+
+    @Test
+    public void shouldComputeNewAggregate() {
+        // Given:
+        final Udaf<Struct, Struct, Map<String, Double>> udaf = EwmaStatsUdaf.createUdaf(HALF_LIFE_SECONDS);
+
+        // When: a value one half-life after the previous one
+        final Struct first = udaf.aggregate(value(100, 1_000), udaf.initialize());
+        final Struct second = udaf.aggregate(value(200, 1_000 + HALF_LIFE_MILLIS), copy(first));
+
+        // Then: weights 0.5 and 1, the mean is (50 + 200) / 1.5
+        assertEquals(aggregate(1.0, 100.0, 0.0, 1_000L), first);
+        final Map<String, Double> stats = udaf.map(second);
+        assertThat(stats.get("weight"), closeTo(1.5, 1e-12));
+        assertThat(stats.get("mean"), closeTo(500.0 / 3, 1e-9));
+        assertThat(stats.get("variance"), closeTo(20_000.0 / 9, 1e-9));
+        assertThat(stats.get("stddev"), closeTo(Math.sqrt(20_000.0 / 9), 1e-9));
+        assertEquals(1_000L + HALF_LIFE_MILLIS, second.get(EwmaStatsUdaf.TS));
+    }
+
+    @Test
+    public void lateValueIsDecayedToTheLatestTime() {
+        // Given:
+        final Udaf<Struct, Struct, Map<String, Double>> udaf = EwmaStatsUdaf.createUdaf(HALF_LIFE_SECONDS);
+
+        // When: the values of shouldComputeNewAggregate, out of order
+        final Struct aggregate = udaf.aggregate(value(100, 1_000),
+                udaf.aggregate(value(200, 1_000 + HALF_LIFE_MILLIS), udaf.initialize()));
+
+        // Then: the same stats, the time does not move back
+        final Map<String, Double> stats = udaf.map(aggregate);
+        assertThat(stats.get("weight"), closeTo(1.5, 1e-12));
+        assertThat(stats.get("mean"), closeTo(500.0 / 3, 1e-9));
+        assertThat(stats.get("variance"), closeTo(20_000.0 / 9, 1e-9));
+        assertEquals(1_000L + HALF_LIFE_MILLIS, aggregate.get(EwmaStatsUdaf.TS));
+    }
+
+    @Test
+    public void mergeAggregatesWithDifferentTimes() {
+        // Given: 100 at 0 and 200 at 2 half-lives, 300 at 1 half-life
+        final Udaf<Struct, Struct, Map<String, Double>> udaf = EwmaStatsUdaf.createUdaf(HALF_LIFE_SECONDS);
+        final Struct aggOne = udaf.aggregate(value(200, 2 * HALF_LIFE_MILLIS),
+                udaf.aggregate(value(100, 0), udaf.initialize()));
+        final Struct aggTwo = udaf.aggregate(value(300, HALF_LIFE_MILLIS), udaf.initialize());
+
+        // When:
+        final Struct merged = udaf.merge(copy(aggOne), copy(aggTwo));
+
+        // Then: weights 0.25, 1 and 0.5 at 2 half-lives
+        final Map<String, Double> stats = udaf.map(merged);
+        final double mean = (0.25 * 100 + 200 + 0.5 * 300) / 1.75;
+        final double variance = (0.25 * Math.pow(100 - mean, 2) + Math.pow(200 - mean, 2)
+                + 0.5 * Math.pow(300 - mean, 2)) / 1.75;
+        assertThat(stats.get("weight"), closeTo(1.75, 1e-12));
+        assertThat(stats.get("mean"), closeTo(mean, 1e-9));
+        assertThat(stats.get("variance"), closeTo(variance, 1e-9));
+        assertEquals(2 * HALF_LIFE_MILLIS, merged.get(EwmaStatsUdaf.TS));
+        assertStatsEqual(stats, udaf.map(udaf.merge(copy(aggTwo), copy(aggOne))));
+    }
+
+    @Test
+    public void mergeWithAnEmptyAggregate() {
+        // Given:
+        final Udaf<Struct, Struct, Map<String, Double>> udaf = EwmaStatsUdaf.createUdaf(HALF_LIFE_SECONDS);
+        final Struct aggregate = aggregate(1.5, 10.0, 3.0, 5_000L);
+
+        // When:
+        final Struct merged = udaf.merge(udaf.initialize(), aggregate);
+
+        // Then:
+        assertEquals(aggregate, merged);
+        assertEquals(aggregate, udaf.merge(aggregate, udaf.initialize()));
+    }
+
+    @Test
+    public void mergedPartitionsMatchTheSinglePass() {
+        // Given: a day of values every second, spread over 4 partitions
+        final Udaf<Struct, Struct, Map<String, Double>> udaf = EwmaStatsUdaf.createUdaf(HALF_LIFE_SECONDS);
+        final Random random = new Random(42);
+        final Struct[] partitions = new Struct[4];
+        for (int p = 0; p < partitions.length; p++) {
+            partitions[p] = udaf.initialize();
+        }
+        Struct single = udaf.initialize();
+
+        // When: the partitions stop at different times
+        for (long ts = 0; ts < 86_400_000L; ts += 1_000) {
+            final int partition = random.nextInt(partitions.length);
+            if (partition == 0 && ts > 80_000_000L) {
+                continue;
+            }
+            final double value = 100 + 10 * random.nextGaussian();
+            partitions[partition] = udaf.aggregate(value(value, ts), partitions[partition]);
+            single = udaf.aggregate(value(value, ts), single);
+        }
+        final Struct merged = udaf.merge(udaf.merge(partitions[0], partitions[1]),
+                udaf.merge(partitions[2], partitions[3]));
+
+        // Then:
+        assertEquals(single.get(EwmaStatsUdaf.TS), merged.get(EwmaStatsUdaf.TS));
+        assertStatsEqual(udaf.map(single), udaf.map(merged));
+        assertThat(udaf.map(merged).get("stddev"), closeTo(10, 2));
+    }
+
+    @Test
+    public void statsFollowALevelShift() {
+        // Given: a week of values around 100 every second
+        final Udaf<Struct, Struct, Map<String, Double>> udaf = EwmaStatsUdaf.createUdaf(HALF_LIFE_SECONDS);
+        Struct aggregate = udaf.initialize();
+        long ts = 0;
+        for (; ts < 7 * 86_400_000L; ts += 1_000) {
+            aggregate = udaf.aggregate(value(100 + (ts / 1_000 % 2), ts), aggregate);
+        }
+
+        // When: 10 half-lives of values around 1000
+        final long shift = ts;
+        for (; ts < shift + 10 * HALF_LIFE_MILLIS; ts += 1_000) {
+            aggregate = udaf.aggregate(value(1_000 + (ts / 1_000 % 2), ts), aggregate);
+        }
+
+        // Then: the week before weighs 2^-10 of the total
+        final Map<String, Double> stats = udaf.map(aggregate);
+        assertThat(stats.get("mean"), closeTo(1_000, 1));
+        assertThat(stats.get("weight"), closeTo(1 / (1 - Math.pow(2, -1.0 / HALF_LIFE_SECONDS)), 1e-6));
+    }
+
+    @Test
+    public void shouldIgnoreNullValues() {
+        // Given:
+        final Udaf<Struct, Struct, Map<String, Double>> udaf = EwmaStatsUdaf.createUdaf(HALF_LIFE_SECONDS);
+
+        // When:
+        Struct aggregate = udaf.aggregate(null, udaf.initialize());
+        aggregate = udaf.aggregate(new Struct(EwmaStatsUdaf.PARAM_SCHEMA).put("TS", 1_000L), aggregate);
+        aggregate = udaf.aggregate(new Struct(EwmaStatsUdaf.PARAM_SCHEMA).put("VALUE", 1.0), aggregate);
+
+        // Then:
+        assertEquals(udaf.initialize(), aggregate);
+        assertEquals(0.0, udaf.map(aggregate).get("weight"));
+        assertEquals(0.0, udaf.map(aggregate).get("variance"));
+    }
+
+    @Test
+    public void parameterFieldsAreReadByName() {
+        // Given: STRUCT(TS := ROWTIME, VALUE := response_time)
+        final Udaf<Struct, Struct, Map<String, Double>> udaf = EwmaStatsUdaf.createUdaf(HALF_LIFE_SECONDS);
+        final Schema tsFirst = SchemaBuilder.struct().optional()
+                .field("TS", Schema.OPTIONAL_INT64_SCHEMA)
+                .field("VALUE", Schema.OPTIONAL_FLOAT64_SCHEMA)
+                .build();
+
+        // When:
+        final Struct aggregate = udaf.aggregate(new Struct(tsFirst).put("TS", 1_000L).put("VALUE", 100.0),
+                udaf.initialize());
+
+        // Then:
+        assertEquals(udaf.aggregate(value(100, 1_000), udaf.initialize()), aggregate);
+    }
+
+    @Test
+    public void shouldRejectInvalidHalfLives() {
+        assertThrows(IllegalArgumentException.class, () -> EwmaStatsUdaf.createUdaf(0));
+        assertThrows(IllegalArgumentException.class, () -> EwmaStatsUdaf.createUdaf(-60));
+    }
+
+    private static void assertStatsEqual(Map<String, Double> expected, Map<String, Double> actual) {
+        assertEquals(expected.keySet(), actual.keySet());
+        for (Map.Entry<String, Double> stat : expected.entrySet()) {
+            assertThat(stat.getKey(), actual.get(stat.getKey()),
+                    closeTo(stat.getValue(), Math.abs(stat.getValue()) * 1e-9));
+        }
+    }
+
+    private static Struct value(double value, long ts) {
+        return new Struct(EwmaStatsUdaf.PARAM_SCHEMA)
+                .put("VALUE", value)
+                .put("TS", ts);
+    }
+
+    private static Struct copy(Struct aggregate) {
+        return aggregate(
+                (Double) aggregate.get(EwmaStatsUdaf.WEIGHT),
+                (Double) aggregate.get(EwmaStatsUdaf.MEAN),
+                (Double) aggregate.get(EwmaStatsUdaf.M2),
+                (Long) aggregate.get(EwmaStatsUdaf.TS));
+    }
+
+    /**
+     * Helper method for building an aggregate that mimics what KSQL would pass
+     * to our UDAF instance.
+     */
+    private static Struct aggregate(double weight, double mean, double m2, long ts) {
+        return new Struct(EwmaStatsUdaf.AGGREGATE_SCHEMA)
+                .put("WEIGHT", weight)
+                .put("MEAN", mean)
+                .put("M2", m2)
+                .put("TS", ts);
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.testcontainers.ksqldb;
+
+import io.confluent.ksql.function.udaf.Udaf;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PercentilesUdafTests {
+
+    private static final int SAMPLES = 100_000;
+
+    enum Distribution {
+        UNIFORM {
+            @Override
+            double next(Random random) {
+                return random.nextDouble() * 1000;
+            }
+        },
+        GAUSSIAN {
+            @Override
+            double next(Random random) {
+                return 250 + random.nextGaussian() * 40;
+            }
+        },
+        // response times: most requests are fast, the tail is long
+        LOG_NORMAL {
+            @Override
+            double next(Random random) {
+                return Math.exp(4 + random.nextGaussian());
+            }
+        },
+        EXPONENTIAL {
+            @Override
+            double next(Random random) {
+                return -Math.log(1 - random.nextDouble()) * 100;
+            }
+        };
+
+        abstract double next(Random random);
+    }
+
+    @ParameterizedTest
+    @EnumSource(Distribution.class)
+    public void percentilesAreCloseToTheExactOnes(Distribution distribution) {
+        // Given:
+        final Udaf<Double, String, Map<String, Double>> udaf = PercentilesUdaf.createUdaf();
+        final double[] values = values(distribution, SAMPLES);
+
+        // When:
+        String aggregate = udaf.initialize();
+        for (double value : values) {
+            aggregate = udaf.aggregate(value, aggregate);
+        }
+
+        // Then:
+        assertPercentiles(udaf.map(aggregate), values);
+    }
+
+    @ParameterizedTest
+    @EnumSource(Distribution.class)
+    public void mergedPartitionsAreCloseToTheExactPercentiles(Distribution distribution) {
+        // Given: the stream spread over partitions of different sizes
+        final Udaf<Double, String, Map<String, Double>> udaf = PercentilesUdaf.createUdaf();
+        final double[] values = values(distribution, SAMPLES);
+        final int[] partitionEnds = {1, 700, 10_000, 35_000, 36_000, 80_000, SAMPLES};
+
+        // When:
+        String merged = udaf.initialize();
+        int start = 0;
+        for (int end : partitionEnds) {
+            String partition = udaf.initialize();
+            for (int i = start; i < end; i++) {
+                partition = udaf.aggregate(values[i], partition);
+            }
+            merged = udaf.merge(partition, merged);
+            start = end;
+        }
+
+        // Then:
+        final TDigest digest = PercentilesUdaf.decode(merged);
+        assertEquals(SAMPLES, digest.getCount());
+        assertEquals(Arrays.stream(values).min().getAsDouble(), digest.getMin());
+        assertEquals(Arrays.stream(values).max().getAsDouble(), digest.getMax());
+        assertPercentiles(udaf.map(merged), values);
+    }
+
+    @Test
+    public void aggregateSizeIsBounded() {
+        // Given:
+        final Udaf<Double, String, Map<String, Double>> udaf = PercentilesUdaf.createUdaf();
+        final double[] values = values(Distribution.LOG_NORMAL, SAMPLES);
+
+        // When:
+        String aggregate = udaf.initialize();
+        int largest = 0;
+        for (double value : values) {
+            aggregate = udaf.aggregate(value, aggregate);
+            largest = Math.max(largest, aggregate.length());
+        }
+
+        // Then: about a hundred centroids and the buffer, whatever the number of values
+        assertThat(largest, lessThan(2000));
+    }
+
+    @Test
+    public void higherCompressionIsMoreAccurate() {
+        // Given:
+        final double[] values = values(Distribution.LOG_NORMAL, SAMPLES);
+        final double[] sorted = values.clone();
+        Arrays.sort(sorted);
+
+        // When:
+        final double lowError = rankError(percentiles(PercentilesUdaf.createUdaf(20), values), sorted, "p99", 0.99);
+        final double highError = rankError(percentiles(PercentilesUdaf.createUdaf(500), values), sorted, "p99", 0.99);
+
+        // Then:
+        assertThat(highError, lessThan(lowError));
+    }
+
+    @Test
+    public void shouldIgnoreNullValues() {
+        // Given:
+        final Udaf<Double, String, Map<String, Double>> udaf = PercentilesUdaf.createUdaf();
+
+        // When:
+        final String aggregate = udaf.aggregate(null, udaf.aggregate(Double.NaN, udaf.initialize()));
+
+        // Then:
+        assertEquals(udaf.initialize(), aggregate);
+        final Map<String, Double> percentiles = udaf.map(aggregate);
+        assertThat(percentiles, allOf(hasEntry("p50", null), hasEntry("p95", null), hasEntry("p99", null)));
+    }
+
+    @Test
+    public void singleValueIsEveryPercentile() {
+        // Given:
+        final Udaf<Double, String, Map<String, Double>> udaf = PercentilesUdaf.createUdaf();
+
+        // When:
+        final String aggregate = udaf.aggregate(42.0, udaf.initialize());
+
+        // Then:
+        assertThat(udaf.map(aggregate), allOf(hasEntry("p50", 42.0), hasEntry("p95", 42.0), hasEntry("p99", 42.0)));
+    }
+
+    @Test
+    public void shouldRejectInvalidCompression() {
+        assertThrows(IllegalArgumentException.class, () -> PercentilesUdaf.createUdaf(1));
+    }
+
+    private static Map<String, Double> percentiles(Udaf<Double, String, Map<String, Double>> udaf, double[] values) {
+        String aggregate = udaf.initialize();
+        for (double value : values) {
+            aggregate = udaf.aggregate(value, aggregate);
+        }
+        return udaf.map(aggregate);
+    }
+
+    private static double[] values(Distribution distribution, int samples) {
+        final Random random = new Random(42);
+        final double[] values = new double[samples];
+        for (int i = 0; i < samples; i++) {
+            values[i] = distribution.next(random);
+        }
+        return values;
+    }
+
+    /**
+     * The accuracy of the sketch is on the rank: the share of values below the estimate should be the quantile
+     */
+    private static void assertPercentiles(Map<String, Double> percentiles, double[] values) {
+        final double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        assertThat(rankError(percentiles, sorted, "p50", 0.50), lessThan(0.005));
+        assertThat(rankError(percentiles, sorted, "p95", 0.95), lessThan(0.002));
+        assertThat(rankError(percentiles, sorted, "p99", 0.99), lessThan(0.001));
+    }
+
+    private static double rankError(Map<String, Double> percentiles, double[] sorted, String percentile, double q) {
+        int index = Arrays.binarySearch(sorted, percentiles.get(percentile));
+        double rank = (index >= 0 ? index : -index - 1) / (double) sorted.length;
+        return Math.abs(rank - q);
+    }
+}
@@ -16,11 +16,18 @@
 package io.confluent.testcontainers.ksqldb;
 
 import io.confluent.ksql.function.udaf.Udaf;
+import io.confluent.testcontainers.ksqldb.benchmark.ChangelogJson;
+import io.confluent.testcontainers.ksqldb.benchmark.HashMapSummaryStatsUdaf;
+import org.apache.kafka.connect.data.Struct;
 import org.junit.jupiter.api.Test;
 
 import java.util.HashMap;
 import java.util.Map;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 
@@ -29,54 +36,205 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
  */
 public class SummaryStatsUdafTests {
 
+    // Values around a large offset, where a sum of squares loses all the digits of the variance
+    private static final double OFFSET = 1e9;
+    private static final long SAMPLES = 100_000_000L;
+
     @Test
     public void mergeAggregates() {
         // Given:
-        final Udaf<Double, Map<String, Double>, Map<String, Double>> udaf =
+        final Udaf<Double, Struct, Map<String, Double>> udaf =
                 SummaryStatsUdaf.createUdaf();
 
         // When:
-        final Map<String, Double> mergedAggregate = udaf.merge(
-                // (sample_size, sum, mean)
-                aggregate(3.0, 3300.0, 1100.0),
-                aggregate(7.0, 6700.0, 957.143)
+        final Struct mergedAggregate = udaf.merge(
+                // (sample_size, mean, m2, min, max) of 1000, 1100, 1200
+                aggregate(3, 1100.0, 20000.0, 1000.0, 1200.0),
+                // of 900, 950, 1000, 1000, 1000, 950, 900
+                aggregate(7, 6700.0 / 7, 85000.0 / 7, 900.0, 1000.0)
         );
 
         // Then:
-        final Map<String, Double> expectedResult = aggregate(10.0, 10000.0, 1000.0);
-        assertEquals(expectedResult, mergedAggregate);
+        final Map<String, Double> stats = udaf.map(mergedAggregate);
+        assertEquals(10.0, stats.get("sample_size"));
+        assertThat(stats.get("sum"), closeTo(10000.0, 1e-9));
+        assertThat(stats.get("mean"), closeTo(1000.0, 1e-9));
+        assertThat(stats.get("variance"), closeTo(75000.0 / 9, 1e-9));
+        assertThat(stats.get("stddev"), closeTo(Math.sqrt(75000.0 / 9), 1e-9));
+        assertEquals(900.0, stats.get("min"));
+        assertEquals(1200.0, stats.get("max"));
+    }
+
+    @Test
+    public void mergeWithAnEmptyAggregate() {
+        // Given:
+        final Udaf<Double, Struct, Map<String, Double>> udaf =
+                SummaryStatsUdaf.createUdaf();
+        final Struct aggregate = aggregate(2, 650.0, 125000.0, 400.0, 900.0);
+
+        // When:
+        final Struct left = udaf.merge(udaf.initialize(), aggregate);
+        final Struct right = udaf.merge(aggregate, udaf.initialize());
+
+        // Then:
+        assertEquals(aggregate, left);
+        assertEquals(aggregate, right);
     }
 
     @Test
     public void shouldComputeNewAggregate() {
         // Given:
-        final Udaf<Double, Map<String, Double>, Map<String, Double>> udaf =
+        final Udaf<Double, Struct, Map<String, Double>> udaf =
                 SummaryStatsUdaf.createUdaf();
 
         // When:
-        final Map<String, Double> newAggregate = udaf.aggregate(900.0, aggregate(1.0, 400.0, 400.0));
+        final Struct newAggregate = udaf.aggregate(900.0, aggregate(1, 400.0, 0.0, 400.0, 400.0));
 
         // Then:
         assertEquals(
-                aggregate(2.0, 1300.0, 650.0),
+                aggregate(2, 650.0, 125000.0, 400.0, 900.0),
                 newAggregate
         );
+        assertEquals(stats(2.0, 1300.0, 650.0, 125000.0, 400.0, 900.0), udaf.map(newAggregate));
+    }
+
+    @Test
+    public void shouldIgnoreNullValues() {
+        // Given:
+        final Udaf<Double, Struct, Map<String, Double>> udaf =
+                SummaryStatsUdaf.createUdaf();
+
+        // When:
+        final Struct newAggregate = udaf.aggregate(null, udaf.initialize());
+
+        // Then:
+        assertEquals(udaf.initialize(), newAggregate);
+        assertEquals(stats(0.0, 0.0, 0.0, 0.0, null, null), udaf.map(newAggregate));
+    }
+
+    @Test
+    public void errorStaysBoundedOverALongStream() {
+        // Given: OFFSET + {-4.5, -3.5 ... 4.5}, mean OFFSET and population variance 8.25
+        final Udaf<Double, Struct, Map<String, Double>> udaf =
+                SummaryStatsUdaf.createUdaf();
+        Struct aggregate = udaf.initialize();
+
+        // When:
+        long checkpoint = 1000;
+        for (long i = 0; i < SAMPLES; i++) {
+            aggregate = udaf.aggregate(sample(i), aggregate);
+
+            // Then: the error does not grow with the stream
+            if (i + 1 == checkpoint) {
+                assertStats(udaf.map(aggregate), checkpoint);
+                checkpoint *= 10;
+            }
+        }
+    }
+
+    @Test
+    public void mergedPartitionsMatchTheSinglePass() {
+        // Given: the stream spread over partitions of different sizes
+        final Udaf<Double, Struct, Map<String, Double>> udaf =
+                SummaryStatsUdaf.createUdaf();
+        final long[] partitionEnds = {1, 1_000, 3_000_000, 12_500_000, 40_000_000, 71_234_567, SAMPLES};
+
+        // When:
+        Struct merged = udaf.initialize();
+        long start = 0;
+        for (long end : partitionEnds) {
+            Struct partition = udaf.initialize();
+            for (long i = start; i < end; i++) {
+                partition = udaf.aggregate(sample(i), partition);
+            }
+            merged = udaf.merge(merged, partition);
+            start = end;
+        }
+
+        // Then:
+        assertStats(udaf.map(merged), SAMPLES);
+    }
+
+    @Test
+    public void changelogRecordCostOfTheVarianceMinAndMax() {
+        // Given:
+        final Udaf<Double, Struct, Map<String, Double>> udaf =
+                SummaryStatsUdaf.createUdaf();
+        final Udaf<Double, Map<String, Double>, Map<String, Double>> hashMapUdaf =
+                HashMapSummaryStatsUdaf.createUdaf();
+
+        // When:
+        Struct aggregate = udaf.initialize();
+        Map<String, Double> hashMapAggregate = hashMapUdaf.initialize();
+        long bytes = 0;
+        long hashMapBytes = 0;
+        for (int i = 0; i < 1000; i++) {
+            aggregate = udaf.aggregate(i * 1.5, aggregate);
+            hashMapAggregate = hashMapUdaf.aggregate(i * 1.5, hashMapAggregate);
+            bytes += ChangelogJson.serialize(aggregate).length;
+            hashMapBytes += ChangelogJson.serialize(hashMapAggregate).length;
+        }
+
+        // Then: the same stats as the former map state of mean, sample_size and sum
+        final Map<String, Double> stats = udaf.map(aggregate);
+        assertEquals(hashMapAggregate.get("sample_size"), stats.get("sample_size"));
+        assertThat(stats.get("sum"), closeTo(hashMapAggregate.get("sum"), 1e-6));
+        assertThat(stats.get("mean"), closeTo(hashMapAggregate.get("mean"), 1e-9));
+        // ~72 bytes per update for the struct, ~49 for the map: the variance, min and max cost ~23 bytes per update
+        assertThat(bytes, greaterThan(hashMapBytes));
+        assertThat(bytes, lessThan(hashMapBytes * 8 / 5));
+    }
+
+    private static double sample(final long i) {
+        return OFFSET + (i % 10) - 4.5;
+    }
+
+    private static void assertStats(final Map<String, Double> stats, final long sampleSize) {
+        final double variance = 8.25 * sampleSize / (sampleSize - 1);
+        assertEquals((double) sampleSize, stats.get("sample_size"));
+        assertThat(stats.get("mean"), closeTo(OFFSET, 1e-5));
+        assertThat(stats.get("variance"), closeTo(variance, variance * 1e-8));
+        assertEquals(OFFSET - 4.5, stats.get("min"));
+        assertEquals(OFFSET + 4.5, stats.get("max"));
     }
 
     /**
      * Helper method for building an aggregate that mimics what KSQL would pass
      * to our UDAF instance.
      */
-    private static Map<String, Double> aggregate(
+    private static Struct aggregate(
+            final long sampleSize,
+            final double mean,
+            final double m2,
+            final double min,
+            final double max
+    ) {
+        return new Struct(SummaryStatsUdaf.AGGREGATE_SCHEMA)
+                .put("SAMPLE_SIZE", sampleSize)
+                .put("MEAN", mean)
+                .put("M2", m2)
+                .put("MIN", min)
+                .put("MAX", max);
+    }
+
+    private static Map<String, Double> stats(
             final Double sampleSize,
             final Double sum,
-            final Double mean
+            final Double mean,
+            final Double m2,
+            final Double min,
+            final Double max
     ) {
+        final double variance = sampleSize < 2 ? 0.0 : m2 / (sampleSize - 1);
 
         final Map<String, Double> result = new HashMap<>();
         result.put("mean", mean);
         result.put("sample_size", sampleSize);
         result.put("sum", sum);
+        result.put("variance", variance);
+        result.put("stddev", Math.sqrt(variance));
+        result.put("min", min);
+        result.put("max", max);
         return result;
     }
 }
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.testcontainers.ksqldb;
+
+import io.confluent.ksql.function.udaf.TableUdaf;
+import org.apache.kafka.connect.data.Struct;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TableSummaryStatsUdafTests {
+
+    @Test
+    public void shouldComputeNewAggregate() {
+        // Given:
+        final TableUdaf<Double, Struct, Map<String, Double>> udaf = TableSummaryStatsUdaf.createUdaf();
+
+        // When:
+        final Struct aggregate = udaf.aggregate(1200.0, aggregate(2, 1050.0, 5000.0));
+
+        // Then: 1000, 1100, 1200
+        assertEquals(aggregate(3, 1100.0, 20000.0), aggregate);
+    }
+
+    @Test
+    public void undoRemovesTheValue() {
+        // Given: 1000, 1100, 1200
+        final TableUdaf<Double, Struct, Map<String, Double>> udaf = TableSummaryStatsUdaf.createUdaf();
+
+        // When:
+        final Struct aggregate = udaf.undo(1100.0, aggregate(3, 1100.0, 20000.0));
+
+        // Then: 1000, 1200
+        final Map<String, Double> stats = udaf.map(aggregate);
+        assertEquals(2.0, stats.get("sample_size"));
+        assertThat(stats.get("sum"), closeTo(2200.0, 1e-9));
+        assertThat(stats.get("mean"), closeTo(1100.0, 1e-9));
+        assertThat(stats.get("variance"), closeTo(20000.0, 1e-9));
+        assertThat(stats.get("stddev"), closeTo(Math.sqrt(20000.0), 1e-9));
+    }
+
+    @Test
+    public void undoOfTheLastValueResetsTheAggregate() {
+        // Given:
+        final TableUdaf<Double, Struct, Map<String, Double>> udaf = TableSummaryStatsUdaf.createUdaf();
+        Struct aggregate = udaf.aggregate(0.1, udaf.initialize());
+        aggregate = udaf.aggregate(0.7, aggregate);
+
+        // When:
+        aggregate = udaf.undo(0.1, aggregate);
+        aggregate = udaf.undo(0.7, aggregate);
+
+        // Then:
+        assertEquals(udaf.initialize(), aggregate);
+        assertEquals(udaf.initialize(), udaf.undo(0.7, aggregate));
+    }
+
+    @Test
+    public void updatedRowsMatchTheRecomputedStats() {
+        // Given: a table of 1000 rows around a large offset
+        final TableUdaf<Double, Struct, Map<String, Double>> udaf = TableSummaryStatsUdaf.createUdaf();
+        final Random random = new Random(42);
+        final double[] rows = new double[1_000];
+        Struct aggregate = udaf.initialize();
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = 1e6 + 100 * random.nextGaussian();
+            aggregate = udaf.aggregate(rows[i], aggregate);
+        }
+
+        // When: a million updates, ksqlDB undoes the old value and aggregates the new one
+        for (int update = 0; update < 1_000_000; update++) {
+            final int row = random.nextInt(rows.length);
+            aggregate = udaf.undo(rows[row], aggregate);
+            rows[row] = 1e6 + 100 * random.nextGaussian();
+            aggregate = udaf.aggregate(rows[row], aggregate);
+        }
+
+        // Then: the same stats as a single pass over the rows in the table
+        Struct recomputed = udaf.initialize();
+        for (double value : rows) {
+            recomputed = udaf.aggregate(value, recomputed);
+        }
+        final Map<String, Double> stats = udaf.map(aggregate);
+        final Map<String, Double> expected = udaf.map(recomputed);
+        assertEquals(expected.get("sample_size"), stats.get("sample_size"));
+        assertThat(stats.get("sum"), closeTo(expected.get("sum"), expected.get("sum") * 1e-12));
+        assertThat(stats.get("mean"), closeTo(expected.get("mean"), expected.get("mean") * 1e-12));
+        assertThat(stats.get("variance"), closeTo(expected.get("variance"), expected.get("variance") * 1e-6));
+    }
+
+    @Test
+    public void mergeAggregates() {
+        // Given:
+        final TableUdaf<Double, Struct, Map<String, Double>> udaf = TableSummaryStatsUdaf.createUdaf();
+
+        // When:
+        final Struct mergedAggregate = udaf.merge(
+                // (sample_size, mean, m2) of 1000, 1100, 1200
+                aggregate(3, 1100.0, 20000.0),
+                // of 900, 950, 1000, 1000, 1000, 950, 900
+                aggregate(7, 6700.0 / 7, 85000.0 / 7)
+        );
+
+        // Then:
+        final Map<String, Double> stats = udaf.map(mergedAggregate);
+        assertEquals(10.0, stats.get("sample_size"));
+        assertThat(stats.get("sum"), closeTo(10000.0, 1e-9));
+        assertThat(stats.get("mean"), closeTo(1000.0, 1e-9));
+        assertThat(stats.get("variance"), closeTo(75000.0 / 9, 1e-9));
+        assertEquals(udaf.initialize(), udaf.merge(udaf.initialize(), udaf.initialize()));
+    }
+
+    @Test
+    public void shouldIgnoreNullValues() {
+        // Given:
+        final TableUdaf<Double, Struct, Map<String, Double>> udaf = TableSummaryStatsUdaf.createUdaf();
+        final Struct aggregate = aggregate(2, 650.0, 125000.0);
+
+        // When:
+        final Struct aggregated = udaf.aggregate(null, udaf.initialize());
+        final Struct undone = udaf.undo(null, aggregate);
+
+        // Then:
+        assertEquals(udaf.initialize(), aggregated);
+        assertEquals(aggregate(2, 650.0, 125000.0), undone);
+    }
+
+    /**
+     * Helper method for building an aggregate that mimics what KSQL would pass
+     * to our UDAF instance.
+     */
+    private static Struct aggregate(long sampleSize, double mean, double m2) {
+        return new Struct(TableSummaryStatsUdaf.AGGREGATE_SCHEMA)
+                .put("SAMPLE_SIZE", sampleSize)
+                .put("MEAN", mean)
+                .put("M2", m2);
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.testcontainers.ksqldb;
+
+import io.confluent.ksql.function.udaf.Udaf;
+import io.confluent.testcontainers.ksqldb.benchmark.Zipf;
+import org.apache.kafka.connect.data.Struct;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TopKFrequentUdafTests {
+
+    private static final int SAMPLES = 1_000_000;
+    private static final int PRODUCERS = 100_000;
+    private static final int K = 10;
+    private static final int COUNTERS = 100;
+
+    @Test
+    public void countsAreExactWhileCountersAreFree() {
+        // Given:
+        final Udaf<String, Struct, List<Struct>> udaf = TopKFrequentUdaf.createUdaf(2, 3);
+
+        // When:
+        Struct aggregate = udaf.initialize();
+        for (String value : new String[]{"b", "a", "c", "a", "b", "a"}) {
+            aggregate = udaf.aggregate(value, aggregate);
+        }
+
+        // Then:
+        assertEquals(aggregate(List.of("b", "a", "c"), List.of(2L, 3L, 1L), List.of(0L, 0L, 0L)), aggregate);
+        assertEquals(List.of(entry("a", 3, 0), entry("b", 2, 0)), udaf.map(aggregate));
+    }
+
+    @Test
+    public void newValueReplacesTheLeastFrequentOne() {
+        // Given:
+        final Udaf<String, Struct, List<Struct>> udaf = TopKFrequentUdaf.createUdaf(2, 2);
+
+        // When:
+        final Struct aggregate = udaf.aggregate("c",
+                aggregate(List.of("a", "b"), List.of(5L, 2L), List.of(0L, 0L)));
+
+        // Then: c may have been one of the 2 values counted for b
+        assertEquals(aggregate(List.of("a", "c"), List.of(5L, 3L), List.of(0L, 2L)), aggregate);
+    }
+
+    @ParameterizedTest
+    @ValueSource(doubles = {1.1, 1.5})
+    public void zipfHeavyHittersAreFound(double exponent) {
+        // Given:
+        final Udaf<String, Struct, List<Struct>> udaf = TopKFrequentUdaf.createUdaf(K, COUNTERS);
+        final int[] producers = zipf(exponent);
+
+        // When:
+        Struct aggregate = udaf.initialize();
+        for (int producer : producers) {
+            aggregate = udaf.aggregate(producer(producer), aggregate);
+        }
+
+        // Then:
+        assertTopK(udaf.map(aggregate), producers);
+    }
+
+    @ParameterizedTest
+    @ValueSource(doubles = {1.1, 1.5})
+    public void mergedPartitionsKeepTheGuarantees(double exponent) {
+        // Given: the stream spread over partitions of different sizes
+        final Udaf<String, Struct, List<Struct>> udaf = TopKFrequentUdaf.createUdaf(K, COUNTERS);
+        final int[] producers = zipf(exponent);
+        final int[] partitionEnds = {50, 100_000, 450_000, 460_000, 900_000, SAMPLES};
+
+        // When:
+        Struct merged = udaf.initialize();
+        int start = 0;
+        for (int end : partitionEnds) {
+            Struct partition = udaf.initialize();
+            for (int i = start; i < end; i++) {
+                partition = udaf.aggregate(producer(producers[i]), partition);
+            }
+            merged = udaf.merge(partition, merged);
+            start = end;
+        }
+
+        // Then:
+        assertTopK(udaf.map(merged), producers);
+    }
+
+    @Test
+    public void mergeAddsTheMinimumOfTheOtherFullSummary() {
+        // Given:
+        final Udaf<String, Struct, List<Struct>> udaf = TopKFrequentUdaf.createUdaf(3, 3);
+        final Struct full = aggregate(List.of("a", "b", "c"), List.of(10L, 4L, 3L), List.of(0L, 1L, 0L));
+
+        // When:
+        final Struct withFreeCounters = udaf.merge(full, aggregate(List.of("a", "d"), List.of(6L, 2L), List.of(0L, 0L)));
+        final Struct withFullSummaries = udaf.merge(full, aggregate(List.of("a", "d", "e"), List.of(6L, 2L, 1L), List.of(0L, 0L, 0L)));
+
+        // Then: d may have been counted up to 3 times in the first summary, b and c were not seen by the second one
+        assertEquals(List.of(entry("a", 16, 0), entry("d", 5, 3), entry("b", 4, 1)), udaf.map(withFreeCounters));
+        // b and c may have been counted once in the second summary
+        assertEquals(List.of(entry("a", 16, 0), entry("b", 5, 2), entry("d", 5, 3)), udaf.map(withFullSummaries));
+    }
+
+    @Test
+    public void shouldIgnoreNullValues() {
+        // Given:
+        final Udaf<String, Struct, List<Struct>> udaf = TopKFrequentUdaf.createUdaf();
+
+        // When:
+        final Struct aggregate = udaf.aggregate(null, udaf.initialize());
+
+        // Then:
+        assertEquals(udaf.initialize(), aggregate);
+        assertThat(udaf.map(aggregate), empty());
+    }
+
+    @Test
+    public void shouldRejectInvalidBudgets() {
+        assertThrows(IllegalArgumentException.class, () -> TopKFrequentUdaf.createUdaf(0));
+        assertThrows(IllegalArgumentException.class, () -> TopKFrequentUdaf.createUdaf(10, 5));
+    }
+
+    /**
+     * The k reported producers are the k most frequent ones, each count overestimates the exact count by at most
+     * its error, which is at most the number of samples per counter
+     */
+    private static void assertTopK(List<Struct> topK, int[] producers) {
+        final int[] exactCounts = new int[PRODUCERS + 1];
+        for (int producer : producers) {
+            exactCounts[producer]++;
+        }
+        final Set<String> exactTopK = IntStream.rangeClosed(1, PRODUCERS).boxed()
+                .sorted((a, b) -> Integer.compare(exactCounts[b], exactCounts[a]))
+                .limit(K)
+                .map(TopKFrequentUdafTests::producer)
+                .collect(Collectors.toSet());
+
+        assertThat(topK, hasSize(K));
+        assertEquals(exactTopK, topK.stream().map(entry -> entry.getString("ITEM")).collect(Collectors.toSet()));
+        for (Struct entry : topK) {
+            final long exact = exactCounts[Integer.parseInt(entry.getString("ITEM").substring("producer-".length()))];
+            assertThat(entry.getInt64("COUNT"), greaterThanOrEqualTo(exact));
+            assertThat(entry.getInt64("COUNT") - entry.getInt64("ERROR"), lessThanOrEqualTo(exact));
+            assertThat(entry.getInt64("ERROR"), lessThanOrEqualTo((long) SAMPLES / COUNTERS));
+        }
+    }
+
+    private static int[] zipf(double exponent) {
+        final Zipf zipf = new Zipf(PRODUCERS, exponent, 42);
+        final int[] producers = new int[SAMPLES];
+        Arrays.setAll(producers, i -> zipf.next());
+        return producers;
+    }
+
+    private static String producer(int rank) {
+        return "producer-" + rank;
+    }
+
+    /**
+     * Helper method for building an aggregate that mimics what KSQL would pass
+     * to our UDAF instance.
+     */
+    private static Struct aggregate(List<String> items, List<Long> counts, List<Long> errors) {
+        return new Struct(TopKFrequentUdaf.AGGREGATE_SCHEMA)
+                .put("ITEMS", new ArrayList<>(items))
+                .put("COUNTS", new ArrayList<>(counts))
+                .put("ERRORS", new ArrayList<>(errors));
+    }
+
+    private static Struct entry(String item, long count, long error) {
+        return new Struct(TopKFrequentUdaf.ENTRY_SCHEMA)
+                .put("ITEM", item)
+                .put("COUNT", count)
+                .put("ERROR", error);
+    }
+}
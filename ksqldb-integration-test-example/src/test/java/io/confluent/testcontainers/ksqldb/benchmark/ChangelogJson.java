@@ -0,0 +1,50 @@
+package io.confluent.testcontainers.ksqldb.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Struct;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serializes aggregates the way the JSON value format writes them to the changelog topic of the aggregation state
+ * store: structs as objects keyed by the upper case field names, maps as objects and lists as arrays.
+ */
+public final class ChangelogJson {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private ChangelogJson() {
+    }
+
+    public static byte[] serialize(Object aggregate) {
+        try {
+            return mapper.writeValueAsBytes(toJsonTree(aggregate));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private static Object toJsonTree(Object value) {
+        if (value instanceof Struct) {
+            Struct struct = (Struct) value;
+            Map<String, Object> object = new LinkedHashMap<>();
+            for (Field field : struct.schema().fields()) {
+                object.put(field.name(), toJsonTree(struct.get(field)));
+            }
+            return object;
+        }
+        if (value instanceof List) {
+            List<Object> array = new ArrayList<>();
+            for (Object element : (List<?>) value) {
+                array.add(toJsonTree(element));
+            }
+            return array;
+        }
+        return value;
+    }
+}
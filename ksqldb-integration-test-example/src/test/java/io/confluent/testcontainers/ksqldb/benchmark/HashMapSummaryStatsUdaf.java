@@ -0,0 +1,70 @@
+package io.confluent.testcontainers.ksqldb.benchmark;
+
+import io.confluent.ksql.function.udaf.Udaf;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The former {@code summary_stats} implementation keeping its state in a {@link HashMap}, kept as the baseline of
+ * the changelog size and throughput comparisons.
+ */
+public final class HashMapSummaryStatsUdaf {
+
+    private HashMapSummaryStatsUdaf() {
+    }
+
+    public static Udaf<Double, Map<String, Double>, Map<String, Double>> createUdaf() {
+
+        return new Udaf<>() {
+
+            @Override
+            public Map<String, Double> initialize() {
+                final Map<String, Double> stats = new HashMap<>();
+                stats.put("mean", 0.0);
+                stats.put("sample_size", 0.0);
+                stats.put("sum", 0.0);
+                return stats;
+            }
+
+            @Override
+            public Map<String, Double> aggregate(
+                    final Double newValue,
+                    final Map<String, Double> aggregateValue
+            ) {
+                final Double sampleSize = 1.0 + aggregateValue
+                        .getOrDefault("sample_size", 0.0);
+
+                final Double sum = newValue + aggregateValue
+                        .getOrDefault("sum", 0.0);
+
+                aggregateValue.put("mean", sum / sampleSize);
+                aggregateValue.put("sample_size", sampleSize);
+                aggregateValue.put("sum", sum);
+                return aggregateValue;
+            }
+
+            @Override
+            public Map<String, Double> merge(
+                    final Map<String, Double> aggOne,
+                    final Map<String, Double> aggTwo
+            ) {
+                final Double sampleSize =
+                        aggOne.getOrDefault("sample_size", 0.0) + aggTwo.getOrDefault("sample_size", 0.0);
+                final Double sum =
+                        aggOne.getOrDefault("sum", 0.0) + aggTwo.getOrDefault("sum", 0.0);
+
+                final Map<String, Double> newAggregate = new HashMap<>();
+                newAggregate.put("mean", sum / sampleSize);
+                newAggregate.put("sample_size", sampleSize);
+                newAggregate.put("sum", sum);
+                return newAggregate;
+            }
+
+            @Override
+            public Map<String, Double> map(final Map<String, Double> agg) {
+                return agg;
+            }
+        };
+    }
+}
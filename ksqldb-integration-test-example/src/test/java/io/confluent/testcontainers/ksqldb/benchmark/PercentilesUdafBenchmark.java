@@ -0,0 +1,73 @@
+package io.confluent.testcontainers.ksqldb.benchmark;
+
+import io.confluent.ksql.function.udaf.Udaf;
+import io.confluent.testcontainers.ksqldb.PercentilesUdaf;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aggregate and merge throughput of {@code percentiles}, each call decodes and encodes the serialized digest like
+ * ksqlDB does on every update of the state store.
+ *
+ * <p>Run with {@code mvn -Pbenchmarks test-compile exec:exec -Dbenchmark=PercentilesUdafBenchmark}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PercentilesUdafBenchmark {
+
+    private static final int VALUES = 1024;
+
+    @Param({"100", "200"})
+    private int compression;
+
+    private final Double[] values = new Double[VALUES];
+    private int next;
+
+    private Udaf<Double, String, Map<String, Double>> udaf;
+    private String aggregate;
+    private String otherAggregate;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < VALUES; i++) {
+            //response times with a long tail
+            values[i] = Math.exp(4 + random.nextGaussian());
+        }
+        udaf = PercentilesUdaf.createUdaf(compression);
+        aggregate = udaf.initialize();
+        otherAggregate = udaf.initialize();
+        //steady state digests, with all their centroids
+        for (int i = 0; i < 50_000; i++) {
+            aggregate = udaf.aggregate(nextValue(), aggregate);
+            otherAggregate = udaf.aggregate(nextValue() * 2, otherAggregate);
+        }
+    }
+
+    @Benchmark
+    public String aggregate() {
+        aggregate = udaf.aggregate(nextValue(), aggregate);
+        return aggregate;
+    }
+
+    @Benchmark
+    public String merge() {
+        return udaf.merge(aggregate, otherAggregate);
+    }
+
+    @Benchmark
+    public Map<String, Double> map() {
+        return udaf.map(aggregate);
+    }
+
+    private Double nextValue() {
+        return values[next++ & (VALUES - 1)];
+    }
+}
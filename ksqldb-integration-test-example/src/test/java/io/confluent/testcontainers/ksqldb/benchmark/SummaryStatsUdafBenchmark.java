@@ -0,0 +1,82 @@
+package io.confluent.testcontainers.ksqldb.benchmark;
+
+import io.confluent.ksql.function.udaf.Udaf;
+import io.confluent.testcontainers.ksqldb.SummaryStatsUdaf;
+import org.apache.kafka.connect.data.Struct;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aggregate throughput of {@code summary_stats} against the former {@link HashMapSummaryStatsUdaf}, on its own and
+ * followed by the serialization of the changelog record.
+ *
+ * <p>Run with {@code mvn -Pbenchmarks test-compile exec:exec -Dbenchmark=SummaryStatsUdafBenchmark}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SummaryStatsUdafBenchmark {
+
+    private static final int VALUES = 1024;
+
+    private final Double[] values = new Double[VALUES];
+    private int next;
+
+    private Udaf<Double, Struct, Map<String, Double>> structUdaf;
+    private Struct structAggregate;
+    private Udaf<Double, Map<String, Double>, Map<String, Double>> hashMapUdaf;
+    private Map<String, Double> hashMapAggregate;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < VALUES; i++) {
+            //Inputs are boxed by ksqlDB before reaching the UDAF
+            values[i] = 100 + random.nextGaussian() * 20;
+        }
+        structUdaf = SummaryStatsUdaf.createUdaf();
+        structAggregate = structUdaf.initialize();
+        hashMapUdaf = HashMapSummaryStatsUdaf.createUdaf();
+        hashMapAggregate = hashMapUdaf.initialize();
+    }
+
+    @Benchmark
+    public Struct structAggregate() {
+        return structUdaf.aggregate(nextValue(), structAggregate);
+    }
+
+    @Benchmark
+    public Map<String, Double> hashMapAggregate() {
+        return hashMapUdaf.aggregate(nextValue(), hashMapAggregate);
+    }
+
+    @Benchmark
+    public byte[] structAggregateAndChangelog() {
+        return ChangelogJson.serialize(structUdaf.aggregate(nextValue(), structAggregate));
+    }
+
+    @Benchmark
+    public byte[] hashMapAggregateAndChangelog() {
+        return ChangelogJson.serialize(hashMapUdaf.aggregate(nextValue(), hashMapAggregate));
+    }
+
+    @Benchmark
+    public Struct structMerge() {
+        return structUdaf.merge(structAggregate, structAggregate);
+    }
+
+    @Benchmark
+    public Map<String, Double> hashMapMerge() {
+        return hashMapUdaf.merge(hashMapAggregate, hashMapAggregate);
+    }
+
+    private Double nextValue() {
+        return values[next++ & (VALUES - 1)];
+    }
+}
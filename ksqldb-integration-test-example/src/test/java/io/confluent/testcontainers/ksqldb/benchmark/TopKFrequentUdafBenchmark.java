@@ -0,0 +1,69 @@
+package io.confluent.testcontainers.ksqldb.benchmark;
+
+import io.confluent.ksql.function.udaf.Udaf;
+import io.confluent.testcontainers.ksqldb.TopKFrequentUdaf;
+import org.apache.kafka.connect.data.Struct;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Updates per second of {@code top_k_frequent} on Zipf distributed producers, for different counter budgets.
+ *
+ * <p>Run with {@code mvn -Pbenchmarks test-compile exec:exec -Dbenchmark=TopKFrequentUdafBenchmark}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TopKFrequentUdafBenchmark {
+
+    private static final int VALUES = 1 << 16;
+
+    @Param({"100", "1000"})
+    private int counters;
+
+    @Param({"1.1"})
+    private double exponent;
+
+    private final String[] values = new String[VALUES];
+    private int next;
+
+    private Udaf<String, Struct, List<Struct>> udaf;
+    private Struct aggregate;
+    private Struct otherAggregate;
+
+    @Setup
+    public void setUp() {
+        Zipf zipf = new Zipf(100_000, exponent, 42);
+        for (int i = 0; i < VALUES; i++) {
+            values[i] = "producer-" + zipf.next();
+        }
+        udaf = TopKFrequentUdaf.createUdaf(10, counters);
+        aggregate = udaf.initialize();
+        otherAggregate = udaf.initialize();
+        //steady state summaries, with all their counters taken
+        for (int i = 0; i < VALUES; i++) {
+            aggregate = udaf.aggregate(nextValue(), aggregate);
+            otherAggregate = udaf.aggregate(values[VALUES - 1 - i], otherAggregate);
+        }
+    }
+
+    @Benchmark
+    public Struct aggregate() {
+        aggregate = udaf.aggregate(nextValue(), aggregate);
+        return aggregate;
+    }
+
+    @Benchmark
+    public Struct merge() {
+        return udaf.merge(aggregate, otherAggregate);
+    }
+
+    private String nextValue() {
+        return values[next++ & (VALUES - 1)];
+    }
+}
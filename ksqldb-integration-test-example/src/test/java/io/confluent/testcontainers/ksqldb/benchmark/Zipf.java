@@ -0,0 +1,35 @@
+package io.confluent.testcontainers.ksqldb.benchmark;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Seeded Zipf distributed ranks: the rank {@code r} out of {@code n} has a probability proportional to
+ * {@code 1 / r^exponent}, ie. a few hot keys and a long tail of cold ones
+ */
+public final class Zipf {
+
+    private final double[] cumulativeProbabilities;
+    private final Random random;
+
+    public Zipf(int n, double exponent, long seed) {
+        cumulativeProbabilities = new double[n];
+        double sum = 0;
+        for (int rank = 1; rank <= n; rank++) {
+            sum += 1 / Math.pow(rank, exponent);
+            cumulativeProbabilities[rank - 1] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cumulativeProbabilities[i] /= sum;
+        }
+        random = new Random(seed);
+    }
+
+    /**
+     * @return the next rank, 1 being the most frequent
+     */
+    public int next() {
+        int index = Arrays.binarySearch(cumulativeProbabilities, random.nextDouble());
+        return Math.min((index >= 0 ? index : -index - 1) + 1, cumulativeProbabilities.length);
+    }
+}
@@ -6,6 +6,15 @@ import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import io.confluent.ksql.rest.entity.KsqlRequest;
+import io.confluent.testcontainers.ClusterNamespace;
+import io.confluent.testcontainers.CpKsqlDbServerContainer;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import org.junit.jupiter.api.BeforeAll;
+import org.slf4j.Logger;
+import org.testcontainers.containers.BindMode;
+import org.testcontainers.containers.KafkaContainer;
+import org.testcontainers.containers.output.Slf4jLogConsumer;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -14,13 +23,76 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
 public class AbstractITTestHelper {
+    static final String KSQLDB_REQUEST_CONTENT_TYPE = "application/vnd.ksql.v1+json";
+    //Built JAR file is available via System.property "udfJarFile" introduced in the failsafe plugin in the pom.xml
+    static final String UDF_JAR_FILE = System.getProperty("udfJarFile");
+
     final static ObjectMapper mapper = new ObjectMapper().registerModule(new Jdk8Module()).enable(JsonParser.Feature.ALLOW_COMMENTS);
 
     static private final String WITH_DELIMITER = "(?<=%1$s)";
     static private final String INLINE_COMMENTS = "(?m)--.*$";
     static private final String EMPTY_LINES = "(?m)^\\s*$";
     static private final String NEW_LINE = "\n";
+    static private final String NAMESPACE_PLACEHOLDER = "${namespace}";
+
+    @BeforeAll
+    static void checkThatTheUdfJarIsAvailable() {
+        assertTrue(Files.exists(Path.of(UDF_JAR_FILE)), "The UDF Jar file is not present/packaged");
+    }
+
+    /**
+     * A ksqlDB server of the shared kafka without the UDF jar, its service id and the sink topics of its
+     * CREATE ... AS SELECT statements are prefixed by the namespace so they do not clash with the ones of other servers
+     */
+    static CpKsqlDbServerContainer ksqlDbServer(KafkaContainer kafkaContainer, ClusterNamespace serverNamespace, Logger logger) {
+        String serviceId = serverNamespace.getPrefix() + "_";
+        return new CpKsqlDbServerContainer(
+                CpKsqlDbServerContainer.DEFAULT_IMAGE_NAME.withTag(CpKsqlDbServerContainer.DEFAULT_IMAGE_TAG))
+                .withReuse(false)
+                .withLogConsumer(new Slf4jLogConsumer(logger))
+                .withKafkaContainer(kafkaContainer)
+                .withServiceId(serviceId)
+                //Sink topics of CREATE ... AS SELECT statements
+                .withEnv("KSQL_KSQL_OUTPUT_TOPIC_NAME_PREFIX", serviceId);
+    }
+
+    /**
+     * A ksqlDB server of the shared kafka with the built UDF jar deployed
+     */
+    static CpKsqlDbServerContainer ksqlDbServerWithUdf(KafkaContainer kafkaContainer, ClusterNamespace serverNamespace, Logger logger) {
+        return ksqlDbServer(kafkaContainer, serverNamespace, logger)
+                .withFileSystemBind(UDF_JAR_FILE, "/etc/ksqldb/ext/udf-test-target.jar", BindMode.READ_ONLY)
+                .withEnv("KSQL_KSQL_EXTENSION_DIR", "/etc/ksqldb/ext");
+    }
+
+    static JsonPath postStatement(CpKsqlDbServerContainer ksqlDbServer, String ksqlDbRequest) {
+        return given()
+                .body(ksqlDbRequest)
+                .contentType(KSQLDB_REQUEST_CONTENT_TYPE)
+                .when()
+                .post(ksqlDbServer.getKsqlDbUrl() + "/ksql")
+                .then()
+                .contentType(ContentType.JSON)
+                .extract()
+                .jsonPath();
+    }
+
+    /**
+     * Runs the statements one by one through the REST API, THROW AN EXCEPTION ON FIRST ERROR
+     */
+    static void executeStatements(CpKsqlDbServerContainer ksqlDbServer, Stream<String> statements) {
+        statements.sequential()
+                .map(AbstractITTestHelper::createKsqlDbJsonRequest)
+                .map(s -> postStatement(ksqlDbServer, s))
+                .filter(jsonPath -> "statement_error".equals(jsonPath.get("@type")))
+                .findFirst()
+                .ifPresent(jsonPath -> fail(String.format("Error processing statement: %s - cause: %s", jsonPath.getString("statementText"), jsonPath.getString("message"))));
+    }
 
     static String[] parseStatements(String sqlStatements) {
         //Client allow only 1 statement to run with each call... we tokenize and split the input file.
@@ -31,6 +103,20 @@ public class AbstractITTestHelper {
                 .split(String.format(WITH_DELIMITER, ";"));
     }
 
+    /**
+     * Reads a classpath resource replacing the ${namespace} placeholders, so the topics created by the statements do
+     * not clash with the ones of other tests in the shared kafka
+     */
+    static String readResource(String resourceFile, ClusterNamespace namespace) {
+        try {
+            ClassLoader classLoader = ReverseUdfIT.class.getClassLoader();
+            return Files.readString(Path.of(classLoader.getResource(resourceFile).getFile()))
+                    .replace(NAMESPACE_PLACEHOLDER, namespace.getPrefix());
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     static Stream<Map<String, Map<String, Object>>> readJsonData(String preparationSqlFile) {
         try {
 
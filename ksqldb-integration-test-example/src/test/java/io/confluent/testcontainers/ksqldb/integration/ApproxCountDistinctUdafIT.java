@@ -0,0 +1,212 @@
+package io.confluent.testcontainers.ksqldb.integration;
+
+import io.confluent.ksql.api.client.Client;
+import io.confluent.ksql.api.client.ClientOptions;
+import io.confluent.ksql.api.client.Row;
+import io.confluent.testcontainers.ClusterNamespace;
+import io.confluent.testcontainers.CpKsqlDbServerContainer;
+import io.confluent.testcontainers.KafkaContainersCluster;
+import io.confluent.testcontainers.SharedConfluentCluster;
+import org.apache.kafka.clients.CommonClientConfigs;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.KafkaContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Compares the changelog of the state store of an exact distinct count, which keeps every distinct value, with the
+ * one of {@code APPROX_COUNT_DISTINCT}, which keeps a fixed size sketch
+ */
+@SharedConfluentCluster
+public class ApproxCountDistinctUdafIT extends AbstractITTestHelper {
+
+    static final Logger logger = LoggerFactory.getLogger(ApproxCountDistinctUdafIT.class);
+
+    static final String PREPARATION_SQL_FILE = "io/confluent/testcontainers/ksqldb/integration/stream/approxCountDistinctStreamPreparation.sql";
+    static final int PAGES = 4;
+    static final int USERS_PER_PAGE = 3000;
+    static final int VIEWS_PER_USER = 2;
+    static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    static KafkaContainer kafkaContainer;
+    static ClusterNamespace namespace;
+
+    @BeforeAll
+    static void setUp(KafkaContainersCluster cluster, ClusterNamespace clusterNamespace) {
+        kafkaContainer = cluster.getKafkaContainer();
+        namespace = clusterNamespace;
+    }
+
+    @Test
+    void approximateChangelogIsSmallerThanTheExactOne() {
+        ClusterNamespace testNamespace = namespace.scoped("approx_distinct");
+        String serviceId = testNamespace.getPrefix() + "_";
+        try (final CpKsqlDbServerContainer ksqlDBWithUdf = ksqlDbServerWithUdf(kafkaContainer, testNamespace, logger)
+                //COLLECT_SET keeps 1000 values by default
+                .withEnv("KSQL_KSQL_FUNCTIONS_COLLECT__SET_LIMIT", String.valueOf(USERS_PER_PAGE * 10))
+                .withEnv("KSQL_KSQL_STREAMS_COMMIT_INTERVAL_MS", "1000")) {
+
+            //Start ksqldb
+            ksqlDBWithUdf.start();
+
+            //Create the stream and both tables, THROW AN EXCEPTION ON FIRST ERROR
+            executeStatements(ksqlDBWithUdf, Arrays.stream(parseStatements(readResource(PREPARATION_SQL_FILE, testNamespace))));
+
+            publishPageViews(testNamespace.topic("page_views"));
+
+            //Wait for the exact count to see every user, then compare with the estimate
+            Client client = Client.create(ClientOptions.create()
+                    .setHost(ksqlDBWithUdf.getContainerIpAddress())
+                    .setPort(ksqlDBWithUdf.getMappedPort(CpKsqlDbServerContainer.DEFAULT_PORT)));
+            try {
+                long deadline = System.nanoTime() + TIMEOUT.toNanos();
+                for (int page = 0; page < PAGES; page++) {
+                    long exact = 0;
+                    while (exact < USERS_PER_PAGE && System.nanoTime() < deadline) {
+                        exact = visitors(client, "EXACT_PAGE_VISITORS", page);
+                        Thread.sleep(500);
+                    }
+                    assertThat(exact, equalTo((long) USERS_PER_PAGE));
+                    assertThat((double) visitors(client, "APPROX_PAGE_VISITORS", page), closeTo(USERS_PER_PAGE, USERS_PER_PAGE * 0.05));
+                }
+            } finally {
+                client.close();
+            }
+
+            ChangelogSize exact = awaitChangelog(serviceId, "EXACT_PAGE_VISITORS");
+            ChangelogSize approx = awaitChangelog(serviceId, "APPROX_PAGE_VISITORS");
+            logger.info(String.format("%-22s %10s %12s %18s", "changelog", "records", "bytes", "state bytes/page"));
+            logger.info(String.format("%-22s %10d %12d %18d", "exact", exact.records, exact.bytes, exact.largestLatestValue()));
+            logger.info(String.format("%-22s %10d %12d %18d", "approx_count_distinct", approx.records, approx.bytes, approx.largestLatestValue()));
+
+            //~42 KB of user ids per page against ~5.5 KB of base64 registers
+            assertThat(approx.largestLatestValue(), lessThan(exact.largestLatestValue() / 4));
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    private static void publishPageViews(String topic) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, kafkaContainer.getBootstrapServers());
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        try (Producer<String, String> producer = new KafkaProducer<>(props)) {
+            for (int view = 0; view < VIEWS_PER_USER; view++) {
+                for (int user = 0; user < USERS_PER_PAGE; user++) {
+                    for (int page = 0; page < PAGES; page++) {
+                        String value = String.format("{\"USER_ID\":\"user-%07d\",\"PAGE\":\"%s\"}", user, page(page));
+                        producer.send(new ProducerRecord<>(topic, value));
+                    }
+                }
+            }
+        }
+    }
+
+    private static long visitors(Client client, String table, int page) throws Exception {
+        List<Row> rows = client.executeQuery(String.format("SELECT VISITORS FROM %s WHERE PAGE='%s';", table, page(page))).get();
+        return rows.isEmpty() ? 0 : ((Number) rows.get(0).getValue("VISITORS")).longValue();
+    }
+
+    private static String page(int page) {
+        return "/page-" + page;
+    }
+
+    /**
+     * Reads the changelog of the state store of the table until it has every page and does not move anymore, the
+     * cache of the state store is flushed at each commit
+     */
+    private static ChangelogSize awaitChangelog(String serviceId, String table) throws Exception {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        ChangelogSize previous = null;
+        while (System.nanoTime() < deadline) {
+            ChangelogSize current = readChangelog(serviceId, table);
+            if (current.latestValueBytes.size() == PAGES && current.equals(previous)) {
+                return current;
+            }
+            previous = current;
+            Thread.sleep(2000);
+        }
+        throw new IllegalStateException("The changelog of " + table + " did not settle within " + TIMEOUT);
+    }
+
+    private static ChangelogSize readChangelog(String serviceId, String table) throws Exception {
+        String changelogTopic;
+        try (AdminClient adminClient = AdminClient.create(
+                Collections.singletonMap(CommonClientConfigs.BOOTSTRAP_SERVERS_CONFIG, kafkaContainer.getBootstrapServers()))) {
+            //_confluent-ksql-<service id>query_CTAS_<TABLE>_<n>-Aggregate-Aggregate-Materialize-changelog
+            changelogTopic = adminClient.listTopics().names().get().stream()
+                    .filter(name -> name.startsWith("_confluent-ksql-" + serviceId))
+                    .filter(name -> name.contains("CTAS_" + table + "_") && name.endsWith("-changelog"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No changelog topic for " + table));
+        }
+
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, kafkaContainer.getBootstrapServers());
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        ChangelogSize size = new ChangelogSize();
+        try (KafkaConsumer<byte[], byte[]> consumer = new KafkaConsumer<>(props)) {
+            List<TopicPartition> partitions = consumer.partitionsFor(changelogTopic).stream()
+                    .map(partition -> new TopicPartition(changelogTopic, partition.partition()))
+                    .collect(Collectors.toList());
+            consumer.assign(partitions);
+            consumer.seekToBeginning(partitions);
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+            while (partitions.stream().anyMatch(partition -> consumer.position(partition) < endOffsets.get(partition))) {
+                for (ConsumerRecord<byte[], byte[]> record : consumer.poll(Duration.ofMillis(500))) {
+                    int valueBytes = record.value() == null ? 0 : record.value().length;
+                    size.records++;
+                    size.bytes += record.key().length + valueBytes;
+                    size.latestValueBytes.put(new String(record.key(), StandardCharsets.UTF_8), valueBytes);
+                }
+            }
+        }
+        return size;
+    }
+
+    private static class ChangelogSize {
+        long records;
+        long bytes;
+        final Map<String, Integer> latestValueBytes = new TreeMap<>();
+
+        int largestLatestValue() {
+            return latestValueBytes.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            ChangelogSize that = (ChangelogSize) o;
+            return records == that.records && bytes == that.bytes && latestValueBytes.equals(that.latestValueBytes);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(records, bytes, latestValueBytes);
+        }
+    }
+}
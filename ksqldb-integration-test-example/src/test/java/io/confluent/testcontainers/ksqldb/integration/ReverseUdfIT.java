@@ -4,7 +4,10 @@ import io.confluent.ksql.api.client.Client;
 import io.confluent.ksql.api.client.ClientOptions;
 import io.confluent.ksql.api.client.KsqlObject;
 import io.confluent.ksql.api.client.Row;
+import io.confluent.testcontainers.ClusterNamespace;
 import io.confluent.testcontainers.CpKsqlDbServerContainer;
+import io.confluent.testcontainers.KafkaContainersCluster;
+import io.confluent.testcontainers.SharedConfluentCluster;
 import io.restassured.http.ContentType;
 import io.restassured.path.json.JsonPath;
 import org.junit.jupiter.api.BeforeAll;
@@ -13,13 +16,7 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.testcontainers.containers.BindMode;
 import org.testcontainers.containers.KafkaContainer;
-import org.testcontainers.containers.Network;
-import org.testcontainers.containers.output.Slf4jLogConsumer;
-import org.testcontainers.junit.jupiter.Container;
-import org.testcontainers.junit.jupiter.Testcontainers;
-import org.testcontainers.utility.DockerImageName;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -33,83 +30,42 @@ import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
-import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
-@Testcontainers
+@SharedConfluentCluster
 public class ReverseUdfIT extends AbstractITTestHelper {
 
-    static final String KSQLDB_REQUEST_CONTENT_TYPE = "application/vnd.ksql.v1+json";
-    //Built JAR file is available via System.property "udfJarFile" introduced in the failsafe plugin in the pom.xml
-    static final String UDF_JAR_FILE = System.getProperty("udfJarFile");
     static final Logger logger = LoggerFactory.getLogger(ReverseUdfIT.class);
-    static final Network network = Network.newNetwork();
 
-    @Container
-    public final KafkaContainer kafkaContainer = new KafkaContainer(
-            DockerImageName.parse("confluentinc/cp-kafka")
-                    .withTag("6.2.0-1-ubi8"))
-            .withReuse(true)
-            .withNetwork(network);
-
-//    @Container
-//    public final SchemaRegistryContainer schemaRegistryContainer = new SchemaRegistryContainer(
-//            SchemaRegistryContainer.DEFAULT_IMAGE_NAME.withTag(SchemaRegistryContainer.DEFAULT_IMAGE_TAG))
-//            .withReuse(true)
-//            .withKafka(kafkaContainer);
+    //The kafka is shared with other test classes, each ksqlDB server of the class gets its own service id
+    static KafkaContainer kafkaContainer;
+    static ClusterNamespace namespace;
 
     @BeforeAll
-    static void checkThatTheUdfJarIsAvailable() {
-        assertTrue(Files.exists(Path.of(UDF_JAR_FILE)), "The UDF Jar file is not present/packaged");
+    static void setUp(KafkaContainersCluster cluster, ClusterNamespace clusterNamespace) {
+        kafkaContainer = cluster.getKafkaContainer();
+        namespace = clusterNamespace;
     }
 
     @Test
     void checkKsqlServerNodesWithoutAndWithUdfDeployed() {
         try (//UDF Not deployed
-             final CpKsqlDbServerContainer ksqlDBWithoutUdf = new CpKsqlDbServerContainer(
-                     CpKsqlDbServerContainer.DEFAULT_IMAGE_NAME.withTag(CpKsqlDbServerContainer.DEFAULT_IMAGE_TAG))
-                     .withReuse(false)
-                     .withLogConsumer(new Slf4jLogConsumer(logger))
-                     .withKafkaContainer(kafkaContainer);
+             final CpKsqlDbServerContainer ksqlDBWithoutUdf = ksqlDbServer(kafkaContainer, namespace.scoped("without_udf"), logger);
              //UDF deployed
-             final CpKsqlDbServerContainer ksqlDBWithUdf = new CpKsqlDbServerContainer(
-                     CpKsqlDbServerContainer.DEFAULT_IMAGE_NAME.withTag(CpKsqlDbServerContainer.DEFAULT_IMAGE_TAG))
-                     .withReuse(false)
-                     .withLogConsumer(new Slf4jLogConsumer(logger))
-                     .withKafkaContainer(kafkaContainer)
-                     .withFileSystemBind(UDF_JAR_FILE, "/etc/ksqldb/ext/udf-test-target.jar", BindMode.READ_ONLY)
-                     .withEnv("KSQL_KSQL_EXTENSION_DIR", "/etc/ksqldb/ext")) {
+             final CpKsqlDbServerContainer ksqlDBWithUdf = ksqlDbServerWithUdf(kafkaContainer, namespace.scoped("with_udf"), logger)) {
 
             ksqlDBWithoutUdf.start();
             ksqlDBWithUdf.start();
 
             //SHOW FUNCTIONS via rest
             String ksqlDbRequest = createKsqlDbJsonRequest("show functions;", null);
-            JsonPath responseJsonWithoutUdf = given()
-                    .body(ksqlDbRequest)
-                    .contentType(KSQLDB_REQUEST_CONTENT_TYPE)
-                    .when()
-                    .post(ksqlDBWithoutUdf.getKsqlDbUrl() + "/ksql")
-                    .then()
-                    .contentType(ContentType.JSON)
-                    .extract()
-                    .response()
-                    .jsonPath();
+            JsonPath responseJsonWithoutUdf = postStatement(ksqlDBWithoutUdf, ksqlDbRequest);
 
             Map<String, String> noUdfPresent = responseJsonWithoutUdf.getMap("[0].functions.find {it.name=='REVERSE'}");
             assertThat(noUdfPresent, nullValue());
 
             //SHOW FUNCTIONS via rest
-            JsonPath responseJsonWithUdf = given()
-                    .body(ksqlDbRequest)
-                    .contentType(KSQLDB_REQUEST_CONTENT_TYPE)
-                    .when()
-                    .post(ksqlDBWithUdf.getKsqlDbUrl() + "/ksql")
-                    .then()
-                    .contentType(ContentType.JSON)
-                    .extract()
-                    .response()
-                    .jsonPath();
+            JsonPath responseJsonWithUdf = postStatement(ksqlDBWithUdf, ksqlDbRequest);
 
             Map<String, String> udfPresent = responseJsonWithUdf.getMap("[0].functions.find {it.name=='REVERSE'}");
             assertThat(udfPresent, allOf(notNullValue(), hasEntry("type", "SCALAR"), hasEntry("name", "REVERSE")));
@@ -127,38 +83,20 @@ public class ReverseUdfIT extends AbstractITTestHelper {
                     "io/confluent/testcontainers/ksqldb/integration/reverseUdfExpectedResults.txt"
     })
     void reverseUdfOnTableUsingRestClient(String preparationSqlFile, String inputDataFile, String checkQueryFile, String expectedResultsFile) {
-        try (final CpKsqlDbServerContainer ksqlDBWithUdf = new CpKsqlDbServerContainer(
-                CpKsqlDbServerContainer.DEFAULT_IMAGE_NAME.withTag(CpKsqlDbServerContainer.DEFAULT_IMAGE_TAG))
-                .withReuse(false)
-                .withLogConsumer(new Slf4jLogConsumer(logger))
-                .withKafkaContainer(kafkaContainer)
-                .withFileSystemBind(UDF_JAR_FILE, "/etc/ksqldb/ext/udf-test-target.jar", BindMode.READ_ONLY)
-                .withEnv("KSQL_KSQL_EXTENSION_DIR", "/etc/ksqldb/ext")) {
+        ClusterNamespace testNamespace = namespace.scoped("rest");
+        try (final CpKsqlDbServerContainer ksqlDBWithUdf = ksqlDbServerWithUdf(kafkaContainer, testNamespace, logger)) {
 
             //Start ksqldb
             ksqlDBWithUdf.start();
 
             //Read preparation statement
             ClassLoader classLoader = getClass().getClassLoader();
-            String preparationSql = Files.readString(Path.of(classLoader.getResource(preparationSqlFile).getFile()));
+            String preparationSql = readResource(preparationSqlFile, testNamespace);
 
             String[] statements = parseStatements(preparationSql);
 
             //THROW AN EXCEPTION ON FIRST ERROR
-            Arrays.stream(statements).sequential()
-                    .map(AbstractITTestHelper::createKsqlDbJsonRequest)
-                    .map(s -> given()
-                            .body(s)
-                            .contentType(KSQLDB_REQUEST_CONTENT_TYPE)
-                            .when()
-                            .post(ksqlDBWithUdf.getKsqlDbUrl() + "/ksql")
-                            .then()
-                            .contentType(ContentType.JSON)
-                            .extract()
-                            .jsonPath()
-                    ).filter(jsonPath -> "statement_error".equals(jsonPath.get("@type")))
-                    .findFirst()
-                    .ifPresent(jsonPath -> fail(String.format("Error processing statement: %s - cause: %s", jsonPath.getString("statementText"), jsonPath.getString("message"))));
+            executeStatements(ksqlDBWithUdf, Arrays.stream(statements));
 
             //Insert Test Data
             List<String> inserts = readJsonData(inputDataFile)
@@ -167,23 +105,10 @@ public class ReverseUdfIT extends AbstractITTestHelper {
                     .map(ReverseUdfIT::prepareInsertStatement)
                     .collect(Collectors.toList());
 
-            inserts.stream()
-                    .map(AbstractITTestHelper::createKsqlDbJsonRequest)
-                    .map(s -> given()
-                            .body(s)
-                            .contentType(KSQLDB_REQUEST_CONTENT_TYPE)
-                            .when()
-                            .post(ksqlDBWithUdf.getKsqlDbUrl() + "/ksql")
-                            .then()
-                            .contentType(ContentType.JSON)
-                            .extract()
-                            .jsonPath()
-                    ).filter(jsonPath -> "statement_error".equals(jsonPath.get("@type")))
-                    .findFirst()
-                    .ifPresent(jsonPath -> fail(String.format("Error processing statement: %s - cause: %s", jsonPath.getString("statementText"), jsonPath.getString("message"))));
+            executeStatements(ksqlDBWithUdf, inserts.stream());
 
             //Read check query
-            String checkQuerySql = Files.readString(Path.of(classLoader.getResource(checkQueryFile).getFile()));
+            String checkQuerySql = readResource(checkQueryFile, testNamespace);
             String queryRequest = createKsqlDbJsonRequest(checkQuerySql, Collections.singletonMap("ksql.streams.auto.offset.reset", "earliest"));
 
             List<String> reversed = given()
@@ -215,13 +140,8 @@ public class ReverseUdfIT extends AbstractITTestHelper {
                     "io/confluent/testcontainers/ksqldb/integration/reverseUdfExpectedResults.txt"
     })
     void reverseUdfUsingKsqlDbClient(String preparationSqlFile, String inputDataFile, String checkQueryFile, String expectedResultsFile) {
-        try (final CpKsqlDbServerContainer ksqlDBWithUdf = new CpKsqlDbServerContainer(
-                CpKsqlDbServerContainer.DEFAULT_IMAGE_NAME.withTag(CpKsqlDbServerContainer.DEFAULT_IMAGE_TAG))
-                .withReuse(false)
-                .withLogConsumer(new Slf4jLogConsumer(logger))
-                .withKafkaContainer(kafkaContainer)
-                .withFileSystemBind(UDF_JAR_FILE, "/etc/ksqldb/ext/udf-test-target.jar", BindMode.READ_ONLY)
-                .withEnv("KSQL_KSQL_EXTENSION_DIR", "/etc/ksqldb/ext")) {
+        ClusterNamespace testNamespace = namespace.scoped("client");
+        try (final CpKsqlDbServerContainer ksqlDBWithUdf = ksqlDbServerWithUdf(kafkaContainer, testNamespace, logger)) {
 
             //Start ksqldb
             ksqlDBWithUdf.start();
@@ -234,7 +154,7 @@ public class ReverseUdfIT extends AbstractITTestHelper {
 
             //Read preparation statements
             ClassLoader classLoader = getClass().getClassLoader();
-            String preparationSql = Files.readString(Path.of(classLoader.getResource(preparationSqlFile).getFile()));
+            String preparationSql = readResource(preparationSqlFile, testNamespace);
 
             //Execute preparation statement
             String[] statements = parseStatements(preparationSql);
@@ -255,7 +175,7 @@ public class ReverseUdfIT extends AbstractITTestHelper {
                     .forEach(CompletableFuture::join);
 
             //Read check query
-            String checkQuerySql = Files.readString(Path.of(classLoader.getResource(checkQueryFile).getFile()));
+            String checkQuerySql = readResource(checkQueryFile, testNamespace);
 
             //Run query
             List<Row> rows = client.executeQuery(checkQuerySql, stmtExecProps).get(30, TimeUnit.SECONDS);
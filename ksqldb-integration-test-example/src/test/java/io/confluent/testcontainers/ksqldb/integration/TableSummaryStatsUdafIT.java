@@ -0,0 +1,126 @@
+package io.confluent.testcontainers.ksqldb.integration;
+
+import io.confluent.ksql.api.client.Client;
+import io.confluent.ksql.api.client.ClientOptions;
+import io.confluent.ksql.api.client.KsqlObject;
+import io.confluent.ksql.api.client.Row;
+import io.confluent.testcontainers.ClusterNamespace;
+import io.confluent.testcontainers.CpKsqlDbServerContainer;
+import io.confluent.testcontainers.KafkaContainersCluster;
+import io.confluent.testcontainers.SharedConfluentCluster;
+import io.restassured.path.json.JsonPath;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.KafkaContainer;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Aggregates a table whose rows are updated, in value and in group, with {@code TABLE_SUMMARY_STATS} and checks the
+ * stats of each group against the ones of the latest rows
+ */
+@SharedConfluentCluster
+public class TableSummaryStatsUdafIT extends AbstractITTestHelper {
+
+    static final Logger logger = LoggerFactory.getLogger(TableSummaryStatsUdafIT.class);
+
+    static final String PREPARATION_SQL_FILE = "io/confluent/testcontainers/ksqldb/integration/table/tableSummaryStatsTablePreparation.sql";
+    static final String INPUT_DATA_FILE = "io/confluent/testcontainers/ksqldb/integration/table/tableSummaryStatsTableInputData.json";
+    static final Duration TIMEOUT = Duration.ofMinutes(1);
+
+    static KafkaContainer kafkaContainer;
+    static ClusterNamespace namespace;
+
+    @BeforeAll
+    static void setUp(KafkaContainersCluster cluster, ClusterNamespace clusterNamespace) {
+        kafkaContainer = cluster.getKafkaContainer();
+        namespace = clusterNamespace;
+    }
+
+    @Test
+    void updatedRowsAreUndoneFromTheirGroup() {
+        ClusterNamespace testNamespace = namespace.scoped("table_stats");
+        try (final CpKsqlDbServerContainer ksqlDBWithUdf = ksqlDbServerWithUdf(kafkaContainer, testNamespace, logger)) {
+
+            //Start ksqldb
+            ksqlDBWithUdf.start();
+
+            //Create the table and its aggregation, THROW AN EXCEPTION ON FIRST ERROR
+            executeStatements(ksqlDBWithUdf, Arrays.stream(parseStatements(readResource(PREPARATION_SQL_FILE, testNamespace))));
+
+            //The stream only SUMMARY_STATS cannot aggregate the table
+            JsonPath streamOnlyUdaf = postStatement(ksqlDBWithUdf, createKsqlDbJsonRequest(
+                    "CREATE TABLE stream_only_stats AS SELECT username, SUMMARY_STATS(response_time) AS stats "
+                            + "FROM response_times_table GROUP BY username EMIT CHANGES;"));
+            assertThat(streamOnlyUdaf.getString("@type"), equalTo("statement_error"));
+            assertThat(streamOnlyUdaf.getString("message"), containsStringIgnoringCase("SUMMARY_STATS"));
+
+            //Insert Test Data, KsqlDb Client does not support INSERT into TABLE yet!
+            List<Map.Entry<String, Map<String, Object>>> rows = readJsonData(INPUT_DATA_FILE)
+                    .map(Map::entrySet)
+                    .flatMap(Set::stream)
+                    .collect(Collectors.toList());
+
+            executeStatements(ksqlDBWithUdf, rows.stream().map(AbstractITTestHelper::prepareInsertStatement));
+
+            //Wait for every group to reach the stats of the latest rows
+            Client client = Client.create(ClientOptions.create()
+                    .setHost(ksqlDBWithUdf.getContainerIpAddress())
+                    .setPort(ksqlDBWithUdf.getMappedPort(CpKsqlDbServerContainer.DEFAULT_PORT)));
+            try {
+                long deadline = System.nanoTime() + TIMEOUT.toNanos();
+                for (Map.Entry<String, List<Double>> group : latestValuesByUsername(rows).entrySet()) {
+                    List<Double> values = group.getValue();
+                    double sum = values.stream().mapToDouble(Double::doubleValue).sum();
+                    //an earlier version of the group may have the same size, not the same sum
+                    KsqlObject stats = stats(client, group.getKey());
+                    while (!hasSizeAndSum(stats, values.size(), sum) && System.nanoTime() < deadline) {
+                        Thread.sleep(500);
+                        stats = stats(client, group.getKey());
+                    }
+                    assertThat(group.getKey(), stats, notNullValue());
+                    assertThat(group.getKey(), stats.getDouble("sample_size"), equalTo((double) values.size()));
+                    double mean = sum / values.size();
+                    double variance = values.size() < 2 ? 0.0 : values.stream()
+                            .mapToDouble(value -> (value - mean) * (value - mean)).sum() / (values.size() - 1);
+                    assertThat(group.getKey(), stats.getDouble("sum"), closeTo(sum, 1e-9));
+                    assertThat(group.getKey(), stats.getDouble("mean"), closeTo(mean, 1e-9));
+                    assertThat(group.getKey(), stats.getDouble("variance"), closeTo(variance, 1e-9));
+                }
+            } finally {
+                client.close();
+            }
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * The response times of the latest version of each request, by username
+     */
+    private static Map<String, List<Double>> latestValuesByUsername(List<Map.Entry<String, Map<String, Object>>> rows) {
+        Map<Object, Map<String, Object>> latestRows = new LinkedHashMap<>();
+        rows.forEach(row -> latestRows.put(row.getValue().get("request_id"), row.getValue()));
+        return latestRows.values().stream()
+                .collect(Collectors.groupingBy(row -> (String) row.get("username"), TreeMap::new,
+                        Collectors.mapping(row -> ((Number) row.get("response_time")).doubleValue(), Collectors.toList())));
+    }
+
+    private static boolean hasSizeAndSum(KsqlObject stats, int sampleSize, double sum) {
+        return stats != null && stats.getDouble("sample_size") == sampleSize
+                && Math.abs(stats.getDouble("sum") - sum) < 1e-9;
+    }
+
+    private static KsqlObject stats(Client client, String username) throws Exception {
+        List<Row> rows = client.executeQuery(String.format("SELECT STATS FROM USER_RESPONSE_STATS WHERE USERNAME='%s';", username)).get();
+        return rows.isEmpty() ? null : rows.get(0).getKsqlObject("STATS");
+    }
+}
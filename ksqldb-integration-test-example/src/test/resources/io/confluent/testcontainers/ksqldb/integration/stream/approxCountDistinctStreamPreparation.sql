@@ -0,0 +1,17 @@
+-- STREAM CREATION
+CREATE STREAM page_views (user_id VARCHAR, page VARCHAR)
+    WITH (kafka_topic='${namespace}_page_views', value_format='JSON', partitions='1');
+
+--EXACT DISTINCT COUNT, THE STATE KEEPS EVERY USER OF THE PAGE
+CREATE TABLE exact_page_visitors
+    AS SELECT page, ARRAY_LENGTH(COLLECT_SET(user_id)) AS visitors
+    FROM page_views
+    GROUP BY page
+    EMIT CHANGES;
+
+--APPROXIMATE DISTINCT COUNT, THE STATE IS THE FIXED SIZE SKETCH
+CREATE TABLE approx_page_visitors
+    AS SELECT page, APPROX_COUNT_DISTINCT(user_id) AS visitors
+    FROM page_views
+    GROUP BY page
+    EMIT CHANGES;
@@ -1,6 +1,6 @@
 -- STREAM CREATION
 CREATE STREAM text_stream (line_number INT, text VARCHAR)
-    WITH (kafka_topic='text_topic', value_format='JSON', partitions='1');
+    WITH (kafka_topic='${namespace}_text_topic', value_format='JSON', partitions='1');
 
 --TABLE CREATION
 CREATE TABLE text_table
@@ -4,7 +4,7 @@ CREATE TABLE text_table (
         line_number INT PRIMARY KEY, --THE ID OR LINE NUMBER    AFTER TAB
         text VARCHAR
     ) WITH (
-        kafka_topic='text_topic',
+        kafka_topic='${namespace}_text_topic',
         --IT IS IMPORTANT TO SET THE NUMBER OF PARTITIONS
         partitions='1', FORMAT = 'JSON'
     );
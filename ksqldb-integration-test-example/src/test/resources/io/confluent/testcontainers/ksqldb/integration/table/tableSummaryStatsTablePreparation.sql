@@ -0,0 +1,18 @@
+
+--TABLE CREATION, A ROW PER REQUEST THAT CAN BE UPDATED
+CREATE TABLE response_times_table (
+        request_id INT PRIMARY KEY,
+        username VARCHAR,
+        response_time DOUBLE
+    ) WITH (
+        kafka_topic='${namespace}_response_times_topic',
+        --IT IS IMPORTANT TO SET THE NUMBER OF PARTITIONS
+        partitions='1', FORMAT = 'JSON'
+    );
+
+--AGGREGATION OF THE TABLE, THE UPDATED ROWS ARE UNDONE FROM THEIR OLD GROUP
+CREATE TABLE user_response_stats
+    AS SELECT username, TABLE_SUMMARY_STATS(response_time) AS stats
+    FROM response_times_table
+    GROUP BY username
+    EMIT CHANGES;
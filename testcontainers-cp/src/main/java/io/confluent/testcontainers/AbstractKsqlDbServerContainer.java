@@ -1,15 +1,25 @@
 package io.confluent.testcontainers;
 
+import com.github.dockerjava.api.command.InspectContainerResponse;
 import org.testcontainers.containers.GenericContainer;
 import org.testcontainers.containers.KafkaContainer;
 import org.testcontainers.utility.DockerImageName;
 
-import static org.testcontainers.containers.wait.strategy.Wait.forLogMessage;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Optional;
 
 public class AbstractKsqlDbServerContainer<T extends GenericContainer<T>> extends GenericContainer<T> {
 
     public static final int DEFAULT_PORT = 8088;
     public static final String DEFAULT_NETWORK_ALIAS = "ksql-server";
+    //ksql.streams.state.dir when in memory, the default is under java.io.tmpdir
+    public static final String STATE_DIR = "/var/lib/ksqldb/state";
+    public static final int DEFAULT_IN_MEMORY_STORAGE_MB = 256;
+
+    private final HttpProbeWaitStrategy readinessProbe = HttpProbeWaitStrategy.forKsqlDb();
+    private final LifecycleTimings lifecycleTimings = new LifecycleTimings(getClass().getSimpleName());
 
     public AbstractKsqlDbServerContainer(String dockerImageName) {
         this(DockerImageName.parse(dockerImageName));
@@ -17,11 +27,12 @@ public class AbstractKsqlDbServerContainer<T extends GenericContainer<T>> extend
 
     public AbstractKsqlDbServerContainer(DockerImageName dockerImageName) {
         super(dockerImageName);
+        setImage(ImagePrefetcher.prefetch(dockerImageName));
         withNetworkAliases(DEFAULT_NETWORK_ALIAS);
         withEnv("KSQL_HOST_NAME", DEFAULT_NETWORK_ALIAS);
         withEnv("KSQL_LISTENERS", "http://0.0.0.0:" + DEFAULT_PORT);
         withExposedPorts(DEFAULT_PORT);
-        waitingFor(forLogMessage(".*INFO Server up and running.*\\n", 1));
+        waitingFor(readinessProbe);
     }
 
     /**
@@ -32,10 +43,19 @@ public class AbstractKsqlDbServerContainer<T extends GenericContainer<T>> extend
      * @return
      */
     public T withKafkaContainer(KafkaContainer kafkaContainer) {
-        return dependsOn(kafkaContainer)
-                .withNetwork(kafkaContainer.getNetwork())
-                //KafkaContainer "internal" port is hardcoded to 9092
-                .withEnv("KSQL_BOOTSTRAP_SERVERS", "PLAINTEXT://" + kafkaContainer.getNetworkAliases().get(0) + ":9092");
+        return withKafkaContainers(Collections.singletonList(kafkaContainer));
+    }
+
+    /**
+     * Same as withKafkaContainer for a multi-broker cluster, the full list of brokers is used as bootstrap servers.
+     * All the brokers are expected in the same network.
+     * @param kafkaContainers
+     * @return
+     */
+    public T withKafkaContainers(Collection<? extends KafkaContainer> kafkaContainers) {
+        return dependsOn(kafkaContainers)
+                .withNetwork(kafkaContainers.iterator().next().getNetwork())
+                .withEnv("KSQL_BOOTSTRAP_SERVERS", CpKafkaContainer.internalBootstrapServers(kafkaContainers));
     }
 
     /**
@@ -67,7 +87,103 @@ public class AbstractKsqlDbServerContainer<T extends GenericContainer<T>> extend
         return withEnv("KSQL_KSQL_SCHEMA_REGISTRY_URL", schemaRegistryUrl);
     }
 
+    /**
+     * Servers with the same service id against the same kafka form a ksqlDB cluster sharing the command topic,
+     * use a different one to run an independent server on a shared kafka
+     *
+     * @param serviceId
+     * @return
+     */
+    public T withServiceId(String serviceId) {
+        return withEnv("KSQL_KSQL_SERVICE_ID", serviceId);
+    }
+
+    /**
+     * Heap, GC, stream threads and cgroup settings of the server, see {@link ResourceProfile}
+     *
+     * @param resourceProfile
+     * @return
+     */
+    public T withResourceProfile(ResourceProfile resourceProfile) {
+        resourceProfile.applyTo(this, ResourceProfile.Service.KSQLDB);
+        return self();
+    }
+
+    /**
+     * Same as {@link #withInMemoryStorage(int)} with a {@value #DEFAULT_IN_MEMORY_STORAGE_MB} MiB cap
+     *
+     * @return
+     */
+    public T withInMemoryStorage() {
+        return withInMemoryStorage(DEFAULT_IN_MEMORY_STORAGE_MB);
+    }
+
+    /**
+     * Moves the RocksDB state of the persistent queries to a tmpfs, the state is lost when the container stops and
+     * rebuilt from the changelog topics on the next start
+     *
+     * @param sizeMb size cap of the tmpfs in MiB, counted in the memory of the container
+     * @return
+     */
+    public T withInMemoryStorage(int sizeMb) {
+        withTmpFs(Collections.singletonMap(STATE_DIR, CpKafkaContainer.tmpFsOptions(sizeMb)));
+        return withEnv("KSQL_KSQL_STREAMS_STATE_DIR", STATE_DIR);
+    }
+
+    /**
+     * The container is not considered started until the command topic is fully replayed, useful when the server
+     * restarts against a kafka that already holds streams, tables and queries
+     *
+     * @return
+     */
+    public T withCommandTopicReplayed() {
+        readinessProbe.withCommandTopicReplayed();
+        return self();
+    }
+
+    /**
+     * @return time the server took to be ready since the wait strategy started, empty if not started or the wait
+     * strategy was replaced
+     */
+    public Optional<Duration> getReadinessTime() {
+        return readinessProbe.getReadinessTime();
+    }
+
     public String getKsqlDbUrl() {
         return "http://" + getContainerIpAddress() + ":" + getMappedPort(DEFAULT_PORT);
     }
+
+    @Override
+    public String getDockerImageName() {
+        return LifecycleTimings.imageName(lifecycleTimings, super::getDockerImageName);
+    }
+
+    @Override
+    protected void doStart() {
+        lifecycleTimings.start(getNetworkAliases(), super::doStart);
+    }
+
+    @Override
+    protected void containerIsCreated(String containerId) {
+        super.containerIsCreated(containerId);
+        lifecycleTimings.created();
+    }
+
+    @Override
+    protected void containerIsStarting(InspectContainerResponse containerInfo, boolean reused) {
+        lifecycleTimings.running();
+        super.containerIsStarting(containerInfo, reused);
+    }
+
+    @Override
+    protected void waitUntilContainerStarted() {
+        lifecycleTimings.waitUntilReady(super::waitUntilContainerStarted);
+    }
+
+    /**
+     * @return the time spent in each phase of the start of this container
+     */
+    public LifecycleTimings getLifecycleTimings() {
+        return lifecycleTimings;
+    }
 }
@@ -0,0 +1,86 @@
+package io.confluent.testcontainers;
+
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Prefix used to isolate the topics, subjects and ksqlDB streams/tables of a test class when the
+ * {@link KafkaContainersCluster} is shared with other test classes.
+ * <p>
+ * The prefix only contains lower case letters, digits and underscores so the derived names are valid as topic
+ * names, subjects and (unquoted) ksqlDB identifiers.
+ */
+public class ClusterNamespace {
+
+    private final String prefix;
+
+    public ClusterNamespace(String prefix) {
+        this.prefix = sanitize(prefix);
+    }
+
+    /**
+     * A namespace unique to the test class and the test run, ie. kafkaclustertest_3f9a2c
+     *
+     * @param testClass the test class
+     * @return the namespace
+     */
+    public static ClusterNamespace forTestClass(Class<?> testClass) {
+        String suffix = Long.toString(UUID.randomUUID().getLeastSignificantBits() & Long.MAX_VALUE, Character.MAX_RADIX);
+        return new ClusterNamespace(testClass.getSimpleName() + "_" + suffix.substring(0, 6));
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    /**
+     * A nested namespace, ie. to isolate each test method of the class
+     *
+     * @param name name of the nested namespace
+     * @return the nested namespace
+     */
+    public ClusterNamespace scoped(String name) {
+        return new ClusterNamespace(prefix + "_" + name);
+    }
+
+    public String topic(String name) {
+        return prefix + "_" + name;
+    }
+
+    /**
+     * @param name a subject name not bound to a topic
+     * @return the namespaced subject
+     */
+    public String subject(String name) {
+        return prefix + "_" + name;
+    }
+
+    /**
+     * @param topicName the (not namespaced) topic name
+     * @return the value subject of the namespaced topic with the default TopicNameStrategy
+     */
+    public String valueSubject(String topicName) {
+        return topic(topicName) + "-value";
+    }
+
+    /**
+     * @param name stream or table name
+     * @return the namespaced name as ksqlDB reports it (upper case)
+     */
+    public String ksqlName(String name) {
+        return (prefix + "_" + name).toUpperCase(Locale.ROOT);
+    }
+
+    public boolean owns(String topicOrSubject) {
+        return topicOrSubject.toLowerCase(Locale.ROOT).startsWith(prefix + "_");
+    }
+
+    private static String sanitize(String name) {
+        return name.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9_]", "_");
+    }
+
+    @Override
+    public String toString() {
+        return prefix;
+    }
+}
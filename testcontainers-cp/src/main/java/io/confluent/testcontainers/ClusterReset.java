@@ -0,0 +1,283 @@
+package io.confluent.testcontainers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.errors.UnknownTopicOrPartitionException;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Wipes the user data of a running {@link KafkaContainersCluster} without restarting any container.
+ * <p>
+ * Schema Registry subjects are soft and then hard deleted concurrently with the ksqlDB part, where the persistent
+ * queries reading or writing an owned stream/table are terminated and then the owned streams/tables dropped. The
+ * topics are deleted with batched AdminClient calls once the queries are terminated, a running query would recreate
+ * its sink topic.
+ * Internal topics (starting with an underscore, ie. _schemas or the ksqlDB command topic) and the ksqlDB processing
+ * log are never removed.
+ */
+class ClusterReset implements AutoCloseable {
+
+    static final int DELETE_TOPICS_BATCH_SIZE = 100;
+    private static final String KSQLDB_CONTENT_TYPE = "application/vnd.ksql.v1+json";
+    private static final String PROCESSING_LOG = "KSQL_PROCESSING_LOG";
+
+    private final KafkaContainersCluster cluster;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    private Admin admin;
+
+    ClusterReset(KafkaContainersCluster cluster) {
+        this.cluster = cluster;
+    }
+
+    /**
+     * @param owned selects the topics, subjects and (case insensitive) ksqlDB source names to remove
+     * @return what was removed and the time spent
+     */
+    ResetReport reset(Predicate<String> owned) {
+        ExecutorService executor = Executors.newFixedThreadPool(3, new ResetThreadFactory());
+        try {
+            long resetStart = System.nanoTime();
+            CompletableFuture<Timed<KsqlDbReset>> ksqlDb = CompletableFuture.supplyAsync(() -> timed(() -> resetKsqlDb(owned)), executor);
+            CompletableFuture<Timed<List<String>>> subjects = CompletableFuture.supplyAsync(() -> timed(() -> deleteSubjects(owned)), executor);
+            //No query is left to write into the topics once the ksqlDB part is done
+            CompletableFuture<Timed<List<String>>> topics = ksqlDb.thenApplyAsync(ignored -> timed(() -> deleteTopics(owned)), executor);
+            CompletableFuture.allOf(ksqlDb, subjects, topics).join();
+
+            return new ResetReport(ksqlDb.join().result.terminatedQueries, ksqlDb.join().result.droppedSources, ksqlDb.join().time,
+                    subjects.join().result, subjects.join().time,
+                    topics.join().result, topics.join().time,
+                    Duration.ofNanos(System.nanoTime() - resetStart));
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Failed to reset the cluster", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private KsqlDbReset resetKsqlDb(Predicate<String> owned) {
+        String ksqlDbUrl = cluster.getKsqlDbServerContainer().getKsqlDbUrl();
+        //The extended listing has the sources of the queries too
+        JsonNode listings = ksqlDbStatements(ksqlDbUrl, "SHOW QUERIES EXTENDED; SHOW STREAMS; SHOW TABLES;");
+
+        //Sinks are dropped before their sources, and the sinks of the latest queries first (they may read from older ones)
+        Map<String, String> sourceTypes = new LinkedHashMap<>();
+        List<String> queryIds = new ArrayList<>();
+        List<String> sinks = new ArrayList<>();
+        for (JsonNode query : listings.get(0).path("queryDescriptions")) {
+            if (!"PERSISTENT".equals(query.path("queryType").asText("PERSISTENT"))) {
+                continue;
+            }
+            List<String> querySinks = new ArrayList<>();
+            query.path("sinks").forEach(sink -> querySinks.add(sink.asText()));
+            List<String> querySources = new ArrayList<>();
+            query.path("sources").forEach(source -> querySources.add(source.asText()));
+            //A query reading an owned source is terminated too, otherwise the source cannot be dropped
+            if (querySinks.stream().anyMatch(owned) || querySources.stream().anyMatch(owned)) {
+                queryIds.add(query.path("id").asText());
+                sinks.addAll(0, querySinks);
+            }
+        }
+        sinks.forEach(sink -> sourceTypes.put(sink, null));
+        listings.get(1).path("streams").forEach(stream -> sourceTypes.put(stream.path("name").asText(), "STREAM"));
+        listings.get(2).path("tables").forEach(table -> sourceTypes.put(table.path("name").asText(), "TABLE"));
+        sourceTypes.values().removeIf(type -> type == null);
+        sourceTypes.keySet().removeIf(name -> PROCESSING_LOG.equals(name) || !owned.test(name));
+
+        if (!queryIds.isEmpty()) {
+            ksqlDbStatements(ksqlDbUrl, queryIds.stream()
+                    .map(id -> "TERMINATE " + id + ";")
+                    .collect(Collectors.joining(" ")));
+        }
+        if (!sourceTypes.isEmpty()) {
+            //Topics are deleted in their own part of the reset
+            ksqlDbStatements(ksqlDbUrl, sourceTypes.entrySet().stream()
+                    .map(source -> String.format("DROP %s IF EXISTS %s;", source.getValue(), source.getKey()))
+                    .collect(Collectors.joining(" ")));
+        }
+        return new KsqlDbReset(queryIds, new ArrayList<>(sourceTypes.keySet()));
+    }
+
+    private JsonNode ksqlDbStatements(String ksqlDbUrl, String statements) {
+        ObjectNode request = mapper.createObjectNode().put("ksql", statements);
+        request.putObject("streamsProperties");
+        HttpResponse<String> response = send(HttpRequest.newBuilder(URI.create(ksqlDbUrl + "/ksql"))
+                .header("Content-Type", KSQLDB_CONTENT_TYPE)
+                .header("Accept", KSQLDB_CONTENT_TYPE)
+                .POST(HttpRequest.BodyPublishers.ofString(request.toString()))
+                .build());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(String.format("ksqlDB failed to run '%s': %s", statements, response.body()));
+        }
+        return readTree(response.body());
+    }
+
+    private List<String> deleteSubjects(Predicate<String> owned) {
+        String schemaRegistryUrl = cluster.getSchemaRegistry().getSchemaRegistryUrl();
+        //Already soft deleted subjects are listed too so they are hard deleted
+        HttpResponse<String> response = send(HttpRequest.newBuilder(URI.create(schemaRegistryUrl + "/subjects?deleted=true")).build());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Schema Registry failed to list the subjects: " + response.body());
+        }
+        List<String> subjects = new ArrayList<>();
+        readTree(response.body()).forEach(subject -> subjects.add(subject.asText()));
+        subjects.removeIf(owned.negate());
+
+        //A hard delete is only accepted once the subject is soft deleted
+        List<CompletableFuture<?>> deletions = new ArrayList<>();
+        for (String subject : subjects) {
+            String subjectUrl = schemaRegistryUrl + "/subjects/" + URLEncoder.encode(subject, StandardCharsets.UTF_8);
+            deletions.add(deleteSubject(subjectUrl)
+                    .thenCompose(ignored -> deleteSubject(subjectUrl + "?permanent=true")));
+        }
+        CompletableFuture.allOf(deletions.toArray(new CompletableFuture[0])).join();
+        return subjects;
+    }
+
+    private CompletableFuture<Void> deleteSubject(String subjectUrl) {
+        return httpClient.sendAsync(HttpRequest.newBuilder(URI.create(subjectUrl)).DELETE().build(), HttpResponse.BodyHandlers.ofString())
+                .thenAccept(response -> {
+                    //404 when the subject is already soft deleted
+                    if (response.statusCode() != 200 && response.statusCode() != 404) {
+                        throw new IllegalStateException(String.format("Schema Registry failed to delete %s: %s", subjectUrl, response.body()));
+                    }
+                });
+    }
+
+    private List<String> deleteTopics(Predicate<String> owned) {
+        try {
+            List<String> topics = admin().listTopics().names().get().stream()
+                    .filter(topic -> !topic.startsWith("_"))
+                    .filter(topic -> !topic.toUpperCase(Locale.ROOT).endsWith(PROCESSING_LOG))
+                    .filter(owned)
+                    .sorted()
+                    .collect(Collectors.toList());
+
+            List<KafkaFuture<Void>> batches = new ArrayList<>();
+            for (int from = 0; from < topics.size(); from += DELETE_TOPICS_BATCH_SIZE) {
+                List<String> batch = topics.subList(from, Math.min(topics.size(), from + DELETE_TOPICS_BATCH_SIZE));
+                batches.add(admin().deleteTopics(batch).all());
+            }
+            for (KafkaFuture<Void> batch : batches) {
+                try {
+                    batch.get();
+                } catch (ExecutionException e) {
+                    //Deleted concurrently, ie. by ksqlDB
+                    if (!(e.getCause() instanceof UnknownTopicOrPartitionException)) {
+                        throw e;
+                    }
+                }
+            }
+            return topics;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to delete the topics", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while deleting the topics", e);
+        }
+    }
+
+    private synchronized Admin admin() {
+        if (admin == null) {
+            Properties properties = new Properties();
+            properties.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, cluster.getBootstrapServers());
+            admin = Admin.create(properties);
+        }
+        return admin;
+    }
+
+    private HttpResponse<String> send(HttpRequest request) {
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted calling " + request.uri(), e);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to call " + request.uri(), e);
+        }
+    }
+
+    private JsonNode readTree(String json) {
+        try {
+            return mapper.readTree(json);
+        } catch (Exception e) {
+            throw new IllegalStateException("Unexpected response: " + json, e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (admin != null) {
+            admin.close(Duration.ofSeconds(5));
+            admin = null;
+        }
+    }
+
+    private static <T> Timed<T> timed(Supplier<T> part) {
+        long start = System.nanoTime();
+        T result = part.get();
+        return new Timed<>(result, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private static class Timed<T> {
+        private final T result;
+        private final Duration time;
+
+        private Timed(T result, Duration time) {
+            this.result = result;
+            this.time = time;
+        }
+    }
+
+    private static class KsqlDbReset {
+        private final List<String> terminatedQueries;
+        private final List<String> droppedSources;
+
+        private KsqlDbReset(List<String> terminatedQueries, List<String> droppedSources) {
+            this.terminatedQueries = Collections.unmodifiableList(terminatedQueries);
+            this.droppedSources = Collections.unmodifiableList(droppedSources);
+        }
+    }
+
+    private static class ResetThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "cluster-reset-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package io.confluent.testcontainers;
+
+import com.github.dockerjava.api.command.InspectContainerResponse;
+import org.testcontainers.containers.KafkaContainer;
+import org.testcontainers.images.builder.Transferable;
+import org.testcontainers.utility.DockerImageName;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * KafkaContainer with the broker settings needed to run several brokers as a cluster (broker id, rack and
+ * replication defaults) or a single ZooKeeper-less KRaft node.
+ */
+public class CpKafkaContainer extends KafkaContainer {
+
+    public static final DockerImageName DEFAULT_IMAGE_NAME = DockerImageName.parse("confluentinc/cp-kafka");
+    public static final String DEFAULT_IMAGE_TAG = "6.2.0-1-ubi8";
+    //KafkaContainer "internal" port is hardcoded to 9092
+    public static final int INTERNAL_PORT = 9092;
+    public static final int CONTROLLER_PORT = 9094;
+    //log.dirs of the cp-kafka image
+    public static final String DATA_DIR = "/var/lib/kafka/data";
+    public static final int DEFAULT_IN_MEMORY_STORAGE_MB = 512;
+    private static final String KRAFT_STARTER_SCRIPT = "/testcontainers_kraft_start.sh";
+
+    private boolean kraft = false;
+    private final LifecycleTimings lifecycleTimings = new LifecycleTimings(getClass().getSimpleName());
+
+    public CpKafkaContainer(String dockerImageName) {
+        this(DockerImageName.parse(dockerImageName));
+    }
+
+    public CpKafkaContainer(DockerImageName dockerImageName) {
+        super(dockerImageName);
+        dockerImageName.assertCompatibleWith(DEFAULT_IMAGE_NAME);
+        setImage(ImagePrefetcher.prefetch(dockerImageName));
+    }
+
+    public CpKafkaContainer withBrokerId(int brokerId) {
+        withEnv("KAFKA_BROKER_ID", String.valueOf(brokerId));
+        return this;
+    }
+
+    /**
+     * Heap, GC, thread and cgroup settings of the broker, see {@link ResourceProfile}
+     *
+     * @param resourceProfile the profile
+     * @return this container
+     */
+    public CpKafkaContainer withResourceProfile(ResourceProfile resourceProfile) {
+        resourceProfile.applyTo(this, ResourceProfile.Service.KAFKA);
+        return this;
+    }
+
+    /**
+     * Same as {@link #withInMemoryStorage(int)} with a {@value #DEFAULT_IN_MEMORY_STORAGE_MB} MiB cap
+     *
+     * @return this container
+     */
+    public CpKafkaContainer withInMemoryStorage() {
+        return withInMemoryStorage(DEFAULT_IN_MEMORY_STORAGE_MB);
+    }
+
+    /**
+     * Mounts a tmpfs on the log directory of the broker so the log segments are kept in memory instead of the
+     * overlay filesystem of the container. The data is lost when the container stops, and the broker fails to
+     * append once the cap is reached: lower the retention of the topics for long running tests.
+     *
+     * @param sizeMb size cap of the tmpfs in MiB, counted in the memory of the container
+     * @return this container
+     */
+    public CpKafkaContainer withInMemoryStorage(int sizeMb) {
+        withTmpFs(Collections.singletonMap(DATA_DIR, tmpFsOptions(sizeMb)));
+        return this;
+    }
+
+    public CpKafkaContainer withRack(String rack) {
+        withEnv("KAFKA_BROKER_RACK", rack);
+        return this;
+    }
+
+    /**
+     * Sets the default replication factor and min.insync.replicas for new topics, internal topics (offsets and
+     * transaction state) use the same values.
+     *
+     * @param replicationFactor default replication factor
+     * @param minInSyncReplicas default min.insync.replicas
+     * @return this container
+     */
+    public CpKafkaContainer withReplication(int replicationFactor, int minInSyncReplicas) {
+        withEnv("KAFKA_DEFAULT_REPLICATION_FACTOR", String.valueOf(replicationFactor));
+        withEnv("KAFKA_MIN_INSYNC_REPLICAS", String.valueOf(minInSyncReplicas));
+        withEnv("KAFKA_OFFSETS_TOPIC_REPLICATION_FACTOR", String.valueOf(replicationFactor));
+        withEnv("KAFKA_TRANSACTION_STATE_LOG_REPLICATION_FACTOR", String.valueOf(replicationFactor));
+        withEnv("KAFKA_TRANSACTION_STATE_LOG_MIN_ISR", String.valueOf(minInSyncReplicas));
+        return this;
+    }
+
+    /**
+     * Runs the broker in KRaft combined mode (broker and controller roles in the same process) without ZooKeeper,
+     * only for a single node. KRaft is an early access feature of Kafka 2.8 (CP 6.2), it is meant for fast test
+     * boots, not to reproduce production behaviour.
+     *
+     * @return this container
+     */
+    public CpKafkaContainer withKraft() {
+        this.kraft = true;
+        return this;
+    }
+
+    public boolean isKraft() {
+        return kraft;
+    }
+
+    @Override
+    protected void configure() {
+        super.configure();
+        if (kraft) {
+            if (externalZookeeperConnect != null) {
+                throw new IllegalStateException("KRaft mode cannot be combined with an external zookeeper");
+            }
+            String nodeId = getEnvMap().getOrDefault("KAFKA_BROKER_ID", "1");
+            withEnv("KAFKA_PROCESS_ROLES", "broker,controller");
+            withEnv("KAFKA_NODE_ID", nodeId);
+            withEnv("KAFKA_CONTROLLER_QUORUM_VOTERS", nodeId + "@localhost:" + CONTROLLER_PORT);
+            withEnv("KAFKA_CONTROLLER_LISTENER_NAMES", "CONTROLLER");
+            withEnv("KAFKA_LISTENERS", "PLAINTEXT://0.0.0.0:" + KAFKA_PORT + ",BROKER://0.0.0.0:" + INTERNAL_PORT + ",CONTROLLER://0.0.0.0:" + CONTROLLER_PORT);
+            withEnv("KAFKA_LISTENER_SECURITY_PROTOCOL_MAP", "BROKER:PLAINTEXT,PLAINTEXT:PLAINTEXT,CONTROLLER:PLAINTEXT");
+            //Replaces the KafkaContainer command, its starter script always launches an embedded zookeeper
+            withCommand("sh", "-c", "while [ ! -f " + KRAFT_STARTER_SCRIPT + " ]; do sleep 0.1; done; " + KRAFT_STARTER_SCRIPT);
+        }
+    }
+
+    @Override
+    protected void containerIsStarting(InspectContainerResponse containerInfo, boolean reused) {
+        lifecycleTimings.running();
+        super.containerIsStarting(containerInfo, reused);
+        if (!kraft || reused) {
+            return;
+        }
+        String advertisedListeners = Stream.concat(
+                Stream.of(getBootstrapServers()),
+                containerInfo.getNetworkSettings().getNetworks().values().stream()
+                        .map(network -> "BROKER://" + network.getIpAddress() + ":" + INTERNAL_PORT))
+                .collect(Collectors.joining(","));
+
+        //CP 6.2 images check zookeeper.connect on configure, and the storage must be formatted before the first KRaft boot
+        String command = "#!/bin/bash\n" +
+                "export KAFKA_ADVERTISED_LISTENERS='" + advertisedListeners + "'\n" +
+                ". /etc/confluent/docker/bash-config\n" +
+                "sed -i '/KAFKA_ZOOKEEPER_CONNECT/d' /etc/confluent/docker/configure\n" +
+                "/etc/confluent/docker/configure\n" +
+                "kafka-storage format --ignore-formatted -t $(kafka-storage random-uuid) -c /etc/kafka/kafka.properties\n" +
+                "/etc/confluent/docker/launch\n";
+        copyFileToContainer(Transferable.of(command.getBytes(StandardCharsets.UTF_8), 0777), KRAFT_STARTER_SCRIPT);
+    }
+
+    /**
+     * @param sizeMb size cap in MiB
+     * @return the mount options of a tmpfs writable by the non root user of the Confluent images
+     */
+    static String tmpFsOptions(int sizeMb) {
+        if (sizeMb < 1) {
+            throw new IllegalArgumentException("The in memory storage needs at least 1 MiB, got " + sizeMb);
+        }
+        return "rw,size=" + sizeMb + "m,mode=1777";
+    }
+
+    /**
+     * Bootstrap servers list as seen from inside the docker network, using the first network alias of each broker
+     * ie. PLAINTEXT://kafka-1:9092,PLAINTEXT://kafka-2:9092
+     *
+     * @param kafkaContainers the brokers of the cluster
+     * @return the bootstrap servers list
+     */
+    public static String internalBootstrapServers(Collection<? extends KafkaContainer> kafkaContainers) {
+        return kafkaContainers.stream()
+                .map(kafkaContainer -> "PLAINTEXT://" + kafkaContainer.getNetworkAliases().get(0) + ":" + INTERNAL_PORT)
+                .collect(Collectors.joining(","));
+    }
+
+    @Override
+    public String getDockerImageName() {
+        return LifecycleTimings.imageName(lifecycleTimings, super::getDockerImageName);
+    }
+
+    @Override
+    protected void doStart() {
+        lifecycleTimings.start(getNetworkAliases(), super::doStart);
+    }
+
+    @Override
+    protected void containerIsCreated(String containerId) {
+        super.containerIsCreated(containerId);
+        lifecycleTimings.created();
+    }
+
+    @Override
+    protected void waitUntilContainerStarted() {
+        lifecycleTimings.waitUntilReady(super::waitUntilContainerStarted);
+    }
+
+    /**
+     * @return the time spent in each phase of the start of this container
+     */
+    public LifecycleTimings getLifecycleTimings() {
+        return lifecycleTimings;
+    }
+}
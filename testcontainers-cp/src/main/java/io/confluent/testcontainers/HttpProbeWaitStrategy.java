@@ -0,0 +1,229 @@
+package io.confluent.testcontainers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.ContainerLaunchException;
+import org.testcontainers.containers.wait.strategy.AbstractWaitStrategy;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * Waits until a list of HTTP endpoints (probes) answer as ready, instead of scanning the container logs.
+ * <p>
+ * The probes are polled with an adaptive backoff: the first attempt is made after a few milliseconds, the delay is
+ * doubled after each attempt without progress (up to a maximum), and dropped back to the initial delay as soon as
+ * one more probe passes (ie. the port starts accepting connections) since the container is then close to be ready.
+ * <p>
+ * The time the container took to be ready since the wait started is exposed by {@link #getReadinessTime()}.
+ */
+public class HttpProbeWaitStrategy extends AbstractWaitStrategy {
+
+    private static final Logger logger = LoggerFactory.getLogger(HttpProbeWaitStrategy.class);
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    public static final Duration DEFAULT_INITIAL_DELAY = Duration.ofMillis(5);
+    public static final Duration DEFAULT_MAX_DELAY = Duration.ofMillis(500);
+
+    private final int port;
+    private final List<Probe> probes = new ArrayList<>();
+    private Duration initialDelay = DEFAULT_INITIAL_DELAY;
+    private Duration maxDelay = DEFAULT_MAX_DELAY;
+    private volatile Duration readinessTime;
+    private volatile int attempts;
+
+    /**
+     * @param port container (not mapped) port the probes are sent to
+     */
+    public HttpProbeWaitStrategy(int port) {
+        this.port = port;
+    }
+
+    /**
+     * ksqlDB is ready once /healthcheck reports it healthy and /info reports the server RUNNING
+     *
+     * @return the strategy for the ksqlDB default port
+     */
+    public static HttpProbeWaitStrategy forKsqlDb() {
+        return new HttpProbeWaitStrategy(AbstractKsqlDbServerContainer.DEFAULT_PORT)
+                .withProbe("/healthcheck", json(body -> body.path("isHealthy").asBoolean(false)))
+                .withProbe("/info", json(body -> "RUNNING".equals(body.path("KsqlServerInfo").path("serverStatus").asText())));
+    }
+
+    /**
+     * Schema Registry is ready once it lists the subjects, that is once it has read the _schemas topic
+     *
+     * @return the strategy for the Schema Registry default port
+     */
+    public static HttpProbeWaitStrategy forSchemaRegistry() {
+        return new HttpProbeWaitStrategy(SchemaRegistryContainer.DEFAULT_PORT)
+                .withProbe("/subjects", response -> true);
+    }
+
+    /**
+     * Adds an endpoint that must answer 200 and pass the check, probes are sent in the order they are added
+     *
+     * @param path  endpoint path
+     * @param ready check of the 200 response
+     * @return this strategy
+     */
+    public HttpProbeWaitStrategy withProbe(String path, Predicate<HttpResponse<String>> ready) {
+        probes.add(new Probe(path, ready));
+        return this;
+    }
+
+    /**
+     * ksqlDB only: also require the command runner to report healthy, that is the command topic fully replayed so
+     * the streams, tables and queries of a reused cluster are back
+     *
+     * @return this strategy
+     */
+    public HttpProbeWaitStrategy withCommandTopicReplayed() {
+        return withProbeCheck("/healthcheck", json(body -> body.path("details").path("commandRunner").path("isHealthy").asBoolean(false)));
+    }
+
+    /**
+     * Adds a check to the probe of the endpoint, so the endpoint is still called once per attempt, or adds the
+     * probe if there is none for the endpoint yet
+     *
+     * @param path  endpoint path
+     * @param ready additional check of the 200 response
+     * @return this strategy
+     */
+    public HttpProbeWaitStrategy withProbeCheck(String path, Predicate<HttpResponse<String>> ready) {
+        for (int i = 0; i < probes.size(); i++) {
+            Probe probe = probes.get(i);
+            if (probe.path.equals(path)) {
+                probes.set(i, new Probe(path, probe.ready.and(ready)));
+                return this;
+            }
+        }
+        return withProbe(path, ready);
+    }
+
+    public HttpProbeWaitStrategy withBackoff(Duration initialDelay, Duration maxDelay) {
+        this.initialDelay = initialDelay;
+        this.maxDelay = maxDelay;
+        return this;
+    }
+
+    @Override
+    public HttpProbeWaitStrategy withStartupTimeout(Duration startupTimeout) {
+        super.withStartupTimeout(startupTimeout);
+        return this;
+    }
+
+    /**
+     * @return time the container took to be ready since the wait started, empty until it is ready
+     */
+    public Optional<Duration> getReadinessTime() {
+        return Optional.ofNullable(readinessTime);
+    }
+
+    /**
+     * @return number of polling rounds of the last wait
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    @Override
+    protected void waitUntilReady() {
+        String baseUrl = String.format("http://%s:%d", waitStrategyTarget.getHost(), waitStrategyTarget.getMappedPort(port));
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+        long start = System.nanoTime();
+        long deadline = start + startupTimeout.toNanos();
+        long delay = initialDelay.toNanos();
+        int bestProgress = -1;
+        readinessTime = null;
+        attempts = 0;
+        while (true) {
+            attempts++;
+            int progress = probe(httpClient, baseUrl);
+            if (progress == probes.size() + 1) {
+                readinessTime = Duration.ofNanos(System.nanoTime() - start);
+                logger.debug("{} ready after {} ms and {} attempts", baseUrl, readinessTime.toMillis(), attempts);
+                return;
+            }
+            if (progress > bestProgress) {
+                bestProgress = progress;
+                delay = initialDelay.toNanos();
+            } else {
+                delay = Math.min(maxDelay.toNanos(), delay * 2);
+            }
+            if (System.nanoTime() + delay > deadline) {
+                throw new ContainerLaunchException(String.format("Timed out waiting for %s to pass the probes %s (%d of them passed)",
+                        baseUrl, probes, Math.max(0, progress - 1)));
+            }
+            try {
+                Thread.sleep(delay / 1_000_000, (int) (delay % 1_000_000));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ContainerLaunchException("Interrupted waiting for " + baseUrl, e);
+            }
+        }
+    }
+
+    /**
+     * @return 0 if the port refuses connections, 1 + the number of probes passed (in order) otherwise
+     */
+    private int probe(HttpClient httpClient, String baseUrl) {
+        int progress = 0;
+        for (Probe probe : probes) {
+            HttpResponse<String> response;
+            try {
+                response = httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl + probe.path))
+                        .timeout(Duration.ofSeconds(1))
+                        .build(), HttpResponse.BodyHandlers.ofString());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ContainerLaunchException("Interrupted waiting for " + baseUrl, e);
+            } catch (Exception e) {
+                return progress;
+            }
+            if (progress == 0) {
+                progress = 1;
+            }
+            if (response.statusCode() != 200 || !probe.ready.test(response)) {
+                return progress;
+            }
+            progress++;
+        }
+        return progress;
+    }
+
+    private static Predicate<HttpResponse<String>> json(Predicate<JsonNode> ready) {
+        return response -> {
+            try {
+                return ready.test(mapper.readTree(response.body()));
+            } catch (Exception e) {
+                return false;
+            }
+        };
+    }
+
+    private static class Probe {
+        private final String path;
+        private final Predicate<HttpResponse<String>> ready;
+
+        private Probe(String path, Predicate<HttpResponse<String>> ready) {
+            this.path = path;
+            this.ready = ready;
+        }
+
+        @Override
+        public String toString() {
+            return path;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package io.confluent.testcontainers;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.images.RemoteDockerImage;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resolves, and pulls if needed, the Confluent images in the background as soon as a container or a
+ * {@link KafkaContainersCluster.KafkaClusterBuilder} is created, instead of one by one when each container starts.
+ * <p>
+ * A container only prefetches its own image. The builder prefetches the broker and ksqlDB images every cluster uses
+ * when it is created, and {@link KafkaContainersCluster.KafkaClusterBuilder#build()} the other images of the
+ * containers it configures, ie. not the Schema Registry image with an in-process Schema Registry. The images are
+ * prefetched concurrently on a bounded pool, and each container start only blocks on its own image. Call
+ * {@link #prefetchDefaults()} to also pull the images of the containers created later.
+ * <p>
+ * Images are resolved by testcontainers as usual: an image already in the local cache is not pulled, and the image
+ * name substitution (ie. {@code hub.image.name.prefix} for a local registry mirror) is applied.
+ * <p>
+ * Set the system property {@value #PREFETCH_PROPERTY} to false to resolve the images lazily on start, and
+ * {@value #PARALLELISM_PROPERTY} to change the number of concurrent pulls (3 by default).
+ */
+public final class ImagePrefetcher {
+
+    public static final String PREFETCH_PROPERTY = "images.prefetch";
+    public static final String PARALLELISM_PROPERTY = "images.prefetch.parallelism";
+
+    private static final Logger logger = LoggerFactory.getLogger(ImagePrefetcher.class);
+    private static final Map<String, Future<String>> images = new ConcurrentHashMap<>();
+    private static final AtomicBoolean defaultsRequested = new AtomicBoolean();
+    private static final ExecutorService executor = Executors.newFixedThreadPool(
+            Integer.getInteger(PARALLELISM_PROPERTY, 3), new PrefetchThreadFactory());
+
+    private ImagePrefetcher() {
+    }
+
+    /**
+     * @return the DEFAULT_IMAGE_NAME:DEFAULT_IMAGE_TAG images declared by the containers and the zookeeper image of
+     * the multi-broker cluster, the images of the cluster first
+     */
+    public static List<DockerImageName> defaultImages() {
+        return List.of(
+                CpKafkaContainer.DEFAULT_IMAGE_NAME.withTag(CpKafkaContainer.DEFAULT_IMAGE_TAG),
+                KafkaContainersCluster.KafkaClusterBuilder.ZOOKEEPER_IMAGE_NAME.withTag(CpKafkaContainer.DEFAULT_IMAGE_TAG),
+                SchemaRegistryContainer.DEFAULT_IMAGE_NAME.withTag(SchemaRegistryContainer.DEFAULT_IMAGE_TAG),
+                CpKsqlDbServerContainer.DEFAULT_IMAGE_NAME.withTag(CpKsqlDbServerContainer.DEFAULT_IMAGE_TAG),
+                KsqlDbServerContainer.DEFAULT_IMAGE_NAME.withTag(KsqlDbServerContainer.DEFAULT_IMAGE_TAG));
+    }
+
+    /**
+     * Starts the prefetch of all the {@link #defaultImages()}, only the first call has effect
+     */
+    public static void prefetchDefaults() {
+        if (isEnabled() && defaultsRequested.compareAndSet(false, true)) {
+            defaultImages().forEach(ImagePrefetcher::prefetch);
+        }
+    }
+
+    /**
+     * Starts the prefetch of an image, if not already requested
+     *
+     * @param dockerImageName the image
+     * @return the resolved image name once available, to be set as the image of the container
+     */
+    public static Future<String> prefetch(DockerImageName dockerImageName) {
+        if (!isEnabled()) {
+            return new RemoteDockerImage(dockerImageName);
+        }
+        return images.computeIfAbsent(dockerImageName.asCanonicalNameString(), name -> {
+            RemoteDockerImage image = new RemoteDockerImage(dockerImageName);
+            return CompletableFuture.supplyAsync(() -> {
+                long start = System.nanoTime();
+                try {
+                    //Pulls the image if it is not present locally
+                    String resolved = image.get();
+                    logger.debug("Image {} prefetched in {} ms", resolved, (System.nanoTime() - start) / 1_000_000);
+                    return resolved;
+                } catch (RuntimeException e) {
+                    //Retried by the next container of the image
+                    logger.warn("Failed to prefetch the image {}", name, e);
+                    images.remove(name);
+                    throw e;
+                }
+            }, executor);
+        });
+    }
+
+    private static boolean isEnabled() {
+        return Boolean.parseBoolean(System.getProperty(PREFETCH_PROPERTY, "true"));
+    }
+
+    private static class PrefetchThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "image-prefetch-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
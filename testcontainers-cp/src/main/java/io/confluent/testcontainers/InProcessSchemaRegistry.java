@@ -0,0 +1,469 @@
+package io.confluent.testcontainers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.GenericContainer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * In-JVM stand-in for Schema Registry, for the tests that only need serializer/deserializer round-trips. The REST
+ * subset used by the Confluent serializers and {@code CachedSchemaRegistryClient} is served by the JDK
+ * {@link HttpServer} from concurrent maps, it starts in milliseconds and needs no Docker.
+ * <p>
+ * Schemas are neither parsed nor checked for compatibility: the same schema text, type and references get the same id
+ * in every subject, compatibility checks always pass. The endpoints served are:
+ * <ul>
+ *     <li>GET /subjects, /subjects/{s}/versions, /subjects/{s}/versions/{v} and /subjects/{s}/versions/{v}/schema</li>
+ *     <li>POST /subjects/{s}/versions to register, POST /subjects/{s} to look up a schema</li>
+ *     <li>DELETE /subjects/{s}, soft then hard with permanent=true</li>
+ *     <li>GET /schemas/ids/{id} and /schemas/types</li>
+ *     <li>GET and PUT /config and /config/{s}, POST /compatibility/subjects/{s}/versions/{v}</li>
+ * </ul>
+ */
+public class InProcessSchemaRegistry implements SchemaRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(InProcessSchemaRegistry.class);
+
+    public static final String CONTENT_TYPE = "application/vnd.schemaregistry.v1+json";
+    public static final String DEFAULT_COMPATIBILITY = "BACKWARD";
+    private static final String AVRO = "AVRO";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ConcurrentMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, StoredSchema> schemas = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, List<Version>> subjects = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, String> subjectCompatibility = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger(1);
+    private volatile String compatibility = DEFAULT_COMPATIBILITY;
+    private int port;
+    private HttpServer server;
+    private ExecutorService executor;
+    private boolean running;
+
+    /**
+     * Listens on a random free port
+     */
+    public InProcessSchemaRegistry() {
+        this(0);
+    }
+
+    /**
+     * @param port port to listen on, 0 for a random free port
+     */
+    public InProcessSchemaRegistry(int port) {
+        this.port = port;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        long start = System.nanoTime();
+        bind().start();
+        running = true;
+        logger.info("In-process Schema Registry listening on port {}, started in {} ms", port, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Stops the HTTP server, the schemas are kept and served again on the same port by the next {@link #start()}
+     */
+    @Override
+    public synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            server = null;
+        }
+        running = false;
+    }
+
+    public synchronized boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * The port is bound on the first call so the URL can be given to the clients before the start
+     *
+     * @return the port the registry listens on
+     */
+    public synchronized int getPort() {
+        bind();
+        return port;
+    }
+
+    @Override
+    public String getSchemaRegistryUrl() {
+        return "http://localhost:" + getPort();
+    }
+
+    /**
+     * Only reachable once the port is exposed to the containers with
+     * {@link org.testcontainers.Testcontainers#exposeHostPorts(int...)}, which {@link KafkaContainersCluster} does
+     *
+     * @return Schema Registry URL from the containers
+     */
+    @Override
+    public String getSchemaRegistryInternalNetworkUrl() {
+        return "http://" + GenericContainer.INTERNAL_HOST_HOSTNAME + ":" + getPort();
+    }
+
+    private HttpServer bind() {
+        if (server == null) {
+            try {
+                server = HttpServer.create(new InetSocketAddress(port), 0);
+            } catch (IOException e) {
+                throw new UncheckedIOException("In-process Schema Registry failed to listen on port " + port, e);
+            }
+            port = server.getAddress().getPort();
+            AtomicInteger threads = new AtomicInteger();
+            executor = Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "in-process-schema-registry-" + threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            server.setExecutor(executor);
+            server.createContext("/", this::handle);
+        }
+        return server;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        int status = 200;
+        String body;
+        try {
+            List<String> path = Arrays.stream(exchange.getRequestURI().getRawPath().split("/"))
+                    .filter(segment -> !segment.isEmpty())
+                    .map(segment -> URLDecoder.decode(segment.replace("+", "%2B"), StandardCharsets.UTF_8))
+                    .collect(Collectors.toList());
+            String query = Optional.ofNullable(exchange.getRequestURI().getRawQuery()).orElse("");
+            byte[] request = exchange.getRequestBody().readAllBytes();
+            body = route(exchange.getRequestMethod(), path, query, request);
+        } catch (RestError e) {
+            status = e.status;
+            body = error(e.errorCode, e.getMessage());
+        } catch (Exception e) {
+            logger.warn("In-process Schema Registry failed on {} {}", exchange.getRequestMethod(), exchange.getRequestURI(), e);
+            status = 500;
+            body = error(50001, e.toString());
+        }
+        byte[] response = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+        exchange.sendResponseHeaders(status, response.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(response);
+        }
+    }
+
+    private String route(String method, List<String> path, String query, byte[] request) throws IOException {
+        if (path.isEmpty()) {
+            return "{}";
+        }
+        switch (path.get(0)) {
+            case "subjects":
+                if (path.size() == 1) {
+                    return json(listSubjects(query.contains("deleted=true")), method, "GET");
+                }
+                String subject = path.get(1);
+                if (path.size() == 2 && "POST".equals(method)) {
+                    return json(lookUp(subject, readSchema(request)));
+                }
+                if (path.size() == 2) {
+                    requireMethod(method, "DELETE");
+                    return json(deleteSubject(subject, query.contains("permanent=true")));
+                }
+                if (path.size() == 3 && "versions".equals(path.get(2)) && "POST".equals(method)) {
+                    return json(objectMapper.createObjectNode().put("id", register(subject, readSchema(request))));
+                }
+                if (path.size() == 3 && "versions".equals(path.get(2))) {
+                    return json(liveVersions(subject).stream().map(version -> version.version).collect(Collectors.toList()), method, "GET");
+                }
+                if (path.size() == 4 && "versions".equals(path.get(2))) {
+                    return json(versionEntity(subject, version(subject, path.get(3))), method, "GET");
+                }
+                if (path.size() == 5 && "versions".equals(path.get(2)) && "schema".equals(path.get(4))) {
+                    requireMethod(method, "GET");
+                    return schemas.get(version(subject, path.get(3)).id).schema;
+                }
+                break;
+            case "schemas":
+                if (path.size() == 3 && "ids".equals(path.get(1))) {
+                    return json(schemaEntity(schemaById(path.get(2))), method, "GET");
+                }
+                if (path.size() == 2 && "types".equals(path.get(1))) {
+                    return json(List.of("JSON", "PROTOBUF", AVRO), method, "GET");
+                }
+                break;
+            case "config":
+                if (path.size() <= 2) {
+                    return config(method, path.size() == 2 ? path.get(1) : null, request);
+                }
+                break;
+            case "compatibility":
+                if (path.size() == 5 && "subjects".equals(path.get(1)) && "versions".equals(path.get(3))) {
+                    requireMethod(method, "POST");
+                    return json(objectMapper.createObjectNode().put("is_compatible", true));
+                }
+                break;
+            default:
+        }
+        throw new RestError(404, 404, "HTTP 404 Not Found");
+    }
+
+    private List<String> listSubjects(boolean deleted) {
+        return subjects.entrySet().stream()
+                .filter(subject -> deleted || subject.getValue().stream().anyMatch(version -> !version.deleted))
+                .map(Map.Entry::getKey)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Registers the schema under a new version of the subject unless a live version has the same schema
+     *
+     * @return the schema id
+     */
+    private int register(String subject, StoredSchema schema) {
+        int id = ids.computeIfAbsent(schema.key(), key -> {
+            int newId = nextId.getAndIncrement();
+            schemas.put(newId, schema);
+            return newId;
+        });
+        //The versions of a subject are only changed by compute, so one registration at a time per subject
+        subjects.compute(subject, (name, versions) -> {
+            List<Version> updated = versions == null ? new CopyOnWriteArrayList<>() : versions;
+            if (updated.stream().noneMatch(version -> !version.deleted && version.id == id)) {
+                int last = updated.stream().mapToInt(version -> version.version).max().orElse(0);
+                updated.add(new Version(last + 1, id, false));
+            }
+            return updated;
+        });
+        return id;
+    }
+
+    private ObjectNode lookUp(String subject, StoredSchema schema) {
+        List<Version> live = liveVersions(subject);
+        Integer id = ids.get(schema.key());
+        return live.stream()
+                .filter(version -> id != null && version.id == id)
+                .findFirst()
+                .map(version -> versionEntity(subject, version))
+                .orElseThrow(() -> new RestError(404, 40403, "Schema not found"));
+    }
+
+    private List<Integer> deleteSubject(String subject, boolean permanent) {
+        List<Integer> deleted = new ArrayList<>();
+        subjects.compute(subject, (name, versions) -> {
+            if (versions == null) {
+                throw subjectNotFound(subject);
+            }
+            boolean live = versions.stream().anyMatch(version -> !version.deleted);
+            if (permanent) {
+                if (live) {
+                    throw new RestError(404, 40405, String.format("Subject '%s' was not deleted first before being permanently deleted", subject));
+                }
+                versions.forEach(version -> deleted.add(version.version));
+                return null;
+            }
+            if (!live) {
+                throw new RestError(404, 40404, String.format("Subject '%s' was soft deleted.Set permanent=true to delete permanently", subject));
+            }
+            List<Version> softDeleted = new CopyOnWriteArrayList<>();
+            for (Version version : versions) {
+                if (!version.deleted) {
+                    deleted.add(version.version);
+                }
+                softDeleted.add(new Version(version.version, version.id, true));
+            }
+            return softDeleted;
+        });
+        return deleted;
+    }
+
+    private List<Version> liveVersions(String subject) {
+        List<Version> live = subjects.getOrDefault(subject, List.of()).stream()
+                .filter(version -> !version.deleted)
+                .collect(Collectors.toList());
+        if (live.isEmpty()) {
+            throw subjectNotFound(subject);
+        }
+        return live;
+    }
+
+    private Version version(String subject, String version) {
+        List<Version> live = liveVersions(subject);
+        if ("latest".equals(version) || "-1".equals(version)) {
+            return live.get(live.size() - 1);
+        }
+        int number;
+        try {
+            number = Integer.parseInt(version);
+        } catch (NumberFormatException e) {
+            throw invalidVersion(version);
+        }
+        if (number < 1) {
+            throw invalidVersion(version);
+        }
+        return live.stream()
+                .filter(candidate -> candidate.version == number)
+                .findFirst()
+                .orElseThrow(() -> new RestError(404, 40402, "Version " + version + " not found."));
+    }
+
+    private StoredSchema schemaById(String id) {
+        try {
+            return Optional.ofNullable(schemas.get(Integer.parseInt(id)))
+                    .orElseThrow(() -> new RestError(404, 40403, "Schema " + id + " not found"));
+        } catch (NumberFormatException e) {
+            throw new RestError(404, 40403, "Schema " + id + " not found");
+        }
+    }
+
+    private String config(String method, String subject, byte[] request) throws IOException {
+        if ("PUT".equals(method)) {
+            JsonNode compatibilityLevel = objectMapper.readTree(request).path("compatibility");
+            if (!compatibilityLevel.isTextual()) {
+                throw new RestError(422, 42203, "Invalid compatibility level");
+            }
+            if (subject == null) {
+                compatibility = compatibilityLevel.asText();
+            } else {
+                subjectCompatibility.put(subject, compatibilityLevel.asText());
+            }
+            return json(objectMapper.createObjectNode().put("compatibility", compatibilityLevel.asText()));
+        }
+        requireMethod(method, "GET");
+        String level = subject == null ? compatibility : subjectCompatibility.get(subject);
+        if (level == null) {
+            throw new RestError(404, 40408, String.format("Subject '%s' does not have subject-level compatibility configured", subject));
+        }
+        return json(objectMapper.createObjectNode().put("compatibilityLevel", level));
+    }
+
+    private StoredSchema readSchema(byte[] request) throws IOException {
+        JsonNode body = objectMapper.readTree(request);
+        if (body == null || !body.path("schema").isTextual() || body.path("schema").asText().isBlank()) {
+            throw new RestError(422, 42201, "Invalid schema");
+        }
+        JsonNode references = body.path("references");
+        return new StoredSchema(body.path("schema").asText(), body.path("schemaType").asText(AVRO),
+                references.isArray() ? (ArrayNode) references : objectMapper.createArrayNode());
+    }
+
+    private ObjectNode versionEntity(String subject, Version version) {
+        StoredSchema schema = schemas.get(version.id);
+        ObjectNode entity = objectMapper.createObjectNode()
+                .put("subject", subject)
+                .put("version", version.version)
+                .put("id", version.id);
+        return schema.writeTo(entity);
+    }
+
+    private ObjectNode schemaEntity(StoredSchema schema) {
+        return schema.writeTo(objectMapper.createObjectNode());
+    }
+
+    private String json(Object value, String method, String expectedMethod) throws IOException {
+        requireMethod(method, expectedMethod);
+        return json(value);
+    }
+
+    private String json(Object value) throws IOException {
+        return objectMapper.writeValueAsString(value);
+    }
+
+    private String error(int errorCode, String message) {
+        return objectMapper.createObjectNode().put("error_code", errorCode).put("message", message).toString();
+    }
+
+    private static void requireMethod(String method, String expectedMethod) {
+        if (!expectedMethod.equals(method)) {
+            throw new RestError(405, 405, "HTTP 405 Method Not Allowed");
+        }
+    }
+
+    private static RestError subjectNotFound(String subject) {
+        return new RestError(404, 40401, String.format("Subject '%s' not found.", subject));
+    }
+
+    private static RestError invalidVersion(String version) {
+        return new RestError(422, 42202, "The specified version '" + version + "' is not a valid version id. "
+                + "Allowed values are between [1, 2^31-1] and the string \"latest\"");
+    }
+
+    private static final class StoredSchema {
+        private final String schema;
+        private final String schemaType;
+        private final ArrayNode references;
+
+        private StoredSchema(String schema, String schemaType, ArrayNode references) {
+            this.schema = schema;
+            this.schemaType = schemaType;
+            this.references = references;
+        }
+
+        private String key() {
+            return schemaType + "\n" + references + "\n" + schema;
+        }
+
+        /**
+         * Same as Schema Registry, the type is omitted for Avro and the references when there are none
+         */
+        private ObjectNode writeTo(ObjectNode entity) {
+            if (!AVRO.equals(schemaType)) {
+                entity.put("schemaType", schemaType);
+            }
+            if (references.size() > 0) {
+                entity.set("references", references);
+            }
+            return entity.put("schema", schema);
+        }
+    }
+
+    private static final class Version {
+        private final int version;
+        private final int id;
+        private final boolean deleted;
+
+        private Version(int version, int id, boolean deleted) {
+            this.version = version;
+            this.id = id;
+            this.deleted = deleted;
+        }
+    }
+
+    private static final class RestError extends RuntimeException {
+        private final int status;
+        private final int errorCode;
+
+        private RestError(int status, int errorCode, String message) {
+            super(message);
+            this.status = status;
+            this.errorCode = errorCode;
+        }
+    }
+}
@@ -1,97 +1,511 @@
 package io.confluent.testcontainers;
 
-import org.junit.rules.RuleChain;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
 import org.junit.rules.TestRule;
 import org.junit.runner.Description;
 import org.junit.runners.model.Statement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.Testcontainers;
+import org.testcontainers.containers.GenericContainer;
 import org.testcontainers.containers.KafkaContainer;
 import org.testcontainers.containers.Network;
 import org.testcontainers.lifecycle.Startable;
 import org.testcontainers.utility.DockerImageName;
 
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 public class KafkaContainersCluster implements TestRule, Startable {
 
-    private final RuleChain delegate;
+    private static final Logger logger = LoggerFactory.getLogger(KafkaContainersCluster.class);
+
+    public static final String ZOOKEEPER_NODE = "zookeeper";
+    public static final String KAFKA_NODE = "kafka";
+    public static final String SCHEMA_REGISTRY_NODE = "schema-registry";
+    /**
+     * Node exposing the port of the in-process Schema Registry to the containers
+     */
+    public static final String SCHEMA_REGISTRY_PORT_NODE = "schema-registry-port";
+    public static final String KSQLDB_SERVER_NODE = "ksqldb-server";
+
+    private final StartupGraph startupGraph;
+    private final ClusterReset clusterReset;
     private Network network;
-    private KafkaContainer kafkaContainer;
-    private SchemaRegistryContainer schemaRegistryContainer;
+    private Optional<GenericContainer<?>> zookeeperContainer;
+    private List<KafkaContainer> kafkaContainers;
+    private SchemaRegistry schemaRegistry;
     private AbstractKsqlDbServerContainer ksqlDbServerContainer;
+    private StartupReport startupReport;
 
-    private KafkaContainersCluster(Network network, KafkaContainer kafkaContainer, SchemaRegistryContainer schemaRegistryContainer, AbstractKsqlDbServerContainer ksqlDbServerContainer) {
+    private KafkaContainersCluster(Network network, Optional<GenericContainer<?>> zookeeperContainer, List<KafkaContainer> kafkaContainers, SchemaRegistry schemaRegistry, AbstractKsqlDbServerContainer ksqlDbServerContainer) {
         this.network = network;
-        this.kafkaContainer = kafkaContainer;
-        this.schemaRegistryContainer = schemaRegistryContainer;
+        this.zookeeperContainer = zookeeperContainer;
+        this.kafkaContainers = Collections.unmodifiableList(kafkaContainers);
+        this.schemaRegistry = schemaRegistry;
         this.ksqlDbServerContainer = ksqlDbServerContainer;
-        delegate = RuleChain.outerRule(kafkaContainer)
-                .around(schemaRegistryContainer)
-                .around(ksqlDbServerContainer);
+        boolean inProcessSchemaRegistry = schemaRegistry instanceof InProcessSchemaRegistry;
+
+        //Brokers are started in parallel once zookeeper is up (if any)
+        //ksqlDB only needs the brokers to boot, it is started alongside Schema Registry
+        startupGraph = new StartupGraph().withNetwork(network);
+        String[] zookeeperNode = zookeeperContainer.isPresent() ? new String[]{ZOOKEEPER_NODE} : new String[0];
+        zookeeperContainer.ifPresent(zookeeper -> startupGraph.addNode(ZOOKEEPER_NODE, zookeeper));
+        List<String> brokerNodes = new ArrayList<>();
+        for (int i = 0; i < kafkaContainers.size(); i++) {
+            String brokerNode = kafkaContainers.size() == 1 ? KAFKA_NODE : KAFKA_NODE + "-" + (i + 1);
+            startupGraph.addNode(brokerNode, kafkaContainers.get(i), zookeeperNode);
+            brokerNodes.add(brokerNode);
+        }
+        String[] brokerDependencies = brokerNodes.toArray(new String[0]);
+        if (inProcessSchemaRegistry) {
+            //Started in milliseconds without the brokers, ksqlDB waits for its port to be exposed. The first exposed port
+            //starts the port forwarding container of testcontainers, it is timed in its own node.
+            List<String> ksqlDbDependencies = new ArrayList<>(brokerNodes);
+            ksqlDbDependencies.add(SCHEMA_REGISTRY_PORT_NODE);
+            startupGraph.addNode(SCHEMA_REGISTRY_NODE, schemaRegistry)
+                    .addNode(SCHEMA_REGISTRY_PORT_NODE, exposedToContainers((InProcessSchemaRegistry) schemaRegistry), SCHEMA_REGISTRY_NODE)
+                    .addNode(KSQLDB_SERVER_NODE, ksqlDbServerContainer, ksqlDbDependencies.toArray(new String[0]));
+        } else {
+            startupGraph.addNode(SCHEMA_REGISTRY_NODE, schemaRegistry, brokerDependencies)
+                    .addNode(KSQLDB_SERVER_NODE, ksqlDbServerContainer, brokerDependencies);
+        }
+        clusterReset = new ClusterReset(this);
     }
 
+    /**
+     * As a JUnit 4 rule the cluster is started with {@link #start()} and stopped with {@link #stop()} around the
+     * statement, so it goes through the {@link StartupGraph} and has a {@link StartupReport}
+     */
     @Override
     public Statement apply(Statement base, Description description) {
-        return delegate.apply(base, description);
+        return startableRule(this).apply(base, description);
     }
 
     public Network getNetwork() {
         return network;
     }
 
+    /**
+     * @return the first (or only) broker of the cluster
+     */
     public KafkaContainer getKafkaContainer() {
-        return kafkaContainer;
+        return kafkaContainers.get(0);
+    }
+
+    public List<KafkaContainer> getKafkaContainers() {
+        return kafkaContainers;
+    }
+
+    public Optional<GenericContainer<?>> getZookeeperContainer() {
+        return zookeeperContainer;
     }
 
+    /**
+     * Bootstrap servers of all the brokers as exposed to the docker host, the cluster must be running
+     *
+     * @return comma separated bootstrap servers list
+     */
+    public String getBootstrapServers() {
+        return kafkaContainers.stream()
+                .map(KafkaContainer::getBootstrapServers)
+                .collect(Collectors.joining(","));
+    }
+
+    /**
+     * @return the Schema Registry container
+     * @throws IllegalStateException if the cluster uses the {@link InProcessSchemaRegistry}
+     */
     public SchemaRegistryContainer getSchemaRegistryContainer() {
-        return schemaRegistryContainer;
+        if (!(schemaRegistry instanceof SchemaRegistryContainer)) {
+            throw new IllegalStateException("The cluster uses the in-process Schema Registry, see getSchemaRegistry()");
+        }
+        return (SchemaRegistryContainer) schemaRegistry;
+    }
+
+    /**
+     * @return the Schema Registry container or the {@link InProcessSchemaRegistry}
+     */
+    public SchemaRegistry getSchemaRegistry() {
+        return schemaRegistry;
     }
 
     public AbstractKsqlDbServerContainer getKsqlDbServerContainer() {
         return ksqlDbServerContainer;
     }
 
+    /**
+     * Per-node and total startup times of the last {@link #start()}, null if the cluster is not started
+     *
+     * @return the startup report
+     */
+    public StartupReport getStartupReport() {
+        return startupReport;
+    }
+
+    /**
+     * Starts the cluster using a {@link StartupGraph}, images are resolved in parallel while the network is created and
+     * each container is started as soon as its dependencies are up.
+     */
     @Override
-    public void start() {
-        ksqlDbServerContainer.start();
+    public synchronized void start() {
+        if (startupReport != null) {
+            return;
+        }
+        startupReport = startupGraph.start();
+        recordFirstClientCalls();
+        logger.info("Kafka cluster started{}{}", System.lineSeparator(), startupReport);
+    }
+
+    /**
+     * Completes the {@link LifecycleTimings} of the containers with the first successful call of a client:
+     * describing the cluster with an AdminClient, listing the Schema Registry subjects and getting the ksqlDB info
+     */
+    private void recordFirstClientCalls() {
+        HttpClient httpClient = HttpClient.newHttpClient();
+        CompletableFuture<Void> kafka = CompletableFuture.runAsync(() -> {
+            try (Admin admin = Admin.create(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, getBootstrapServers()))) {
+                admin.describeCluster().nodes().get();
+                kafkaContainers.stream()
+                        .filter(CpKafkaContainer.class::isInstance)
+                        .map(CpKafkaContainer.class::cast)
+                        .forEach(kafkaContainer -> kafkaContainer.getLifecycleTimings().firstClientCall());
+            } catch (Exception e) {
+                logger.warn("First call to the brokers failed", e);
+            }
+        });
+        //The in-process Schema Registry has no container lifecycle to complete
+        CompletableFuture<Void> schemaRegistryCall = CompletableFuture.completedFuture(null);
+        if (schemaRegistry instanceof SchemaRegistryContainer) {
+            SchemaRegistryContainer schemaRegistryContainer = (SchemaRegistryContainer) schemaRegistry;
+            schemaRegistryCall = firstHttpCall(httpClient, schemaRegistryContainer.getSchemaRegistryUrl() + "/subjects",
+                    schemaRegistryContainer.getLifecycleTimings());
+        }
+        CompletableFuture<Void> ksqlDb = firstHttpCall(httpClient, ksqlDbServerContainer.getKsqlDbUrl() + "/info",
+                ksqlDbServerContainer.getLifecycleTimings());
+        CompletableFuture.allOf(kafka, schemaRegistryCall, ksqlDb).join();
+    }
+
+    private CompletableFuture<Void> firstHttpCall(HttpClient httpClient, String url, LifecycleTimings lifecycleTimings) {
+        return httpClient.sendAsync(HttpRequest.newBuilder(URI.create(url)).build(), HttpResponse.BodyHandlers.discarding())
+                .handle((response, error) -> {
+                    if (error == null && response.statusCode() == 200) {
+                        lifecycleTimings.firstClientCall();
+                    } else {
+                        logger.warn("First call to {} failed", url, error);
+                    }
+                    return null;
+                });
+    }
+
+    /**
+     * Exposes the port of the started in-process Schema Registry to the containers, as
+     * {@link InProcessSchemaRegistry#getSchemaRegistryInternalNetworkUrl()}. The port forwarding container of
+     * testcontainers is started by the first exposed port and stopped with the JVM.
+     */
+    private static Startable exposedToContainers(InProcessSchemaRegistry inProcessSchemaRegistry) {
+        return new Startable() {
+            @Override
+            public void start() {
+                Testcontainers.exposeHostPorts(inProcessSchemaRegistry.getPort());
+            }
+
+            @Override
+            public void stop() {
+            }
+        };
+    }
+
+    private static TestRule startableRule(Startable startable) {
+        return (base, description) -> new Statement() {
+            @Override
+            public void evaluate() throws Throwable {
+                startable.start();
+                try {
+                    base.evaluate();
+                } finally {
+                    startable.stop();
+                }
+            }
+        };
+    }
+
+    /**
+     * Removes all the user data of the running cluster so it can be reused by the next test instead of restarted:
+     * ksqlDB persistent queries are terminated and their streams/tables dropped, Schema Registry subjects are hard
+     * deleted and the topics deleted. Internal topics (starting with an underscore) are kept.
+     * <p>
+     * The subjects are deleted while the ksqlDB queries are terminated, the topics once no query writes into them.
+     * Clients still producing may recreate topics if auto creation is enabled.
+     *
+     * @return what was removed and the time spent
+     */
+    public ResetReport reset() {
+        return reset(name -> true);
+    }
+
+    /**
+     * Same as {@link #reset()} but only for the topics, subjects and ksqlDB streams/tables named after the prefix
+     * (see {@link ClusterNamespace}), other tests sharing the cluster are not affected
+     *
+     * @param prefix namespace prefix, ie. {@link ClusterNamespace#getPrefix()}
+     * @return what was removed and the time spent
+     */
+    public ResetReport resetNamespace(String prefix) {
+        return reset(new ClusterNamespace(prefix)::owns);
+    }
+
+    private synchronized ResetReport reset(Predicate<String> owned) {
+        if (startupReport == null) {
+            throw new IllegalStateException("The cluster must be started to be reset");
+        }
+        ResetReport resetReport = clusterReset.reset(owned);
+        logger.info("Kafka cluster reset{}{}", System.lineSeparator(), resetReport);
+        return resetReport;
     }
 
     @Override
-    public void stop() {
-        ksqlDbServerContainer.start();
-        schemaRegistryContainer.stop();
-        kafkaContainer.stop();
+    public synchronized void stop() {
+        clusterReset.close();
+        ksqlDbServerContainer.stop();
+        schemaRegistry.stop();
+        kafkaContainers.forEach(KafkaContainer::stop);
+        zookeeperContainer.ifPresent(GenericContainer::stop);
+        startupReport = null;
     }
 
     public static class KafkaClusterBuilder {
+        public static final DockerImageName ZOOKEEPER_IMAGE_NAME = DockerImageName.parse("confluentinc/cp-zookeeper");
+        //Port forwarding container of testcontainers 1.15.3, started to expose the in-process Schema Registry
+        public static final DockerImageName SSHD_IMAGE_NAME = DockerImageName.parse("testcontainers/sshd:1.0.0");
+
         private Optional<Network> optionalNetwork = Optional.empty();
+        private int brokers = 1;
+        private Optional<Integer> replicationFactor = Optional.empty();
+        private Optional<Integer> minInSyncReplicas = Optional.empty();
+        private List<String> racks = Collections.emptyList();
+        private boolean kraft = false;
+        private ResourceProfile resourceProfile = ResourceProfile.DEFAULT;
+        private Optional<Integer> kafkaStorageMb = Optional.empty();
+        private Optional<Integer> ksqlDbStorageMb = Optional.empty();
+        private boolean inProcessSchemaRegistry = false;
+
+        public KafkaClusterBuilder() {
+            //The images of every cluster are pulled while the cluster is configured, the others once it is built
+            ImagePrefetcher.prefetch(CpKafkaContainer.DEFAULT_IMAGE_NAME.withTag(CpKafkaContainer.DEFAULT_IMAGE_TAG));
+            ImagePrefetcher.prefetch(CpKsqlDbServerContainer.DEFAULT_IMAGE_NAME.withTag(CpKsqlDbServerContainer.DEFAULT_IMAGE_TAG));
+        }
 
         public KafkaClusterBuilder withNetwork(Network network) {
             this.optionalNetwork = Optional.of(network);
             return this;
         }
 
+        /**
+         * Number of brokers of the cluster, with more than one broker an external zookeeper container is added
+         * and the brokers are aliased kafka-1, kafka-2...
+         *
+         * @param brokers number of brokers
+         * @return this builder
+         */
+        public KafkaClusterBuilder withBrokers(int brokers) {
+            this.brokers = brokers;
+            return this;
+        }
+
+        /**
+         * Default replication factor for new and internal topics, defaults to the number of brokers up to 3
+         *
+         * @param replicationFactor default replication factor
+         * @return this builder
+         */
+        public KafkaClusterBuilder withReplicationFactor(int replicationFactor) {
+            this.replicationFactor = Optional.of(replicationFactor);
+            return this;
+        }
+
+        /**
+         * Default min.insync.replicas for the brokers, defaults to the replication factor minus one (at least 1)
+         *
+         * @param minInSyncReplicas default min.insync.replicas
+         * @return this builder
+         */
+        public KafkaClusterBuilder withMinInSyncReplicas(int minInSyncReplicas) {
+            this.minInSyncReplicas = Optional.of(minInSyncReplicas);
+            return this;
+        }
+
+        /**
+         * Racks assigned round-robin to the brokers (broker.rack)
+         *
+         * @param racks rack names
+         * @return this builder
+         */
+        public KafkaClusterBuilder withRacks(String... racks) {
+            this.racks = Arrays.asList(racks);
+            return this;
+        }
+
+        /**
+         * Single broker in ZooKeeper-less KRaft combined mode, boots faster than the zookeeper backed broker.
+         * Schema Registry and ksqlDB are wired the same way.
+         *
+         * @return this builder
+         */
+        public KafkaClusterBuilder withKraft() {
+            this.kraft = true;
+            return this;
+        }
+
+        /**
+         * Heap, GC, thread and cgroup settings of all the containers, use LEAN to run several clusters on the same host
+         *
+         * @param resourceProfile the profile, DEFAULT keeps the settings of the images
+         * @return this builder
+         */
+        public KafkaClusterBuilder withResourceProfile(ResourceProfile resourceProfile) {
+            this.resourceProfile = resourceProfile;
+            return this;
+        }
+
+        /**
+         * Log segments of the brokers and state of the ksqlDB queries on tmpfs with the default size caps, see
+         * {@link CpKafkaContainer#withInMemoryStorage(int)} and {@link AbstractKsqlDbServerContainer#withInMemoryStorage(int)}
+         *
+         * @return this builder
+         */
+        public KafkaClusterBuilder withInMemoryStorage() {
+            return withInMemoryStorage(CpKafkaContainer.DEFAULT_IN_MEMORY_STORAGE_MB, AbstractKsqlDbServerContainer.DEFAULT_IN_MEMORY_STORAGE_MB);
+        }
+
+        /**
+         * Log segments of the brokers and state of the ksqlDB queries on tmpfs
+         *
+         * @param kafkaSizeMb  size cap in MiB of the tmpfs of each broker
+         * @param ksqlDbSizeMb size cap in MiB of the tmpfs of ksqlDB
+         * @return this builder
+         */
+        public KafkaClusterBuilder withInMemoryStorage(int kafkaSizeMb, int ksqlDbSizeMb) {
+            this.kafkaStorageMb = Optional.of(kafkaSizeMb);
+            this.ksqlDbStorageMb = Optional.of(ksqlDbSizeMb);
+            return this;
+        }
+
+        /**
+         * Replaces the Schema Registry container with an {@link InProcessSchemaRegistry}, started in milliseconds
+         * without waiting for the brokers. ksqlDB reaches it through a port exposed to the containers by the
+         * {@value #SCHEMA_REGISTRY_PORT_NODE} node, which starts the port forwarding container of testcontainers.
+         *
+         * @return this builder
+         */
+        public KafkaClusterBuilder withInProcessSchemaRegistry() {
+            this.inProcessSchemaRegistry = true;
+            return this;
+        }
+
         public KafkaContainersCluster build() {
+            int rf = replicationFactor.orElse(Math.min(3, brokers));
+            int minIsr = minInSyncReplicas.orElse(Math.max(1, rf - 1));
+            if (brokers < 1) {
+                throw new IllegalArgumentException("The cluster needs at least one broker");
+            }
+            if (kraft && brokers > 1) {
+                throw new IllegalArgumentException("KRaft mode is only supported for a single broker");
+            }
+            if (rf < 1 || rf > brokers) {
+                throw new IllegalArgumentException(String.format("Replication factor %d is not valid for %d brokers", rf, brokers));
+            }
+            if (minIsr < 1 || minIsr > rf) {
+                throw new IllegalArgumentException(String.format("min.insync.replicas %d is not valid for replication factor %d", minIsr, rf));
+            }
+
+            //Only the images of the configured containers are pulled, concurrently, each container start blocks on its own
+            images().forEach(ImagePrefetcher::prefetch);
+
             //All the containers are set to the same network as the adopt the network set in the Kafka container
             Network network = optionalNetwork.orElseGet(Network::newNetwork);
 
-            KafkaContainer kafkaContainer =
-                    new KafkaContainer(DockerImageName.parse("confluentinc/cp-kafka:6.2.0-1-ubi8"))
-                            .withNetwork(network)
-                            .withNetworkAliases("kafka")
-                            .withReuse(false);
+            Optional<GenericContainer<?>> zookeeperContainer = Optional.empty();
+            if (brokers > 1) {
+                DockerImageName zookeeperImage = ZOOKEEPER_IMAGE_NAME.withTag(CpKafkaContainer.DEFAULT_IMAGE_TAG);
+                GenericContainer<?> zookeeper = new GenericContainer<>(zookeeperImage)
+                        .withNetwork(network)
+                        .withNetworkAliases(ZOOKEEPER_NODE)
+                        .withEnv("ZOOKEEPER_CLIENT_PORT", String.valueOf(KafkaContainer.ZOOKEEPER_PORT))
+                        .withExposedPorts(KafkaContainer.ZOOKEEPER_PORT)
+                        .withReuse(false);
+                zookeeper.setImage(ImagePrefetcher.prefetch(zookeeperImage));
+                resourceProfile.applyTo(zookeeper, ResourceProfile.Service.ZOOKEEPER);
+                zookeeperContainer = Optional.of(zookeeper);
+            }
+
+            List<KafkaContainer> kafkaContainers = new ArrayList<>();
+            for (int brokerId = 1; brokerId <= brokers; brokerId++) {
+                CpKafkaContainer kafkaContainer = new CpKafkaContainer(CpKafkaContainer.DEFAULT_IMAGE_NAME.withTag(CpKafkaContainer.DEFAULT_IMAGE_TAG))
+                        .withBrokerId(brokerId)
+                        .withReplication(rf, minIsr)
+                        .withResourceProfile(resourceProfile);
+                kafkaContainer.withNetwork(network)
+                        .withNetworkAliases(brokers == 1 ? KAFKA_NODE : KAFKA_NODE + "-" + brokerId)
+                        .withReuse(false);
+                if (kraft) {
+                    kafkaContainer.withKraft();
+                }
+                kafkaStorageMb.ifPresent(kafkaContainer::withInMemoryStorage);
+                if (!racks.isEmpty()) {
+                    kafkaContainer.withRack(racks.get((brokerId - 1) % racks.size()));
+                }
+                zookeeperContainer.ifPresent(zookeeper -> kafkaContainer
+                        .withExternalZookeeper(ZOOKEEPER_NODE + ":" + KafkaContainer.ZOOKEEPER_PORT)
+                        .dependsOn(zookeeper));
+                kafkaContainers.add(kafkaContainer);
+            }
 
-            SchemaRegistryContainer schemaRegistryContainer =
-                    new SchemaRegistryContainer(SchemaRegistryContainer.DEFAULT_IMAGE_NAME.withTag(SchemaRegistryContainer.DEFAULT_IMAGE_TAG))
-                            .withKafka(kafkaContainer)
+            SchemaRegistry schemaRegistry = inProcessSchemaRegistry
+                    ? new InProcessSchemaRegistry()
+                    : new SchemaRegistryContainer(SchemaRegistryContainer.DEFAULT_IMAGE_NAME.withTag(SchemaRegistryContainer.DEFAULT_IMAGE_TAG))
+                            .withKafka(kafkaContainers)
+                            .withEnv("SCHEMA_REGISTRY_KAFKASTORE_TOPIC_REPLICATION_FACTOR", String.valueOf(rf))
+                            .withResourceProfile(resourceProfile)
                             .withReuse(false);
 
+            //Schema Registry is not set as a dependency so both containers can start in parallel
             AbstractKsqlDbServerContainer ksqlDbServerContainer =
                     new CpKsqlDbServerContainer(CpKsqlDbServerContainer.DEFAULT_IMAGE_NAME.withTag(CpKsqlDbServerContainer.DEFAULT_IMAGE_TAG))
-                            .withKafkaContainer(kafkaContainer)
-                            .withSchemaRegistryContainer(schemaRegistryContainer)
+                            .withKafkaContainers(kafkaContainers)
+                            .withSchemaRegistry(schemaRegistry.getSchemaRegistryInternalNetworkUrl())
+                            .withEnv("KSQL_KSQL_INTERNAL_TOPIC_REPLICAS", String.valueOf(rf))
+                            .withEnv("KSQL_KSQL_STREAMS_REPLICATION_FACTOR", String.valueOf(rf))
+                            .withResourceProfile(resourceProfile)
                             .withReuse(false);
+            ksqlDbStorageMb.ifPresent(ksqlDbServerContainer::withInMemoryStorage);
+
+            return new KafkaContainersCluster(network, zookeeperContainer, kafkaContainers, schemaRegistry, ksqlDbServerContainer);
+        }
 
-            return new KafkaContainersCluster(network, kafkaContainer, schemaRegistryContainer, ksqlDbServerContainer);
+        private List<DockerImageName> images() {
+            List<DockerImageName> images = new ArrayList<>();
+            images.add(CpKafkaContainer.DEFAULT_IMAGE_NAME.withTag(CpKafkaContainer.DEFAULT_IMAGE_TAG));
+            if (brokers > 1) {
+                images.add(ZOOKEEPER_IMAGE_NAME.withTag(CpKafkaContainer.DEFAULT_IMAGE_TAG));
+            }
+            images.add(inProcessSchemaRegistry
+                    ? SSHD_IMAGE_NAME
+                    : SchemaRegistryContainer.DEFAULT_IMAGE_NAME.withTag(SchemaRegistryContainer.DEFAULT_IMAGE_TAG));
+            images.add(CpKsqlDbServerContainer.DEFAULT_IMAGE_NAME.withTag(CpKsqlDbServerContainer.DEFAULT_IMAGE_TAG));
+            return images;
         }
     }
 }
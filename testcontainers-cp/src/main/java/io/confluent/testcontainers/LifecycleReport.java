@@ -0,0 +1,96 @@
+package io.confluent.testcontainers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Collects the {@link LifecycleTimings} of all the containers of the test run (JVM) and writes them as a JSON report
+ * when the JVM exits, to track the startup time regressions across runs.
+ * <p>
+ * The report is written to {@code target/lifecycle-timings-<run start>.json}, set the system property
+ * {@value #REPORT_DIR_PROPERTY} to change the directory. Containers never started are not reported.
+ */
+public class LifecycleReport {
+
+    public static final String REPORT_DIR_PROPERTY = "lifecycle.report.dir";
+    private static final Logger logger = LoggerFactory.getLogger(LifecycleReport.class);
+    private static final Instant runStartedAt = Instant.now();
+    private static final ConcurrentLinkedQueue<LifecycleTimings> timings = new ConcurrentLinkedQueue<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(LifecycleReport::writeOnExit, "lifecycle-report"));
+    }
+
+    private LifecycleReport() {
+    }
+
+    static void register(LifecycleTimings containerTimings) {
+        timings.add(containerTimings);
+    }
+
+    /**
+     * @return the timings of the containers started so far in this run
+     */
+    public static List<LifecycleTimings> getStartedContainers() {
+        return timings.stream()
+                .filter(containerTimings -> containerTimings.getStartRequestedAt() != null)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Writes the report of the containers started so far
+     *
+     * @param reportFile the JSON file
+     * @throws IOException if the report can not be written
+     */
+    public static void write(Path reportFile) throws IOException {
+        ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        ObjectNode report = mapper.createObjectNode()
+                .put("runStartedAt", runStartedAt.toString());
+        ArrayNode containers = report.putArray("containers");
+        for (LifecycleTimings containerTimings : getStartedContainers()) {
+            ObjectNode container = containers.addObject()
+                    .put("type", containerTimings.getContainerType())
+                    .put("image", containerTimings.getImageName())
+                    .put("startRequestedAt", containerTimings.getStartRequestedAt().toString());
+            ArrayNode aliases = container.putArray("networkAliases");
+            containerTimings.getNetworkAliases().forEach(aliases::add);
+            ObjectNode phases = container.putObject("phasesMs");
+            containerTimings.getPhases().forEach((phase, duration) -> phases.put(phase.name().toLowerCase(Locale.ROOT), duration.toMillis()));
+            if (containerTimings.getTotalStartTime() != null) {
+                container.put("totalStartMs", containerTimings.getTotalStartTime().toMillis());
+            }
+        }
+        Files.createDirectories(reportFile.toAbsolutePath().getParent());
+        mapper.writeValue(reportFile.toFile(), report);
+    }
+
+    private static void writeOnExit() {
+        if (getStartedContainers().isEmpty()) {
+            return;
+        }
+        String runId = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC).format(runStartedAt);
+        Path reportFile = Path.of(System.getProperty(REPORT_DIR_PROPERTY, "target"), "lifecycle-timings-" + runId + ".json");
+        try {
+            write(reportFile);
+            logger.info("Container lifecycle timings written to {}", reportFile.toAbsolutePath());
+        } catch (IOException e) {
+            logger.warn("Failed to write the container lifecycle timings to {}", reportFile, e);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package io.confluent.testcontainers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Time spent by a container in each phase of its lifecycle, recorded by the container start hooks:
+ * <ul>
+ *     <li>image: resolving the image, pulling it if not present locally</li>
+ *     <li>create: creating the container once the image is available</li>
+ *     <li>start: starting the container until it is running (inspected)</li>
+ *     <li>wait: the wait strategy, until the service is ready</li>
+ *     <li>first client call: since ready until the first successful call of a client, see {@link #firstClientCall()}</li>
+ * </ul>
+ * Each container registers its timings in the {@link LifecycleReport} of the test run.
+ */
+public class LifecycleTimings {
+
+    public enum Phase {
+        IMAGE, CREATE, START, WAIT, FIRST_CLIENT_CALL
+    }
+
+    private final String containerType;
+    private volatile String imageName;
+    private volatile List<String> networkAliases = List.of();
+    private volatile Instant startRequestedAt;
+    private volatile long startRequested;
+    private volatile Duration imageResolution;
+    private volatile long imageResolved;
+    private volatile long created;
+    private volatile long running;
+    private volatile long waitStarted;
+    private volatile long ready;
+    private volatile long firstClientCall;
+
+    LifecycleTimings(String containerType) {
+        this.containerType = containerType;
+        LifecycleReport.register(this);
+    }
+
+    void startRequested(List<String> networkAliases) {
+        this.networkAliases = List.copyOf(networkAliases);
+        startRequestedAt = Instant.now();
+        startRequested = System.nanoTime();
+        created = running = waitStarted = ready = firstClientCall = 0;
+    }
+
+    /**
+     * Wraps the image resolution, only the first (blocking) resolution is recorded: the image may be resolved
+     * before the start, ie. by the {@link StartupGraph}
+     */
+    String resolveImage(Supplier<String> resolution) {
+        if (imageResolution != null) {
+            return resolution.get();
+        }
+        long start = System.nanoTime();
+        String resolved = resolution.get();
+        imageResolved = System.nanoTime();
+        imageResolution = Duration.ofNanos(imageResolved - start);
+        imageName = resolved;
+        return resolved;
+    }
+
+    /*
+     * Hooks of the containers, each container class overrides the GenericContainer lifecycle methods and delegates to
+     * them so all the containers record the phases the same way
+     */
+
+    /**
+     * @param timings    the timings of the container, null when called by the parent constructors before they are
+     *                   initialized
+     * @param resolution the image resolution of the parent class
+     * @return the resolved image name
+     */
+    static String imageName(LifecycleTimings timings, Supplier<String> resolution) {
+        return timings == null ? resolution.get() : timings.resolveImage(resolution);
+    }
+
+    /**
+     * Records the start request then runs the start of the parent class
+     */
+    void start(List<String> networkAliases, Runnable doStart) {
+        startRequested(networkAliases);
+        doStart.run();
+    }
+
+    /**
+     * Records the wait phase around the wait strategy of the parent class
+     */
+    void waitUntilReady(Runnable waitUntilContainerStarted) {
+        waitStarted();
+        waitUntilContainerStarted.run();
+        ready();
+    }
+
+    void created() {
+        created = System.nanoTime();
+    }
+
+    void running() {
+        running = System.nanoTime();
+    }
+
+    void waitStarted() {
+        waitStarted = System.nanoTime();
+    }
+
+    void ready() {
+        ready = System.nanoTime();
+    }
+
+    /**
+     * Records the first successful client call since the container is ready, later calls are ignored
+     */
+    public void firstClientCall() {
+        if (ready != 0 && firstClientCall == 0) {
+            firstClientCall = System.nanoTime();
+        }
+    }
+
+    public String getContainerType() {
+        return containerType;
+    }
+
+    public String getImageName() {
+        return imageName;
+    }
+
+    public List<String> getNetworkAliases() {
+        return networkAliases;
+    }
+
+    /**
+     * @return when the start of the container was requested, null if never started
+     */
+    public Instant getStartRequestedAt() {
+        return startRequestedAt;
+    }
+
+    /**
+     * @return the duration of each phase completed so far, in lifecycle order
+     */
+    public Map<Phase, Duration> getPhases() {
+        Map<Phase, Duration> phases = new LinkedHashMap<>();
+        if (imageResolution != null) {
+            phases.put(Phase.IMAGE, imageResolution);
+        }
+        if (created != 0) {
+            //The image may have been resolved before the start was requested
+            phases.put(Phase.CREATE, Duration.ofNanos(created - Math.max(startRequested, imageResolved)));
+        }
+        if (running != 0) {
+            phases.put(Phase.START, Duration.ofNanos(running - created));
+        }
+        if (ready != 0) {
+            phases.put(Phase.WAIT, Duration.ofNanos(ready - waitStarted));
+        }
+        if (firstClientCall != 0) {
+            phases.put(Phase.FIRST_CLIENT_CALL, Duration.ofNanos(firstClientCall - ready));
+        }
+        return phases;
+    }
+
+    /**
+     * @return since the start was requested until the container was ready, null if not ready
+     */
+    public Duration getTotalStartTime() {
+        return ready == 0 ? null : Duration.ofNanos(ready - startRequested);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder timings = new StringBuilder(containerType).append(networkAliases);
+        getPhases().forEach((phase, duration) -> timings.append(' ').append(phase.name().toLowerCase(Locale.ROOT)).append('=').append(duration.toMillis()).append("ms"));
+        return timings.toString();
+    }
+}
@@ -0,0 +1,164 @@
+package io.confluent.testcontainers;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.KafkaException;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Properties;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Publishes records with the producer callbacks and a bounded window of records in flight: the caller thread
+ * blocks on send once the window is full and each ack releases a slot, no thread is parked per record.
+ * <p>
+ * The producer batching settings are applied when the producer is created, see {@link #applyTo(Properties)}. The
+ * first failed send stops the publication, the records already in flight are drained and the failure is rethrown.
+ */
+public class PublishPipeline {
+
+    public static final int DEFAULT_MAX_IN_FLIGHT = 10_000;
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofMinutes(5);
+
+    //Ack latencies are recorded in microseconds, up to an hour with 3 significant digits
+    private static final long MAX_LATENCY_MICROS = TimeUnit.HOURS.toMicros(1);
+
+    private int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+    private Duration timeout = DEFAULT_TIMEOUT;
+    private Integer lingerMs;
+    private Integer batchSize;
+    private String compressionType;
+
+    /**
+     * @param maxInFlight records sent and not acknowledged yet, bounds the memory used by the pipeline
+     * @return this pipeline
+     */
+    public PublishPipeline withMaxInFlight(int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("At least one record must be in flight, got " + maxInFlight);
+        }
+        this.maxInFlight = maxInFlight;
+        return this;
+    }
+
+    /**
+     * @param timeout max time waiting for a slot in the window, or for the last acks
+     * @return this pipeline
+     */
+    public PublishPipeline withTimeout(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
+    public PublishPipeline withLingerMs(int lingerMs) {
+        this.lingerMs = lingerMs;
+        return this;
+    }
+
+    public PublishPipeline withBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * @param compressionType none, gzip, snappy, lz4 or zstd
+     * @return this pipeline
+     */
+    public PublishPipeline withCompressionType(String compressionType) {
+        this.compressionType = compressionType;
+        return this;
+    }
+
+    /**
+     * Sets linger.ms, batch.size and compression.type on the producer properties, the settings not configured
+     * keep the producer defaults
+     *
+     * @param props producer properties
+     * @return the same properties
+     */
+    public Properties applyTo(Properties props) {
+        if (lingerMs != null) {
+            props.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        }
+        if (batchSize != null) {
+            props.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        }
+        if (compressionType != null) {
+            props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+        }
+        return props;
+    }
+
+    public <T> PublishResult publish(Iterable<T> data, Producer<String, T> producer, String topic) {
+        return publish(data.iterator(), producer, topic, value -> null, metadata -> {
+        });
+    }
+
+    /**
+     * Sends all the records of the iterator, consumed lazily so the data does not need to fit in memory
+     *
+     * @param data     the values
+     * @param producer the producer, not closed
+     * @param topic    the topic
+     * @param key      key of each value, null for no key
+     * @param onAck    called from the producer I/O thread for each acknowledged record, must not block
+     * @return counts, throughput and ack latencies of the publication
+     */
+    public <T> PublishResult publish(Iterator<T> data, Producer<String, T> producer, String topic,
+                                     Function<? super T, String> key, Consumer<RecordMetadata> onAck) {
+        Semaphore window = new Semaphore(maxInFlight);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        LongAdder records = new LongAdder();
+        LongAdder bytes = new LongAdder();
+        Histogram ackLatency = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+
+        long start = System.nanoTime();
+        try {
+            while (data.hasNext() && failure.get() == null) {
+                if (!window.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                    throw new KafkaException("No ack received for " + maxInFlight + " records in flight within " + timeout);
+                }
+                T value = data.next();
+                long sentAt = System.nanoTime();
+                try {
+                    producer.send(new ProducerRecord<>(topic, key.apply(value), value), (metadata, exception) -> {
+                        if (exception == null) {
+                            ackLatency.recordValue(Math.min(MAX_LATENCY_MICROS, (System.nanoTime() - sentAt) / 1000));
+                            records.increment();
+                            bytes.add(Math.max(0, metadata.serializedKeySize()) + Math.max(0, metadata.serializedValueSize()));
+                            onAck.accept(metadata);
+                        } else {
+                            failure.compareAndSet(null, exception);
+                        }
+                        window.release();
+                    });
+                } catch (RuntimeException e) {
+                    //Serialization and buffer errors are thrown by send, no callback
+                    window.release();
+                    failure.compareAndSet(null, e);
+                }
+            }
+            producer.flush();
+            if (!window.tryAcquire(maxInFlight, timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new KafkaException("Records still in flight after " + timeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KafkaException("Interrupted while publishing to " + topic, e);
+        }
+        if (failure.get() != null) {
+            throw new KafkaException("Failed to publish to " + topic + " after " + records.sum() + " records", failure.get());
+        }
+        return new PublishResult(records.sum(), bytes.sum(), Duration.ofNanos(System.nanoTime() - start), ackLatency);
+    }
+}
@@ -0,0 +1,78 @@
+package io.confluent.testcontainers;
+
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+
+/**
+ * Outcome of a {@link PublishPipeline} run: acknowledged records and their serialized size, elapsed time and the
+ * latency between each send and its ack
+ */
+public class PublishResult {
+
+    private final long records;
+    private final long bytes;
+    private final Duration elapsed;
+    private final Histogram ackLatency;
+
+    PublishResult(long records, long bytes, Duration elapsed, Histogram ackLatency) {
+        this.records = records;
+        this.bytes = bytes;
+        this.elapsed = elapsed;
+        this.ackLatency = ackLatency;
+    }
+
+    public long getRecords() {
+        return records;
+    }
+
+    /**
+     * @return serialized size of the keys and values, without the record headers and batch overhead
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    public double getRecordsPerSecond() {
+        return records / seconds();
+    }
+
+    public double getMegabytesPerSecond() {
+        return bytes / (1024.0 * 1024.0) / seconds();
+    }
+
+    /**
+     * @param percentile between 0 and 100, ie. 99.9
+     * @return the send to ack latency at the percentile
+     */
+    public Duration getAckLatency(double percentile) {
+        return Duration.ofNanos(ackLatency.getValueAtPercentile(percentile) * 1000);
+    }
+
+    public Duration getMaxAckLatency() {
+        return Duration.ofNanos(ackLatency.getMaxValue() * 1000);
+    }
+
+    /**
+     * @return the send to ack latencies in microseconds
+     */
+    public Histogram getAckLatencyMicros() {
+        return ackLatency;
+    }
+
+    private double seconds() {
+        return Math.max(1, elapsed.toNanos()) / 1_000_000_000.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d records, %d bytes in %d ms (%.0f rec/s, %.2f MB/s), ack latency us p50=%d p99=%d p999=%d max=%d",
+                records, bytes, elapsed.toMillis(), getRecordsPerSecond(), getMegabytesPerSecond(),
+                ackLatency.getValueAtPercentile(50), ackLatency.getValueAtPercentile(99),
+                ackLatency.getValueAtPercentile(99.9), ackLatency.getMaxValue());
+    }
+}
@@ -0,0 +1,86 @@
+package io.confluent.testcontainers;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * What was removed by {@link KafkaContainersCluster#reset()} (or {@link KafkaContainersCluster#resetNamespace(String)})
+ * and the time spent in each part. The subjects are deleted concurrently with the ksqlDB part, the topics after it so
+ * the total is close to the slowest of the subjects and the ksqlDB part followed by the topics
+ */
+public class ResetReport {
+
+    private final List<String> terminatedQueries;
+    private final List<String> droppedSources;
+    private final Duration ksqlDbTime;
+    private final List<String> deletedSubjects;
+    private final Duration schemaRegistryTime;
+    private final List<String> deletedTopics;
+    private final Duration topicsTime;
+    private final Duration totalTime;
+
+    public ResetReport(List<String> terminatedQueries, List<String> droppedSources, Duration ksqlDbTime,
+                       List<String> deletedSubjects, Duration schemaRegistryTime,
+                       List<String> deletedTopics, Duration topicsTime,
+                       Duration totalTime) {
+        this.terminatedQueries = Collections.unmodifiableList(terminatedQueries);
+        this.droppedSources = Collections.unmodifiableList(droppedSources);
+        this.ksqlDbTime = ksqlDbTime;
+        this.deletedSubjects = Collections.unmodifiableList(deletedSubjects);
+        this.schemaRegistryTime = schemaRegistryTime;
+        this.deletedTopics = Collections.unmodifiableList(deletedTopics);
+        this.topicsTime = topicsTime;
+        this.totalTime = totalTime;
+    }
+
+    /**
+     * @return ids of the ksqlDB persistent queries terminated
+     */
+    public List<String> getTerminatedQueries() {
+        return terminatedQueries;
+    }
+
+    /**
+     * @return names of the ksqlDB streams and tables dropped
+     */
+    public List<String> getDroppedSources() {
+        return droppedSources;
+    }
+
+    public Duration getKsqlDbTime() {
+        return ksqlDbTime;
+    }
+
+    /**
+     * @return subjects soft and hard deleted from Schema Registry
+     */
+    public List<String> getDeletedSubjects() {
+        return deletedSubjects;
+    }
+
+    public Duration getSchemaRegistryTime() {
+        return schemaRegistryTime;
+    }
+
+    public List<String> getDeletedTopics() {
+        return deletedTopics;
+    }
+
+    public Duration getTopicsTime() {
+        return topicsTime;
+    }
+
+    public Duration getTotalTime() {
+        return totalTime;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-16s %8s %10s%n", "part", "removed", "time(ms)") +
+                String.format("%-16s %8d %10d%n", "ksqldb", terminatedQueries.size() + droppedSources.size(), ksqlDbTime.toMillis()) +
+                String.format("%-16s %8d %10d%n", "schema-registry", deletedSubjects.size(), schemaRegistryTime.toMillis()) +
+                String.format("%-16s %8d %10d%n", "topics", deletedTopics.size(), topicsTime.toMillis()) +
+                String.format("total reset: %d ms", totalTime.toMillis());
+    }
+}
@@ -0,0 +1,145 @@
+package io.confluent.testcontainers;
+
+import org.testcontainers.containers.GenericContainer;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * JVM and container resource settings of the services, to trade speed for density on shared CI hosts.
+ * <ul>
+ *     <li>LEAN: small fixed heaps, serial GC with the C1 compiler only, a minimum of threads and cgroup limits on
+ *     memory and cpu so several clusters can run side by side on the same host</li>
+ *     <li>DEFAULT: the settings of the images, nothing is changed</li>
+ *     <li>PERF: larger heaps, G1 tuned for short pauses, more threads and no limits, for benchmarks</li>
+ * </ul>
+ * Heap and GC flags are set through the {@code <SERVICE>_HEAP_OPTS} and {@code <SERVICE>_JVM_PERFORMANCE_OPTS}
+ * variables of the images, and the cgroup limits through {@code withCreateContainerCmdModifier}. Apply the profile
+ * once per container, before it is started.
+ */
+public enum ResourceProfile {
+
+    //The single broker KafkaContainer also runs an embedded zookeeper with the same heap
+    LEAN(new Settings("-Xms256m -Xmx256m", Jvm.LEAN, 1024, 1.0, Map.of(
+                    "KAFKA_NUM_NETWORK_THREADS", "1",
+                    "KAFKA_NUM_IO_THREADS", "2",
+                    "KAFKA_BACKGROUND_THREADS", "2",
+                    "KAFKA_NUM_REPLICA_FETCHERS", "1",
+                    "KAFKA_NUM_RECOVERY_THREADS_PER_DATA_DIR", "1",
+                    "KAFKA_LOG_CLEANER_THREADS", "1")),
+            new Settings("-Xms96m -Xmx96m", Jvm.LEAN, 256, 0.5, Collections.emptyMap()),
+            new Settings("-Xms128m -Xmx192m", Jvm.LEAN, 512, 1.0, Collections.emptyMap()),
+            new Settings("-Xms256m -Xmx384m", Jvm.LEAN, 1024, 1.0, Map.of(
+                    "KSQL_KSQL_STREAMS_NUM_STREAM_THREADS", "1",
+                    "KSQL_KSQL_STREAMS_CACHE_MAX_BYTES_BUFFERING", "1048576"))),
+
+    DEFAULT(null, null, null, null),
+
+    PERF(new Settings("-Xms2g -Xmx2g", Jvm.PERF, 0, 0, Map.of(
+                    "KAFKA_NUM_NETWORK_THREADS", "4",
+                    "KAFKA_NUM_IO_THREADS", "8")),
+            new Settings("-Xms512m -Xmx512m", Jvm.PERF, 0, 0, Collections.emptyMap()),
+            new Settings("-Xms512m -Xmx512m", Jvm.PERF, 0, 0, Collections.emptyMap()),
+            new Settings("-Xms2g -Xmx2g", Jvm.PERF, 0, 0, Map.of(
+                    "KSQL_KSQL_STREAMS_NUM_STREAM_THREADS", "4")));
+
+    /**
+     * The services of the cluster and the prefix of their environment variables
+     */
+    public enum Service {
+        KAFKA("KAFKA"),
+        //cp-zookeeper reads the same variables as the broker
+        ZOOKEEPER("KAFKA"),
+        SCHEMA_REGISTRY("SCHEMA_REGISTRY"),
+        KSQLDB("KSQL");
+
+        private final String envPrefix;
+
+        Service(String envPrefix) {
+            this.envPrefix = envPrefix;
+        }
+    }
+
+    private final Settings kafka;
+    private final Settings zookeeper;
+    private final Settings schemaRegistry;
+    private final Settings ksqlDb;
+
+    ResourceProfile(Settings kafka, Settings zookeeper, Settings schemaRegistry, Settings ksqlDb) {
+        this.kafka = kafka;
+        this.zookeeper = zookeeper;
+        this.schemaRegistry = schemaRegistry;
+        this.ksqlDb = ksqlDb;
+    }
+
+    /**
+     * @param service the service
+     * @return the cgroup memory limit of the service in MiB, 0 if not limited
+     */
+    public long getMemoryLimitMb(Service service) {
+        Settings settings = settings(service);
+        return settings == null ? 0 : settings.memoryLimitMb;
+    }
+
+    /**
+     * Sets the heap, GC and thread settings and the cgroup limits of the profile on the container
+     *
+     * @param container the container, not started
+     * @param service   the service run by the container
+     */
+    public void applyTo(GenericContainer<?> container, Service service) {
+        Settings settings = settings(service);
+        if (settings == null) {
+            return;
+        }
+        container.withEnv(service.envPrefix + "_HEAP_OPTS", settings.heapOpts);
+        container.withEnv(service.envPrefix + "_JVM_PERFORMANCE_OPTS", settings.jvmOpts);
+        settings.env.forEach(container::withEnv);
+        if (settings.memoryLimitMb > 0) {
+            long memory = settings.memoryLimitMb * 1024 * 1024;
+            long nanoCpus = (long) (settings.cpus * 1_000_000_000L);
+            container.withCreateContainerCmdModifier(cmd -> cmd.getHostConfig()
+                    .withMemory(memory)
+                    //No swap, the limit is the real footprint
+                    .withMemorySwap(memory)
+                    .withNanoCPUs(nanoCpus));
+        }
+    }
+
+    private Settings settings(Service service) {
+        switch (service) {
+            case KAFKA:
+                return kafka;
+            case ZOOKEEPER:
+                return zookeeper;
+            case SCHEMA_REGISTRY:
+                return schemaRegistry;
+            default:
+                return ksqlDb;
+        }
+    }
+
+    private static class Jvm {
+        //Serial GC and C1 only: smallest footprint and fastest boot for short lived test services
+        static final String LEAN = "-XX:+UseSerialGC -XX:TieredStopAtLevel=1 -Xss512k -XX:ReservedCodeCacheSize=64m " +
+                "-Djava.awt.headless=true";
+        static final String PERF = "-server -XX:+UseG1GC -XX:MaxGCPauseMillis=20 -XX:InitiatingHeapOccupancyPercent=35 " +
+                "-XX:+ExplicitGCInvokesConcurrent -XX:+AlwaysPreTouch -Djava.awt.headless=true";
+    }
+
+    private static class Settings {
+        private final String heapOpts;
+        private final String jvmOpts;
+        private final long memoryLimitMb;
+        private final double cpus;
+        private final Map<String, String> env;
+
+        private Settings(String heapOpts, String jvmOpts, long memoryLimitMb, double cpus, Map<String, String> env) {
+            this.heapOpts = heapOpts;
+            this.jvmOpts = jvmOpts;
+            this.memoryLimitMb = memoryLimitMb;
+            this.cpus = cpus;
+            this.env = env;
+        }
+    }
+}
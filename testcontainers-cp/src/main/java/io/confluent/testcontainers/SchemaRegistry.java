@@ -0,0 +1,20 @@
+package io.confluent.testcontainers;
+
+import org.testcontainers.lifecycle.Startable;
+
+/**
+ * Schema Registry of a {@link KafkaContainersCluster}, either the {@link SchemaRegistryContainer} or the
+ * {@link InProcessSchemaRegistry}
+ */
+public interface SchemaRegistry extends Startable {
+
+    /**
+     * @return Schema Registry URL as reachable from the docker host, ie. for the serializers of the tests
+     */
+    String getSchemaRegistryUrl();
+
+    /**
+     * @return Schema Registry URL as reachable from the containers of the cluster network, ie. for ksqlDB
+     */
+    String getSchemaRegistryInternalNetworkUrl();
+}
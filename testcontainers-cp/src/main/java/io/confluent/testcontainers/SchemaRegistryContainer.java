@@ -1,23 +1,31 @@
 package io.confluent.testcontainers;
 
+import com.github.dockerjava.api.command.InspectContainerResponse;
 import org.testcontainers.containers.GenericContainer;
 import org.testcontainers.containers.KafkaContainer;
-import org.testcontainers.containers.wait.strategy.Wait;
 import org.testcontainers.utility.DockerImageName;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Optional;
+
 /**
  * This container wraps Confluent Schema Registry
  * To learn more about Schema Registry https://docs.confluent.io/current/schema-registry/schema_registry_tutorial.html
  * <p>
  * Inspired by https://github.com/gAmUssA/testcontainers-java-module-confluent-platform
  */
-public class SchemaRegistryContainer extends GenericContainer<SchemaRegistryContainer> {
+public class SchemaRegistryContainer extends GenericContainer<SchemaRegistryContainer> implements SchemaRegistry {
 
     public static final DockerImageName DEFAULT_IMAGE_NAME = DockerImageName.parse("confluentinc/cp-schema-registry");
     public static final String DEFAULT_IMAGE_TAG = "6.2.0-1-ubi8";
     public static final int DEFAULT_PORT = 8081;
     public static final String DEFAULT_NETWORK_ALIAS = "schema-registry";
 
+    private final HttpProbeWaitStrategy readinessProbe = HttpProbeWaitStrategy.forSchemaRegistry();
+    private final LifecycleTimings lifecycleTimings = new LifecycleTimings(getClass().getSimpleName());
+
     public SchemaRegistryContainer(String dockerImageName) {
         this(DockerImageName.parse(dockerImageName));
     }
@@ -25,11 +33,12 @@ public class SchemaRegistryContainer extends GenericContainer<SchemaRegistryCont
     public SchemaRegistryContainer(DockerImageName dockerImageName) {
         super(dockerImageName);
         dockerImageName.assertCompatibleWith(DEFAULT_IMAGE_NAME);
+        setImage(ImagePrefetcher.prefetch(dockerImageName));
         withNetworkAliases(DEFAULT_NETWORK_ALIAS);
         withExposedPorts(DEFAULT_PORT);
         withEnv("SCHEMA_REGISTRY_HOST_NAME", "schema-registry");
         withEnv("SCHEMA_REGISTRY_LISTENERS", "http://0.0.0.0:" + DEFAULT_PORT);
-        waitingFor(Wait.forHttp("/subjects").forStatusCode(200));
+        waitingFor(readinessProbe);
     }
 
     /**
@@ -40,10 +49,20 @@ public class SchemaRegistryContainer extends GenericContainer<SchemaRegistryCont
      * @return
      */
     public SchemaRegistryContainer withKafka(KafkaContainer kafkaContainer) {
-        //KafkaContainer "internal" port is hardcoded to 9092
-        return dependsOn(kafkaContainer)
-                .withNetwork(kafkaContainer.getNetwork())
-                .withEnv("SCHEMA_REGISTRY_KAFKASTORE_BOOTSTRAP_SERVERS", "PLAINTEXT://" + kafkaContainer.getNetworkAliases().get(0) + ":9092");
+        return withKafka(Collections.singletonList(kafkaContainer));
+    }
+
+    /**
+     * Same as {@link #withKafka(KafkaContainer)} for a multi-broker cluster, the full list of brokers is used as
+     * bootstrap servers. All the brokers are expected in the same network.
+     *
+     * @param kafkaContainers
+     * @return
+     */
+    public SchemaRegistryContainer withKafka(Collection<? extends KafkaContainer> kafkaContainers) {
+        return dependsOn(kafkaContainers)
+                .withNetwork(kafkaContainers.iterator().next().getNetwork())
+                .withEnv("SCHEMA_REGISTRY_KAFKASTORE_BOOTSTRAP_SERVERS", CpKafkaContainer.internalBootstrapServers(kafkaContainers));
     }
 
     /**
@@ -57,16 +76,71 @@ public class SchemaRegistryContainer extends GenericContainer<SchemaRegistryCont
         return withEnv("SCHEMA_REGISTRY_KAFKASTORE_BOOTSTRAP_SERVERS", bootstrapServers);
     }
 
+    /**
+     * Heap, GC and cgroup settings of Schema Registry, see {@link ResourceProfile}
+     *
+     * @param resourceProfile
+     * @return
+     */
+    public SchemaRegistryContainer withResourceProfile(ResourceProfile resourceProfile) {
+        resourceProfile.applyTo(this, ResourceProfile.Service.SCHEMA_REGISTRY);
+        return this;
+    }
+
     /**
      * returns the URL as exposed to the docker host, the container must be running to properly resolver the ports
      * use the DEFAULT_NETWORK_ALIAS and DEFAULT_PORT if you want the "internal" to the container docker network address
      * @return Schema Registry URL
      */
+    @Override
     public String getSchemaRegistryUrl() {
         return String.format("http://%s:%s", getContainerIpAddress(), getMappedPort(DEFAULT_PORT));
     }
 
+    /**
+     * @return time Schema Registry took to be ready since the wait strategy started, empty if not started or the
+     * wait strategy was replaced
+     */
+    public Optional<Duration> getReadinessTime() {
+        return readinessProbe.getReadinessTime();
+    }
+
+    @Override
     public String getSchemaRegistryInternalNetworkUrl() {
         return String.format("http://%s:%s", DEFAULT_NETWORK_ALIAS, DEFAULT_PORT);
     }
-}
\ No newline at end of file
+
+    @Override
+    public String getDockerImageName() {
+        return LifecycleTimings.imageName(lifecycleTimings, super::getDockerImageName);
+    }
+
+    @Override
+    protected void doStart() {
+        lifecycleTimings.start(getNetworkAliases(), super::doStart);
+    }
+
+    @Override
+    protected void containerIsCreated(String containerId) {
+        super.containerIsCreated(containerId);
+        lifecycleTimings.created();
+    }
+
+    @Override
+    protected void containerIsStarting(InspectContainerResponse containerInfo, boolean reused) {
+        lifecycleTimings.running();
+        super.containerIsStarting(containerInfo, reused);
+    }
+
+    @Override
+    protected void waitUntilContainerStarted() {
+        lifecycleTimings.waitUntilReady(super::waitUntilContainerStarted);
+    }
+
+    /**
+     * @return the time spent in each phase of the start of this container
+     */
+    public LifecycleTimings getLifecycleTimings() {
+        return lifecycleTimings;
+    }
+}
@@ -0,0 +1,33 @@
+package io.confluent.testcontainers;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Hands the test class the {@link KafkaContainersCluster} shared by all the annotated test classes of the JVM,
+ * the cluster is started by the first class and stopped once the whole test run finishes.
+ * <p>
+ * Inject the cluster and the {@link ClusterNamespace} of the class as parameters of test, lifecycle methods or
+ * constructors. Use the namespace to name topics, subjects and streams so the classes do not interfere.
+ *
+ * <pre>{@code
+ * @SharedConfluentCluster
+ * public class MyTest {
+ *     @BeforeAll
+ *     static void setUp(KafkaContainersCluster cluster, ClusterNamespace namespace) {...}
+ * }
+ * }</pre>
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+@ExtendWith(SharedConfluentClusterExtension.class)
+public @interface SharedConfluentCluster {
+}
@@ -0,0 +1,75 @@
+package io.confluent.testcontainers;
+
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * JUnit 5 extension behind {@link SharedConfluentCluster}.
+ * <p>
+ * The first test class starts the cluster, and it is kept alive after each class so the next one does not pay the
+ * boot again. Its lifetime is tied to the JUnit root context store: it is stopped when the root context is closed
+ * (end of the test run), at that point the last class has finished.
+ */
+public class SharedConfluentClusterExtension implements BeforeAllCallback, ParameterResolver {
+
+    private static final Logger logger = LoggerFactory.getLogger(SharedConfluentClusterExtension.class);
+    private static final ExtensionContext.Namespace STORE_NAMESPACE = ExtensionContext.Namespace.create(SharedConfluentClusterExtension.class);
+
+    private static final Object lock = new Object();
+    private static KafkaContainersCluster cluster;
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        //Registered once per run, closed by JUnit after the last test class
+        context.getRoot().getStore(STORE_NAMESPACE)
+                .getOrComputeIfAbsent(ClusterShutdown.class, key -> new ClusterShutdown(), ClusterShutdown.class);
+        context.getStore(STORE_NAMESPACE).put(KafkaContainersCluster.class, start());
+        context.getStore(STORE_NAMESPACE).put(ClusterNamespace.class, ClusterNamespace.forTestClass(context.getRequiredTestClass()));
+    }
+
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        Class<?> type = parameterContext.getParameter().getType();
+        return type == KafkaContainersCluster.class || type == ClusterNamespace.class;
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        Class<?> type = parameterContext.getParameter().getType();
+        //The store of a method context falls back to its class context
+        return extensionContext.getStore(STORE_NAMESPACE).get(type, type);
+    }
+
+    static KafkaContainersCluster start() {
+        synchronized (lock) {
+            if (cluster == null) {
+                cluster = new KafkaContainersCluster.KafkaClusterBuilder().build();
+            }
+            //No-op once started
+            cluster.start();
+            return cluster;
+        }
+    }
+
+    static void shutdown() {
+        synchronized (lock) {
+            if (cluster == null) {
+                return;
+            }
+            logger.debug("Stopping the shared cluster at the end of the test run");
+            cluster.stop();
+            cluster = null;
+        }
+    }
+
+    private static class ClusterShutdown implements ExtensionContext.Store.CloseableResource {
+        @Override
+        public void close() {
+            shutdown();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package io.confluent.testcontainers;
+
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.lifecycle.Startable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Starts a set of containers modelled as a dependency graph (DAG) instead of relying on the sequential
+ * {@code dependsOn} chain of each container.
+ * <p>
+ * Everything that can overlap is overlapped: the network is created while the images of all the nodes are
+ * resolved (and pulled if needed), and each node is started as soon as its own image is available and all
+ * its dependencies are up and healthy. Independent nodes are therefore created and started concurrently.
+ * <p>
+ * Nodes must be added after their dependencies, which guarantees the graph has no cycles.
+ */
+public class StartupGraph {
+
+    private final Map<String, Node> nodes = new LinkedHashMap<>();
+    private Network network;
+
+    public StartupGraph withNetwork(Network network) {
+        this.network = network;
+        return this;
+    }
+
+    /**
+     * Adds a node to the graph
+     *
+     * @param name      unique name of the node, used in the {@link StartupReport}
+     * @param startable the container (or any other Startable) to start
+     * @param dependsOn names of the nodes that must be started before this one, they must be already added
+     * @return this graph
+     */
+    public StartupGraph addNode(String name, Startable startable, String... dependsOn) {
+        if (nodes.containsKey(name)) {
+            throw new IllegalArgumentException("Duplicated startup node: " + name);
+        }
+        for (String dependency : dependsOn) {
+            if (!nodes.containsKey(dependency)) {
+                throw new IllegalArgumentException(String.format("Node '%s' depends on unknown node '%s', dependencies must be added first", name, dependency));
+            }
+        }
+        nodes.put(name, new Node(name, startable, Arrays.asList(dependsOn)));
+        return this;
+    }
+
+    public List<String> getNodeNames() {
+        return new ArrayList<>(nodes.keySet());
+    }
+
+    /**
+     * Starts all the nodes of the graph, returning once all of them are started
+     *
+     * @return the report with the per-node and total startup times
+     */
+    public StartupReport start() {
+        ExecutorService executor = Executors.newCachedThreadPool(new StartupThreadFactory());
+        try {
+            long graphStart = System.nanoTime();
+
+            CompletableFuture<Duration> networkReady = CompletableFuture.supplyAsync(() -> {
+                long start = System.nanoTime();
+                if (network != null) {
+                    //Networks are created lazily on first access to their id
+                    network.getId();
+                }
+                return Duration.ofNanos(System.nanoTime() - start);
+            }, executor);
+
+            Map<String, CompletableFuture<StartupReport.NodeTiming>> started = new LinkedHashMap<>();
+            for (Node node : nodes.values()) {
+                CompletableFuture<Duration> imageResolved = CompletableFuture.supplyAsync(node::resolveImage, executor);
+
+                List<CompletableFuture<?>> prerequisites = new ArrayList<>();
+                prerequisites.add(networkReady);
+                prerequisites.add(imageResolved);
+                node.dependsOn.forEach(dependency -> prerequisites.add(started.get(dependency)));
+
+                CompletableFuture<StartupReport.NodeTiming> nodeStarted = CompletableFuture
+                        .allOf(prerequisites.toArray(new CompletableFuture[0]))
+                        .thenApplyAsync(ignored -> {
+                            long start = System.nanoTime();
+                            node.startable.start();
+                            long end = System.nanoTime();
+                            return new StartupReport.NodeTiming(
+                                    imageResolved.join(),
+                                    Duration.ofNanos(start - graphStart),
+                                    Duration.ofNanos(end - start));
+                        }, executor);
+                started.put(node.name, nodeStarted);
+            }
+
+            CompletableFuture.allOf(started.values().toArray(new CompletableFuture[0])).join();
+
+            Map<String, StartupReport.NodeTiming> timings = new LinkedHashMap<>();
+            started.forEach((name, future) -> timings.put(name, future.join()));
+            return new StartupReport(networkReady.join(), timings, Duration.ofNanos(System.nanoTime() - graphStart));
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Failed to start the startup graph", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static class Node {
+        private final String name;
+        private final Startable startable;
+        private final List<String> dependsOn;
+
+        private Node(String name, Startable startable, List<String> dependsOn) {
+            this.name = name;
+            this.startable = startable;
+            this.dependsOn = dependsOn;
+        }
+
+        private Duration resolveImage() {
+            long start = System.nanoTime();
+            if (startable instanceof GenericContainer) {
+                //Resolves the image, pulling it if it is not present locally
+                ((GenericContainer<?>) startable).getDockerImageName();
+            }
+            return Duration.ofNanos(System.nanoTime() - start);
+        }
+    }
+
+    private static class StartupThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "startup-graph-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
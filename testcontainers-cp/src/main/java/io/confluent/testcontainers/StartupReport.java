@@ -0,0 +1,91 @@
+package io.confluent.testcontainers;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Per-node and total startup times collected by {@link StartupGraph#start()}
+ */
+public class StartupReport {
+
+    private final Duration networkCreationTime;
+    private final Map<String, NodeTiming> nodeTimings;
+    private final Duration totalStartupTime;
+
+    public StartupReport(Duration networkCreationTime, Map<String, NodeTiming> nodeTimings, Duration totalStartupTime) {
+        this.networkCreationTime = networkCreationTime;
+        this.nodeTimings = Collections.unmodifiableMap(nodeTimings);
+        this.totalStartupTime = totalStartupTime;
+    }
+
+    public Duration getNetworkCreationTime() {
+        return networkCreationTime;
+    }
+
+    public Map<String, NodeTiming> getNodeTimings() {
+        return nodeTimings;
+    }
+
+    public NodeTiming getNodeTiming(String nodeName) {
+        return nodeTimings.get(nodeName);
+    }
+
+    public Duration getTotalStartupTime() {
+        return totalStartupTime;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder(String.format("%-20s %12s %12s %12s%n", "node", "image(ms)", "offset(ms)", "start(ms)"));
+        nodeTimings.forEach((name, timing) -> report.append(String.format("%-20s %12d %12d %12d%n",
+                name,
+                timing.getImageResolutionTime().toMillis(),
+                timing.getStartOffset().toMillis(),
+                timing.getStartTime().toMillis())));
+        report.append(String.format("network creation: %d ms, total startup: %d ms",
+                networkCreationTime.toMillis(),
+                totalStartupTime.toMillis()));
+        return report.toString();
+    }
+
+    public static class NodeTiming {
+        private final Duration imageResolutionTime;
+        private final Duration startOffset;
+        private final Duration startTime;
+
+        public NodeTiming(Duration imageResolutionTime, Duration startOffset, Duration startTime) {
+            this.imageResolutionTime = imageResolutionTime;
+            this.startOffset = startOffset;
+            this.startTime = startTime;
+        }
+
+        /**
+         * @return time spent resolving (and pulling if needed) the image of the node
+         */
+        public Duration getImageResolutionTime() {
+            return imageResolutionTime;
+        }
+
+        /**
+         * @return elapsed time since the graph start until the node start was triggered (its dependencies were ready)
+         */
+        public Duration getStartOffset() {
+            return startOffset;
+        }
+
+        /**
+         * @return time the node took to start, including its wait strategy
+         */
+        public Duration getStartTime() {
+            return startTime;
+        }
+
+        /**
+         * @return elapsed time since the graph start until the node was up and running
+         */
+        public Duration getReadyAt() {
+            return startOffset.plus(startTime);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package io.confluent.testcontainers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Lifecycle phase timings of the containers and their JSON report, without docker")
+public class LifecycleReportTest {
+
+    @Test
+    public void phasesAreRecordedInOrder() {
+        LifecycleTimings timings = new LifecycleTimings("FakeContainer");
+        assertThat(timings.getPhases().keySet(), empty());
+
+        timings.resolveImage(() -> sleep(20, "confluentinc/fake:1.0"));
+        timings.startRequested(List.of("fake"));
+        sleep(10, null);
+        timings.created();
+        sleep(10, null);
+        timings.running();
+        timings.waitStarted();
+        sleep(30, null);
+        timings.firstClientCall();
+        timings.ready();
+        sleep(5, null);
+        timings.firstClientCall();
+        timings.firstClientCall();
+
+        Map<LifecycleTimings.Phase, Duration> phases = timings.getPhases();
+        assertThat(phases.keySet(), contains(LifecycleTimings.Phase.values()));
+        assertTrue(phases.get(LifecycleTimings.Phase.IMAGE).toMillis() >= 20);
+        assertTrue(phases.get(LifecycleTimings.Phase.CREATE).toMillis() >= 10);
+        assertTrue(phases.get(LifecycleTimings.Phase.WAIT).toMillis() >= 30);
+        //Only the first call after the container is ready counts
+        assertTrue(phases.get(LifecycleTimings.Phase.FIRST_CLIENT_CALL).toMillis() >= 5);
+        assertTrue(timings.getTotalStartTime().toMillis() >= 50);
+        assertEquals("confluentinc/fake:1.0", timings.getImageName());
+    }
+
+    @Test
+    public void reportListsTheStartedContainers(@TempDir Path reportDir) throws Exception {
+        LifecycleTimings started = new LifecycleTimings("StartedContainer");
+        started.resolveImage(() -> "confluentinc/started:1.0");
+        started.startRequested(List.of("started"));
+        started.created();
+        started.running();
+        started.waitStarted();
+        started.ready();
+        LifecycleTimings neverStarted = new LifecycleTimings("NeverStartedContainer");
+
+        Path reportFile = reportDir.resolve("report.json");
+        LifecycleReport.write(reportFile);
+
+        JsonNode report = new ObjectMapper().readTree(reportFile.toFile());
+        assertTrue(report.hasNonNull("runStartedAt"));
+        JsonNode container = null;
+        for (JsonNode reported : report.get("containers")) {
+            assertNotEquals(neverStarted.getContainerType(), reported.get("type").asText());
+            if (started.getContainerType().equals(reported.get("type").asText())) {
+                container = reported;
+            }
+        }
+        assertNotNull(container);
+        assertEquals("confluentinc/started:1.0", container.get("image").asText());
+        assertEquals("started", container.get("networkAliases").get(0).asText());
+        assertTrue(container.get("phasesMs").has("image"));
+        assertTrue(container.get("phasesMs").has("wait"));
+        assertFalse(container.get("phasesMs").has("first_client_call"));
+        assertTrue(container.has("totalStartMs"));
+    }
+
+    private static String sleep(long millis, String result) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,142 @@
+package io.confluent.testcontainers.cluster;
+
+import io.confluent.testcontainers.KafkaContainersCluster;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.ConsumerGroupListing;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Produce and aggregation throughput with the broker log and ksqlDB state on tmpfs")
+public class InMemoryStorageThroughputTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryStorageThroughputTest.class);
+    private static final String KSQLDB_REQUEST_CONTENT_TYPE = "application/vnd.ksql.v1+json";
+
+    private static final int RECORDS = 200_000;
+    private static final int RECORD_SIZE = 1024;
+    private static final int KEYS = 10_000;
+    private static final String TOPIC = "storage_benchmark";
+
+    @Test
+    public void compareOverlayAndInMemoryStorage() {
+        Throughput overlay = run(new KafkaContainersCluster.KafkaClusterBuilder().build());
+        Throughput inMemory = run(new KafkaContainersCluster.KafkaClusterBuilder().withInMemoryStorage().build());
+
+        logger.info(String.format("%n%-10s %16s %16s%n%-10s %16.0f %16.0f%n%-10s %16.0f %16.0f",
+                "", "produce(rec/s)", "aggregate(rec/s)",
+                "overlay", overlay.produce, overlay.aggregate,
+                "tmpfs", inMemory.produce, inMemory.aggregate));
+    }
+
+    private Throughput run(KafkaContainersCluster cluster) {
+        try {
+            cluster.start();
+            String bootstrapServers = cluster.getBootstrapServers();
+            String ksqlDbUrl = cluster.getKsqlDbServerContainer().getKsqlDbUrl();
+
+            //acks=all and small batches so every produce request appends to the log
+            Properties props = new Properties();
+            props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+            props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+            props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+            props.put(ProducerConfig.ACKS_CONFIG, "all");
+            props.put(ProducerConfig.LINGER_MS_CONFIG, 1);
+            char[] payload = new char[RECORD_SIZE];
+            Arrays.fill(payload, 'x');
+            String value = new String(payload);
+
+            long start = System.nanoTime();
+            try (Producer<String, String> producer = new KafkaProducer<>(props)) {
+                for (int i = 0; i < RECORDS; i++) {
+                    producer.send(new ProducerRecord<>(TOPIC, "key-" + i % KEYS, value));
+                }
+                producer.flush();
+            }
+            double produce = RECORDS / seconds(System.nanoTime() - start);
+
+            //The aggregation writes every update to RocksDB and its changelog topic
+            ksql(ksqlDbUrl, "CREATE STREAM BENCHMARK_STREAM (K STRING KEY, V STRING) " +
+                    "WITH (KAFKA_TOPIC='" + TOPIC + "', VALUE_FORMAT='KAFKA');");
+            start = System.nanoTime();
+            ksql(ksqlDbUrl, "CREATE TABLE BENCHMARK_COUNTS AS SELECT K, COUNT(*) AS N FROM BENCHMARK_STREAM GROUP BY K;");
+            try (Admin admin = Admin.create(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers))) {
+                awaitConsumed(admin, Duration.ofMinutes(5));
+            }
+            double aggregate = RECORDS / seconds(System.nanoTime() - start);
+            return new Throughput(produce, aggregate);
+        } catch (Exception e) {
+            return fail(e);
+        } finally {
+            cluster.stop();
+        }
+    }
+
+    /**
+     * Waits for the committed offsets of the persistent query to reach the end of the input topic
+     */
+    private static void awaitConsumed(Admin admin, Duration timeout) throws Exception {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            for (ConsumerGroupListing group : admin.listConsumerGroups().all().get()) {
+                if (!group.groupId().contains("query_CTAS_BENCHMARK_COUNTS")) {
+                    continue;
+                }
+                long committed = admin.listConsumerGroupOffsets(group.groupId()).partitionsToOffsetAndMetadata().get()
+                        .entrySet().stream()
+                        .filter(offset -> offset.getKey().topic().equals(TOPIC))
+                        .map(Map.Entry::getValue)
+                        .mapToLong(OffsetAndMetadata::offset)
+                        .sum();
+                if (committed >= RECORDS) {
+                    return;
+                }
+            }
+            TimeUnit.MILLISECONDS.sleep(100);
+        }
+        fail("The aggregation did not consume the " + RECORDS + " records within " + timeout);
+    }
+
+    private static void ksql(String ksqlDbUrl, String statement) {
+        given()
+                .body(Map.of("ksql", statement, "streamsProperties", Map.of("ksql.streams.auto.offset.reset", "earliest")))
+                .contentType(KSQLDB_REQUEST_CONTENT_TYPE)
+                .when()
+                .post(ksqlDbUrl + "/ksql")
+                .then()
+                .statusCode(200)
+                .body("[0].commandStatus.status", equalTo("SUCCESS"));
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / 1_000_000_000.0;
+    }
+
+    private static class Throughput {
+        private final double produce;
+        private final double aggregate;
+
+        private Throughput(double produce, double aggregate) {
+            this.produce = produce;
+            this.aggregate = aggregate;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package io.confluent.testcontainers.cluster;
+
+import io.confluent.testcontainers.InProcessSchemaRegistry;
+import io.confluent.testcontainers.KafkaContainersCluster;
+import io.confluent.testcontainers.movies.Movie;
+import io.confluent.testcontainers.movies.MoviesSupport;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.Producer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Cluster with the in-process Schema Registry instead of the container")
+public class InProcessSchemaRegistryClusterTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(InProcessSchemaRegistryClusterTest.class);
+    private static final String KSQLDB_REQUEST_CONTENT_TYPE = "application/vnd.ksql.v1+json";
+    private static final String TOPIC = "in_process_movies";
+
+    @Test
+    public void serializersAndKsqlDbUseTheInProcessSchemaRegistry() {
+        KafkaContainersCluster cluster = new KafkaContainersCluster.KafkaClusterBuilder()
+                .withKraft()
+                .withInProcessSchemaRegistry()
+                .build();
+        try {
+            cluster.start();
+            assertThat(cluster.getSchemaRegistry(), instanceOf(InProcessSchemaRegistry.class));
+            assertThrows(IllegalStateException.class, cluster::getSchemaRegistryContainer);
+            Duration schemaRegistryStartup = cluster.getStartupReport().getNodeTiming(KafkaContainersCluster.SCHEMA_REGISTRY_NODE).getStartTime();
+            Duration portExposure = cluster.getStartupReport().getNodeTiming(KafkaContainersCluster.SCHEMA_REGISTRY_PORT_NODE).getStartTime();
+            //The port exposure starts the port forwarding container, it is not part of the registry start
+            logger.info("In-process Schema Registry started in {} ms, port exposed to the containers in {} ms",
+                    schemaRegistryStartup.toMillis(), portExposure.toMillis());
+            assertThat(schemaRegistryStartup, lessThan(Duration.ofSeconds(1)));
+
+            String bootstrapServers = cluster.getBootstrapServers();
+            String schemaRegistryUrl = cluster.getSchemaRegistry().getSchemaRegistryUrl();
+            MoviesSupport.createTopic(bootstrapServers, TOPIC);
+            try (Producer<String, Movie> producer = MoviesSupport.createJsonProducer(bootstrapServers, schemaRegistryUrl)) {
+                MoviesSupport.publishData(MoviesSupport.MOVIES, producer, TOPIC);
+            }
+            given()
+                    .get(schemaRegistryUrl + "/subjects/" + TOPIC + "-value/versions/latest")
+                    .then()
+                    .statusCode(200)
+                    .body("schemaType", equalTo("JSON"));
+
+            try (Consumer<String, Movie> consumer = MoviesSupport.createJsonConsumer(bootstrapServers, schemaRegistryUrl)) {
+                consumer.subscribe(Collections.singletonList(TOPIC));
+                List<Movie> movies = new ArrayList<>();
+                long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+                while (movies.size() < MoviesSupport.MOVIES.size() && System.nanoTime() < deadline) {
+                    for (ConsumerRecord<String, Movie> record : consumer.poll(Duration.ofMillis(500))) {
+                        movies.add(record.value());
+                    }
+                }
+                assertEquals(MoviesSupport.MOVIES, movies);
+            }
+
+            //ksqlDB infers the columns from the schema, read through the port exposed to the containers
+            given()
+                    .body(Map.of("ksql", "CREATE STREAM IN_PROCESS_MOVIES WITH (KAFKA_TOPIC='" + TOPIC + "', VALUE_FORMAT='JSON_SR');"))
+                    .contentType(KSQLDB_REQUEST_CONTENT_TYPE)
+                    .when()
+                    .post(cluster.getKsqlDbServerContainer().getKsqlDbUrl() + "/ksql")
+                    .then()
+                    .statusCode(200)
+                    .body("[0].commandStatus.status", equalTo("SUCCESS"));
+        } catch (Exception e) {
+            fail(e);
+        } finally {
+            cluster.stop();
+        }
+    }
+}
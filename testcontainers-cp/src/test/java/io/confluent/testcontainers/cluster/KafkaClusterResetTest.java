@@ -0,0 +1,120 @@
+package io.confluent.testcontainers.cluster;
+
+import io.confluent.testcontainers.ClusterNamespace;
+import io.confluent.testcontainers.KafkaContainersCluster;
+import io.confluent.testcontainers.ResetReport;
+import io.confluent.testcontainers.SharedConfluentCluster;
+import io.confluent.testcontainers.movies.Movie;
+import io.confluent.testcontainers.movies.MoviesSupport;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.producer.Producer;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Set;
+
+import static io.restassured.RestAssured.get;
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.fail;
+
+@DisplayName("Reset of the data of a running cluster, wiping a namespace")
+@SharedConfluentCluster
+public class KafkaClusterResetTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(KafkaClusterResetTest.class);
+    private static final String KSQLDB_REQUEST_CONTENT_TYPE = "application/vnd.ksql.v1+json";
+
+    private static KafkaContainersCluster kafkaCluster;
+    private static ClusterNamespace namespace;
+
+    @BeforeAll
+    static void setUp(KafkaContainersCluster cluster, ClusterNamespace clusterNamespace) {
+        kafkaCluster = cluster;
+        namespace = clusterNamespace;
+    }
+
+    @Test
+    public void resetNamespaceRemovesQueriesSubjectsAndTopics() {
+        String bootstrapServers = kafkaCluster.getBootstrapServers();
+        String schemaRegistryUrl = kafkaCluster.getSchemaRegistryContainer().getSchemaRegistryUrl();
+        String ksqlDbUrl = kafkaCluster.getKsqlDbServerContainer().getKsqlDbUrl();
+        ClusterNamespace other = namespace.scoped("other");
+        //Not owned by the namespace, its query reads a stream of the namespace
+        ClusterNamespace foreign = ClusterNamespace.forTestClass(KafkaClusterResetTest.class);
+
+        try (Admin admin = Admin.create(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers))) {
+            //Data in the namespace: a topic with a registered schema, a stream over it and a persistent query
+            String moviesTopic = namespace.topic("movies");
+            String otherTopic = other.topic("movies");
+            try (Producer<String, Movie> jsonProducer = MoviesSupport.createJsonProducer(bootstrapServers, schemaRegistryUrl)) {
+                MoviesSupport.publishData(MoviesSupport.MOVIES, jsonProducer, moviesTopic);
+                MoviesSupport.publishData(MoviesSupport.MOVIES, jsonProducer, otherTopic);
+            }
+            String moviesStream = namespace.ksqlName("movies");
+            String recentMovies = namespace.ksqlName("recent_movies");
+            ksql(ksqlDbUrl, "CREATE STREAM " + moviesStream + " WITH (KAFKA_TOPIC='" + moviesTopic + "', VALUE_FORMAT='JSON_SR');");
+            ksql(ksqlDbUrl, "CREATE STREAM " + recentMovies + " WITH (KAFKA_TOPIC='" + namespace.topic("recent_movies") + "') " +
+                    "AS SELECT * FROM " + moviesStream + " WHERE RELEASE_YEAR > 2000;");
+            String foreignMovies = foreign.ksqlName("movies");
+            ksql(ksqlDbUrl, "CREATE STREAM " + foreignMovies + " WITH (KAFKA_TOPIC='" + foreign.topic("movies") + "') " +
+                    "AS SELECT * FROM " + moviesStream + ";");
+
+            //Other namespaces sharing the cluster are left untouched (the prefix of the other namespace extends this one)
+            ResetReport report = kafkaCluster.resetNamespace(other.getPrefix());
+            logger.info("Other namespace reset{}{}", System.lineSeparator(), report);
+            assertThat(report.getDeletedTopics(), contains(otherTopic));
+            assertThat(admin.listTopics().names().get(), hasItems(moviesTopic, namespace.topic("recent_movies")));
+
+            report = kafkaCluster.resetNamespace(namespace.getPrefix());
+            logger.info("Namespace reset{}{}", System.lineSeparator(), report);
+
+            //The query of the foreign stream is terminated so the stream it reads can be dropped, the foreign stream is kept
+            assertThat(report.getTerminatedQueries(), hasSize(2));
+            assertThat(report.getDroppedSources(), contains(recentMovies, moviesStream));
+            //The topics are only deleted once the queries are terminated
+            assertThat(report.getTotalTime(), greaterThanOrEqualTo(report.getKsqlDbTime().plus(report.getTopicsTime())));
+            assertThat(report.getDeletedSubjects(), hasItem(namespace.valueSubject("movies")));
+            assertThat(report.getDeletedTopics(), containsInAnyOrder(moviesTopic, namespace.topic("recent_movies")));
+            assertThat(report.getTotalTime(), lessThanOrEqualTo(report.getKsqlDbTime()
+                    .plus(report.getSchemaRegistryTime())
+                    .plus(report.getTopicsTime())));
+
+            Set<String> topics = admin.listTopics().names().get();
+            assertThat(topics, not(hasItem(startsWith(namespace.getPrefix()))));
+            get(schemaRegistryUrl + "/subjects?deleted=true")
+                    .then()
+                    .statusCode(200)
+                    .body("findAll { it.startsWith('" + namespace.getPrefix() + "') }", empty());
+            String streams = given()
+                    .body("{\"ksql\":\"SHOW STREAMS;\",\"streamsProperties\":{}}")
+                    .contentType(KSQLDB_REQUEST_CONTENT_TYPE)
+                    .post(ksqlDbUrl + "/ksql")
+                    .then()
+                    .statusCode(200)
+                    .extract()
+                    .asString();
+            assertThat(streams, not(containsString(moviesStream)));
+            assertThat(streams, containsString(foreignMovies));
+            kafkaCluster.resetNamespace(foreign.getPrefix());
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    private static void ksql(String ksqlDbUrl, String statement) {
+        given()
+                .body(Map.of("ksql", statement, "streamsProperties", Map.of("ksql.streams.auto.offset.reset", "earliest")))
+                .contentType(KSQLDB_REQUEST_CONTENT_TYPE)
+                .post(ksqlDbUrl + "/ksql")
+                .then()
+                .statusCode(200)
+                .body("[0].commandStatus.status", equalTo("SUCCESS"));
+    }
+}
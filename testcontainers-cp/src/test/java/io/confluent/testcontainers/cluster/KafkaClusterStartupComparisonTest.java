@@ -0,0 +1,117 @@
+package io.confluent.testcontainers.cluster;
+
+import com.github.dockerjava.api.model.Container;
+import io.confluent.testcontainers.KafkaContainersCluster;
+import io.confluent.testcontainers.StartupReport;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.ContainerState;
+import org.testcontainers.containers.DockerComposeContainer;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static io.restassured.RestAssured.get;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Cold boot time of the ZooKeeper backed cluster compared with the KRaft one")
+public class KafkaClusterStartupComparisonTest {
+
+    private static Logger logger = LoggerFactory.getLogger(KafkaClusterStartupComparisonTest.class);
+
+    private static final int ZOOKEEPER_PORT = 2181;
+
+    @Test
+    public void compareClusterColdBoot() {
+        //The single broker of the ZooKeeper backed cluster embeds its zookeeper, the KRaft broker runs none
+        StartupReport zookeeperReport = bootAndCheck(new KafkaContainersCluster.KafkaClusterBuilder().build(), true);
+        StartupReport kraftReport = bootAndCheck(new KafkaContainersCluster.KafkaClusterBuilder().withKraft().build(), false);
+
+        //Image resolution is reported apart, the broker start time is the cold boot of the broker itself
+        Duration zookeeperBroker = zookeeperReport.getNodeTiming(KafkaContainersCluster.KAFKA_NODE).getStartTime();
+        Duration kraftBroker = kraftReport.getNodeTiming(KafkaContainersCluster.KAFKA_NODE).getStartTime();
+        logger.info(String.format("%n%-12s %18s %18s%n%-12s %18d %18d%n%-12s %18d %18d%n%-12s %18d ms",
+                "", "broker start(ms)", "cluster total(ms)",
+                "zookeeper", zookeeperBroker.toMillis(), zookeeperReport.getTotalStartupTime().toMillis(),
+                "kraft", kraftBroker.toMillis(), kraftReport.getTotalStartupTime().toMillis(),
+                "saved", zookeeperBroker.minus(kraftBroker).toMillis()));
+    }
+
+    @Test
+    public void compareComposeColdBoot() {
+        //The first stack also pays for the image pulls, the times are only logged
+        Duration zookeeperBoot = bootAndCheck("compose-kafka-cluster.yml", true);
+        Duration kraftBoot = bootAndCheck("compose-kafka-cluster-kraft.yml", false);
+        logger.info(String.format("%n%-12s %18s%n%-12s %18d%n%-12s %18d%n%-12s %18d ms",
+                "", "compose up(ms)",
+                "zookeeper", zookeeperBoot.toMillis(),
+                "kraft", kraftBoot.toMillis(),
+                "saved", zookeeperBoot.minus(kraftBoot).toMillis()));
+    }
+
+    private StartupReport bootAndCheck(KafkaContainersCluster cluster, boolean zookeeper) {
+        try {
+            cluster.start();
+            assertTrue(cluster.getKafkaContainer().isRunning());
+            assertTrue(cluster.getZookeeperContainer().isEmpty());
+            assertEquals(zookeeper, listensOn(cluster.getKafkaContainer(), ZOOKEEPER_PORT));
+            get(cluster.getSchemaRegistryContainer().getSchemaRegistryUrl() + "/subjects")
+                    .then()
+                    .statusCode(200);
+            get(cluster.getKsqlDbServerContainer().getKsqlDbUrl() + "/info")
+                    .then()
+                    .body("KsqlServerInfo.serverStatus", equalTo("RUNNING"));
+            return cluster.getStartupReport();
+        } finally {
+            cluster.stop();
+        }
+    }
+
+    private Duration bootAndCheck(String composeFileName, boolean zookeeper) {
+        File composeFile = new File(KafkaClusterStartupComparisonTest.class.getClassLoader()
+                .getResource(composeFileName).getFile());
+        DockerComposeContainer composeCluster = new DockerComposeContainer(composeFile)
+                .withExposedService("broker", 29092)
+                .withExposedService("schema-registry", 8081, Wait.forHttp("/subjects").forStatusCode(200))
+                .withExposedService("ksqldb-server", 8088, Wait.forLogMessage(".*INFO Server up and running.*\\n", 1));
+        try {
+            long start = System.nanoTime();
+            composeCluster.start();
+            Duration boot = Duration.ofNanos(System.nanoTime() - start);
+            //The raw compose container returns a raw Optional
+            ContainerState broker = (ContainerState) composeCluster.getContainerByServiceName("broker_1").orElseThrow();
+            String project = broker.getContainerInfo().getConfig().getLabels().get("com.docker.compose.project");
+            List<Container> zookeeperContainers = DockerClientFactory.instance().client().listContainersCmd()
+                    .withLabelFilter(Map.of("com.docker.compose.project", project, "com.docker.compose.service", "zookeeper"))
+                    .exec();
+            assertEquals(zookeeper ? 1 : 0, zookeeperContainers.size());
+            return boot;
+        } finally {
+            composeCluster.stop();
+        }
+    }
+
+    /**
+     * @return whether a process of the container listens on the TCP port, read from /proc as the images have no netstat
+     */
+    private static boolean listensOn(GenericContainer<?> container, int port) {
+        try {
+            String sockets = container.execInContainer("cat", "/proc/net/tcp", "/proc/net/tcp6").getStdout();
+            String localPort = String.format(":%04X", port);
+            return sockets.lines()
+                    .map(line -> line.trim().split("\\s+"))
+                    //local_address is the second column, st the fourth, 0A is LISTEN
+                    .anyMatch(columns -> columns.length > 3 && columns[1].endsWith(localPort) && "0A".equals(columns[3]));
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to read the sockets of " + container.getContainerName(), e);
+        }
+    }
+}
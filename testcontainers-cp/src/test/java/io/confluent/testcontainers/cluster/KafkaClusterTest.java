@@ -1,12 +1,15 @@
 package io.confluent.testcontainers.cluster;
 
+import io.confluent.testcontainers.ClusterNamespace;
 import io.confluent.testcontainers.KafkaContainersCluster;
+import io.confluent.testcontainers.LifecycleTimings;
+import io.confluent.testcontainers.SharedConfluentCluster;
+import io.confluent.testcontainers.StartupReport;
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.testcontainers.junit.jupiter.Container;
-import org.testcontainers.junit.jupiter.Testcontainers;
 
 import java.net.URI;
 import java.net.http.HttpClient;
@@ -14,17 +17,29 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 
 import static io.restassured.RestAssured.get;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.not;
 import static org.junit.jupiter.api.Assertions.*;
 
 @DisplayName("Kafka Cluster Up and Running using KafkaContainersCluster class")
-@Testcontainers
+@SharedConfluentCluster
 public class KafkaClusterTest {
 
     private static Logger logger = LoggerFactory.getLogger(KafkaClusterTest.class);
 
-    @Container
-    public static final KafkaContainersCluster kafkaCluster = new KafkaContainersCluster.KafkaClusterBuilder().build();
+    private static KafkaContainersCluster kafkaCluster;
+    private static ClusterNamespace namespace;
+
+    @BeforeAll
+    static void setUp(KafkaContainersCluster cluster, ClusterNamespace clusterNamespace) {
+        kafkaCluster = cluster;
+        namespace = clusterNamespace;
+    }
 
     @Test
     public void clusterUpAndServicingTest() {
@@ -34,6 +49,22 @@ public class KafkaClusterTest {
             assertTrue(kafkaCluster.getSchemaRegistryContainer().isRunning());
             assertTrue(kafkaCluster.getKsqlDbServerContainer().isRunning());
 
+            StartupReport startupReport = kafkaCluster.getStartupReport();
+            assertNotNull(startupReport);
+            logger.info("Cluster startup report{}{}", System.lineSeparator(), startupReport);
+            assertThat(startupReport.getNodeTimings().keySet(), containsInAnyOrder(
+                    KafkaContainersCluster.KAFKA_NODE,
+                    KafkaContainersCluster.SCHEMA_REGISTRY_NODE,
+                    KafkaContainersCluster.KSQLDB_SERVER_NODE));
+            //Readiness is measured by the HTTP probes of the wait strategies
+            assertTrue(kafkaCluster.getSchemaRegistryContainer().getReadinessTime().isPresent());
+            assertTrue(kafkaCluster.getKsqlDbServerContainer().getReadinessTime().isPresent());
+            //Lifecycle phases are recorded by the containers, the cluster makes the first client calls
+            assertThat(kafkaCluster.getSchemaRegistryContainer().getLifecycleTimings().getPhases().keySet(),
+                    hasItems(LifecycleTimings.Phase.CREATE, LifecycleTimings.Phase.START, LifecycleTimings.Phase.WAIT, LifecycleTimings.Phase.FIRST_CLIENT_CALL));
+            assertThat(kafkaCluster.getKsqlDbServerContainer().getLifecycleTimings().getPhases().keySet(),
+                    hasItem(LifecycleTimings.Phase.FIRST_CLIENT_CALL));
+
             //TEST SCHEMA REGISTRY UP
             String srUrl = kafkaCluster.getSchemaRegistryContainer().getSchemaRegistryUrl() + "/subjects";
 
@@ -43,7 +74,8 @@ public class KafkaClusterTest {
                     .build();
             HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
             assertEquals(200, response.statusCode());
-            assertEquals("[]", response.body());
+            //The cluster is shared, only the subjects of this class are known to be absent
+            assertThat(response.body(), not(containsString(namespace.getPrefix())));
 
             //KSQL-DB UP
             String ksqlDbUrl = kafkaCluster.getKsqlDbServerContainer().getKsqlDbUrl() + "/info";
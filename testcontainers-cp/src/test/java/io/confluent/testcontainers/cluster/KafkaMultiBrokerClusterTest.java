@@ -0,0 +1,100 @@
+package io.confluent.testcontainers.cluster;
+
+import io.confluent.testcontainers.KafkaContainersCluster;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.Config;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.TopicPartitionInfo;
+import org.apache.kafka.common.config.ConfigResource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static io.restassured.RestAssured.get;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Multi-broker Kafka Cluster using KafkaContainersCluster class")
+@Testcontainers
+public class KafkaMultiBrokerClusterTest {
+
+    private static Logger logger = LoggerFactory.getLogger(KafkaMultiBrokerClusterTest.class);
+
+    @Container
+    public static final KafkaContainersCluster kafkaCluster = new KafkaContainersCluster.KafkaClusterBuilder()
+            .withBrokers(3)
+            .withReplicationFactor(3)
+            .withMinInSyncReplicas(2)
+            .withRacks("rack-a", "rack-b", "rack-c")
+            .build();
+
+    @Test
+    public void brokersFormAClusterWithReplicationDefaults() {
+        try (AdminClient adminClient = AdminClient.create(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, kafkaCluster.getBootstrapServers()))) {
+            kafkaCluster.start();
+            assertThat(kafkaCluster.getKafkaContainers(), hasSize(3));
+            assertTrue(kafkaCluster.getZookeeperContainer().isPresent());
+            logger.info("Multi-broker cluster startup report{}{}", System.lineSeparator(), kafkaCluster.getStartupReport());
+
+            Collection<Node> nodes = adminClient.describeCluster().nodes().get(10, TimeUnit.SECONDS);
+            assertThat(nodes, hasSize(3));
+            Set<String> racks = nodes.stream().map(Node::rack).collect(Collectors.toSet());
+            assertThat(racks, containsInAnyOrder("rack-a", "rack-b", "rack-c"));
+
+            //Topic created without explicit replication factor takes the broker default
+            String topicName = "replicated-topic";
+            adminClient.createTopics(Collections.singleton(new NewTopic(topicName, Optional.of(6), Optional.empty())))
+                    .all().get(10, TimeUnit.SECONDS);
+            TopicDescription description = adminClient.describeTopics(Collections.singleton(topicName))
+                    .all().get(10, TimeUnit.SECONDS).get(topicName);
+            for (TopicPartitionInfo partition : description.partitions()) {
+                assertThat(partition.replicas(), hasSize(3));
+                assertThat(partition.isr(), hasSize(3));
+            }
+            //Leadership is spread across the brokers
+            Set<Integer> leaders = description.partitions().stream().map(p -> p.leader().id()).collect(Collectors.toSet());
+            assertThat(leaders, hasSize(3));
+
+            ConfigResource broker = new ConfigResource(ConfigResource.Type.BROKER, String.valueOf(nodes.iterator().next().id()));
+            Config brokerConfig = adminClient.describeConfigs(Collections.singleton(broker)).all().get(10, TimeUnit.SECONDS).get(broker);
+            assertEquals("2", brokerConfig.get("min.insync.replicas").value());
+            assertEquals("3", brokerConfig.get("default.replication.factor").value());
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    public void schemaRegistryAndKsqlDbUseTheFullBootstrapList() {
+        try {
+            kafkaCluster.start();
+            assertThat(kafkaCluster.getSchemaRegistryContainer().getEnvMap().get("SCHEMA_REGISTRY_KAFKASTORE_BOOTSTRAP_SERVERS").split(","), arrayWithSize(3));
+            assertThat(kafkaCluster.getKsqlDbServerContainer().getEnvMap().get("KSQL_BOOTSTRAP_SERVERS").toString().split(","), arrayWithSize(3));
+
+            get(kafkaCluster.getSchemaRegistryContainer().getSchemaRegistryUrl() + "/subjects")
+                    .then()
+                    .statusCode(200);
+
+            get(kafkaCluster.getKsqlDbServerContainer().getKsqlDbUrl() + "/info")
+                    .then()
+                    .body("KsqlServerInfo.serverStatus", equalTo("RUNNING"));
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+}
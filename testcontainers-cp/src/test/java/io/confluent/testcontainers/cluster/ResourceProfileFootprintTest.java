@@ -0,0 +1,129 @@
+package io.confluent.testcontainers.cluster;
+
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.model.MemoryStatsConfig;
+import com.github.dockerjava.api.model.Statistics;
+import com.github.dockerjava.api.model.StatsConfig;
+import io.confluent.testcontainers.KafkaContainersCluster;
+import io.confluent.testcontainers.ResourceProfile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.GenericContainer;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.get;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Peak resident memory of the cluster containers with each resource profile")
+public class ResourceProfileFootprintTest {
+
+    private static Logger logger = LoggerFactory.getLogger(ResourceProfileFootprintTest.class);
+
+    private static final int SAMPLES = 10;
+    private static final long MB = 1024 * 1024;
+
+    @Test
+    public void leanProfileHasTheSmallestFootprint() {
+        Map<ResourceProfile, Map<ResourceProfile.Service, Long>> peaks = new EnumMap<>(ResourceProfile.class);
+        for (ResourceProfile profile : ResourceProfile.values()) {
+            peaks.put(profile, bootAndMeasure(profile));
+        }
+
+        StringBuilder table = new StringBuilder(String.format("%n%-16s", "peak RSS(MB)"));
+        for (ResourceProfile profile : ResourceProfile.values()) {
+            table.append(String.format(" %10s", profile));
+        }
+        for (ResourceProfile.Service service : peaks.get(ResourceProfile.DEFAULT).keySet()) {
+            table.append(String.format("%n%-16s", service));
+            for (ResourceProfile profile : ResourceProfile.values()) {
+                table.append(String.format(" %10d", peaks.get(profile).get(service) / MB));
+            }
+        }
+        logger.info(table.toString());
+
+        long leanTotal = 0;
+        long defaultTotal = 0;
+        for (Map.Entry<ResourceProfile.Service, Long> lean : peaks.get(ResourceProfile.LEAN).entrySet()) {
+            //The cgroup limit is enforced, a container above it would have been killed
+            assertTrue(lean.getValue() <= ResourceProfile.LEAN.getMemoryLimitMb(lean.getKey()) * MB,
+                    lean.getKey() + " above its limit");
+            leanTotal += lean.getValue();
+            defaultTotal += peaks.get(ResourceProfile.DEFAULT).get(lean.getKey());
+        }
+        assertTrue(leanTotal < defaultTotal, "LEAN " + leanTotal / MB + "MB, DEFAULT " + defaultTotal / MB + "MB");
+    }
+
+    private Map<ResourceProfile.Service, Long> bootAndMeasure(ResourceProfile profile) {
+        KafkaContainersCluster cluster = new KafkaContainersCluster.KafkaClusterBuilder()
+                .withResourceProfile(profile)
+                .build();
+        try {
+            cluster.start();
+            Map<ResourceProfile.Service, GenericContainer<?>> containers = new LinkedHashMap<>();
+            containers.put(ResourceProfile.Service.KAFKA, cluster.getKafkaContainer());
+            containers.put(ResourceProfile.Service.SCHEMA_REGISTRY, cluster.getSchemaRegistryContainer());
+            containers.put(ResourceProfile.Service.KSQLDB, cluster.getKsqlDbServerContainer());
+
+            Map<ResourceProfile.Service, Long> peak = new EnumMap<>(ResourceProfile.Service.class);
+            for (int i = 0; i < SAMPLES; i++) {
+                //Some load on the REST endpoints between the samples
+                get(cluster.getSchemaRegistryContainer().getSchemaRegistryUrl() + "/subjects")
+                        .then()
+                        .statusCode(200);
+                get(cluster.getKsqlDbServerContainer().getKsqlDbUrl() + "/info")
+                        .then()
+                        .body("KsqlServerInfo.serverStatus", equalTo("RUNNING"));
+                containers.forEach((service, container) -> peak.merge(service, rss(container), Math::max));
+                TimeUnit.SECONDS.sleep(1);
+            }
+            return peak;
+        } catch (Exception e) {
+            return fail(e);
+        } finally {
+            cluster.stop();
+        }
+    }
+
+    /**
+     * The resident anonymous memory of the container, without the page cache counted in the cgroup usage: rss with
+     * cgroup v1, active_anon + inactive_anon with cgroup v2 which has no rss. The maximum of the samples received.
+     */
+    private static long rss(GenericContainer<?> container) {
+        DockerClient dockerClient = DockerClientFactory.instance().client();
+        MemoryStatsCallback callback = new MemoryStatsCallback();
+        try {
+            dockerClient.statsCmd(container.getContainerId()).withNoStream(true).exec(callback).awaitCompletion();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        assertTrue(callback.rss >= 0, "No memory stats for " + container.getContainerId());
+        return callback.rss;
+    }
+
+    private static class MemoryStatsCallback extends ResultCallback.Adapter<Statistics> {
+        private volatile long rss = -1;
+
+        @Override
+        public void onNext(Statistics statistics) {
+            MemoryStatsConfig memory = statistics.getMemoryStats();
+            StatsConfig stats = memory == null ? null : memory.getStats();
+            if (stats == null) {
+                return;
+            }
+            if (stats.getRss() != null) {
+                rss = Math.max(rss, stats.getRss());
+            } else if (stats.getActiveAnon() != null && stats.getInactiveAnon() != null) {
+                rss = Math.max(rss, stats.getActiveAnon() + stats.getInactiveAnon());
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package io.confluent.testcontainers.cluster;
+
+import io.confluent.testcontainers.StartupGraph;
+import io.confluent.testcontainers.StartupReport;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.lifecycle.Startable;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Dependency graph startup engine without docker, using fake startables")
+public class StartupGraphTest {
+
+    private final List<String> startOrder = new CopyOnWriteArrayList<>();
+
+    @Test
+    public void independentNodesStartInParallel() {
+        StartupGraph graph = new StartupGraph()
+                .addNode("root", new SleepingStartable("root", 100))
+                .addNode("left", new SleepingStartable("left", 400), "root")
+                .addNode("right", new SleepingStartable("right", 400), "root");
+
+        StartupReport report = graph.start();
+
+        assertThat(startOrder.get(0), is("root"));
+        assertThat(startOrder, containsInAnyOrder("root", "left", "right"));
+        //Sequential startup would take at least 900ms
+        assertThat(report.getTotalStartupTime(), lessThan(Duration.ofMillis(850)));
+        assertThat(report.getNodeTimings().keySet(), contains("root", "left", "right"));
+        assertThat(report.getNodeTiming("left").getStartOffset(), greaterThanOrEqualTo(report.getNodeTiming("root").getStartTime()));
+    }
+
+    @Test
+    public void dependentNodeWaitsForAllItsDependencies() {
+        StartupGraph graph = new StartupGraph()
+                .addNode("fast", new SleepingStartable("fast", 50))
+                .addNode("slow", new SleepingStartable("slow", 300))
+                .addNode("last", new SleepingStartable("last", 10), "fast", "slow");
+
+        StartupReport report = graph.start();
+
+        assertThat(startOrder.get(2), is("last"));
+        assertThat(report.getNodeTiming("last").getStartOffset(), greaterThanOrEqualTo(Duration.ofMillis(300)));
+    }
+
+    @Test
+    public void unknownDependencyIsRejected() {
+        StartupGraph graph = new StartupGraph().addNode("root", new SleepingStartable("root", 0));
+        assertThrows(IllegalArgumentException.class, () -> graph.addNode("child", new SleepingStartable("child", 0), "missing"));
+        assertThrows(IllegalArgumentException.class, () -> graph.addNode("root", new SleepingStartable("root", 0)));
+    }
+
+    @Test
+    public void failedNodePreventsDependentsFromStarting() {
+        StartupGraph graph = new StartupGraph()
+                .addNode("broken", new SleepingStartable("broken", 0) {
+                    @Override
+                    public void start() {
+                        throw new IllegalStateException("boom");
+                    }
+                })
+                .addNode("child", new SleepingStartable("child", 0), "broken");
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, graph::start);
+        assertEquals("boom", exception.getMessage());
+        assertThat(startOrder, not(hasItem("child")));
+    }
+
+    private class SleepingStartable implements Startable {
+        private final String name;
+        private final long sleepMillis;
+
+        private SleepingStartable(String name, long sleepMillis) {
+            this.name = name;
+            this.sleepMillis = sleepMillis;
+        }
+
+        @Override
+        public void start() {
+            try {
+                Thread.sleep(sleepMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            startOrder.add(name);
+        }
+
+        @Override
+        public void stop() {
+        }
+    }
+}
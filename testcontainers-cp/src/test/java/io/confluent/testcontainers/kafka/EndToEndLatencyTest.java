@@ -0,0 +1,56 @@
+package io.confluent.testcontainers.kafka;
+
+import io.confluent.testcontainers.ClusterNamespace;
+import io.confluent.testcontainers.KafkaContainersCluster;
+import io.confluent.testcontainers.SharedConfluentCluster;
+import io.confluent.testcontainers.movies.EndToEndLatencyHarness;
+import io.confluent.testcontainers.movies.EndToEndLatencyResult;
+import io.confluent.testcontainers.movies.MovieDataGenerator;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("End to end latency of movies from the producer to a consumer group")
+@SharedConfluentCluster
+public class EndToEndLatencyTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(EndToEndLatencyTest.class);
+
+    private static KafkaContainersCluster kafkaCluster;
+    private static ClusterNamespace namespace;
+
+    @BeforeAll
+    static void setUp(KafkaContainersCluster cluster, ClusterNamespace clusterNamespace) {
+        kafkaCluster = cluster;
+        namespace = clusterNamespace;
+    }
+
+    @ParameterizedTest(name = "{0} rec/s, {1} consumers")
+    @CsvSource({"1000, 1", "5000, 3"})
+    public void latencyDistribution(int rate, int consumers) {
+        int records = rate * 10;
+        try {
+            EndToEndLatencyResult result = new EndToEndLatencyHarness(kafkaCluster.getBootstrapServers(),
+                    kafkaCluster.getSchemaRegistryContainer().getSchemaRegistryUrl())
+                    .withRate(rate)
+                    .withConsumers(consumers)
+                    .run(new MovieDataGenerator(rate).movies(records).iterator(), records,
+                            namespace.topic("latency_" + rate + "_" + consumers));
+
+            logger.info("End to end latency{}{}{}", System.lineSeparator(), result, result.percentileDistribution());
+            assertEquals(records, result.getRecords());
+            //Measured from the schedule, the corrected latency is never below the raw one
+            assertThat(result.getCorrectedLatency(99), greaterThanOrEqualTo(result.getRawLatency(99)));
+            assertThat(result.getRawLatency(50), lessThanOrEqualTo(result.getRawLatency(99.9)));
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package io.confluent.testcontainers.kafka;
+
+import io.confluent.testcontainers.ClusterNamespace;
+import io.confluent.testcontainers.KafkaContainersCluster;
+import io.confluent.testcontainers.PublishPipeline;
+import io.confluent.testcontainers.PublishResult;
+import io.confluent.testcontainers.SharedConfluentCluster;
+import io.confluent.testcontainers.movies.Movie;
+import io.confluent.testcontainers.movies.MovieDataGenerator;
+import io.confluent.testcontainers.movies.MoviesSupport;
+import io.confluent.testcontainers.movies.SerializedPayloads;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.Producer;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Producer throughput serializing on send compared with the replay of pre-serialized payloads")
+@SharedConfluentCluster
+public class PayloadReplayThroughputTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(PayloadReplayThroughputTest.class);
+
+    private static final int FIXTURES = 10_000;
+    private static final int RECORDS = 1_000_000;
+
+    private static KafkaContainersCluster kafkaCluster;
+    private static ClusterNamespace namespace;
+
+    @BeforeAll
+    static void setUp(KafkaContainersCluster cluster, ClusterNamespace clusterNamespace) {
+        kafkaCluster = cluster;
+        namespace = clusterNamespace;
+    }
+
+    @Test
+    public void compareSerializeOnSendAndReplay() {
+        String bootstrapServers = kafkaCluster.getBootstrapServers();
+        String schemaRegistryUrl = kafkaCluster.getSchemaRegistryContainer().getSchemaRegistryUrl();
+        String serializedTopic = namespace.topic("movies_serialized");
+        String replayedTopic = namespace.topic("movies_replayed");
+        MovieDataGenerator generator = new MovieDataGenerator(13);
+        PublishPipeline pipeline = new PublishPipeline().withLingerMs(10).withBatchSize(128 * 1024);
+
+        try {
+            PublishResult serialized;
+            try (Producer<String, Movie> producer = MoviesSupport.createJsonProducer(bootstrapServers, schemaRegistryUrl, pipeline)) {
+                serialized = MoviesSupport.publishData(generator.movies(RECORDS).iterator(), producer, serializedTopic, pipeline);
+            }
+
+            List<Movie> fixtures = generator.movies(FIXTURES).collect(Collectors.toList());
+            long start = System.nanoTime();
+            SerializedPayloads payloads = MoviesSupport.serializeJson(fixtures, replayedTopic, schemaRegistryUrl);
+            Duration serialization = Duration.ofNanos(System.nanoTime() - start);
+            PublishResult replayed;
+            try (Producer<String, byte[]> producer = MoviesSupport.createReplayProducer(bootstrapServers, pipeline)) {
+                replayed = MoviesSupport.replay(payloads, RECORDS, producer, replayedTopic, pipeline);
+            }
+
+            logger.info(String.format("%n%-18s %12s %10s %10s %10s%n%-18s %12.0f %10.2f %10d %10d%n%-18s %12.0f %10.2f %10d %10d%n" +
+                            "%d payloads (%d bytes) serialized once in %d ms",
+                    "", "rec/s", "MB/s", "p50(us)", "p99(us)",
+                    "serialize on send", serialized.getRecordsPerSecond(), serialized.getMegabytesPerSecond(),
+                    serialized.getAckLatency(50).toNanos() / 1000, serialized.getAckLatency(99).toNanos() / 1000,
+                    "replay", replayed.getRecordsPerSecond(), replayed.getMegabytesPerSecond(),
+                    replayed.getAckLatency(50).toNanos() / 1000, replayed.getAckLatency(99).toNanos() / 1000,
+                    payloads.size(), payloads.getBytes(), serialization.toMillis()));
+
+            assertEquals(RECORDS, serialized.getRecords());
+            assertEquals(RECORDS, replayed.getRecords());
+
+            //The replayed records are read back with the Schema Registry deserializer
+            try (Consumer<String, Movie> consumer = MoviesSupport.createJsonConsumer(bootstrapServers, schemaRegistryUrl)) {
+                consumer.subscribe(Collections.singletonList(replayedTopic));
+                List<Movie> movies = new ArrayList<>();
+                long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+                while (movies.size() < 100 && System.nanoTime() < deadline) {
+                    for (ConsumerRecord<String, Movie> record : consumer.poll(Duration.ofMillis(500))) {
+                        movies.add(record.value());
+                    }
+                }
+                assertThat(movies.size(), greaterThanOrEqualTo(100));
+                assertEquals(fixtures.subList(0, 100), movies.subList(0, 100));
+            }
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+}
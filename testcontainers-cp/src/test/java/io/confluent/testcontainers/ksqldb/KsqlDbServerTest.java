@@ -6,23 +6,23 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import io.confluent.ksql.api.client.*;
 import io.confluent.ksql.rest.entity.KsqlRequest;
+import io.confluent.testcontainers.AbstractKsqlDbServerContainer;
+import io.confluent.testcontainers.ClusterNamespace;
 import io.confluent.testcontainers.CpKsqlDbServerContainer;
+import io.confluent.testcontainers.KafkaContainersCluster;
 import io.confluent.testcontainers.SchemaRegistryContainer;
+import io.confluent.testcontainers.SharedConfluentCluster;
 import io.confluent.testcontainers.movies.Movie;
 import io.confluent.testcontainers.movies.MoviesSupport;
 import io.restassured.http.ContentType;
 import io.restassured.path.json.JsonPath;
 import org.apache.kafka.clients.producer.Producer;
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.testcontainers.containers.KafkaContainer;
-import org.testcontainers.containers.Network;
-import org.testcontainers.containers.output.Slf4jLogConsumer;
-import org.testcontainers.junit.jupiter.Container;
-import org.testcontainers.junit.jupiter.Testcontainers;
-import org.testcontainers.utility.DockerImageName;
 
 import java.net.URI;
 import java.net.http.HttpClient;
@@ -42,33 +42,24 @@ import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.*;
 
 @DisplayName("Testing capabilities and usage of adhoc SchemaRegistryContainer based on Testcontainers")
-@Testcontainers
+@SharedConfluentCluster
 public class KsqlDbServerTest {
 
     private static final Logger logger = LoggerFactory.getLogger(KsqlDbServerTest.class);
     private static final String KSQLDB_REQUEST_CONTENT_TYPE = "application/vnd.ksql.v1+json";
-    private static final Network network = Network.newNetwork();
-
-    @Container
-    public final KafkaContainer kafkaContainer = new KafkaContainer(
-            DockerImageName.parse("confluentinc/cp-kafka")
-                    .withTag("6.2.0-1-ubi8"))
-            .withReuse(false)
-            .withNetwork(network);
-
-    @Container
-    public final SchemaRegistryContainer schemaRegistryContainer = new SchemaRegistryContainer(
-            SchemaRegistryContainer.DEFAULT_IMAGE_NAME.withTag(SchemaRegistryContainer.DEFAULT_IMAGE_TAG))
-            .withReuse(false)
-            .withKafka(kafkaContainer);
-
-    @Container
-    public final CpKsqlDbServerContainer ksqlDbServerContainer = new CpKsqlDbServerContainer(
-            CpKsqlDbServerContainer.DEFAULT_IMAGE_NAME.withTag(CpKsqlDbServerContainer.DEFAULT_IMAGE_TAG))
-            .withReuse(false)
-            .withLogConsumer(new Slf4jLogConsumer(logger))
-            .withKafkaContainer(kafkaContainer)
-            .withSchemaRegistryContainer(schemaRegistryContainer);
+
+    private static KafkaContainer kafkaContainer;
+    private static SchemaRegistryContainer schemaRegistryContainer;
+    private static AbstractKsqlDbServerContainer<?> ksqlDbServerContainer;
+    private static ClusterNamespace namespace;
+
+    @BeforeAll
+    static void setUp(KafkaContainersCluster cluster, ClusterNamespace clusterNamespace) {
+        kafkaContainer = cluster.getKafkaContainer();
+        schemaRegistryContainer = cluster.getSchemaRegistryContainer();
+        ksqlDbServerContainer = cluster.getKsqlDbServerContainer();
+        namespace = clusterNamespace;
+    }
 
     @Test
     public void ksqlDbServerUpTest() {
@@ -118,9 +109,12 @@ public class KsqlDbServerTest {
             ksqlDbServerContainer.start();
             assertTrue(ksqlDbServerContainer.isRunning());
 
+            String moviesTopic = namespace.topic("movies_topic");
+            String moviesStream = namespace.ksqlName("movies_json_stream");
+
             //Produce some data that will have a schema registered
             Producer<String, Movie> jsonProducer = MoviesSupport.createJsonProducer(kafkaContainer.getBootstrapServers(), schemaRegistryContainer.getSchemaRegistryUrl());
-            MoviesSupport.publishData(MoviesSupport.MOVIES, jsonProducer, "movies_topic");
+            MoviesSupport.publishData(MoviesSupport.MOVIES, jsonProducer, moviesTopic);
 
             //Confirm the schema existence
             HttpClient httpClient = HttpClient.newHttpClient();
@@ -129,13 +123,13 @@ public class KsqlDbServerTest {
                     .build();
             HttpResponse<String> subjects = httpClient.send(subjectsRequest, HttpResponse.BodyHandlers.ofString());
             assertEquals(200, subjects.statusCode());
-            assertThat(subjects.body(), containsString("movies_topic-value"));
+            assertThat(subjects.body(), containsString(namespace.valueSubject("movies_topic")));
 
             //No need to specify columns. The topic already contains messages bound a schema... "mind the VALUE_FORMAT='JSON_SR'"
             //Create the stream "mind the offset reset"
-            String createStreamStmt = "CREATE STREAM movies_json_stream " +
+            String createStreamStmt = "CREATE STREAM " + moviesStream + " " +
                     "WITH (" +
-                    "KAFKA_TOPIC='movies_topic', VALUE_FORMAT='JSON_SR'" +
+                    "KAFKA_TOPIC='" + moviesTopic + "', VALUE_FORMAT='JSON_SR'" +
                     ");";
 
             String ksqlDbJsonRequest = createKsqlDbJsonRequest(createStreamStmt, null);
@@ -150,7 +144,7 @@ public class KsqlDbServerTest {
                     .path("[0].commandStatus");
             assertThat(status, allOf(hasEntry("status", "SUCCESS"), hasEntry("message", "Stream created")));
 
-            //CONFIRM STREAM WAS CREATED
+            //CONFIRM STREAM WAS CREATED (the server is shared, other classes may have their own streams)
             Map<String, String> streams = given()
                     .body(createKsqlDbJsonRequest("LIST STREAMS;", null))
                     .contentType(KSQLDB_REQUEST_CONTENT_TYPE)
@@ -159,8 +153,8 @@ public class KsqlDbServerTest {
                     .then()
                     .contentType(ContentType.JSON)
                     .extract()
-                    .path("[0].streams[0]");
-            assertThat(streams, allOf(hasEntry("type", "STREAM"), hasEntry("name", "MOVIES_JSON_STREAM"), hasEntry("valueFormat", "JSON_SR"), hasEntry("topic", "movies_topic")));
+                    .path("[0].streams.find{it['name'] == '" + moviesStream + "'}");
+            assertThat(streams, allOf(hasEntry("type", "STREAM"), hasEntry("name", moviesStream), hasEntry("valueFormat", "JSON_SR"), hasEntry("topic", moviesTopic)));
 
             //Same confirmation as above but using ksqldb client
             ClientOptions clientOptions = ClientOptions.create()
@@ -168,15 +162,14 @@ public class KsqlDbServerTest {
                     .setPort(ksqlDbServerContainer.getMappedPort(CpKsqlDbServerContainer.DEFAULT_PORT));
             Client client = Client.create(clientOptions);
             List<StreamInfo> streamInfos = client.listStreams().get();
-            assertThat(streamInfos, not(empty()));
-            assertThat(streamInfos.get(0), allOf(
-                    hasProperty("name", is("MOVIES_JSON_STREAM")),
+            assertThat(streamInfos, hasItem(allOf(
+                    hasProperty("name", is(moviesStream)),
                     hasProperty("valueFormat", is("JSON_SR")),
-                    hasProperty("topic", is("movies_topic"))
-            ));
+                    hasProperty("topic", is(moviesTopic))
+            )));
 
             //QUERY THE STREAM
-            List<Row> rows = client.executeQuery("SELECT * FROM MOVIES_JSON_STREAM EMIT CHANGES LIMIT " +
+            List<Row> rows = client.executeQuery("SELECT * FROM " + moviesStream + " EMIT CHANGES LIMIT " +
                             MoviesSupport.MOVIES.size() + ";",
                     Collections.singletonMap("ksql.streams.auto.offset.reset", "earliest")
             ).get(30, TimeUnit.SECONDS);
@@ -0,0 +1,123 @@
+package io.confluent.testcontainers.misc;
+
+import com.github.dockerjava.api.command.InspectContainerResponse;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.confluent.testcontainers.AbstractKsqlDbServerContainer;
+import io.confluent.testcontainers.HttpProbeWaitStrategy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.ContainerLaunchException;
+import org.testcontainers.containers.wait.strategy.WaitStrategyTarget;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Readiness of an HTTP service polled with adaptive backoff, without docker")
+public class HttpProbeWaitStrategyTest {
+
+    private HttpServer server;
+    private final AtomicInteger healthchecks = new AtomicInteger();
+    private volatile int readyAfterHealthchecks;
+    private volatile int replayedAfterHealthchecks;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/healthcheck", exchange -> {
+            int count = healthchecks.incrementAndGet();
+            String body = String.format("{\"isHealthy\":%s,\"details\":{\"commandRunner\":{\"isHealthy\":%s}}}",
+                    count > readyAfterHealthchecks, count > replayedAfterHealthchecks);
+            respond(exchange, count > readyAfterHealthchecks ? 200 : 503, body);
+        });
+        server.createContext("/info", exchange -> respond(exchange, 200, "{\"KsqlServerInfo\":{\"serverStatus\":\"RUNNING\"}}"));
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void readyOnceAllProbesPass() {
+        readyAfterHealthchecks = 5;
+        HttpProbeWaitStrategy strategy = HttpProbeWaitStrategy.forKsqlDb()
+                .withStartupTimeout(Duration.ofSeconds(10));
+        assertTrue(strategy.getReadinessTime().isEmpty());
+
+        strategy.waitUntilReady(target());
+
+        assertTrue(strategy.getReadinessTime().isPresent());
+        assertEquals(readyAfterHealthchecks + 1, strategy.getAttempts());
+        //Connections are accepted from the first attempt, so the backoff grows: 5 + 10 + 20 + 40 + 80 ms
+        assertTrue(strategy.getReadinessTime().get().compareTo(Duration.ofMillis(155)) >= 0);
+    }
+
+    @Test
+    public void commandTopicReplayedIsRequired() {
+        replayedAfterHealthchecks = 3;
+        HttpProbeWaitStrategy strategy = HttpProbeWaitStrategy.forKsqlDb()
+                .withCommandTopicReplayed()
+                .withStartupTimeout(Duration.ofSeconds(10));
+
+        strategy.waitUntilReady(target());
+
+        //A single /healthcheck call per attempt checks both the health and the command runner
+        assertEquals(replayedAfterHealthchecks + 1, strategy.getAttempts());
+        assertEquals(strategy.getAttempts(), healthchecks.get());
+    }
+
+    @Test
+    public void timesOutWhenNeverReady() {
+        readyAfterHealthchecks = Integer.MAX_VALUE;
+        HttpProbeWaitStrategy strategy = HttpProbeWaitStrategy.forKsqlDb()
+                .withBackoff(Duration.ofMillis(1), Duration.ofMillis(20))
+                .withStartupTimeout(Duration.ofMillis(300));
+
+        assertThrows(ContainerLaunchException.class, () -> strategy.waitUntilReady(target()));
+        assertTrue(strategy.getReadinessTime().isEmpty());
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+
+    private WaitStrategyTarget target() {
+        int port = server.getAddress().getPort();
+        return new WaitStrategyTarget() {
+            @Override
+            public String getHost() {
+                return "localhost";
+            }
+
+            @Override
+            public Integer getMappedPort(int originalPort) {
+                assertEquals(AbstractKsqlDbServerContainer.DEFAULT_PORT, originalPort);
+                return port;
+            }
+
+            @Override
+            public List<Integer> getExposedPorts() {
+                return Collections.singletonList(AbstractKsqlDbServerContainer.DEFAULT_PORT);
+            }
+
+            @Override
+            public InspectContainerResponse getContainerInfo() {
+                return null;
+            }
+        };
+    }
+}
@@ -0,0 +1,48 @@
+package io.confluent.testcontainers.misc;
+
+import io.confluent.testcontainers.ImagePrefetcher;
+import io.confluent.testcontainers.LifecycleTimings;
+import io.confluent.testcontainers.SchemaRegistryContainer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.endsWith;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Background prefetch of the Confluent images")
+public class ImagePrefetcherTest {
+
+    @Test
+    public void defaultImagesArePrefetchedOnce() {
+        try {
+            ImagePrefetcher.prefetchDefaults();
+            for (DockerImageName image : ImagePrefetcher.defaultImages()) {
+                Future<String> prefetched = ImagePrefetcher.prefetch(image);
+                //Containers of the same image share the prefetch
+                assertSame(prefetched, ImagePrefetcher.prefetch(image));
+                //The registry may be replaced by a mirror (image name substitution)
+                assertThat(prefetched.get(10, TimeUnit.MINUTES), endsWith(image.getRepository() + ":" + image.getVersionPart()));
+            }
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    public void containerStartBlocksOnItsOwnImageOnly() {
+        DockerImageName image = SchemaRegistryContainer.DEFAULT_IMAGE_NAME.withTag(SchemaRegistryContainer.DEFAULT_IMAGE_TAG);
+        try (SchemaRegistryContainer schemaRegistryContainer = new SchemaRegistryContainer(image)) {
+            //The image of the container is the prefetched one, resolving it does not wait for the other images
+            String resolved = schemaRegistryContainer.getDockerImageName();
+            assertEquals(ImagePrefetcher.prefetch(image).get(), resolved);
+            assertTrue(schemaRegistryContainer.getLifecycleTimings().getPhases().containsKey(LifecycleTimings.Phase.IMAGE));
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+}
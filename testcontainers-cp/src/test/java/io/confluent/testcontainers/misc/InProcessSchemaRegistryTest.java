@@ -0,0 +1,190 @@
+package io.confluent.testcontainers.misc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.confluent.kafka.serializers.AbstractKafkaSchemaSerDeConfig;
+import io.confluent.kafka.serializers.json.KafkaJsonSchemaDeserializer;
+import io.confluent.kafka.serializers.json.KafkaJsonSchemaDeserializerConfig;
+import io.confluent.kafka.serializers.json.KafkaJsonSchemaSerializer;
+import io.confluent.testcontainers.InProcessSchemaRegistry;
+import io.confluent.testcontainers.movies.Movie;
+import io.confluent.testcontainers.movies.MoviesSupport;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("In-process Schema Registry, without docker")
+public class InProcessSchemaRegistryTest {
+
+    private static final String JSON_SCHEMA = "{\"type\":\"object\",\"properties\":{\"field1\":{\"type\":\"string\"}}}";
+    private static final String JSON_SCHEMA_V2 = "{\"type\":\"object\",\"properties\":{\"field1\":{\"type\":\"string\"},\"field2\":{\"type\":\"string\"}}}";
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final HttpClient httpClient = HttpClient.newHttpClient();
+    private static InProcessSchemaRegistry schemaRegistry;
+
+    @BeforeAll
+    static void setUp() {
+        long start = System.nanoTime();
+        schemaRegistry = new InProcessSchemaRegistry();
+        schemaRegistry.start();
+        assertThat(Duration.ofNanos(System.nanoTime() - start), lessThan(Duration.ofSeconds(2)));
+    }
+
+    @AfterAll
+    static void tearDown() {
+        schemaRegistry.stop();
+    }
+
+    @Test
+    public void registerAndLookUpSchemas() {
+        try {
+            int id = register("rest-a", JSON_SCHEMA);
+            assertEquals(id, register("rest-a", JSON_SCHEMA), "registering again returns the same id");
+            assertEquals(id, register("rest-b", JSON_SCHEMA), "the same schema has the same id in every subject");
+            int v2 = register("rest-a", JSON_SCHEMA_V2);
+            assertNotEquals(id, v2);
+
+            assertThat(get("/subjects").body(), allOf(containsString("\"rest-a\""), containsString("\"rest-b\"")));
+            assertEquals("[1,2]", get("/subjects/rest-a/versions").body());
+
+            JsonNode latest = json(get("/subjects/rest-a/versions/latest"));
+            assertEquals(2, latest.get("version").asInt());
+            assertEquals(v2, latest.get("id").asInt());
+            assertEquals("JSON", latest.get("schemaType").asText());
+            assertEquals(JSON_SCHEMA, get("/subjects/rest-a/versions/1/schema").body());
+
+            JsonNode byId = json(get("/schemas/ids/" + id));
+            assertEquals(JSON_SCHEMA, byId.get("schema").asText());
+            assertEquals("JSON", byId.get("schemaType").asText());
+
+            JsonNode lookUp = json(post("/subjects/rest-b", JSON_SCHEMA));
+            assertEquals(1, lookUp.get("version").asInt());
+            assertEquals(id, lookUp.get("id").asInt());
+
+            assertError(get("/subjects/unknown/versions"), 404, 40401);
+            assertError(get("/subjects/rest-a/versions/3"), 404, 40402);
+            assertError(post("/subjects/rest-b", JSON_SCHEMA_V2), 404, 40403);
+            assertError(get("/schemas/ids/9999"), 404, 40403);
+            assertError(get("/subjects/rest-a/versions/zero"), 422, 42202);
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    public void subjectsAreSoftThenHardDeleted() {
+        try {
+            register("deleted", JSON_SCHEMA);
+            assertError(delete("/subjects/deleted?permanent=true"), 404, 40405);
+            assertEquals("[1]", delete("/subjects/deleted").body());
+            assertError(delete("/subjects/deleted"), 404, 40404);
+            assertThat(get("/subjects").body(), not(containsString("\"deleted\"")));
+            assertThat(get("/subjects?deleted=true").body(), containsString("\"deleted\""));
+
+            assertEquals("[1]", delete("/subjects/deleted?permanent=true").body());
+            assertThat(get("/subjects?deleted=true").body(), not(containsString("\"deleted\"")));
+            assertError(delete("/subjects/deleted"), 404, 40401);
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    public void concurrentRegistrationsGetOneIdAndVersionPerSchema() {
+        int threads = 16;
+        int schemas = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<Integer>>> futures = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                futures.add(executor.submit(() -> {
+                    List<Integer> ids = new ArrayList<>();
+                    for (int i = 0; i < schemas; i++) {
+                        ids.add(register("concurrent", "{\"type\":\"object\",\"title\":\"v" + i + "\"}"));
+                    }
+                    return ids;
+                }));
+            }
+            List<Integer> first = futures.get(0).get();
+            for (Future<List<Integer>> future : futures) {
+                assertEquals(first, future.get());
+            }
+            assertEquals(schemas, first.stream().distinct().count());
+            assertEquals(schemas, json(get("/subjects/concurrent/versions")).size());
+        } catch (Exception e) {
+            fail(e);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void jsonSchemaSerializerRoundTrip() {
+        Map<String, Object> config = Map.of(AbstractKafkaSchemaSerDeConfig.SCHEMA_REGISTRY_URL_CONFIG, schemaRegistry.getSchemaRegistryUrl(),
+                KafkaJsonSchemaDeserializerConfig.JSON_VALUE_TYPE, Movie.class.getName());
+        try (KafkaJsonSchemaSerializer<Movie> serializer = new KafkaJsonSchemaSerializer<>();
+             KafkaJsonSchemaDeserializer<Movie> deserializer = new KafkaJsonSchemaDeserializer<>()) {
+            serializer.configure(config, false);
+            deserializer.configure(config, false);
+            for (Movie movie : MoviesSupport.MOVIES) {
+                assertEquals(movie, deserializer.deserialize("movies", serializer.serialize("movies", movie)));
+            }
+            assertEquals("[1]", get("/subjects/movies-value/versions").body());
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    private static int register(String subject, String schema) throws Exception {
+        HttpResponse<String> response = post("/subjects/" + subject + "/versions", schema);
+        assertEquals(200, response.statusCode(), response.body());
+        return json(response).get("id").asInt();
+    }
+
+    private static HttpResponse<String> get(String path) throws Exception {
+        return send(HttpRequest.newBuilder(URI.create(schemaRegistry.getSchemaRegistryUrl() + path)).build());
+    }
+
+    private static HttpResponse<String> post(String path, String schema) throws Exception {
+        String body = objectMapper.createObjectNode().put("schemaType", "JSON").put("schema", schema).toString();
+        return send(HttpRequest.newBuilder(URI.create(schemaRegistry.getSchemaRegistryUrl() + path))
+                .header("Content-Type", InProcessSchemaRegistry.CONTENT_TYPE)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build());
+    }
+
+    private static HttpResponse<String> delete(String path) throws Exception {
+        return send(HttpRequest.newBuilder(URI.create(schemaRegistry.getSchemaRegistryUrl() + path)).DELETE().build());
+    }
+
+    private static HttpResponse<String> send(HttpRequest request) throws Exception {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static JsonNode json(HttpResponse<String> response) throws Exception {
+        return objectMapper.readTree(response.body());
+    }
+
+    private static void assertError(HttpResponse<String> response, int status, int errorCode) throws Exception {
+        assertEquals(status, response.statusCode(), response.body());
+        assertEquals(errorCode, json(response).get("error_code").asInt(), response.body());
+    }
+}
@@ -0,0 +1,115 @@
+package io.confluent.testcontainers.misc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.confluent.testcontainers.movies.Movie;
+import io.confluent.testcontainers.movies.MovieDataGenerator;
+import io.confluent.testcontainers.movies.MovieProducer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.IntSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Seeded generator of movies and producers, without docker")
+public class MovieDataGeneratorTest {
+
+    @Test
+    public void sameSeedSameMovies() {
+        MovieDataGenerator generator = new MovieDataGenerator(42);
+        List<Movie> movies = generator.movies(1_000).collect(Collectors.toList());
+        assertEquals(movies, generator.movies(1_000).collect(Collectors.toList()));
+        assertEquals(movies, new MovieDataGenerator(42).movies(1_000).collect(Collectors.toList()));
+        assertNotEquals(movies, new MovieDataGenerator(43).movies(1_000).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void moviesFollowTheSettings() {
+        List<Movie> movies = new MovieDataGenerator(7)
+                .withCardinality(100)
+                .withReleaseYears(1990, 1999)
+                .withTitleLength(MovieDataGenerator.TitleLength.NORMAL, 10, 30)
+                .movies(10_000)
+                .collect(Collectors.toList());
+
+        assertEquals(100, movies.stream().map(Movie::getMovieId).distinct().count());
+        IntSummaryStatistics years = movies.stream().mapToInt(Movie::getReleaseYear).summaryStatistics();
+        assertEquals(1990, years.getMin());
+        assertEquals(1999, years.getMax());
+        IntSummaryStatistics titles = movies.stream().mapToInt(movie -> movie.getTitle().length()).summaryStatistics();
+        assertThat(titles.getMin(), greaterThanOrEqualTo(10));
+        assertThat(titles.getMax(), lessThanOrEqualTo(30));
+        assertThat(titles.getAverage(), closeTo(20, 1));
+        assertThat(movies, everyItem(hasProperty("title", not(endsWith(" ")))));
+    }
+
+    @Test
+    public void producerIdsFollowZipf() {
+        int movies = 200_000;
+        Map<Integer, Long> counts = new MovieDataGenerator(1)
+                .withProducers(1_000, 1.0)
+                .movies(movies)
+                .collect(Collectors.groupingBy(Movie::getProducerId, Collectors.counting()));
+
+        //With an exponent of 1 the frequency of the rank k is proportional to 1/k
+        assertThat(counts.get(1) / (double) counts.get(2), closeTo(2, 0.2));
+        assertThat(counts.get(1) / (double) counts.get(10), closeTo(10, 1.5));
+        assertThat(counts.keySet(), everyItem(allOf(greaterThanOrEqualTo(1), lessThanOrEqualTo(1_000))));
+
+        Map<Integer, Long> uniform = new MovieDataGenerator(1)
+                .withProducers(10, 0)
+                .movies(movies)
+                .collect(Collectors.groupingBy(Movie::getProducerId, Collectors.counting()));
+        assertThat(uniform.values(), everyItem(both(greaterThan(movies / 10 * 9 / 10L)).and(lessThan(movies / 10 * 11 / 10L))));
+    }
+
+    @Test
+    public void memoryDoesNotGrowWithTheRecords() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long before = runtime.totalMemory() - runtime.freeMemory();
+        long sum = new MovieDataGenerator(3).movies(5_000_000).mapToLong(Movie::getReleaseYear).sum();
+        System.gc();
+        long after = runtime.totalMemory() - runtime.freeMemory();
+        assertThat(sum, greaterThan(0L));
+        assertThat(after - before, lessThan(64L * 1024 * 1024));
+    }
+
+    @Test
+    public void ndjsonFixtures(@TempDir Path dir) throws Exception {
+        MovieDataGenerator generator = new MovieDataGenerator(5).withProducers(20, 1.2);
+        Path moviesFile = dir.resolve("movies.data");
+        Path producersFile = dir.resolve("producers.data");
+        assertEquals(500, MovieDataGenerator.writeNdjson(generator.movies(500), moviesFile));
+        assertEquals(20, MovieDataGenerator.writeNdjson(generator.producers(), producersFile));
+
+        //Same format as the fixtures read by MoviesSupport
+        ObjectMapper mapper = new ObjectMapper();
+        List<Movie> movies = read(moviesFile, line -> readValue(mapper, line, Movie.class));
+        assertEquals(generator.movies(500).collect(Collectors.toList()), movies);
+        assertThat(Files.readAllLines(moviesFile).get(0), containsString("\"producer_id\""));
+        List<MovieProducer> producers = read(producersFile, line -> readValue(mapper, line, MovieProducer.class));
+        assertEquals(generator.producers().collect(Collectors.toList()), producers);
+    }
+
+    private static <T> List<T> read(Path file, Function<String, T> parser) throws Exception {
+        return Files.lines(file).map(parser).collect(Collectors.toList());
+    }
+
+    private static <T> T readValue(ObjectMapper mapper, String line, Class<T> clazz) {
+        try {
+            return mapper.readValue(line, clazz);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package io.confluent.testcontainers.misc;
+
+import io.confluent.testcontainers.PublishPipeline;
+import io.confluent.testcontainers.PublishResult;
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Callback based publish pipeline with a bounded in flight window, without docker")
+public class PublishPipelineTest {
+
+    private static final String TOPIC = "pipeline";
+
+    @Test
+    public void producerSettingsAreApplied() {
+        Properties props = new PublishPipeline()
+                .withLingerMs(20)
+                .withBatchSize(256 * 1024)
+                .withCompressionType("lz4")
+                .applyTo(new Properties());
+        assertEquals(20, props.get(ProducerConfig.LINGER_MS_CONFIG));
+        assertEquals(256 * 1024, props.get(ProducerConfig.BATCH_SIZE_CONFIG));
+        assertEquals("lz4", props.get(ProducerConfig.COMPRESSION_TYPE_CONFIG));
+        assertThat(new PublishPipeline().applyTo(new Properties()).keySet(), empty());
+    }
+
+    @Test
+    public void inFlightRecordsAreBounded() {
+        int maxInFlight = 16;
+        MockProducer<String, String> producer = new MockProducer<>(false, new StringSerializer(), new StringSerializer());
+        ScheduledExecutorService broker = Executors.newSingleThreadScheduledExecutor();
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger maxPending = new AtomicInteger();
+        //Acks the pending records every millisecond, the pipeline must never exceed the window
+        broker.scheduleAtFixedRate(() -> {
+            maxPending.accumulateAndGet(producer.history().size() - completed.get(), Math::max);
+            while (producer.completeNext()) {
+                completed.incrementAndGet();
+            }
+        }, 1, 1, TimeUnit.MILLISECONDS);
+        try {
+            PublishResult result = new PublishPipeline()
+                    .withMaxInFlight(maxInFlight)
+                    .publish(values(10_000), producer, TOPIC, value -> value, metadata -> {
+                    });
+            assertEquals(10_000, result.getRecords());
+            assertThat(maxPending.get(), lessThanOrEqualTo(maxInFlight));
+        } finally {
+            broker.shutdownNow();
+        }
+    }
+
+    @Test
+    public void firstFailureStopsThePublication() {
+        MockProducer<String, String> producer = new MockProducer<>(false, new StringSerializer(), new StringSerializer());
+        CompletableFuture.runAsync(() -> {
+            while (producer.history().isEmpty()) {
+                Thread.onSpinWait();
+            }
+            producer.errorNext(new KafkaException("broker down"));
+            while (producer.completeNext()) {
+            }
+        });
+        KafkaException failure = assertThrows(KafkaException.class, () -> new PublishPipeline()
+                .withMaxInFlight(1)
+                .publish(values(1_000), producer, TOPIC, value -> null, metadata -> {
+                }));
+        assertEquals("broker down", failure.getCause().getMessage());
+        assertThat(producer.history().size(), lessThan(1_000));
+    }
+
+    @Test
+    public void millionsOfRecords() {
+        int records = 2_000_000;
+        //Keeps no history so only the window is held in memory
+        MockProducer<String, String> producer = new MockProducer<>(true, new StringSerializer(), new StringSerializer()) {
+            @Override
+            public synchronized Future<RecordMetadata> send(ProducerRecord<String, String> record, Callback callback) {
+                try {
+                    return super.send(record, callback);
+                } finally {
+                    clear();
+                }
+            }
+        };
+        PublishResult result = new PublishPipeline().publish(values(records), producer, TOPIC, value -> null, metadata -> {
+        });
+        assertEquals(records, result.getRecords());
+        assertThat(result.getAckLatency(99), lessThanOrEqualTo(result.getMaxAckLatency()));
+    }
+
+    private static Iterator<String> values(int count) {
+        return IntStream.range(0, count).mapToObj(i -> "value-" + i).iterator();
+    }
+}
@@ -0,0 +1,124 @@
+package io.confluent.testcontainers.misc;
+
+import io.confluent.testcontainers.movies.support.MetricsConsumerInterceptor;
+import io.confluent.testcontainers.movies.support.MetricsProducerInterceptor;
+import io.confluent.testcontainers.movies.support.RecordMetrics;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.apache.kafka.common.record.RecordBatch;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Metrics interceptors and their snapshots, without docker")
+public class RecordMetricsTest {
+
+    @Test
+    public void producerCountsAcknowledgedRecords() {
+        String topic = "metrics-producer";
+        MetricsProducerInterceptor<String, String> interceptor = new MetricsProducerInterceptor<>();
+        interceptor.configure(Collections.singletonMap(RecordMetrics.LOG_SAMPLE_RATE_CONFIG, "2"));
+        long sentAt = System.currentTimeMillis() - 50;
+        for (int i = 0; i < 10; i++) {
+            ProducerRecord<String, String> record = new ProducerRecord<>(topic, "key", "value");
+            assertSame(record, interceptor.onSend(record));
+            interceptor.onAcknowledgement(new RecordMetadata(new TopicPartition(topic, 0), i, 0, sentAt, null, 3, 5), null);
+        }
+        interceptor.onAcknowledgement(new RecordMetadata(new TopicPartition(topic, -1), -1, 0, RecordBatch.NO_TIMESTAMP, null, -1, -1),
+                new TimeoutException("expired"));
+
+        RecordMetrics.Snapshot snapshot = RecordMetrics.producer().snapshot(topic).orElseThrow();
+        assertEquals(10, snapshot.getRecords());
+        assertEquals(10 * (3 + 5), snapshot.getBytes());
+        assertEquals(1, snapshot.getErrors());
+        assertThat(snapshot.getLatency(50), greaterThanOrEqualTo(Duration.ofMillis(50)));
+        assertEquals(10, snapshot.getLatencyHistogram().getTotalCount());
+
+        RecordMetrics.producer().reset(topic);
+        assertTrue(RecordMetrics.producer().snapshot(topic).isEmpty());
+    }
+
+    @Test
+    public void consumerCountsPolledRecordsPerTopic() {
+        MetricsConsumerInterceptor<String, String> interceptor = new MetricsConsumerInterceptor<>();
+        interceptor.configure(Collections.emptyMap());
+        long createdAt = System.currentTimeMillis() - 100;
+        Map<TopicPartition, List<ConsumerRecord<String, String>>> polled = new HashMap<>();
+        for (int partition = 0; partition < 3; partition++) {
+            polled.put(new TopicPartition("metrics-consumer-a", partition), records("metrics-consumer-a", partition, 4, createdAt));
+        }
+        polled.put(new TopicPartition("metrics-consumer-b", 0), records("metrics-consumer-b", 0, 7, createdAt));
+        ConsumerRecords<String, String> records = new ConsumerRecords<>(polled);
+        assertSame(records, interceptor.onConsume(records));
+
+        Map<String, RecordMetrics.Snapshot> snapshots = RecordMetrics.consumer().snapshot();
+        assertEquals(12, snapshots.get("metrics-consumer-a").getRecords());
+        assertEquals(12 * (3 + 10), snapshots.get("metrics-consumer-a").getBytes());
+        assertEquals(7, snapshots.get("metrics-consumer-b").getRecords());
+        assertThat(snapshots.get("metrics-consumer-b").getLatency(99), greaterThanOrEqualTo(Duration.ofMillis(100)));
+        assertEquals(0, snapshots.get("metrics-consumer-b").getErrors());
+        RecordMetrics.consumer().reset("metrics-consumer-a");
+        RecordMetrics.consumer().reset("metrics-consumer-b");
+    }
+
+    @Test
+    public void concurrentAcknowledgementsAreAllCounted() throws Exception {
+        String topic = "metrics-concurrent";
+        int threads = 8;
+        int acksPerThread = 100_000;
+        MetricsProducerInterceptor<String, String> interceptor = new MetricsProducerInterceptor<>();
+        interceptor.configure(Collections.emptyMap());
+        RecordMetadata metadata = new RecordMetadata(new TopicPartition(topic, 0), 0, 0, System.currentTimeMillis(), null, 0, 100);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int ack = 0; ack < acksPerThread; ack++) {
+                        interceptor.onAcknowledgement(metadata, null);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        RecordMetrics.Snapshot snapshot = RecordMetrics.producer().snapshot(topic).orElseThrow();
+        assertEquals((long) threads * acksPerThread, snapshot.getRecords());
+        assertEquals((long) threads * acksPerThread * 100, snapshot.getBytes());
+        assertEquals((long) threads * acksPerThread, snapshot.getLatencyHistogram().getTotalCount());
+        RecordMetrics.producer().reset(topic);
+    }
+
+    @SuppressWarnings("deprecation")
+    private static List<ConsumerRecord<String, String>> records(String topic, int partition, int count, long timestamp) {
+        List<ConsumerRecord<String, String>> records = new ArrayList<>();
+        for (int offset = 0; offset < count; offset++) {
+            records.add(new ConsumerRecord<>(topic, partition, offset, timestamp, TimestampType.CREATE_TIME,
+                    0L, 3, 10, "key", "0123456789"));
+        }
+        return records;
+    }
+}
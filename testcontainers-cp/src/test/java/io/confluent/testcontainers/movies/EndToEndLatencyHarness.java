@@ -0,0 +1,220 @@
+package io.confluent.testcontainers.movies;
+
+import io.confluent.testcontainers.PublishPipeline;
+import org.HdrHistogram.Histogram;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Measures the time movies take from the producer to the consumers of a group: each record carries its send time in
+ * nanoseconds in the {@value #SEND_TIME_HEADER} header, and its scheduled send time in {@value #INTENDED_TIME_HEADER}.
+ * <p>
+ * The producer sends at a fixed rate (open loop). When it falls behind, ie. blocked by a full buffer, the records
+ * late on their schedule are not spread over the stall: the corrected histogram measures from the scheduled send
+ * time, so the stall is counted in the latency of every record that should have been sent during it (coordinated
+ * omission correction). The raw histogram measures from the actual send time.
+ * <p>
+ * The times are {@link System#nanoTime()} values, the producer and the consumers must run in the same JVM.
+ */
+public class EndToEndLatencyHarness {
+
+    public static final String SEND_TIME_HEADER = "send-time-ns";
+    public static final String INTENDED_TIME_HEADER = "intended-send-time-ns";
+
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+    private final String bootstrapServers;
+    private final String schemaRegistryUrl;
+    private int ratePerSecond = 1_000;
+    private int consumers = 1;
+    private Duration timeout = Duration.ofMinutes(5);
+
+    public EndToEndLatencyHarness(String bootstrapServers, String schemaRegistryUrl) {
+        this.bootstrapServers = bootstrapServers;
+        this.schemaRegistryUrl = schemaRegistryUrl;
+    }
+
+    /**
+     * @param ratePerSecond records sent per second, 1000 by default
+     * @return this harness
+     */
+    public EndToEndLatencyHarness withRate(int ratePerSecond) {
+        if (ratePerSecond < 1) {
+            throw new IllegalArgumentException("The rate must be positive, got " + ratePerSecond);
+        }
+        this.ratePerSecond = ratePerSecond;
+        return this;
+    }
+
+    /**
+     * @param consumers consumers of the group, the topic gets one partition per consumer
+     * @return this harness
+     */
+    public EndToEndLatencyHarness withConsumers(int consumers) {
+        if (consumers < 1) {
+            throw new IllegalArgumentException("At least one consumer is needed, got " + consumers);
+        }
+        this.consumers = consumers;
+        return this;
+    }
+
+    /**
+     * @param timeout max time for all the records to be consumed
+     * @return this harness
+     */
+    public EndToEndLatencyHarness withTimeout(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
+    /**
+     * Creates the topic, starts the consumers and sends the movies at the configured rate until all of them are
+     * consumed
+     *
+     * @param movies the movies, ie. from {@link MovieDataGenerator}
+     * @param count  number of movies to send
+     * @param topic  a new topic
+     * @return the latency distributions
+     */
+    public EndToEndLatencyResult run(Iterator<Movie> movies, long count, String topic) throws InterruptedException {
+        MoviesSupport.createTopic(bootstrapServers, topic, consumers);
+        String groupId = "latency-" + UUID.randomUUID();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+
+        AtomicLong received = new AtomicLong();
+        AtomicBoolean done = new AtomicBoolean();
+        CountDownLatch assigned = new CountDownLatch(consumers);
+        ExecutorService executor = Executors.newFixedThreadPool(consumers);
+        List<Future<Histogram[]>> consumerHistograms = new ArrayList<>();
+        try {
+            for (int i = 0; i < consumers; i++) {
+                consumerHistograms.add(executor.submit(() -> consume(topic, groupId, assigned, received, done)));
+            }
+            if (!assigned.await(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new KafkaException("The consumers of " + groupId + " got no partition within " + timeout);
+            }
+
+            long start = produce(movies, count, topic, intervalNanos);
+            long deadline = System.nanoTime() + timeout.toNanos();
+            while (received.get() < count && System.nanoTime() < deadline) {
+                TimeUnit.MILLISECONDS.sleep(50);
+            }
+            long elapsed = System.nanoTime() - start;
+            done.set(true);
+
+            Histogram raw = new Histogram(MAX_LATENCY_NANOS, 3);
+            Histogram corrected = new Histogram(MAX_LATENCY_NANOS, 3);
+            for (Future<Histogram[]> histograms : consumerHistograms) {
+                raw.add(histograms.get()[0]);
+                corrected.add(histograms.get()[1]);
+            }
+            if (raw.getTotalCount() < count) {
+                throw new KafkaException(String.format("Only %d of %d records consumed within %s", raw.getTotalCount(), count, timeout));
+            }
+            return new EndToEndLatencyResult(raw, corrected, ratePerSecond, consumers, Duration.ofNanos(elapsed));
+        } catch (ExecutionException e) {
+            throw new KafkaException("Consumer of " + topic + " failed", e.getCause());
+        } finally {
+            done.set(true);
+            executor.shutdown();
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        }
+    }
+
+    private long produce(Iterator<Movie> movies, long count, String topic, long intervalNanos) {
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        try (Producer<String, Movie> producer = MoviesSupport.createJsonProducer(bootstrapServers, schemaRegistryUrl, new PublishPipeline().withLingerMs(0))) {
+            long start = System.nanoTime();
+            for (long i = 0; i < count && movies.hasNext() && failure.get() == null; i++) {
+                long intended = start + i * intervalNanos;
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                Movie movie = movies.next();
+                ProducerRecord<String, Movie> record = new ProducerRecord<>(topic, String.valueOf(movie.getMovieId()), movie);
+                record.headers().add(INTENDED_TIME_HEADER, longBytes(intended));
+                record.headers().add(SEND_TIME_HEADER, longBytes(System.nanoTime()));
+                producer.send(record, (metadata, exception) -> {
+                    if (exception != null) {
+                        failure.compareAndSet(null, exception);
+                    }
+                });
+            }
+            producer.flush();
+            if (failure.get() != null) {
+                throw new KafkaException("Failed to produce to " + topic, failure.get());
+            }
+            return start;
+        }
+    }
+
+    /**
+     * @return the raw and corrected histograms of the records read by this consumer, not shared with the other
+     * consumers so recording needs no synchronization
+     */
+    private Histogram[] consume(String topic, String groupId, CountDownLatch assigned, AtomicLong received, AtomicBoolean done) {
+        Histogram raw = new Histogram(MAX_LATENCY_NANOS, 3);
+        Histogram corrected = new Histogram(MAX_LATENCY_NANOS, 3);
+        try (Consumer<String, Movie> consumer = MoviesSupport.createJsonConsumer(bootstrapServers, schemaRegistryUrl, groupId)) {
+            consumer.subscribe(Collections.singletonList(topic), new ConsumerRebalanceListener() {
+                private boolean counted;
+
+                @Override
+                public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+                }
+
+                @Override
+                public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+                    if (!partitions.isEmpty() && !counted) {
+                        counted = true;
+                        assigned.countDown();
+                    }
+                }
+            });
+            while (!done.get()) {
+                for (ConsumerRecord<String, Movie> record : consumer.poll(Duration.ofMillis(100))) {
+                    long now = System.nanoTime();
+                    raw.recordValue(Math.min(MAX_LATENCY_NANOS, now - headerLong(record, SEND_TIME_HEADER)));
+                    corrected.recordValue(Math.min(MAX_LATENCY_NANOS, now - headerLong(record, INTENDED_TIME_HEADER)));
+                    received.incrementAndGet();
+                }
+            }
+        }
+        return new Histogram[]{raw, corrected};
+    }
+
+    private static byte[] longBytes(long value) {
+        return ByteBuffer.allocate(Long.BYTES).putLong(value).array();
+    }
+
+    private static long headerLong(ConsumerRecord<?, ?> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        return ByteBuffer.wrap(header.value()).getLong();
+    }
+}
@@ -0,0 +1,89 @@
+package io.confluent.testcontainers.movies;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * End to end latency distributions of an {@link EndToEndLatencyHarness} run, recorded in nanoseconds
+ */
+public class EndToEndLatencyResult {
+
+    private final Histogram raw;
+    private final Histogram corrected;
+    private final int ratePerSecond;
+    private final int consumers;
+    private final Duration elapsed;
+
+    EndToEndLatencyResult(Histogram raw, Histogram corrected, int ratePerSecond, int consumers, Duration elapsed) {
+        this.raw = raw;
+        this.corrected = corrected;
+        this.ratePerSecond = ratePerSecond;
+        this.consumers = consumers;
+        this.elapsed = elapsed;
+    }
+
+    public long getRecords() {
+        return raw.getTotalCount();
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     * @return latency from the actual send time
+     */
+    public Duration getRawLatency(double percentile) {
+        return Duration.ofNanos(raw.getValueAtPercentile(percentile));
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     * @return latency from the scheduled send time, corrected for coordinated omission
+     */
+    public Duration getCorrectedLatency(double percentile) {
+        return Duration.ofNanos(corrected.getValueAtPercentile(percentile));
+    }
+
+    public Histogram getRawHistogram() {
+        return raw;
+    }
+
+    public Histogram getCorrectedHistogram() {
+        return corrected;
+    }
+
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * @return the HdrHistogram percentile distribution of the corrected latencies in milliseconds, can be plotted
+     * with the HdrHistogram plotter
+     */
+    public String percentileDistribution() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PrintStream printStream = new PrintStream(out, true, StandardCharsets.UTF_8)) {
+            corrected.outputPercentileDistribution(printStream, 1_000_000.0);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder table = new StringBuilder(String.format("%d records at %d rec/s, %d consumers, in %d ms%n",
+                getRecords(), ratePerSecond, consumers, elapsed.toMillis()));
+        table.append(String.format("%-10s %10s %10s %10s %10s %10s%n", "(ms)", "p50", "p99", "p99.9", "p99.99", "max"));
+        table.append(row("raw", raw));
+        table.append(row("corrected", corrected));
+        return table.toString();
+    }
+
+    private static String row(String name, Histogram histogram) {
+        return String.format("%-10s %10.3f %10.3f %10.3f %10.3f %10.3f%n", name,
+                histogram.getValueAtPercentile(50) / 1e6, histogram.getValueAtPercentile(99) / 1e6,
+                histogram.getValueAtPercentile(99.9) / 1e6, histogram.getValueAtPercentile(99.99) / 1e6,
+                histogram.getMaxValue() / 1e6);
+    }
+}
@@ -0,0 +1,250 @@
+package io.confluent.testcontainers.movies;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.SplittableRandom;
+import java.util.function.LongFunction;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Seeded generator of {@link Movie} and {@link MovieProducer} records for load tests, the same seed and settings
+ * always produce the same records.
+ * <p>
+ * Records are created lazily one by one, the memory used does not depend on the number of records: only the Zipf
+ * distribution of the producers is precomputed (one double per producer).
+ * <ul>
+ *     <li>movie_id cycles over 1..cardinality, so a table keyed by movie_id gets updates once the cardinality is reached</li>
+ *     <li>producer_id follows a Zipf distribution over 1..producers, producer 1 being the most frequent, a skew of 0
+ *     is uniform</li>
+ *     <li>titles are made of words from a fixed vocabulary, with a length in characters drawn from a {@link TitleLength}
+ *     distribution</li>
+ *     <li>release_year is uniform over the year range</li>
+ * </ul>
+ */
+public class MovieDataGenerator {
+
+    /**
+     * Distribution of the title length between the min and max lengths
+     */
+    public enum TitleLength {
+        UNIFORM,
+        //Centered on the middle of the range, the range covers 6 standard deviations
+        NORMAL,
+        //Mostly short titles with a few long ones, exponential from the min length
+        LONG_TAIL
+    }
+
+    private static final String[] WORDS = {
+            "the", "last", "dark", "night", "lethal", "weapon", "die", "hard", "return", "of", "empire", "strikes",
+            "back", "star", "wars", "blade", "runner", "alien", "matrix", "godfather", "pulp", "fiction", "fight",
+            "club", "space", "odyssey", "rising", "kingdom", "shadow", "river", "city", "lost", "highway", "golden",
+            "eye", "mission", "impossible", "silent", "hill", "wild", "heat", "storm", "iron", "giant", "big", "sleep"};
+    private static final String[] FIRST_NAMES = {
+            "Leonardo", "Dennis", "Kathryn", "Steven", "Sofia", "Martin", "Greta", "Ridley", "Ava", "Denis", "Jane",
+            "Christopher", "Agnes", "Akira", "Chloe", "Pedro", "Lynne", "Bong", "Celine", "Hayao"};
+    private static final String[] LAST_NAMES = {
+            "Di Caprio", "Federico", "Bigelow", "Spielberg", "Coppola", "Scorsese", "Gerwig", "Scott", "DuVernay",
+            "Villeneuve", "Campion", "Nolan", "Varda", "Kurosawa", "Zhao", "Almodovar", "Ramsay", "Joon-ho", "Sciamma",
+            "Miyazaki"};
+
+    private static final ObjectWriter ndjsonWriter = new ObjectMapper().writer();
+
+    private final long seed;
+    private int cardinality = Integer.MAX_VALUE;
+    private int producers = 100;
+    private double producerSkew = 1.0;
+    private TitleLength titleLength = TitleLength.UNIFORM;
+    private int minTitleLength = 5;
+    private int maxTitleLength = 40;
+    private int fromYear = 1950;
+    private int toYear = 2021;
+
+    private double[] producerCdf;
+
+    public MovieDataGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * @param cardinality number of distinct movie ids, unbounded by default
+     * @return this generator
+     */
+    public MovieDataGenerator withCardinality(int cardinality) {
+        if (cardinality < 1) {
+            throw new IllegalArgumentException("The cardinality must be positive, got " + cardinality);
+        }
+        this.cardinality = cardinality;
+        return this;
+    }
+
+    /**
+     * @param producers number of producers, the producer ids of the movies are in 1..producers
+     * @param skew      exponent of the Zipf distribution of the producer ids, 0 for uniform, 1 by default
+     * @return this generator
+     */
+    public MovieDataGenerator withProducers(int producers, double skew) {
+        if (producers < 1 || skew < 0) {
+            throw new IllegalArgumentException(String.format("Invalid producers %d or skew %f", producers, skew));
+        }
+        this.producers = producers;
+        this.producerSkew = skew;
+        this.producerCdf = null;
+        return this;
+    }
+
+    /**
+     * @param distribution distribution of the title lengths
+     * @param min          min length in characters
+     * @param max          max length in characters
+     * @return this generator
+     */
+    public MovieDataGenerator withTitleLength(TitleLength distribution, int min, int max) {
+        if (min < 1 || max < min) {
+            throw new IllegalArgumentException(String.format("Invalid title length range %d..%d", min, max));
+        }
+        this.titleLength = distribution;
+        this.minTitleLength = min;
+        this.maxTitleLength = max;
+        return this;
+    }
+
+    /**
+     * @param fromYear first release year, inclusive
+     * @param toYear   last release year, inclusive
+     * @return this generator
+     */
+    public MovieDataGenerator withReleaseYears(int fromYear, int toYear) {
+        if (toYear < fromYear) {
+            throw new IllegalArgumentException(String.format("Invalid release years %d..%d", fromYear, toYear));
+        }
+        this.fromYear = fromYear;
+        this.toYear = toYear;
+        return this;
+    }
+
+    /**
+     * @param count number of movies
+     * @return a lazy stream of movies, each call starts the same sequence again
+     */
+    public Stream<Movie> movies(long count) {
+        double[] cdf = producerCdf();
+        SplittableRandom random = new SplittableRandom(seed);
+        return generate(count, i -> new Movie(
+                (int) (i % cardinality) + 1,
+                title(random),
+                fromYear + random.nextInt(toYear - fromYear + 1),
+                producerId(random, cdf)));
+    }
+
+    /**
+     * @return a lazy stream of the producers referenced by the movies, ids 1..producers
+     */
+    public Stream<MovieProducer> producers() {
+        //Not the random of the movies, so the producers can be generated independently
+        SplittableRandom random = new SplittableRandom(~seed);
+        return generate(producers, i -> new MovieProducer(
+                (int) i + 1,
+                FIRST_NAMES[random.nextInt(FIRST_NAMES.length)],
+                LAST_NAMES[random.nextInt(LAST_NAMES.length)]));
+    }
+
+    /**
+     * Writes the records as newline delimited JSON, the format of the movies/*.data fixtures
+     *
+     * @param records the records
+     * @param file    the file, replaced if it exists
+     * @return number of records written
+     */
+    public static long writeNdjson(Stream<?> records, Path file) {
+        long written = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            Iterator<?> iterator = records.iterator();
+            while (iterator.hasNext()) {
+                writer.write(ndjsonWriter.writeValueAsString(iterator.next()));
+                writer.newLine();
+                written++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return written;
+    }
+
+    private static <T> Stream<T> generate(long count, LongFunction<T> record) {
+        //Sequential, the records depend on the order the random is consumed
+        return LongStream.range(0, count).sequential().mapToObj(record);
+    }
+
+    private String title(SplittableRandom random) {
+        int length = titleLength(random);
+        StringBuilder title = new StringBuilder(length + 16);
+        while (title.length() < length) {
+            if (title.length() > 0) {
+                title.append(' ');
+            }
+            String word = WORDS[random.nextInt(WORDS.length)];
+            title.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+        }
+        title.setLength(length);
+        if (title.charAt(length - 1) == ' ') {
+            //Cut right after a word, keeps the first letter of the next one
+            title.setCharAt(length - 1, Character.toUpperCase(WORDS[random.nextInt(WORDS.length)].charAt(0)));
+        }
+        return title.toString();
+    }
+
+    private int titleLength(SplittableRandom random) {
+        int range = maxTitleLength - minTitleLength;
+        double length;
+        switch (titleLength) {
+            case NORMAL:
+                length = minTitleLength + range / 2.0 + gaussian(random) * range / 6.0;
+                break;
+            case LONG_TAIL:
+                //Mean of a fifth of the range
+                length = minTitleLength - Math.log(1 - random.nextDouble()) * range / 5.0;
+                break;
+            default:
+                length = minTitleLength + random.nextInt(range + 1);
+        }
+        return (int) Math.max(minTitleLength, Math.min(maxTitleLength, Math.round(length)));
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        //Box-Muller, SplittableRandom has no nextGaussian
+        return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+
+    private int producerId(SplittableRandom random, double[] cdf) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        return (index >= 0 ? index : -index - 1) + 1;
+    }
+
+    private double[] producerCdf() {
+        if (producerCdf == null) {
+            double[] cdf = new double[producers];
+            double sum = 0;
+            for (int rank = 1; rank <= producers; rank++) {
+                sum += 1 / Math.pow(rank, producerSkew);
+                cdf[rank - 1] = sum;
+            }
+            for (int i = 0; i < producers; i++) {
+                cdf[i] /= sum;
+            }
+            //Rounding could leave the last value below a random close to 1
+            cdf[producers - 1] = 1.0;
+            producerCdf = cdf;
+        }
+        return producerCdf;
+    }
+}
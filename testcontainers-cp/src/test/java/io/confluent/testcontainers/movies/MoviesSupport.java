@@ -6,8 +6,11 @@ import io.confluent.kafka.serializers.AbstractKafkaSchemaSerDeConfig;
 import io.confluent.kafka.serializers.json.KafkaJsonSchemaDeserializer;
 import io.confluent.kafka.serializers.json.KafkaJsonSchemaDeserializerConfig;
 import io.confluent.kafka.serializers.json.KafkaJsonSchemaSerializer;
-import io.confluent.testcontainers.movies.support.LoggingConsumerInterceptor;
-import io.confluent.testcontainers.movies.support.LoggingProducerInterceptor;
+import io.confluent.testcontainers.PublishPipeline;
+import io.confluent.testcontainers.PublishResult;
+import io.confluent.testcontainers.movies.support.MetricsConsumerInterceptor;
+import io.confluent.testcontainers.movies.support.MetricsProducerInterceptor;
+import io.confluent.testcontainers.movies.support.RecordMetrics;
 import org.apache.kafka.clients.CommonClientConfigs;
 import org.apache.kafka.clients.admin.AdminClient;
 import org.apache.kafka.clients.admin.NewTopic;
@@ -15,26 +18,24 @@ import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
 import org.apache.kafka.clients.producer.*;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.File;
 import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Properties;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
-import java.util.function.Function;
-import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class MoviesSupport {
     private static final ObjectMapper objectMapper = new ObjectMapper().registerModule(new Jdk8Module());
-
     public static final List<Movie> MOVIES = readData("movies/movies.data", Movie.class);
     public static final List<MovieProducer> PRODUCERS = readData("movies/producers.data", MovieProducer.class);
 
@@ -62,7 +63,8 @@ public class MoviesSupport {
         props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, KafkaJsonSchemaSerializer.class);
         props.put(AbstractKafkaSchemaSerDeConfig.SCHEMA_REGISTRY_URL_CONFIG, schemaRegistryURL);
 
-        props.put(ProducerConfig.INTERCEPTOR_CLASSES_CONFIG, Collections.singletonList(LoggingProducerInterceptor.class));
+        //The default producer logs 1 record in 100, see RecordMetrics for the counters
+        props.put(ProducerConfig.INTERCEPTOR_CLASSES_CONFIG, Collections.singletonList(MetricsProducerInterceptor.Sampled.class));
         return props;
     }
 
@@ -77,7 +79,8 @@ public class MoviesSupport {
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
         props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, KafkaJsonSchemaDeserializer.class);
-        props.put(ConsumerConfig.INTERCEPTOR_CLASSES_CONFIG, Collections.singletonList(LoggingConsumerInterceptor.class));
+        //The default consumer logs 1 record in 100, see RecordMetrics for the counters
+        props.put(ConsumerConfig.INTERCEPTOR_CLASSES_CONFIG, Collections.singletonList(MetricsConsumerInterceptor.Sampled.class));
         props.put(AbstractKafkaSchemaSerDeConfig.SCHEMA_REGISTRY_URL_CONFIG, schemaRegistryUrl);
         props.put(KafkaJsonSchemaDeserializerConfig.JSON_VALUE_TYPE, Movie.class.getName());
         return props;
@@ -87,10 +90,57 @@ public class MoviesSupport {
         return new KafkaProducer<>(baseJsonProducerProperties(bootstrapServer, schemaRegistryURL));
     }
 
+    /**
+     * Producer with the linger.ms, batch.size and compression.type of the pipeline, meant for load tests: the records
+     * are counted in {@link RecordMetrics} but not logged
+     */
+    public static <T> Producer<String, T> createJsonProducer(String bootstrapServer, String schemaRegistryURL, PublishPipeline pipeline) {
+        Properties props = baseJsonProducerProperties(bootstrapServer, schemaRegistryURL);
+        props.put(ProducerConfig.INTERCEPTOR_CLASSES_CONFIG, Collections.singletonList(MetricsProducerInterceptor.class));
+        return new KafkaProducer<>(pipeline.applyTo(props));
+    }
+
+    /**
+     * Producer of already serialized values, see {@link #serializeJson(List, String, String)}
+     */
+    public static Producer<String, byte[]> createReplayProducer(String bootstrapServer, PublishPipeline pipeline) {
+        Properties props = new Properties();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServer);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        return new KafkaProducer<>(pipeline.applyTo(props));
+    }
+
+    /**
+     * Serializes the data once with the JSON Schema serializer of {@link #createJsonProducer(String, String)}, the
+     * schema is registered for the value subject of the topic as on the first send
+     *
+     * @return the payloads in the Schema Registry wire format, in the order of the data
+     */
+    public static <T> SerializedPayloads serializeJson(List<T> data, String topic, String schemaRegistryURL) {
+        try (KafkaJsonSchemaSerializer<T> serializer = new KafkaJsonSchemaSerializer<>()) {
+            serializer.configure(Collections.singletonMap(AbstractKafkaSchemaSerDeConfig.SCHEMA_REGISTRY_URL_CONFIG, schemaRegistryURL), false);
+            return new SerializedPayloads(data.stream()
+                    .map(value -> serializer.serialize(topic, value))
+                    .collect(Collectors.toList()));
+        }
+    }
+
     public static <T> Consumer<String, Movie> createJsonConsumer(String bootstrapServer, String schemaRegistryUrl) {
         return new KafkaConsumer<>(baseJsonConsumerProperties(bootstrapServer, schemaRegistryUrl));
     }
 
+    /**
+     * Consumer in the given group, meant for load tests: the records are counted in
+     * {@link RecordMetrics} but not logged
+     */
+    public static Consumer<String, Movie> createJsonConsumer(String bootstrapServer, String schemaRegistryUrl, String groupId) {
+        Properties props = baseJsonConsumerProperties(bootstrapServer, schemaRegistryUrl);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        props.put(ConsumerConfig.INTERCEPTOR_CLASSES_CONFIG, Collections.singletonList(MetricsConsumerInterceptor.class));
+        return new KafkaConsumer<>(props);
+    }
+
     public static void createTopic(String bootstrapServers, String topicName) {
         try (AdminClient adminClient =
                      AdminClient.create(Collections.singletonMap(CommonClientConfigs.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers))) {
@@ -99,19 +149,53 @@ public class MoviesSupport {
         }
     }
 
-    private static Function<Future<RecordMetadata>, CompletableFuture<RecordMetadata>> toCompletableFuture = future -> CompletableFuture.supplyAsync((Supplier<RecordMetadata>) () -> {
-        try {
-            return future.get(10, TimeUnit.SECONDS);
+    /**
+     * Creates the topic and waits for the creation, ie. to share the partitions between the consumers of a group
+     */
+    public static void createTopic(String bootstrapServers, String topicName, int partitions) {
+        try (AdminClient adminClient =
+                     AdminClient.create(Collections.singletonMap(CommonClientConfigs.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers))) {
+            NewTopic newTopic = new NewTopic(topicName, partitions, (short) 1);
+            adminClient.createTopics(Collections.singleton(newTopic)).all().get();
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
-    });
+    }
 
+    /**
+     * Publishes the data without key with the default {@link PublishPipeline}
+     *
+     * @return the metadata of the records, in ack order
+     */
     public static <T> List<RecordMetadata> publishData(List<T> data, Producer<String, T> producer, String topic) {
-        return data.stream()
-                .map(d -> producer.send(new ProducerRecord<>(topic, d)))
-                .map(toCompletableFuture)
-                .map(CompletableFuture::join)
-                .collect(Collectors.toList());
+        List<RecordMetadata> acks = Collections.synchronizedList(new ArrayList<>(data.size()));
+        new PublishPipeline().publish(data.iterator(), producer, topic, value -> null, acks::add);
+        return acks;
+    }
+
+    /**
+     * Publishes the movies keyed by movie_id, ie. generated by {@link MovieDataGenerator}
+     */
+    public static PublishResult publishMovies(Stream<Movie> movies, Producer<String, Movie> producer, String topic, PublishPipeline pipeline) {
+        return pipeline.publish(movies.iterator(), producer, topic, movie -> String.valueOf(movie.getMovieId()), metadata -> {
+        });
+    }
+
+    /**
+     * Replays the payloads without key until count records, the serialization cost is paid once by
+     * {@link #serializeJson(List, String, String)} instead of on every send
+     */
+    public static PublishResult replay(SerializedPayloads payloads, long count, Producer<String, byte[]> producer, String topic, PublishPipeline pipeline) {
+        return pipeline.publish(payloads.replay(count), producer, topic, value -> null, metadata -> {
+        });
+    }
+
+    /**
+     * Publishes the data without key, without keeping the metadata of the records so the data can be as large as the
+     * topic allows
+     */
+    public static <T> PublishResult publishData(Iterator<T> data, Producer<String, T> producer, String topic, PublishPipeline pipeline) {
+        return pipeline.publish(data, producer, topic, value -> null, metadata -> {
+        });
     }
 }
@@ -0,0 +1,68 @@
+package io.confluent.testcontainers.movies;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Values serialized once, replayed in a loop with {@code ByteArraySerializer}. The payloads keep the wire format of
+ * the serializer that produced them (for the Schema Registry serializers the magic byte and the schema id followed
+ * by the encoded value), consumers read the replayed records with the usual deserializer.
+ * <p>
+ * The same arrays are sent again and again, the producer copies them into its batches so they are never modified.
+ */
+public class SerializedPayloads {
+
+    private final byte[][] payloads;
+    private final long bytes;
+
+    SerializedPayloads(List<byte[]> payloads) {
+        if (payloads.isEmpty()) {
+            throw new IllegalArgumentException("No payload to replay");
+        }
+        this.payloads = payloads.toArray(new byte[0][]);
+        long total = 0;
+        for (byte[] payload : this.payloads) {
+            total += payload.length;
+        }
+        this.bytes = total;
+    }
+
+    public int size() {
+        return payloads.length;
+    }
+
+    /**
+     * @return total size of the distinct payloads
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    public byte[] get(int index) {
+        return payloads[index];
+    }
+
+    /**
+     * @param count number of records to replay
+     * @return the payloads in order, starting again from the first one until count records
+     */
+    public Iterator<byte[]> replay(long count) {
+        return new Iterator<>() {
+            private long next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < count;
+            }
+
+            @Override
+            public byte[] next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return payloads[(int) (next++ % payloads.length)];
+            }
+        };
+    }
+}
@@ -0,0 +1,81 @@
+package io.confluent.testcontainers.movies.support;
+
+import org.apache.kafka.clients.consumer.ConsumerInterceptor;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records the consumed records, their bytes and age since their timestamp in {@link RecordMetrics#consumer()}, logs
+ * 1 consumed record in N, N set by {@value RecordMetrics#LOG_SAMPLE_RATE_CONFIG} when configured directly.
+ * <p>
+ * Registered in a client it never logs, register {@link Sampled} to log 1 record in 100: the rate is not a client
+ * config, so it is kept out of the client properties
+ */
+public class MetricsConsumerInterceptor<K, V> implements ConsumerInterceptor<K, V> {
+
+    private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(MetricsConsumerInterceptor.class);
+
+    private final RecordMetrics metrics = RecordMetrics.consumer();
+    private final AtomicLong consumed = new AtomicLong();
+    private final long defaultLogSampleRate;
+    private long logSampleRate;
+
+    public MetricsConsumerInterceptor() {
+        this(0);
+    }
+
+    MetricsConsumerInterceptor(long defaultLogSampleRate) {
+        this.defaultLogSampleRate = defaultLogSampleRate;
+    }
+
+    @Override
+    public ConsumerRecords<K, V> onConsume(ConsumerRecords<K, V> records) {
+        long now = System.currentTimeMillis();
+        for (TopicPartition partition : records.partitions()) {
+            List<ConsumerRecord<K, V>> partitionRecords = records.records(partition);
+            RecordMetrics.TopicMetrics topic = metrics.topic(partition.topic());
+            long bytes = 0;
+            for (ConsumerRecord<K, V> record : partitionRecords) {
+                bytes += Math.max(0, record.serializedKeySize()) + Math.max(0, record.serializedValueSize());
+                topic.recordLatency(now - record.timestamp());
+                if (logSampleRate > 0 && consumed.incrementAndGet() % logSampleRate == 0) {
+                    logger.info("Intercepted onConsume, 1 in {}: {}", logSampleRate, record);
+                }
+            }
+            //One update of the counters per partition rather than per record
+            topic.record(partitionRecords.size(), bytes);
+        }
+        return records;
+    }
+
+    @Override
+    public void onCommit(Map<TopicPartition, OffsetAndMetadata> offsets) {
+
+    }
+
+    @Override
+    public void close() {
+
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs) {
+        logSampleRate = RecordMetrics.logSampleRate(configs, defaultLogSampleRate);
+    }
+
+    /**
+     * Logs 1 consumed record in {@value RecordMetrics#SAMPLED_LOG_RATE}
+     */
+    public static class Sampled<K, V> extends MetricsConsumerInterceptor<K, V> {
+
+        public Sampled() {
+            super(RecordMetrics.SAMPLED_LOG_RATE);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package io.confluent.testcontainers.movies.support;
+
+import org.apache.kafka.clients.producer.ProducerInterceptor;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records the acknowledged records, their bytes and send to ack latency in {@link RecordMetrics#producer()}, logs
+ * 1 sent record in N, N set by {@value RecordMetrics#LOG_SAMPLE_RATE_CONFIG} when configured directly.
+ * <p>
+ * Registered in a client it never logs, register {@link Sampled} to log 1 record in 100: the rate is not a client
+ * config, so it is kept out of the client properties
+ */
+public class MetricsProducerInterceptor<K, V> implements ProducerInterceptor<K, V> {
+
+    private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(MetricsProducerInterceptor.class);
+
+    private final RecordMetrics metrics = RecordMetrics.producer();
+    private final AtomicLong sent = new AtomicLong();
+    private final long defaultLogSampleRate;
+    private long logSampleRate;
+
+    public MetricsProducerInterceptor() {
+        this(0);
+    }
+
+    MetricsProducerInterceptor(long defaultLogSampleRate) {
+        this.defaultLogSampleRate = defaultLogSampleRate;
+    }
+
+    @Override
+    public ProducerRecord<K, V> onSend(ProducerRecord<K, V> record) {
+        if (logSampleRate > 0 && sent.incrementAndGet() % logSampleRate == 0) {
+            logger.info("Intercepted onSend, 1 in {}: {}", logSampleRate, record);
+        }
+        return record;
+    }
+
+    @Override
+    public void onAcknowledgement(RecordMetadata metadata, Exception exception) {
+        if (metadata == null) {
+            return;
+        }
+        RecordMetrics.TopicMetrics topic = metrics.topic(metadata.topic());
+        if (exception != null) {
+            topic.recordError();
+            return;
+        }
+        topic.record(1, Math.max(0, metadata.serializedKeySize()) + Math.max(0, metadata.serializedValueSize()));
+        if (metadata.hasTimestamp()) {
+            topic.recordLatency(System.currentTimeMillis() - metadata.timestamp());
+        }
+    }
+
+    @Override
+    public void close() {
+
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs) {
+        logSampleRate = RecordMetrics.logSampleRate(configs, defaultLogSampleRate);
+    }
+
+    /**
+     * Logs 1 sent record in {@value RecordMetrics#SAMPLED_LOG_RATE}
+     */
+    public static class Sampled<K, V> extends MetricsProducerInterceptor<K, V> {
+
+        public Sampled() {
+            super(RecordMetrics.SAMPLED_LOG_RATE);
+        }
+    }
+}
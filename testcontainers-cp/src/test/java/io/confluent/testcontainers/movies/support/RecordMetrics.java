@@ -0,0 +1,182 @@
+package io.confluent.testcontainers.movies.support;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per topic counters, bytes and latency histogram of the records seen by the {@link MetricsProducerInterceptor} or
+ * the {@link MetricsConsumerInterceptor} of this JVM, shared by all the producers, respectively consumers.
+ * <p>
+ * Recording only updates {@link LongAdder}s and a {@link ConcurrentHistogram} of fixed range, nothing is allocated
+ * per record once the topic is known. The latency is in milliseconds from the record timestamp: send to ack for the
+ * producer, create to consume for the consumer. It is only meaningful with {@code CreateTime} timestamps set by the
+ * producer.
+ */
+public class RecordMetrics {
+
+    /**
+     * Interceptor config: logs 1 record in N at INFO, 0 to never log. Meant for interceptors configured directly, the
+     * clients do not know it so the default rate of the interceptor class is used instead
+     */
+    public static final String LOG_SAMPLE_RATE_CONFIG = "metrics.interceptor.log.sample.rate";
+
+    /**
+     * Rate of the {@code Sampled} interceptors, ie. of the default producer and consumer of the tests
+     */
+    static final long SAMPLED_LOG_RATE = 100;
+
+    static final long MAX_LATENCY_MS = TimeUnit.HOURS.toMillis(1);
+
+    private static final RecordMetrics PRODUCER = new RecordMetrics();
+    private static final RecordMetrics CONSUMER = new RecordMetrics();
+
+    private final ConcurrentMap<String, TopicMetrics> topics = new ConcurrentHashMap<>();
+
+    /**
+     * @return metrics of the records acknowledged to the producers
+     */
+    public static RecordMetrics producer() {
+        return PRODUCER;
+    }
+
+    /**
+     * @return metrics of the records returned by the consumer polls
+     */
+    public static RecordMetrics consumer() {
+        return CONSUMER;
+    }
+
+    /**
+     * The counters of a snapshot are read one after the other, they may be slightly apart while records are recorded
+     *
+     * @return the metrics of the topic, empty if no record of the topic was recorded
+     */
+    public Optional<Snapshot> snapshot(String topic) {
+        return Optional.ofNullable(topics.get(topic)).map(metrics -> metrics.snapshot(topic));
+    }
+
+    /**
+     * @return the metrics of every recorded topic, by topic name
+     */
+    public Map<String, Snapshot> snapshot() {
+        Map<String, Snapshot> snapshots = new TreeMap<>();
+        topics.forEach((topic, metrics) -> snapshots.put(topic, metrics.snapshot(topic)));
+        return snapshots;
+    }
+
+    /**
+     * Forgets the metrics of the topic
+     */
+    public void reset(String topic) {
+        topics.remove(topic);
+    }
+
+    TopicMetrics topic(String topic) {
+        //get first, computeIfAbsent may lock the bin even when the topic is present
+        TopicMetrics metrics = topics.get(topic);
+        return metrics != null ? metrics : topics.computeIfAbsent(topic, name -> new TopicMetrics());
+    }
+
+    static long logSampleRate(Map<String, ?> configs, long defaultRate) {
+        Object value = configs.get(LOG_SAMPLE_RATE_CONFIG);
+        long rate = value == null ? defaultRate : Long.parseLong(value.toString().trim());
+        if (rate < 0) {
+            throw new IllegalArgumentException(LOG_SAMPLE_RATE_CONFIG + " must be 0 or positive, got " + rate);
+        }
+        return rate;
+    }
+
+    static final class TopicMetrics {
+
+        private final LongAdder records = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final ConcurrentHistogram latency = new ConcurrentHistogram(MAX_LATENCY_MS, 2);
+
+        void record(long recordCount, long byteCount) {
+            records.add(recordCount);
+            bytes.add(byteCount);
+        }
+
+        void recordLatency(long latencyMs) {
+            latency.recordValue(Math.max(0, Math.min(MAX_LATENCY_MS, latencyMs)));
+        }
+
+        void recordError() {
+            errors.increment();
+        }
+
+        Snapshot snapshot(String topic) {
+            return new Snapshot(topic, records.sum(), bytes.sum(), errors.sum(), latency.copy());
+        }
+    }
+
+    public static final class Snapshot {
+
+        private final String topic;
+        private final long records;
+        private final long bytes;
+        private final long errors;
+        private final Histogram latency;
+
+        private Snapshot(String topic, long records, long bytes, long errors, Histogram latency) {
+            this.topic = topic;
+            this.records = records;
+            this.bytes = bytes;
+            this.errors = errors;
+            this.latency = latency;
+        }
+
+        public String getTopic() {
+            return topic;
+        }
+
+        public long getRecords() {
+            return records;
+        }
+
+        /**
+         * @return serialized key and value bytes
+         */
+        public long getBytes() {
+            return bytes;
+        }
+
+        /**
+         * @return failed sends, always 0 for the consumer
+         */
+        public long getErrors() {
+            return errors;
+        }
+
+        /**
+         * @param percentile between 0 and 100
+         */
+        public Duration getLatency(double percentile) {
+            return Duration.ofMillis(latency.getValueAtPercentile(percentile));
+        }
+
+        /**
+         * @return a copy of the latency histogram in milliseconds
+         */
+        public Histogram getLatencyHistogram() {
+            return latency;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d records, %d bytes, %d errors, latency p50 %d ms, p99 %d ms, max %d ms",
+                    topic, records, bytes, errors, latency.getValueAtPercentile(50),
+                    latency.getValueAtPercentile(99), latency.getMaxValue());
+        }
+    }
+}
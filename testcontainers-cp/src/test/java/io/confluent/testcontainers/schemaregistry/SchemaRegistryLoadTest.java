@@ -0,0 +1,398 @@
+package io.confluent.testcontainers.schemaregistry;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
+import io.confluent.kafka.schemaregistry.client.CachedSchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.rest.RestService;
+import io.confluent.kafka.schemaregistry.client.rest.entities.SchemaString;
+import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
+import io.confluent.testcontainers.ClusterNamespace;
+import io.confluent.testcontainers.KafkaContainersCluster;
+import io.confluent.testcontainers.SharedConfluentCluster;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Behaviour of the Schema Registry when many clients start at once and miss their cache:
+ * <ul>
+ *     <li>concurrent clients registering then looking up by id a window of the schemas, the windows overlap so the
+ *     same subjects are registered concurrently</li>
+ *     <li>a sweep of the capacity of a bounded LRU id cache in front of the REST client, with Zipf distributed lookups.
+ *     The id cache of {@link CachedSchemaRegistryClient} is unbounded, its identity map capacity only limits the schemas
+ *     registered per subject.</li>
+ *     <li>the throughput of the REST endpoints behind the cache misses</li>
+ * </ul>
+ * Every subject has {@value #VERSIONS} compatible Avro versions, each adding an optional field.
+ */
+@DisplayName("Schema Registry under concurrent registrations and lookups")
+@SharedConfluentCluster
+public class SchemaRegistryLoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaRegistryLoadTest.class);
+
+    private static final int SUBJECTS = 1_000;
+    private static final int VERSIONS = 3;
+    private static final int SCHEMAS = SUBJECTS * VERSIONS;
+    private static final int SCHEMAS_PER_CLIENT = 500;
+    //Default max.schemas.per.subject of the serializers
+    private static final int CLIENT_CAPACITY = 1000;
+    private static final int FIXTURE_CLIENTS = 16;
+    private static final int LOOKUPS = 50_000;
+    private static final Duration REST_DURATION = Duration.ofSeconds(10);
+    private static final int REST_THREADS = 16;
+    private static final String SCHEMA_REGISTRY_JSON = "application/vnd.schemaregistry.v1+json";
+
+    private static KafkaContainersCluster kafkaCluster;
+    private static ClusterNamespace namespace;
+    private static String schemaRegistryUrl;
+    private static int[] fixtureIds;
+
+    @BeforeAll
+    static void setUp(KafkaContainersCluster cluster, ClusterNamespace clusterNamespace) throws Exception {
+        kafkaCluster = cluster;
+        namespace = clusterNamespace;
+        schemaRegistryUrl = kafkaCluster.getSchemaRegistryContainer().getSchemaRegistryUrl();
+        //Fixtures of the cache sweep and REST throughput, each of the registered schemas has its own id
+        fixtureIds = registerAll(namespace.scoped("fixtures"), FIXTURE_CLIENTS, (SCHEMAS + FIXTURE_CLIENTS - 1) / FIXTURE_CLIENTS).ids;
+    }
+
+    @ParameterizedTest(name = "{0} clients")
+    @ValueSource(ints = {1, 16, 128})
+    public void concurrentRegistrationsAndLookups(int clients) {
+        try {
+            LoadResult result = registerAll(namespace.scoped("clients" + clients), clients, SCHEMAS_PER_CLIENT);
+
+            logger.info(String.format("%n%d clients starting at once, %d schemas each%n%-10s %10s %10s %10s %10s%n%s%s",
+                    clients, SCHEMAS_PER_CLIENT, "", "ops/s", "p50(ms)", "p99(ms)", "max(ms)",
+                    row("register", result.register, result.registerElapsed),
+                    row("lookup", result.lookup, result.lookupElapsed)));
+
+            assertEquals((long) clients * SCHEMAS_PER_CLIENT, result.register.getTotalCount());
+            assertEquals((long) clients * SCHEMAS_PER_CLIENT, result.lookup.getTotalCount());
+            //Concurrent registrations of a schema all get the id of the schema
+            long registered = result.ids.length - Arrays.stream(result.ids).filter(id -> id == 0).count();
+            assertEquals(Math.min(SCHEMAS, (long) clients * SCHEMAS_PER_CLIENT), registered);
+            assertEquals(registered, Arrays.stream(result.ids).filter(id -> id != 0).distinct().count());
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    public void clientCacheSizeSweep() {
+        int[] capacities = {16, 64, 256, 1024, 4096};
+        try {
+            StringBuilder table = new StringBuilder(String.format("%n%d Zipf distributed lookups over %d schema ids%n%-10s %10s %10s %10s %10s %10s%n",
+                    LOOKUPS, SCHEMAS, "LRU size", "hit ratio", "fetches", "p50(us)", "p99(us)", "max(us)"));
+            double previousHitRatio = 0;
+            for (int capacity : capacities) {
+                CountingRestService restService = new CountingRestService(schemaRegistryUrl);
+                LruSchemaCache cache = new LruSchemaCache(restService, capacity);
+                //Same lookups for every capacity, an LRU cache then never hits less when it is larger
+                SplittableRandom random = new SplittableRandom(42);
+                double[] cdf = zipfCdf(fixtureIds.length);
+                BitSet looked = new BitSet(fixtureIds.length);
+                Histogram latency = new Histogram(TimeUnit.MINUTES.toNanos(1), 3);
+                for (int i = 0; i < LOOKUPS; i++) {
+                    int index = zipfIndex(random, cdf);
+                    looked.set(index);
+                    long start = System.nanoTime();
+                    cache.getSchemaById(fixtureIds[index]);
+                    latency.recordValue(Math.min(latency.getHighestTrackableValue(), System.nanoTime() - start));
+                }
+                long fetches = restService.idFetches.sum();
+                double hitRatio = 1 - (double) fetches / LOOKUPS;
+                table.append(String.format("%-10d %10.3f %10d %10.1f %10.1f %10.1f%n", capacity, hitRatio, fetches,
+                        latency.getValueAtPercentile(50) / 1e3, latency.getValueAtPercentile(99) / 1e3, latency.getMaxValue() / 1e3));
+
+                assertThat(hitRatio, greaterThanOrEqualTo(previousHitRatio));
+                previousHitRatio = hitRatio;
+                if (capacity >= looked.cardinality()) {
+                    //Nothing is evicted, each id is fetched once
+                    assertEquals(looked.cardinality(), fetches);
+                } else {
+                    //Evicted ids are fetched again
+                    assertThat(fetches, greaterThan((long) looked.cardinality()));
+                }
+            }
+            logger.info(table.toString());
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    public void restEndpointsThroughput() {
+        ClusterNamespace fixtures = namespace.scoped("fixtures");
+        ObjectMapper objectMapper = new ObjectMapper();
+        HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        try {
+            StringBuilder table = new StringBuilder(String.format("%n%d threads for %d s per endpoint%n%-32s %10s %10s %10s %10s %8s%n",
+                    REST_THREADS, REST_DURATION.toSeconds(), "", "req/s", "p50(ms)", "p99(ms)", "max(ms)", "errors"));
+
+            table.append(measure(httpClient, "GET /subjects/{s}/versions", index -> HttpRequest.newBuilder()
+                    .uri(URI.create(schemaRegistryUrl + "/subjects/" + fixtures.subject(subject(index / VERSIONS)) + "/versions"))
+                    .build()));
+            table.append(measure(httpClient, "POST /subjects/{s}/versions", index -> {
+                try {
+                    String body = objectMapper.writeValueAsString(Map.of("schema", schema(index / VERSIONS, index % VERSIONS + 1).canonicalString()));
+                    return HttpRequest.newBuilder()
+                            .uri(URI.create(schemaRegistryUrl + "/subjects/" + fixtures.subject(subject(index / VERSIONS)) + "/versions"))
+                            .header("Content-Type", SCHEMA_REGISTRY_JSON)
+                            .POST(HttpRequest.BodyPublishers.ofString(body))
+                            .build();
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+            table.append(measure(httpClient, "GET /schemas/ids/{id}", index -> HttpRequest.newBuilder()
+                    .uri(URI.create(schemaRegistryUrl + "/schemas/ids/" + fixtureIds[index]))
+                    .build()));
+            logger.info(table.toString());
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * Starts the clients at once, each with its own {@link CachedSchemaRegistryClient} as a new producer would. Client
+     * i registers the window of schemas starting at i * SCHEMAS / clients, then looks them up by id.
+     */
+    private static LoadResult registerAll(ClusterNamespace subjects, int clients, int schemasPerClient) throws Exception {
+        ConcurrentHistogram register = new ConcurrentHistogram(TimeUnit.MINUTES.toNanos(1), 3);
+        ConcurrentHistogram lookup = new ConcurrentHistogram(TimeUnit.MINUTES.toNanos(1), 3);
+        int[] ids = new int[SCHEMAS];
+        CountDownLatch ready = new CountDownLatch(clients);
+        CountDownLatch go = new CountDownLatch(1);
+        CountDownLatch registered = new CountDownLatch(clients);
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int client = 0; client < clients; client++) {
+                int offset = (int) ((long) client * SCHEMAS / clients);
+                futures.add(executor.submit((Callable<Void>) () -> {
+                    ready.countDown();
+                    SchemaRegistryClient srClient = new CachedSchemaRegistryClient(schemaRegistryUrl, CLIENT_CAPACITY);
+                    int[] windowIds = new int[schemasPerClient];
+                    go.await();
+                    try {
+                        for (int i = 0; i < schemasPerClient; i++) {
+                            int index = (offset + i) % SCHEMAS;
+                            long start = System.nanoTime();
+                            windowIds[i] = srClient.register(subjects.subject(subject(index / VERSIONS)), schema(index / VERSIONS, index % VERSIONS + 1));
+                            register.recordValue(Math.min(register.getHighestTrackableValue(), System.nanoTime() - start));
+                            synchronized (ids) {
+                                //The windows overlap, a schema registered by another client must have the same id
+                                if (ids[index] != 0 && ids[index] != windowIds[i]) {
+                                    fail(String.format("Schema %d registered with ids %d and %d", index, ids[index], windowIds[i]));
+                                }
+                                ids[index] = windowIds[i];
+                            }
+                        }
+                    } finally {
+                        registered.countDown();
+                    }
+                    registered.await();
+                    for (int id : windowIds) {
+                        long start = System.nanoTime();
+                        srClient.getSchemaById(id);
+                        lookup.recordValue(Math.min(lookup.getHighestTrackableValue(), System.nanoTime() - start));
+                    }
+                    return null;
+                }));
+            }
+            ready.await();
+            long start = System.nanoTime();
+            go.countDown();
+            registered.await();
+            long registerElapsed = System.nanoTime() - start;
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+            long lookupElapsed = System.nanoTime() - start - registerElapsed;
+            return new LoadResult(ids, register, Duration.ofNanos(registerElapsed), lookup, Duration.ofNanos(lookupElapsed));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Sends the requests from {@value #REST_THREADS} threads for {@link #REST_DURATION}, each request for a random
+     * fixture schema
+     */
+    private static String measure(HttpClient httpClient, String endpoint, IntFunction<HttpRequest> requests) throws Exception {
+        ConcurrentHistogram latency = new ConcurrentHistogram(TimeUnit.MINUTES.toNanos(1), 3);
+        LongAdder errors = new LongAdder();
+        ExecutorService executor = Executors.newFixedThreadPool(REST_THREADS);
+        try {
+            long start = System.nanoTime();
+            long deadline = start + REST_DURATION.toNanos();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < REST_THREADS; thread++) {
+                SplittableRandom random = new SplittableRandom(thread);
+                futures.add(executor.submit((Callable<Void>) () -> {
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = requests.apply(random.nextInt(SCHEMAS));
+                        long sent = System.nanoTime();
+                        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                        latency.recordValue(Math.min(latency.getHighestTrackableValue(), System.nanoTime() - sent));
+                        if (response.statusCode() != 200) {
+                            errors.increment();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+            assertEquals(0, errors.sum(), endpoint + " failed");
+            return String.format("%-32s %s %8d%n", endpoint, row(latency, elapsed), errors.sum());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static String subject(int subjectIndex) {
+        return "load_" + subjectIndex;
+    }
+
+    /**
+     * Version v has the fields f1 to fv, all with a default so each version is backward compatible with the previous
+     * one. The namespace is unique to the subject so every schema gets its own id.
+     */
+    private static AvroSchema schema(int subjectIndex, int version) {
+        StringBuilder fields = new StringBuilder();
+        for (int field = 1; field <= version; field++) {
+            fields.append(field > 1 ? "," : "").append("{\"name\":\"f").append(field).append("\",\"type\":\"string\",\"default\":\"\"}");
+        }
+        return new AvroSchema("{\"type\":\"record\",\"name\":\"Load\",\"namespace\":\"load.s" + subjectIndex
+                + "\",\"fields\":[" + fields + "]}");
+    }
+
+    private static double[] zipfCdf(int size) {
+        double[] cdf = new double[size];
+        double sum = 0;
+        for (int rank = 1; rank <= size; rank++) {
+            sum += 1.0 / rank;
+            cdf[rank - 1] = sum;
+        }
+        for (int i = 0; i < size; i++) {
+            cdf[i] /= sum;
+        }
+        return cdf;
+    }
+
+    private static int zipfIndex(SplittableRandom random, double[] cdf) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        return Math.min(cdf.length - 1, index < 0 ? -index - 1 : index);
+    }
+
+    private static String row(String name, Histogram histogram, Duration elapsed) {
+        return String.format("%-10s %s%n", name, row(histogram, elapsed));
+    }
+
+    private static String row(Histogram histogram, Duration elapsed) {
+        return String.format("%10.0f %10.2f %10.2f %10.2f", histogram.getTotalCount() / (elapsed.toNanos() / 1e9),
+                histogram.getValueAtPercentile(50) / 1e6, histogram.getValueAtPercentile(99) / 1e6, histogram.getMaxValue() / 1e6);
+    }
+
+    /**
+     * Counts the schemas fetched by id, ie. the misses of the client cache
+     */
+    private static final class CountingRestService extends RestService {
+
+        private final LongAdder idFetches = new LongAdder();
+
+        CountingRestService(String baseUrl) {
+            super(baseUrl);
+        }
+
+        @Override
+        public SchemaString getId(int id, String subject) throws IOException, RestClientException {
+            idFetches.increment();
+            return super.getId(id, subject);
+        }
+    }
+
+    /**
+     * Bounded id to schema cache of a client, the least recently used schema is evicted. A miss fetches the schema from
+     * the registry and parses it as {@link CachedSchemaRegistryClient} does.
+     */
+    private static final class LruSchemaCache {
+
+        private final RestService restService;
+        private final Map<Integer, AvroSchema> schemas;
+
+        LruSchemaCache(RestService restService, int capacity) {
+            this.restService = restService;
+            this.schemas = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, AvroSchema> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+
+        AvroSchema getSchemaById(int id) throws IOException, RestClientException {
+            AvroSchema schema = schemas.get(id);
+            if (schema == null) {
+                schema = new AvroSchema(restService.getId(id, null).getSchemaString());
+                schemas.put(id, schema);
+            }
+            return schema;
+        }
+    }
+
+    private static final class LoadResult {
+
+        private final int[] ids;
+        private final Histogram register;
+        private final Duration registerElapsed;
+        private final Histogram lookup;
+        private final Duration lookupElapsed;
+
+        private LoadResult(int[] ids, Histogram register, Duration registerElapsed, Histogram lookup, Duration lookupElapsed) {
+            this.ids = ids;
+            this.register = register;
+            this.registerElapsed = registerElapsed;
+            this.lookup = lookup;
+            this.lookupElapsed = lookupElapsed;
+        }
+    }
+}
@@ -4,23 +4,22 @@ import io.confluent.kafka.schemaregistry.ParsedSchema;
 import io.confluent.kafka.schemaregistry.avro.AvroSchemaProvider;
 import io.confluent.kafka.schemaregistry.client.CachedSchemaRegistryClient;
 import io.confluent.kafka.schemaregistry.json.JsonSchemaProvider;
+import io.confluent.testcontainers.ClusterNamespace;
+import io.confluent.testcontainers.KafkaContainersCluster;
 import io.confluent.testcontainers.SchemaRegistryContainer;
+import io.confluent.testcontainers.SharedConfluentCluster;
 import io.confluent.testcontainers.movies.Movie;
 import io.confluent.testcontainers.movies.MoviesSupport;
 import io.restassured.http.ContentType;
 import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.producer.Producer;
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.testcontainers.containers.KafkaContainer;
-import org.testcontainers.containers.Network;
-import org.testcontainers.containers.output.Slf4jLogConsumer;
-import org.testcontainers.junit.jupiter.Container;
-import org.testcontainers.junit.jupiter.Testcontainers;
-import org.testcontainers.utility.DockerImageName;
 
 import java.net.URI;
 import java.net.http.HttpClient;
@@ -39,27 +38,21 @@ import static org.hamcrest.Matchers.contains;
 import static org.junit.jupiter.api.Assertions.*;
 
 @DisplayName("Testing capabilities and usage of adhoc SchemaRegistryContainer based on Testcontainers")
-@Testcontainers
+@SharedConfluentCluster
 public class SchemaRegistryTest {
 
     private static Logger logger = LoggerFactory.getLogger(SchemaRegistryTest.class);
 
-    public static final Network network = Network.newNetwork();
+    private static KafkaContainer kafkaContainer;
+    private static SchemaRegistryContainer schemaRegistryContainer;
+    private static ClusterNamespace namespace;
 
-    @Container
-    public static final KafkaContainer kafkaContainer = new KafkaContainer(
-            DockerImageName.parse("confluentinc/cp-kafka")
-                    .withTag("6.2.0-1-ubi8"))
-            .withReuse(false)
-            .withNetwork(network);
-
-    @Container
-    public static final SchemaRegistryContainer schemaRegistryContainer = new SchemaRegistryContainer(
-            SchemaRegistryContainer.DEFAULT_IMAGE_NAME
-                    .withTag(SchemaRegistryContainer.DEFAULT_IMAGE_TAG))
-            .withReuse(false)
-            .withLogConsumer(new Slf4jLogConsumer(logger))
-            .withKafka(kafkaContainer);
+    @BeforeAll
+    static void setUp(KafkaContainersCluster cluster, ClusterNamespace clusterNamespace) {
+        kafkaContainer = cluster.getKafkaContainer();
+        schemaRegistryContainer = cluster.getSchemaRegistryContainer();
+        namespace = clusterNamespace;
+    }
 
     @Test
     public void schemaRegistryUpTest() {
@@ -89,13 +82,16 @@ public class SchemaRegistryTest {
                     3, List.of(new JsonSchemaProvider(), new AvroSchemaProvider()),
                     null);
 
+            String avroSubject = namespace.subject("myAvroSchema");
+            String jsonSubject = namespace.subject("myJsonSchema");
+
             String avroSchema = "{\"type\":\"record\",\"name\":\"myRecord\",\"fields\":[{\"name\":\"field1\",\"type\":\"string\"}]}";
             Optional<ParsedSchema> parsedAvroSchema = srClient.parseSchema("AVRO", avroSchema, Collections.emptyList());
-            srClient.register("myAvroSchema", parsedAvroSchema.get());
+            srClient.register(avroSubject, parsedAvroSchema.get());
 
             String jsonSchema = "{\"type\":\"object\",\"properties\":{\"field1\":{\"type\":\"string\"}}}";
             Optional<ParsedSchema> parsedJsonSchema = srClient.parseSchema("JSON", jsonSchema, Collections.emptyList());
-            srClient.register("myJsonSchema", parsedJsonSchema.get());
+            srClient.register(jsonSubject, parsedJsonSchema.get());
 
             HttpClient httpClient = HttpClient.newHttpClient();
             HttpRequest request = HttpRequest.newBuilder()
@@ -103,24 +99,24 @@ public class SchemaRegistryTest {
                     .build();
             HttpResponse<String> subjects = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
             assertEquals(200, subjects.statusCode());
-            assertThat(subjects.body(), allOf(containsString("myAvroSchema"), containsString("myJsonSchema")));
+            assertThat(subjects.body(), allOf(containsString(avroSubject), containsString(jsonSubject)));
 
-            ParsedSchema myAvroSchema = srClient.getSchemaById(srClient.getId("myAvroSchema", parsedAvroSchema.get()));
+            ParsedSchema myAvroSchema = srClient.getSchemaById(srClient.getId(avroSubject, parsedAvroSchema.get()));
             assertTrue(parsedAvroSchema.get().deepEquals(myAvroSchema));
 
-            ParsedSchema myJsonSchema = srClient.getSchemaById(srClient.getId("myJsonSchema", parsedJsonSchema.get()));
+            ParsedSchema myJsonSchema = srClient.getSchemaById(srClient.getId(jsonSubject, parsedJsonSchema.get()));
             assertTrue(parsedJsonSchema.get().deepEquals(myJsonSchema));
 
             given()
-                    .get(schemaRegistryContainer.getSchemaRegistryUrl() + "/subjects/myJsonSchema/versions/1")
+                    .get(schemaRegistryContainer.getSchemaRegistryUrl() + "/subjects/" + jsonSubject + "/versions/1")
                     .then()
                     .contentType(ContentType.JSON)
-                    .body("subject", is("myJsonSchema"))
+                    .body("subject", is(jsonSubject))
                     .body("version", is(1))
                     .body("schemaType", is("JSON"));
 
             given()
-                    .get(schemaRegistryContainer.getSchemaRegistryUrl() + "/subjects/myJsonSchema/versions/1/schema")
+                    .get(schemaRegistryContainer.getSchemaRegistryUrl() + "/subjects/" + jsonSubject + "/versions/1/schema")
                     .then()
                     .contentType(ContentType.JSON)
                     .body(is(jsonSchema));
@@ -136,9 +132,10 @@ public class SchemaRegistryTest {
             schemaRegistryContainer.start();
             assertTrue(schemaRegistryContainer.isRunning());
 
-            MoviesSupport.createTopic(kafkaContainer.getBootstrapServers(), "movieTopic");
+            String movieTopic = namespace.topic("movieTopic");
+            MoviesSupport.createTopic(kafkaContainer.getBootstrapServers(), movieTopic);
             Producer<String, Movie> jsonProducer = MoviesSupport.createJsonProducer(kafkaContainer.getBootstrapServers(), schemaRegistryContainer.getSchemaRegistryUrl());
-            MoviesSupport.publishData(MoviesSupport.MOVIES, jsonProducer, "movieTopic");
+            MoviesSupport.publishData(MoviesSupport.MOVIES, jsonProducer, movieTopic);
 
             //Check that a schema was registered for values in the topic
             HttpClient httpClient = HttpClient.newHttpClient();
@@ -147,10 +144,10 @@ public class SchemaRegistryTest {
                     .build();
             HttpResponse<String> subjects = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
             assertEquals(200, subjects.statusCode());
-            assertThat(subjects.body(), containsString("movieTopic-value"));
+            assertThat(subjects.body(), containsString(namespace.valueSubject("movieTopic")));
 
             Consumer<String, Movie> jsonConsumer = MoviesSupport.createJsonConsumer(kafkaContainer.getBootstrapServers(), schemaRegistryContainer.getSchemaRegistryUrl());
-            jsonConsumer.subscribe(Collections.singletonList("movieTopic"));
+            jsonConsumer.subscribe(Collections.singletonList(movieTopic));
             ConsumerRecords<String, Movie> poll;
             List<Movie> movies = new ArrayList<>();
             do {